@@ -0,0 +1,127 @@
+package com.example.booking.config.cache;
+
+import com.example.booking.controller.response.order.OrdersResponse;
+import com.example.booking.dto.OrderItemDto;
+import com.example.booking.dto.TicketItemDto;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
+import com.fasterxml.jackson.databind.jsontype.impl.StdTypeResolverBuilder;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Round trip of a cached orders page through each cache value format. {@code legacy-json} is the generic
+ * serializer with class names that {@link RedisCacheConfig} used before formats were chosen per cache.
+ * {@link #entrySize} records the encoded size of each variant as the {@code bytesPerEntry} secondary result, so it
+ * lands in {@code results.json} next to the timings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CacheSerializationBenchmark {
+
+    @Param({"10", "50"})
+    private int orders;
+
+    @Param({"legacy-json", "json", "binary", "binary-deflate"})
+    private String format;
+
+    private RedisSerializer<Object> serializer;
+    private Function<byte[], Object> reader;
+    private OrdersResponse response;
+    private byte[] serialized;
+
+    @Setup
+    public void setUp() {
+        switch (format) {
+            case "legacy-json" -> {
+                GenericJackson2JsonRedisSerializer generic = new GenericJackson2JsonRedisSerializer(legacyObjectMapper());
+                serializer = generic;
+                // the root record carries no class name, so it can only be read back with its type
+                reader = bytes -> generic.deserialize(bytes, OrdersResponse.class);
+            }
+            case "json" -> {
+                Jackson2JsonRedisSerializer<Object> typed = new Jackson2JsonRedisSerializer<>(
+                        RedisCacheConfig.cacheObjectMapper(), RedisCacheConfig.cacheObjectMapper().constructType(OrdersResponse.class));
+                serializer = typed;
+                reader = typed::deserialize;
+            }
+            case "binary", "binary-deflate" -> {
+                BinaryCacheSerializer<OrdersResponse> binary =
+                        new BinaryCacheSerializer<>(CacheValueCodecs.ORDERS_PAGE, "binary".equals(format) ? 0 : 1);
+                serializer = binary;
+                reader = binary::deserialize;
+            }
+            default -> throw new IllegalArgumentException("Unknown format " + format);
+        }
+
+        UUID userId = UUID.randomUUID();
+        List<OrderItemDto> items = new ArrayList<>();
+        for (int i = 0; i < orders; i++) {
+            List<TicketItemDto> tickets = List.of(
+                    new TicketItemDto(UUID.randomUUID(), UUID.randomUUID(), userId, 1L, new BigDecimal("150.00")),
+                    new TicketItemDto(UUID.randomUUID(), UUID.randomUUID(), userId, 2L, new BigDecimal("80.00"))
+            );
+            items.add(new OrderItemDto(UUID.randomUUID(), new BigDecimal("230.00"), tickets, userId, null));
+        }
+
+        response = new OrdersResponse(items, 0, orders, 1, orders);
+        serialized = serializer.serialize(response);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(response);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return reader.apply(serialized);
+    }
+
+    /**
+     * A single invocation in a single iteration, so the summed event counter is exactly one entry's size.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1, batchSize = 1)
+    public void entrySize(EntrySize size) {
+        size.bytesPerEntry = serializer.serialize(response).length;
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class EntrySize {
+        public long bytesPerEntry;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytesPerEntry = 0;
+        }
+    }
+
+    private static ObjectMapper legacyObjectMapper() {
+        ObjectMapper objectMapper = RedisCacheConfig.cacheObjectMapper();
+        StdTypeResolverBuilder typeResolverBuilder = new ObjectMapper.DefaultTypeResolverBuilder(ObjectMapper.DefaultTyping.NON_FINAL,
+                BasicPolymorphicTypeValidator.builder().allowIfSubType(Object.class).build())
+                .init(JsonTypeInfo.Id.CLASS, null)
+                .inclusion(JsonTypeInfo.As.PROPERTY)
+                .typeProperty("@class");
+        objectMapper.setDefaultTyping(typeResolverBuilder);
+        return objectMapper;
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.booking.domain.entities;
+
+import com.example.booking.dto.OrderItemDto;
+import com.example.booking.dto.TicketItemDto;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EntityMappingBenchmark {
+
+    @Param({"1", "10"})
+    private int ticketsPerOrder;
+
+    private User user;
+    private Event event;
+    private TicketCategory category;
+    private Ticket ticket;
+    private Set<Ticket> tickets;
+    private Order order;
+
+    @Setup
+    public void setUp() {
+        user = new User();
+        user.setUserId(UUID.randomUUID());
+
+        event = new Event();
+        event.setEventId(UUID.randomUUID());
+        event.setEventLocation("Alfenas");
+        event.setEventDate(LocalDateTime.now().plusDays(30));
+
+        category = new TicketCategory();
+        category.setTicketCategoryId(1L);
+        category.setName("VIP");
+        category.setPrice(new BigDecimal("150.00"));
+
+        ticket = newTicket();
+
+        tickets = new HashSet<>();
+        for (int i = 0; i < ticketsPerOrder; i++) {
+            tickets.add(newTicket());
+        }
+
+        order = new Order();
+        order.setUser(user);
+        order.setTickets(tickets);
+    }
+
+    private Ticket newTicket() {
+        Ticket newTicket = Ticket.build(user, event, category);
+        ReflectionTestUtils.setField(newTicket, "ticketId", UUID.randomUUID());
+        return newTicket;
+    }
+
+    @Benchmark
+    public Ticket buildTicket() {
+        return Ticket.build(user, event, category);
+    }
+
+    @Benchmark
+    public TicketItemDto toTicketItemDto() {
+        return Ticket.toTicketItemDto(ticket);
+    }
+
+    @Benchmark
+    public BigDecimal calculateTotal() {
+        order.setTickets(tickets);
+        return order.getOrderPrice();
+    }
+
+    @Benchmark
+    public OrderItemDto toOrderItemDto() {
+        return Order.toOrderItemDto(order);
+    }
+}
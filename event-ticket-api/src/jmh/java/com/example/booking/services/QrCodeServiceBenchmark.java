@@ -0,0 +1,32 @@
+package com.example.booking.services;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QrCodeServiceBenchmark {
+
+    @Param({"250", "500"})
+    private int size;
+
+    private QrCodeServiceImpl qrCodeService;
+    private String payload;
+
+    @Setup
+    public void setUp() {
+        qrCodeService = new QrCodeServiceImpl();
+        payload = UUID.randomUUID() + ":" + UUID.randomUUID();
+    }
+
+    @Benchmark
+    public byte[] generateQrCodeImage() {
+        return qrCodeService.generateQrCodeImage(payload, size, size);
+    }
+}
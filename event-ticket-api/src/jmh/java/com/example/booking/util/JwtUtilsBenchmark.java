@@ -0,0 +1,52 @@
+package com.example.booking.util;
+
+import com.example.booking.config.security.UserDetailsImpl;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilsBenchmark {
+
+    private JwtUtils jwtUtils;
+    private UserDetailsImpl user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret",
+                Base64.getEncoder().encodeToString("benchmark-secret-benchmark-secret".getBytes()));
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 3600000);
+        jwtUtils.init();
+
+        user = new UserDetailsImpl(UUID.randomUUID(), "benchmark", "benchmark@example.com", null,
+                List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        token = jwtUtils.generateTokenFromUserDetails(user);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtils.generateTokenFromUserDetails(user);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtUtils.validateJwtToken(token);
+    }
+
+    @Benchmark
+    public UserDetailsImpl parseUserDetails() {
+        return jwtUtils.parseClaims(token).flatMap(jwtUtils::getUserDetailsFromClaims).orElseThrow();
+    }
+}
@@ -74,6 +74,11 @@ public class ValidationExceptionHandler {
         return badRequestResponse(ex, request);
     }
 
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<Object> handleInvalidCursorException(InvalidCursorException ex, HttpServletRequest request) {
+        return badRequestResponse(ex, request);
+    }
+
     @ExceptionHandler(ConflictException.class)
     public ResponseEntity<Object> handleConflictExceptions(RuntimeException ex, HttpServletRequest request) {
         return conflictResponse(ex, request);
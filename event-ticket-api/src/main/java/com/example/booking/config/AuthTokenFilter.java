@@ -2,8 +2,12 @@ package com.example.booking.config;
 
 
 import java.io.IOException;
+import java.util.Optional;
 
+import com.example.booking.config.security.TokenDenylist;
+import com.example.booking.config.security.UserDetailsImpl;
 import com.example.booking.util.JwtUtils;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -24,11 +28,14 @@ public class AuthTokenFilter extends OncePerRequestFilter {
 
     private final UserDetailsService userDetailsService;
 
+    private final TokenDenylist tokenDenylist;
+
     private static final Logger logger = LoggerFactory.getLogger(AuthTokenFilter.class);
 
-    public AuthTokenFilter(JwtUtils jwtUtils, UserDetailsService userDetailsService) {
+    public AuthTokenFilter(JwtUtils jwtUtils, UserDetailsService userDetailsService, TokenDenylist tokenDenylist) {
         this.jwtUtils = jwtUtils;
         this.userDetailsService = userDetailsService;
+        this.tokenDenylist = tokenDenylist;
     }
 
     @Override
@@ -36,10 +43,14 @@ public class AuthTokenFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
-
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            Claims claims = jwt == null ? null : jwtUtils.parseClaims(jwt).orElse(null);
+
+            if (claims != null && !tokenDenylist.isRevoked(claims.getId())) {
+                // tokens issued before roles were embedded still need the database lookup
+                Optional<UserDetailsImpl> fromClaims = jwtUtils.getUserDetailsFromClaims(claims);
+                UserDetails userDetails = fromClaims.isPresent()
+                        ? fromClaims.get()
+                        : userDetailsService.loadUserByUsername(claims.getSubject());
 
                 UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(userDetails,
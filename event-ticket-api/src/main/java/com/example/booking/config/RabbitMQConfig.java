@@ -1,9 +1,18 @@
 package com.example.booking.config;
 
 import org.springframework.amqp.core.*;
+import org.springframework.amqp.rabbit.config.DirectRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.DirectRabbitListenerContainerFactoryConfigurer;
+import org.springframework.boot.autoconfigure.amqp.RabbitTemplateCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
 @Configuration
 public class RabbitMQConfig {
 
@@ -21,6 +30,28 @@ public class RabbitMQConfig {
     public static final String PAYMENT_FAILED_QUEUE = "payment-failed-queue";
     public static final String PAYMENT_FAILED_RK = "payment.failed";
 
+    public static final String ORDER_EXPIRATION_DELAY_QUEUE = "order-expiration-delay-queue";
+    public static final String ORDER_EXPIRATION_DELAY_EXCHANGE = "order-expiration-delay-exchange";
+    public static final String ORDER_EXPIRATION_QUEUE = "order-expiration-queue";
+    public static final String ORDER_EXPIRATION_EXCHANGE = "order-expiration-exchange";
+    public static final String ORDER_EXPIRATION_RK = "order.expiration";
+
+    public static final String PAYMENT_PARTITION_EXCHANGE = "payment-status-partition-exchange";
+    public static final String PAYMENT_PARTITION_QUEUE_PREFIX = "payment-status-partition-";
+    public static final String PAYMENT_PARTITION_LISTENER_FACTORY = "paymentPartitionListenerFactory";
+
+    public static String paymentPartitionQueue(int partition) {
+        return PAYMENT_PARTITION_QUEUE_PREFIX + partition;
+    }
+
+    /**
+     * Publishes on its own connection, so broker flow control on publishers does not stall the listeners.
+     */
+    @Bean
+    RabbitTemplateCustomizer publisherConnectionCustomizer() {
+        return template -> template.setUsePublisherConnection(true);
+    }
+
     @Bean
     Queue deadLetterQueue() {
         return QueueBuilder.durable(DLQ_QUEUE).build();
@@ -89,4 +120,80 @@ public class RabbitMQConfig {
                 .to(orderStatusExchange())
                 .with(PAYMENT_FAILED_RK);
     }
+
+    @Bean
+    DirectExchange paymentPartitionExchange() {
+        return new DirectExchange(PAYMENT_PARTITION_EXCHANGE);
+    }
+
+    /**
+     * One queue per partition, bound with the partition number as routing key. Single active consumer keeps
+     * a partition on one consumer across all instances, so the events of an order are applied in order.
+     */
+    @Bean
+    Declarables paymentPartitionQueues(@Value("${booking.payments.partitions:4}") int partitions) {
+        List<Declarable> declarables = new ArrayList<>();
+        for (int partition = 0; partition < partitions; partition++) {
+            Queue queue = QueueBuilder.durable(paymentPartitionQueue(partition))
+                    .singleActiveConsumer()
+                    .withArgument("x-dead-letter-exchange", DLQ_EXCHANGE)
+                    .withArgument("x-dead-letter-routing-key", DLQ_QUEUE)
+                    .build();
+            declarables.add(queue);
+            declarables.add(BindingBuilder.bind(queue).to(paymentPartitionExchange()).with(String.valueOf(partition)));
+        }
+        return new Declarables(declarables);
+    }
+
+    @Bean(PAYMENT_PARTITION_LISTENER_FACTORY)
+    DirectRabbitListenerContainerFactory paymentPartitionListenerFactory(DirectRabbitListenerContainerFactoryConfigurer configurer,
+                                                                         ConnectionFactory connectionFactory) {
+        DirectRabbitListenerContainerFactory factory = new DirectRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setConsumersPerQueue(1);
+        return factory;
+    }
+
+    /**
+     * Holds one message per pending order and has no consumer. The queue TTL is the payment window, and since
+     * every message gets the same TTL they expire in arrival order and are dead-lettered to the expiration
+     * queue at their deadline. Changing the window needs the queue to be deleted, as RabbitMQ refuses to
+     * redeclare a queue with different arguments.
+     */
+    @Bean
+    Queue orderExpirationDelayQueue(@Value("${booking.orders.payment-timeout-minutes:30}") long paymentTimeoutMinutes) {
+        return QueueBuilder.durable(ORDER_EXPIRATION_DELAY_QUEUE)
+                .ttl((int) TimeUnit.MINUTES.toMillis(paymentTimeoutMinutes))
+                .deadLetterExchange(ORDER_EXPIRATION_EXCHANGE)
+                .deadLetterRoutingKey(ORDER_EXPIRATION_RK)
+                .build();
+    }
+
+    @Bean
+    DirectExchange orderExpirationDelayExchange() {
+        return new DirectExchange(ORDER_EXPIRATION_DELAY_EXCHANGE);
+    }
+
+    @Bean
+    Binding orderExpirationDelayBinding(Queue orderExpirationDelayQueue) {
+        return BindingBuilder.bind(orderExpirationDelayQueue).to(orderExpirationDelayExchange()).with(ORDER_EXPIRATION_RK);
+    }
+
+    @Bean
+    Queue orderExpirationQueue() {
+        return QueueBuilder.durable(ORDER_EXPIRATION_QUEUE)
+                .withArgument("x-dead-letter-exchange", DLQ_EXCHANGE)
+                .withArgument("x-dead-letter-routing-key", DLQ_QUEUE)
+                .build();
+    }
+
+    @Bean
+    DirectExchange orderExpirationExchange() {
+        return new DirectExchange(ORDER_EXPIRATION_EXCHANGE);
+    }
+
+    @Bean
+    Binding orderExpirationBinding() {
+        return BindingBuilder.bind(orderExpirationQueue()).to(orderExpirationExchange()).with(ORDER_EXPIRATION_RK);
+    }
 }
@@ -0,0 +1,464 @@
+package com.example.booking.config.cache;
+
+import com.example.booking.dto.OrderTicketCountDto;
+import com.example.booking.dto.RemainingTicketCategoryDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Remaining tickets per category of an event, kept as one Redis hash per event: a counter field per category id
+ * plus a {@code name:<id>} field with its name. Reservations and releases patch the counters with HINCRBY
+ * instead of evicting the entry, so readers keep hitting Redis while an event is on sale.
+ * <p>
+ * Counters are only patched when the hash exists, and a reader only fills a hash nobody else filled first. Before
+ * reading the database, a reader opens a journal for the event ({@code availability-journal:<eventId>}); changes
+ * arriving while it exists are appended to it, and the fill replays the ones appended after the reader's read
+ * began, so a change committed between the read and the fill is not lost. A fill whose journal expired or was
+ * replaced meanwhile is skipped, and the next reader loads again. The one change that can still be counted twice
+ * is one committed right before the read but appended right after the journal opened, since patches run after
+ * commit; the hash expires {@code booking.cache.availability.ttl-ms} after being filled, never extended by
+ * patches, which bounds that.
+ * <p>
+ * Rebuilds are guarded against stampedes at three levels:
+ * <ul>
+ *     <li>concurrent misses in one pod share a single load;</li>
+ *     <li>across pods, only the holder of a short Redis lease loads, the others poll for its result;</li>
+ *     <li>readers refresh the hash probabilistically before it expires (XFetch), the closer to expiry and the
+ *     slower the last load, the likelier, so the hash is usually rebuilt before anyone misses it. Every patch
+ *     bumps a {@code meta:version} field, and the refreshed snapshot only replaces a hash still at the version
+ *     read before loading it; otherwise the hash keeps its counters and its original expiry.</li>
+ * </ul>
+ * <p>
+ * Each pod also keeps the snapshots it read in a small {@link NearCache}, so repeated reads of a hot event skip
+ * Redis. Every patch publishes the event on {@link #CHANGES_CHANNEL}, and every pod drops its near copy when the
+ * message arrives; the patching pod drops its own right away. An early refresh does not publish, it only
+ * rewrites counters that no patch touched since, and pub/sub delivery is fire and forget, so a near copy
+ * outlives a change by at most {@code booking.cache.availability.near-ttl-ms}.
+ */
+@Component
+public class AvailabilityCache implements MessageListener {
+
+    private static final Logger log = LoggerFactory.getLogger(AvailabilityCache.class);
+
+    /**
+     * Carries the id of every event whose counters changed; live availability streams subscribe to it.
+     */
+    public static final String CHANGES_CHANNEL = "booking:availability-changes";
+
+    private static final String KEY_PREFIX = "availability:";
+    private static final String LEASE_KEY_PREFIX = "availability-lease:";
+    private static final String JOURNAL_KEY_PREFIX = "availability-journal:";
+    private static final String NAME_FIELD_PREFIX = "name:";
+    private static final String META_FIELD_PREFIX = "meta:";
+    private static final String LOAD_MS_FIELD = "meta:load-ms";
+    private static final String VERSION_FIELD = "meta:version";
+    private static final long LEASE_POLL_INTERVAL_MS = 20;
+
+    // KEYS: hash, journal. ARGV: changes channel, event id, then category id, delta, category id, delta, ...
+    // the change is announced even when the hash is not cached, streams then read it from the database
+    private static final RedisScript<Long> ADJUST = new DefaultRedisScript<>("""
+            local cached = redis.call('EXISTS', KEYS[1])
+            local loading = redis.call('EXISTS', KEYS[2])
+            for i = 3, #ARGV, 2 do
+                if cached == 1 then
+                    redis.call('HINCRBY', KEYS[1], ARGV[i], ARGV[i + 1])
+                end
+                if loading == 1 then
+                    redis.call('RPUSH', KEYS[2], ARGV[i] .. ':' .. ARGV[i + 1])
+                end
+            end
+            if cached == 1 then
+                redis.call('HINCRBY', KEYS[1], 'meta:version', 1)
+            end
+            redis.call('PUBLISH', ARGV[1], ARGV[2])
+            return cached
+            """, Long.class);
+
+    // KEYS: journal. ARGV: ttl in ms, generation to start a new journal with.
+    // Returns the journal's generation, which is its first element, and the position the caller's changes start at.
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> OPEN_JOURNAL = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 0 then
+                redis.call('RPUSH', KEYS[1], ARGV[2])
+            end
+            redis.call('PEXPIRE', KEYS[1], ARGV[1])
+            return {redis.call('LINDEX', KEYS[1], 0), redis.call('LLEN', KEYS[1])}
+            """, List.class);
+
+    // KEYS: hash, journal. ARGV: ttl in ms, journal generation, journal position, then field, value, ...
+    // Returns 1 when filled, 0 when already cached, -1 when the journal is gone and the missed changes unknown.
+    private static final RedisScript<Long> FILL = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 1 then
+                return 0
+            end
+            if redis.call('LINDEX', KEYS[2], 0) ~= ARGV[2] then
+                return -1
+            end
+            local missed = {}
+            for _, change in ipairs(redis.call('LRANGE', KEYS[2], ARGV[3], -1)) do
+                local field, delta = string.match(change, '^(%d+):(-?%d+)$')
+                missed[field] = (missed[field] or 0) + tonumber(delta)
+            end
+            local fields = {}
+            for i = 4, #ARGV, 2 do
+                local value = ARGV[i + 1]
+                if missed[ARGV[i]] then
+                    value = tonumber(value) + missed[ARGV[i]]
+                end
+                fields[#fields + 1] = ARGV[i]
+                fields[#fields + 1] = value
+            end
+            redis.call('HSET', KEYS[1], unpack(fields))
+            redis.call('PEXPIRE', KEYS[1], ARGV[1])
+            return 1
+            """, Long.class);
+
+    // ARGV: ttl in ms, version the snapshot was loaded at, then field, value, ...; used by the early refresh to swap
+    // the whole entry at once, unless a patch landed since the version was read
+    private static final RedisScript<Long> REPLACE = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 0 or (redis.call('HGET', KEYS[1], 'meta:version') or '') ~= ARGV[2] then
+                return 0
+            end
+            redis.call('DEL', KEYS[1])
+            redis.call('HSET', KEYS[1], unpack(ARGV, 3))
+            redis.call('PEXPIRE', KEYS[1], ARGV[1])
+            return 1
+            """, Long.class);
+
+    private static final RedisScript<Long> RELEASE_LEASE = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final long ttlMs;
+    private final Duration leaseTtl;
+    private final long leaseWaitMs;
+    private final double xfetchBeta;
+    private final DoubleSupplier random;
+    private final NearCache<UUID, List<RemainingTicketCategoryDto>> near;
+    private final SingleFlight<UUID, List<RemainingTicketCategoryDto>> loads = new SingleFlight<>();
+
+    @Autowired
+    public AvailabilityCache(StringRedisTemplate redisTemplate,
+                             @Value("${booking.cache.availability.ttl-ms:900000}") long ttlMs,
+                             @Value("${booking.cache.availability.lease-ms:5000}") long leaseMs,
+                             @Value("${booking.cache.availability.lease-wait-ms:2000}") long leaseWaitMs,
+                             @Value("${booking.cache.availability.xfetch-beta:1.0}") double xfetchBeta,
+                             @Value("${booking.cache.availability.near-max-entries:10000}") int nearMaxEntries,
+                             @Value("${booking.cache.availability.near-ttl-ms:2000}") long nearTtlMs,
+                             MeterRegistry meterRegistry) {
+        this(redisTemplate, ttlMs, leaseMs, leaseWaitMs, xfetchBeta, new NearCache<>(nearMaxEntries, nearTtlMs),
+                () -> ThreadLocalRandom.current().nextDouble());
+        near.bindTo(meterRegistry, "availability");
+    }
+
+    AvailabilityCache(StringRedisTemplate redisTemplate, long ttlMs, long leaseMs, long leaseWaitMs, double xfetchBeta,
+                      NearCache<UUID, List<RemainingTicketCategoryDto>> near, DoubleSupplier random) {
+        this.redisTemplate = redisTemplate;
+        this.ttlMs = ttlMs;
+        this.leaseTtl = Duration.ofMillis(leaseMs);
+        this.leaseWaitMs = leaseWaitMs;
+        this.xfetchBeta = xfetchBeta;
+        this.near = near;
+        this.random = random;
+    }
+
+    /**
+     * Remaining tickets of the event's categories in category id order. The loader reads them from the database
+     * keyed by category id; it runs when the event is not cached, or when this read was picked to refresh it early.
+     */
+    public List<RemainingTicketCategoryDto> get(UUID eventId, Supplier<Map<Long, RemainingTicketCategoryDto>> loader) {
+        List<RemainingTicketCategoryDto> nearCopy = near.get(eventId);
+        if (nearCopy != null) {
+            return nearCopy;
+        }
+
+        long stamp = near.stamp(eventId);
+        List<RemainingTicketCategoryDto> categories = getRemote(eventId, loader);
+        near.put(eventId, categories, stamp);
+        return categories;
+    }
+
+    private List<RemainingTicketCategoryDto> getRemote(UUID eventId, Supplier<Map<Long, RemainingTicketCategoryDto>> loader) {
+        Snapshot cached = read(eventId);
+        if (cached == null) {
+            return loads.run(eventId, () -> loadOnMiss(eventId, loader));
+        }
+
+        if (shouldRefreshEarly(cached)) {
+            String token = UUID.randomUUID().toString();
+            if (tryLease(eventId, token)) {
+                try {
+                    log.debug("Refreshing availability of event {} {} ms before it expires", eventId, cached.expiresInMs());
+                    return replace(eventId, cached.version(), loader);
+                } finally {
+                    releaseLease(eventId, token);
+                }
+            }
+        }
+
+        return cached.categories();
+    }
+
+    private List<RemainingTicketCategoryDto> loadOnMiss(UUID eventId, Supplier<Map<Long, RemainingTicketCategoryDto>> loader) {
+        String token = UUID.randomUUID().toString();
+        if (tryLease(eventId, token)) {
+            try {
+                return fill(eventId, loader);
+            } finally {
+                releaseLease(eventId, token);
+            }
+        }
+
+        // another pod holds the lease and is loading, its result shows up in the hash
+        long deadline = System.currentTimeMillis() + leaseWaitMs;
+        while (System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(LEASE_POLL_INTERVAL_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+
+            Snapshot loaded = read(eventId);
+            if (loaded != null) {
+                return loaded.categories();
+            }
+        }
+
+        log.debug("Availability of event {} still loading elsewhere after {} ms, loading it here", eventId, leaseWaitMs);
+        return fill(eventId, loader);
+    }
+
+    private List<RemainingTicketCategoryDto> fill(UUID eventId, Supplier<Map<Long, RemainingTicketCategoryDto>> loader) {
+        // opened before the database read, so every change the read may miss ends up in the journal
+        List<?> journal = redisTemplate.execute(OPEN_JOURNAL, List.of(journalKey(eventId)),
+                String.valueOf(leaseTtl.toMillis()), UUID.randomUUID().toString());
+        Loaded loaded = load(loader);
+
+        List<String> args = new ArrayList<>();
+        args.add(String.valueOf(ttlMs));
+        args.add(String.valueOf(journal.get(0)));
+        args.add(String.valueOf(journal.get(1)));
+        args.addAll(loaded.fields());
+        Long filled = redisTemplate.execute(FILL, List.of(key(eventId), journalKey(eventId)), args.toArray());
+        if (filled != null && filled < 0) {
+            log.debug("Journal of event {} expired during its load, not caching the result", eventId);
+        }
+
+        return loaded.categories();
+    }
+
+    private List<RemainingTicketCategoryDto> replace(UUID eventId, String version,
+                                                     Supplier<Map<Long, RemainingTicketCategoryDto>> loader) {
+        Loaded loaded = load(loader);
+
+        List<String> args = new ArrayList<>();
+        args.add(String.valueOf(ttlMs));
+        args.add(version);
+        args.addAll(loaded.fields());
+        Long replaced = redisTemplate.execute(REPLACE, List.of(key(eventId)), args.toArray());
+        if (replaced == null || replaced == 0) {
+            log.debug("Availability of event {} changed during its refresh, keeping the patched counters", eventId);
+        }
+
+        return loaded.categories();
+    }
+
+    private static Loaded load(Supplier<Map<Long, RemainingTicketCategoryDto>> loader) {
+        long start = System.nanoTime();
+        Map<Long, RemainingTicketCategoryDto> categoriesById = loader.get();
+        long loadMs = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return new Loaded(categoriesById, loadMs);
+    }
+
+    /**
+     * XFetch: refresh when {@code -loadMs * beta * ln(random)} reaches the time left, which gets likelier as
+     * expiry nears and grows with how long a load takes.
+     */
+    private boolean shouldRefreshEarly(Snapshot cached) {
+        if (cached.loadMs() <= 0 || cached.expiresInMs() < 0) {
+            return false;
+        }
+        return -cached.loadMs() * xfetchBeta * Math.log(random.getAsDouble()) >= cached.expiresInMs();
+    }
+
+    private Snapshot read(UUID eventId) {
+        String key = key(eventId);
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection redis = (StringRedisConnection) connection;
+            redis.hGetAll(key);
+            redis.pTtl(key);
+            return null;
+        });
+
+        @SuppressWarnings("unchecked")
+        Map<String, String> fields = (Map<String, String>) results.get(0);
+        if (fields == null || fields.isEmpty()) {
+            return null;
+        }
+
+        Map<Long, Integer> remaining = new TreeMap<>();
+        fields.forEach((field, value) -> {
+            if (!field.startsWith(NAME_FIELD_PREFIX) && !field.startsWith(META_FIELD_PREFIX)) {
+                remaining.put(Long.valueOf(field), Integer.valueOf(value));
+            }
+        });
+
+        List<RemainingTicketCategoryDto> categories = new ArrayList<>(remaining.size());
+        remaining.forEach((categoryId, tickets) ->
+                categories.add(new RemainingTicketCategoryDto(fields.get(NAME_FIELD_PREFIX + categoryId), tickets)));
+
+        String loadMs = fields.get(LOAD_MS_FIELD);
+        return new Snapshot(List.copyOf(categories), loadMs == null ? 0 : Long.parseLong(loadMs),
+                fields.getOrDefault(VERSION_FIELD, ""), (Long) results.get(1));
+    }
+
+    private boolean tryLease(UUID eventId, String token) {
+        return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(LEASE_KEY_PREFIX + eventId, token, leaseTtl));
+    }
+
+    private void releaseLease(UUID eventId, String token) {
+        redisTemplate.execute(RELEASE_LEASE, List.of(LEASE_KEY_PREFIX + eventId), token);
+    }
+
+    /**
+     * Takes the reserved quantities off the event's counters once the current transaction commits.
+     */
+    public void reserved(UUID eventId, Map<Long, Integer> quantities) {
+        Map<Long, Long> deltas = quantities.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, e -> -e.getValue().longValue()));
+        afterCommit(Map.of(eventId, deltas));
+    }
+
+    /**
+     * Gives the released quantities back to the counters of their events once the current transaction commits.
+     */
+    public void released(List<OrderTicketCountDto> counts) {
+        afterCommit(counts.stream().collect(Collectors.groupingBy(OrderTicketCountDto::eventId,
+                Collectors.toMap(OrderTicketCountDto::ticketCategoryId, OrderTicketCountDto::quantity, Long::sum))));
+    }
+
+    private void afterCommit(Map<UUID, Map<Long, Long>> deltasByEvent) {
+        if (deltasByEvent.isEmpty()) {
+            return;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            adjust(deltasByEvent);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                adjust(deltasByEvent);
+            }
+        });
+    }
+
+    private void adjust(Map<UUID, Map<Long, Long>> deltasByEvent) {
+        deltasByEvent.forEach((eventId, deltas) -> {
+            List<String> args = new ArrayList<>(2 + deltas.size() * 2);
+            args.add(CHANGES_CHANNEL);
+            args.add(eventId.toString());
+            deltas.forEach((categoryId, delta) -> {
+                args.add(String.valueOf(categoryId));
+                args.add(String.valueOf(delta));
+            });
+
+            try {
+                redisTemplate.execute(ADJUST, List.of(key(eventId), journalKey(eventId)), args.toArray());
+            } catch (RuntimeException e) {
+                // the database is already committed; the counters catch up when the hash expires
+                log.warn("Could not update cached availability of event {}", eventId, e);
+            }
+            near.evict(eventId);
+        });
+    }
+
+    /**
+     * Drops the near copy of an event whose counters changed, on whichever pod changed them.
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        UUID eventId;
+        try {
+            eventId = UUID.fromString(new String(message.getBody(), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring malformed availability change message", e);
+            return;
+        }
+
+        near.evict(eventId);
+    }
+
+    private static String key(UUID eventId) {
+        return KEY_PREFIX + eventId;
+    }
+
+    private static String journalKey(UUID eventId) {
+        return JOURNAL_KEY_PREFIX + eventId;
+    }
+
+    private record Loaded(Map<Long, RemainingTicketCategoryDto> categoriesById, long loadMs) {
+
+        List<RemainingTicketCategoryDto> categories() {
+            return List.copyOf(categoriesById.values());
+        }
+
+        /**
+         * Field, value pairs of the hash. The load time field also keeps it non-empty for events without categories.
+         */
+        List<String> fields() {
+            List<String> fields = new ArrayList<>(2 + categoriesById.size() * 4);
+            fields.add(LOAD_MS_FIELD);
+            fields.add(String.valueOf(loadMs));
+            fields.add(VERSION_FIELD);
+            fields.add("0");
+            categoriesById.forEach((categoryId, category) -> {
+                fields.add(String.valueOf(categoryId));
+                fields.add(String.valueOf(category.remainingTickets()));
+                fields.add(NAME_FIELD_PREFIX + categoryId);
+                fields.add(category.categoryName());
+            });
+            return fields;
+        }
+    }
+
+    /**
+     * @param version     {@code meta:version} of the hash, empty when it has none
+     * @param expiresInMs PTTL of the hash, negative when it has no expiry
+     */
+    private record Snapshot(List<RemainingTicketCategoryDto> categories, long loadMs, String version, long expiresInMs) {
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.booking.config.cache;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Stores cache values in the layout of a {@link CacheValueCodec}. Values of at least {@code compressionThreshold}
+ * bytes are deflated; the first byte of every entry tells which of the two was stored.
+ */
+final class BinaryCacheSerializer<T> implements RedisSerializer<Object> {
+
+    private static final byte PLAIN = 1;
+    private static final byte DEFLATED = 2;
+
+    private final CacheValueCodec<T> codec;
+    private final int compressionThreshold;
+
+    /**
+     * @param compressionThreshold smallest encoded size that gets deflated, {@code 0} disables compression
+     */
+    BinaryCacheSerializer(CacheValueCodec<T> codec, int compressionThreshold) {
+        this.codec = codec;
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public byte[] serialize(Object value) {
+        if (value == null) {
+            return null;
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(PLAIN);
+            codec.write((T) value, out);
+        } catch (IOException | ClassCastException e) {
+            throw new SerializationException("Could not encode cache value of type " + value.getClass().getName(), e);
+        }
+
+        byte[] encoded = bytes.toByteArray();
+        return compressionThreshold > 0 && encoded.length - 1 >= compressionThreshold ? deflate(encoded) : encoded;
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+
+        byte[] encoded = switch (bytes[0]) {
+            case PLAIN -> bytes;
+            case DEFLATED -> inflate(bytes);
+            default -> throw new SerializationException("Unknown cache value format " + bytes[0]);
+        };
+
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(encoded, 1, encoded.length - 1))) {
+            return codec.read(in);
+        } catch (IOException e) {
+            throw new SerializationException("Could not decode cache value", e);
+        }
+    }
+
+    // DEFLATED, plain length, deflate stream of the plain entry without its format byte
+    private static byte[] deflate(byte[] encoded) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(encoded, 1, encoded.length - 1);
+            deflater.finish();
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream(encoded.length / 2);
+            out.write(DEFLATED);
+            out.writeBytes(ByteBuffer.allocate(Integer.BYTES).putInt(encoded.length - 1).array());
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] bytes) {
+        ByteBuffer header = ByteBuffer.wrap(bytes, 1, Integer.BYTES);
+        byte[] encoded = new byte[header.getInt() + 1];
+        encoded[0] = PLAIN;
+
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(bytes, 1 + Integer.BYTES, bytes.length - 1 - Integer.BYTES);
+            int offset = 1;
+            while (offset < encoded.length && !inflater.finished()) {
+                int read = inflater.inflate(encoded, offset, encoded.length - offset);
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new SerializationException("Truncated compressed cache value");
+                }
+                offset += read;
+            }
+            return encoded;
+        } catch (DataFormatException e) {
+            throw new SerializationException("Could not inflate cache value", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -10,7 +10,5 @@ public final class CacheNames {
      * This class cannot be instantiated or extended.
      */
     private CacheNames(){}
-    public static final String REMAINING_TICKETS = "AVAILABLE_TICKETS_CACHE";
     public static final String ORDERS = "ORDERS_CACHE";
-    public static final String TOP_EVENTS = "TOP_EVENTS_CACHE";
 }
@@ -0,0 +1,15 @@
+package com.example.booking.config.cache;
+
+/**
+ * Format of the values of one Redis cache, chosen per cache with {@code booking.cache.serialization.*}.
+ */
+public enum CacheSerialization {
+    /**
+     * Jackson JSON bound to the cached type, readable with {@code redis-cli}.
+     */
+    JSON,
+    /**
+     * {@link CacheValueCodec} layout, deflated above {@code booking.cache.compression-threshold-bytes}.
+     */
+    BINARY
+}
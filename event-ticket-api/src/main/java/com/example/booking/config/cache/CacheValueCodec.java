@@ -0,0 +1,16 @@
+package com.example.booking.config.cache;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Writes one cached value type field by field, without names or class information. The layout is fixed by the
+ * codec, so changing it means changing the key prefix of the caches that use it.
+ */
+interface CacheValueCodec<T> {
+
+    void write(T value, DataOutput out) throws IOException;
+
+    T read(DataInput in) throws IOException;
+}
@@ -0,0 +1,214 @@
+package com.example.booking.config.cache;
+
+import com.example.booking.controller.response.order.OrdersResponse;
+import com.example.booking.dto.OrderItemDto;
+import com.example.booking.dto.TicketItemDto;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Binary layouts of the values held in the Redis caches. Nullable fields are preceded by a presence flag,
+ * lists by their size.
+ */
+final class CacheValueCodecs {
+
+    /**
+     * Part of the key prefix of binary caches; bump it whenever a layout below changes, so entries written by the
+     * previous release are never read with the new layout.
+     */
+    static final int LAYOUT_VERSION = 2;
+
+    private CacheValueCodecs() {
+    }
+
+    private static final CacheValueCodec<TicketItemDto> TICKET_ITEM = new CacheValueCodec<>() {
+        @Override
+        public void write(TicketItemDto value, DataOutput out) throws IOException {
+            writeUuid(value.ticketId(), out);
+            writeUuid(value.eventId(), out);
+            writeUuid(value.userId(), out);
+            writeLong(value.ticketCategoryId(), out);
+            writeDecimal(value.price(), out);
+        }
+
+        @Override
+        public TicketItemDto read(DataInput in) throws IOException {
+            return new TicketItemDto(readUuid(in), readUuid(in), readUuid(in), readLong(in), readDecimal(in));
+        }
+    };
+
+    private static final CacheValueCodec<OrderItemDto> ORDER_ITEM = new CacheValueCodec<>() {
+        private final CacheValueCodec<List<TicketItemDto>> tickets = listOf(TICKET_ITEM);
+
+        @Override
+        public void write(OrderItemDto value, DataOutput out) throws IOException {
+            writeUuid(value.orderId(), out);
+            writeDecimal(value.orderPrice(), out);
+            writeNullable(value.tickets(), tickets, out);
+            writeUuid(value.userid(), out);
+            writeString(value.checkoutUrl(), out);
+        }
+
+        @Override
+        public OrderItemDto read(DataInput in) throws IOException {
+            return new OrderItemDto(readUuid(in), readDecimal(in), readNullable(tickets, in), readUuid(in), readString(in));
+        }
+    };
+
+    static final CacheValueCodec<OrdersResponse> ORDERS_PAGE = new CacheValueCodec<>() {
+        private final CacheValueCodec<List<OrderItemDto>> orders = listOf(ORDER_ITEM);
+
+        @Override
+        public void write(OrdersResponse value, DataOutput out) throws IOException {
+            writeNullable(value.orders(), orders, out);
+            writeInteger(value.page(), out);
+            out.writeInt(value.pageSize());
+            writeInteger(value.totalPages(), out);
+            writeLong(value.totalElements(), out);
+            writeString(value.nextCursor(), out);
+        }
+
+        @Override
+        public OrdersResponse read(DataInput in) throws IOException {
+            return new OrdersResponse(readNullable(orders, in), readInteger(in), in.readInt(), readInteger(in),
+                    readLong(in), readString(in));
+        }
+    };
+
+    private static <T> CacheValueCodec<List<T>> listOf(CacheValueCodec<T> element) {
+        return new CacheValueCodec<>() {
+            @Override
+            public void write(List<T> value, DataOutput out) throws IOException {
+                out.writeInt(value.size());
+                for (T item : value) {
+                    element.write(item, out);
+                }
+            }
+
+            @Override
+            public List<T> read(DataInput in) throws IOException {
+                int size = in.readInt();
+                List<T> items = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    items.add(element.read(in));
+                }
+                return Collections.unmodifiableList(items);
+            }
+        };
+    }
+
+    private static <T> void writeNullable(T value, CacheValueCodec<T> codec, DataOutput out) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            codec.write(value, out);
+        }
+    }
+
+    private static <T> T readNullable(CacheValueCodec<T> codec, DataInput in) throws IOException {
+        return in.readBoolean() ? codec.read(in) : null;
+    }
+
+    private static void writeUuid(UUID value, DataOutput out) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.getMostSignificantBits());
+            out.writeLong(value.getLeastSignificantBits());
+        }
+    }
+
+    private static UUID readUuid(DataInput in) throws IOException {
+        return in.readBoolean() ? new UUID(in.readLong(), in.readLong()) : null;
+    }
+
+    private static void writeString(String value, DataOutput out) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeInteger(Integer value, DataOutput out) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeInt(value);
+        }
+    }
+
+    private static Integer readInteger(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readInt() : null;
+    }
+
+    private static void writeLong(Long value, DataOutput out) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value);
+        }
+    }
+
+    private static Long readLong(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readLong() : null;
+    }
+
+    // prices fit in a long unscaled value, anything larger falls back to the two's complement bytes
+    private static final byte DECIMAL_NULL = 0;
+    private static final byte DECIMAL_LONG = 1;
+    private static final byte DECIMAL_BYTES = 2;
+
+    private static void writeDecimal(BigDecimal value, DataOutput out) throws IOException {
+        if (value == null) {
+            out.writeByte(DECIMAL_NULL);
+            return;
+        }
+        BigInteger unscaled = value.unscaledValue();
+        if (unscaled.bitLength() < Long.SIZE) {
+            out.writeByte(DECIMAL_LONG);
+            out.writeLong(unscaled.longValue());
+        } else {
+            byte[] bytes = unscaled.toByteArray();
+            out.writeByte(DECIMAL_BYTES);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+        out.writeInt(value.scale());
+    }
+
+    private static BigDecimal readDecimal(DataInput in) throws IOException {
+        byte kind = in.readByte();
+        BigInteger unscaled;
+        switch (kind) {
+            case DECIMAL_NULL -> {
+                return null;
+            }
+            case DECIMAL_LONG -> unscaled = BigInteger.valueOf(in.readLong());
+            case DECIMAL_BYTES -> {
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                unscaled = new BigInteger(bytes);
+            }
+            default -> throw new IOException("Unknown decimal encoding " + kind);
+        }
+        return new BigDecimal(unscaled, in.readInt());
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.booking.config.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded in-process cache with LRU eviction and a time to live, kept in front of a Redis cache. Keys are spread
+ * over segments, each an access-ordered {@link LinkedHashMap} behind its own lock, so readers of different keys
+ * rarely contend. A {@code maxEntries} of zero keeps nothing.
+ * <p>
+ * A reader that misses takes a {@link #stamp} of the key before reading Redis and hands it to {@link #put}; an
+ * eviction of the key in between makes the put a no-op, so a value read before a change cannot be kept after the
+ * change's eviction.
+ */
+final class NearCache<K, V> {
+
+    private static final int SEGMENTS = 16;
+
+    private final Segment<K, V>[] segments;
+    private final long ttlNanos;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    NearCache(int maxEntries, long ttlMs) {
+        int perSegment = (maxEntries + SEGMENTS - 1) / SEGMENTS;
+        this.segments = new Segment[SEGMENTS];
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment<>(perSegment);
+        }
+        this.ttlNanos = ttlMs * 1_000_000L;
+    }
+
+    V get(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            Entry<V> entry = segment.get(key);
+            if (entry != null && System.nanoTime() - entry.storedAt() > ttlNanos) {
+                segment.remove(key);
+                entry = null;
+            }
+            (entry == null ? misses : hits).increment();
+            return entry == null ? null : entry.value();
+        }
+    }
+
+    /**
+     * Evictions seen so far by the key's segment; pass it to {@link #put} once the value is read.
+     */
+    long stamp(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            return segment.evictions;
+        }
+    }
+
+    /**
+     * Keeps the value unless the key's segment saw an eviction since {@code stamp} was taken.
+     */
+    void put(K key, V value, long stamp) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            if (segment.evictions == stamp) {
+                segment.put(key, new Entry<>(value, System.nanoTime()));
+            }
+        }
+    }
+
+    void evict(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            segment.remove(key);
+            segment.evictions++;
+        }
+    }
+
+    void clear() {
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+                segment.evictions++;
+            }
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Exports near hits and misses as {@code booking.cache.near.gets} and the entry count as
+     * {@code booking.cache.near.size}, tagged with the cache name.
+     */
+    void bindTo(MeterRegistry meterRegistry, String cacheName) {
+        FunctionCounter.builder("booking.cache.near.gets", hits, LongAdder::sum)
+                .tags("cache", cacheName, "result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("booking.cache.near.gets", misses, LongAdder::sum)
+                .tags("cache", cacheName, "result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("booking.cache.near.size", this, NearCache::size)
+                .tag("cache", cacheName)
+                .register(meterRegistry);
+    }
+
+    private Segment<K, V> segmentFor(K key) {
+        int hash = key.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (SEGMENTS - 1)];
+    }
+
+    private record Entry<V>(V value, long storedAt) {
+    }
+
+    private static final class Segment<K, V> extends LinkedHashMap<K, Entry<V>> {
+
+        private final int maxEntries;
+        private long evictions;
+
+        Segment(int maxEntries) {
+            super(16, 0.75f, true);
+            this.maxEntries = maxEntries;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+            return size() > maxEntries;
+        }
+    }
+}
@@ -1,60 +1,131 @@
 package com.example.booking.config.cache;
 
-import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.example.booking.controller.response.order.OrdersResponse;
+import com.example.booking.services.AvailabilityStreamServiceImpl;
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
-import com.fasterxml.jackson.databind.jsontype.PolymorphicTypeValidator;
-import com.fasterxml.jackson.databind.jsontype.impl.StdTypeResolverBuilder;
+import com.fasterxml.jackson.databind.type.TypeFactory;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.boot.actuate.metrics.cache.RedisCacheMeterBinderProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.cache.RedisCache;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
-import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 
 import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 @Configuration
 @Profile("!test")
 public class RedisCacheConfig {
 
+    /**
+     * Orders pages get a near cache in front of Redis. Their keys carry the user's cache generation, so an
+     * invalidated page is never looked up again, on any pod, and its near copy just ages out. Availability lives
+     * in {@link AvailabilityCache}, which keeps its own near copies.
+     */
     @Bean
-    public RedisCacheManager cacheManager(RedisConnectionFactory redisConnectionFactory) {
+    public TwoLevelCacheManager cacheManager(RedisConnectionFactory redisConnectionFactory,
+                                             StringRedisTemplate stringRedisTemplate,
+                                             MeterRegistry meterRegistry,
+                                             @Value("${booking.cache.serialization.orders:BINARY}") CacheSerialization orders,
+                                             @Value("${booking.cache.compression-threshold-bytes:1024}") int compressionThreshold,
+                                             @Value("${booking.cache.orders.near-max-entries:10000}") int nearMaxEntries,
+                                             @Value("${booking.cache.orders.near-ttl-ms:60000}") long nearTtlMs) {
+        TypeFactory types = TypeFactory.defaultInstance();
 
-        ObjectMapper objectMapper = new ObjectMapper();
-
-        objectMapper.registerModule(new JavaTimeModule());
+        Map<String, RedisCacheConfiguration> cacheConfigs = new HashMap<>();
+        cacheConfigs.put(CacheNames.ORDERS, cacheConfiguration(CacheNames.ORDERS, orders,
+                types.constructType(OrdersResponse.class), CacheValueCodecs.ORDERS_PAGE, compressionThreshold));
 
-        PolymorphicTypeValidator ptv = BasicPolymorphicTypeValidator.builder()
-                .allowIfSubType(Object.class)
-                .build();
+        return new TwoLevelCacheManager(redisCacheManager(redisConnectionFactory, cacheConfigs),
+                Set.of(CacheNames.ORDERS), stringRedisTemplate, meterRegistry, nearMaxEntries, nearTtlMs);
+    }
 
-        StdTypeResolverBuilder typeResolverBuilder = new ObjectMapper.DefaultTypeResolverBuilder(ObjectMapper.DefaultTyping.NON_FINAL, ptv)
-                .init(JsonTypeInfo.Id.CLASS, null)
-                .inclusion(JsonTypeInfo.As.PROPERTY)
-                .typeProperty("@class");
+    /**
+     * Keeps the cache.gets meters of Redis caches that sit behind a near cache.
+     */
+    @Bean
+    CacheMeterBinderProvider<TwoLevelCache> twoLevelCacheMeterBinderProvider() {
+        RedisCacheMeterBinderProvider redis = new RedisCacheMeterBinderProvider();
+        return (cache, tags) -> cache.remote() instanceof RedisCache remote ? redis.getMeterBinder(remote, tags) : null;
+    }
 
-        objectMapper.setDefaultTyping(typeResolverBuilder);
+    @Bean
+    RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory redisConnectionFactory,
+                                                                AvailabilityCache availabilityCache,
+                                                                AvailabilityStreamServiceImpl availabilityStream,
+                                                                TwoLevelCacheManager cacheManager) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        // one listener, so the near copy is gone before the streams re-read the event
+        container.addMessageListener((message, pattern) -> {
+            availabilityCache.onMessage(message, pattern);
+            availabilityStream.onMessage(message, pattern);
+        }, new ChannelTopic(AvailabilityCache.CHANGES_CHANNEL));
+        container.addMessageListener(cacheManager, new ChannelTopic(TwoLevelCacheManager.INVALIDATION_CHANNEL));
+        return container;
+    }
 
-        GenericJackson2JsonRedisSerializer genericSerializer = new GenericJackson2JsonRedisSerializer(objectMapper);
+    /**
+     * Every cache holds a single known type, so values are written without class names. The format is part of
+     * the key prefix: switching a cache to another format starts from an empty keyspace instead of reading
+     * entries it cannot decode, and the old ones expire with their TTL. Binary prefixes also carry
+     * {@link CacheValueCodecs#LAYOUT_VERSION} for the same reason.
+     */
+    private static RedisCacheConfiguration cacheConfiguration(String cacheName,
+                                                              CacheSerialization serialization,
+                                                              JavaType jsonType,
+                                                              CacheValueCodec<?> codec,
+                                                              int compressionThreshold) {
+        RedisSerializer<?> serializer = switch (serialization) {
+            case JSON -> new Jackson2JsonRedisSerializer<>(cacheObjectMapper(), jsonType);
+            case BINARY -> new BinaryCacheSerializer<>(codec, compressionThreshold);
+        };
 
-        RedisCacheConfiguration defaultConfig = RedisCacheConfiguration.defaultCacheConfig()
+        String format = switch (serialization) {
+            case JSON -> "json";
+            case BINARY -> "binary-v" + CacheValueCodecs.LAYOUT_VERSION;
+        };
+        String prefix = cacheName + "::" + format + "::";
+        return RedisCacheConfiguration.defaultCacheConfig()
                 .entryTtl(Duration.ofMinutes(15))
                 .disableCachingNullValues()
-                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(genericSerializer));
-
-        Map<String, RedisCacheConfiguration> cacheConfigs = new HashMap<>();
-        cacheConfigs.put(CacheNames.ORDERS, defaultConfig);
-        cacheConfigs.put(CacheNames.REMAINING_TICKETS, defaultConfig);
-        cacheConfigs.put(CacheNames.TOP_EVENTS, defaultConfig);
+                .computePrefixWith(name -> prefix)
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(serializer));
+    }
 
-        return RedisCacheManager.builder(redisConnectionFactory)
+    private static RedisCacheManager redisCacheManager(RedisConnectionFactory redisConnectionFactory,
+                                                       Map<String, RedisCacheConfiguration> cacheConfigs) {
+        // statistics back the cache.gets{result=hit|miss} meters used to watch the hit ratio per cache
+        RedisCacheManager cacheManager = RedisCacheManager.builder(redisConnectionFactory)
                 .withInitialCacheConfigurations(cacheConfigs)
+                .enableStatistics()
                 .build();
+        // not a bean of its own, so the configured caches are created here instead of by the container
+        cacheManager.initializeCaches();
+        return cacheManager;
+    }
+
+    static ObjectMapper cacheObjectMapper() {
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        objectMapper.registerModule(new JavaTimeModule());
+
+        return objectMapper;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,116 @@
+package com.example.booking.config.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
+
+/**
+ * Reads from the {@link NearCache} first and falls through to Redis, keeping what Redis returned. Writes go to
+ * both levels and are announced on the invalidation channel, so other pods drop their near copy of the key.
+ * <p>
+ * Pub/sub delivery is fire and forget, so a near entry may outlive a missed invalidation. Its TTL bounds for
+ * how long.
+ */
+final class TwoLevelCache extends AbstractValueAdaptingCache {
+
+    private final Cache remote;
+    private final NearCache<String, Object> near;
+    private final Consumer<String> invalidations;
+
+    /**
+     * @param invalidations publishes the key that changed, or {@code null} when the whole cache was cleared
+     */
+    TwoLevelCache(Cache remote, NearCache<String, Object> near, Consumer<String> invalidations) {
+        super(false);
+        this.remote = remote;
+        this.near = near;
+        this.invalidations = invalidations;
+    }
+
+    Cache remote() {
+        return remote;
+    }
+
+    @Override
+    public String getName() {
+        return remote.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remote.getNativeCache();
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        String nearKey = nearKey(key);
+        Object value = near.get(nearKey);
+        if (value != null) {
+            return value;
+        }
+
+        long stamp = near.stamp(nearKey);
+        ValueWrapper wrapper = remote.get(key);
+        if (wrapper == null || wrapper.get() == null) {
+            return null;
+        }
+
+        near.put(nearKey, wrapper.get(), stamp);
+        return wrapper.get();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object cached = lookup(key);
+        if (cached != null) {
+            return (T) cached;
+        }
+
+        String nearKey = nearKey(key);
+        long stamp = near.stamp(nearKey);
+        T value = remote.get(key, valueLoader);
+        if (value != null) {
+            near.put(nearKey, value, stamp);
+        }
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        String nearKey = nearKey(key);
+        remote.put(key, value);
+        // turns away readers that fetched the previous value before this put
+        near.evict(nearKey);
+        near.put(nearKey, value, near.stamp(nearKey));
+        invalidations.accept(nearKey);
+    }
+
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        evictLocal(nearKey(key));
+        invalidations.accept(nearKey(key));
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        clearLocal();
+        invalidations.accept(null);
+    }
+
+    void evictLocal(String key) {
+        near.evict(key);
+    }
+
+    void clearLocal() {
+        near.clear();
+    }
+
+    private static String nearKey(Object key) {
+        return String.valueOf(key);
+    }
+}
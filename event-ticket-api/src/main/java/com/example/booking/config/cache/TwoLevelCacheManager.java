@@ -0,0 +1,117 @@
+package com.example.booking.config.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Puts an in-process {@link NearCache} in front of the Redis caches listed in {@code nearCacheNames}; every
+ * other cache is served by Redis alone. Changes are published on {@link #INVALIDATION_CHANNEL} and every pod
+ * but the publishing one drops the key from its near cache.
+ */
+public class TwoLevelCacheManager implements CacheManager, MessageListener {
+
+    public static final String INVALIDATION_CHANNEL = "booking:cache-invalidation";
+
+    private static final Logger log = LoggerFactory.getLogger(TwoLevelCacheManager.class);
+
+    private final CacheManager remote;
+    private final Set<String> nearCacheNames;
+    private final StringRedisTemplate redisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final int nearMaxEntries;
+    private final long nearTtlMs;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final Map<String, TwoLevelCache> nearCaches = new ConcurrentHashMap<>();
+
+    public TwoLevelCacheManager(CacheManager remote,
+                                Set<String> nearCacheNames,
+                                StringRedisTemplate redisTemplate,
+                                MeterRegistry meterRegistry,
+                                int nearMaxEntries,
+                                long nearTtlMs) {
+        this.remote = remote;
+        this.nearCacheNames = Set.copyOf(nearCacheNames);
+        this.redisTemplate = redisTemplate;
+        this.meterRegistry = meterRegistry;
+        this.nearMaxEntries = nearMaxEntries;
+        this.nearTtlMs = nearTtlMs;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        if (!nearCacheNames.contains(name)) {
+            return remote.getCache(name);
+        }
+
+        return nearCaches.computeIfAbsent(name, cacheName -> {
+            Cache remoteCache = remote.getCache(cacheName);
+            if (remoteCache == null) {
+                return null;
+            }
+
+            NearCache<String, Object> near = new NearCache<>(nearMaxEntries, nearTtlMs);
+            near.bindTo(meterRegistry, cacheName);
+            return new TwoLevelCache(remoteCache, near, key -> publish(cacheName, key));
+        });
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return remote.getCacheNames();
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        Invalidation invalidation;
+        try {
+            invalidation = objectMapper.readValue(message.getBody(), Invalidation.class);
+        } catch (IOException e) {
+            log.warn("Ignoring malformed cache invalidation message", e);
+            return;
+        }
+
+        if (instanceId.equals(invalidation.origin())) {
+            return;
+        }
+
+        TwoLevelCache cache = nearCaches.get(invalidation.cache());
+        if (cache == null) {
+            return;
+        }
+
+        if (invalidation.key() == null) {
+            cache.clearLocal();
+        } else {
+            cache.evictLocal(invalidation.key());
+        }
+    }
+
+    private void publish(String cacheName, String key) {
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL,
+                    objectMapper.writeValueAsString(new Invalidation(instanceId, cacheName, key)));
+        } catch (Exception e) {
+            // other pods keep their near copy until its TTL runs out
+            log.warn("Could not publish invalidation of {} in cache {}", key, cacheName, e);
+        }
+    }
+
+    record Invalidation(String origin, String cache, String key) {
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.booking.config.cache;
+
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Generation-based invalidation for caches whose entries belong to one user. Every key is prefixed with the
+ * user's current generation, so bumping the generation with one INCR orphans all of that user's entries
+ * without touching anybody else's; the orphans simply age out with the cache TTL.
+ * <p>
+ * A generation counter outlives the entries built on it ({@link #GENERATION_TTL} is far above the cache TTL),
+ * so when an idle user's counter expires and restarts at zero no entry of the old zero can still be alive.
+ */
+@Component
+public class UserCacheGenerations {
+
+    private static final String KEY_PREFIX = "cache-generation:";
+    private static final Duration GENERATION_TTL = Duration.ofDays(1);
+
+    private final StringRedisTemplate redisTemplate;
+
+    public UserCacheGenerations(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**
+     * Prefix for the user's entries in {@code cacheName}, e.g. {@code 6f1c...-g3}.
+     */
+    public String keyPrefix(String cacheName, UUID userId) {
+        String generation = redisTemplate.opsForValue().get(generationKey(cacheName, userId));
+        return userId + "-g" + (generation == null ? "0" : generation);
+    }
+
+    /**
+     * Bumps the users' generations once the current transaction commits, so a read racing the transaction
+     * cannot cache the old state under the new generation. Bumps right away when no transaction is active.
+     */
+    public void invalidate(String cacheName, Collection<UUID> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            bump(cacheName, userIds);
+            return;
+        }
+
+        List<UUID> pending = List.copyOf(userIds);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                bump(cacheName, pending);
+            }
+        });
+    }
+
+    public void invalidate(String cacheName, UUID userId) {
+        invalidate(cacheName, List.of(userId));
+    }
+
+    private void bump(String cacheName, Collection<UUID> userIds) {
+        long ttlSeconds = GENERATION_TTL.toSeconds();
+
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection redis = (StringRedisConnection) connection;
+            userIds.forEach(userId -> {
+                String key = generationKey(cacheName, userId);
+                redis.incr(key);
+                redis.expire(key, ttlSeconds);
+            });
+            return null;
+        });
+    }
+
+    private static String generationKey(String cacheName, UUID userId) {
+        return KEY_PREFIX + cacheName + ":" + userId;
+    }
+}
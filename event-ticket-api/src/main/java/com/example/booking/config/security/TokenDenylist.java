@@ -0,0 +1,46 @@
+package com.example.booking.config.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ids of access tokens revoked before they expire, e.g. on logout. An entry only needs to live as long as
+ * the token it blocks, so the map stays as small as the number of logouts within one token lifetime.
+ * The list is local to this instance.
+ */
+@Component
+public class TokenDenylist {
+
+    private final Map<String, Long> revokedUntil = new ConcurrentHashMap<>();
+
+    private final long tokenTtlMs;
+
+    public TokenDenylist(@Value("${booking.app.jwtExpirationMs}") long tokenTtlMs) {
+        this.tokenTtlMs = tokenTtlMs;
+    }
+
+    public void revoke(String tokenId) {
+        if (tokenId != null) {
+            revokedUntil.put(tokenId, System.currentTimeMillis() + tokenTtlMs);
+        }
+    }
+
+    public boolean isRevoked(String tokenId) {
+        if (tokenId == null) {
+            return false;
+        }
+
+        Long until = revokedUntil.get(tokenId);
+        return until != null && until > System.currentTimeMillis();
+    }
+
+    @Scheduled(fixedRate = 60000)
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        revokedUntil.values().removeIf(until -> until <= now);
+    }
+}
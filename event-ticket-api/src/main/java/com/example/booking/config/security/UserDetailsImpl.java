@@ -30,13 +30,22 @@ public class UserDetailsImpl implements UserDetails {
 
     private final Collection<? extends GrantedAuthority> authorities;
 
+    @JsonIgnore
+    private final String tokenId;
+
     public UserDetailsImpl(UUID id, String username, String email, String password,
                            Collection<? extends GrantedAuthority> authorities) {
+        this(id, username, email, password, authorities, null);
+    }
+
+    public UserDetailsImpl(UUID id, String username, String email, String password,
+                           Collection<? extends GrantedAuthority> authorities, String tokenId) {
         this.id = id;
         this.username = username;
         this.email = email;
         this.password = password;
         this.authorities = authorities;
+        this.tokenId = tokenId;
     }
 
     public static UserDetailsImpl build(User user) {
@@ -65,6 +74,13 @@ public class UserDetailsImpl implements UserDetails {
         return email;
     }
 
+    /**
+     * Id ({@code jti}) of the JWT this principal was built from, or {@code null} when it was loaded from the database.
+     */
+    public String getTokenId() {
+        return tokenId;
+    }
+
     @Override
     public String getPassword() {
         return password;
@@ -100,10 +100,14 @@ public class EventController {
     @GetMapping
     public ResponseEntity<EventsResponse> listAllEvents(
             @Parameter(description = "Page number to retrieve", example = "0") @RequestParam(value = "page", defaultValue = "0") int page,
-            @Parameter(description = "Number of events per page", example = "10") @RequestParam(value = "pageSize", defaultValue = "10") int pageSize
+            @Parameter(description = "Number of events per page", example = "10") @RequestParam(value = "pageSize", defaultValue = "10") int pageSize,
+            @Parameter(description = "Opaque cursor from a previous response; switches to keyset pagination (empty for the first page)") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Include total counts in cursor mode") @RequestParam(defaultValue = "false") boolean count
     ) {
-        var events = eventsService.listAllEvents(page, pageSize);
-        return ResponseEntity.ok(new EventsResponse(events.events(), events.page(), events.pageSize(), events.totalPages(), events.totalElements()));
+        var events = cursor != null
+                ? eventsService.listAllEvents(cursor, pageSize, count)
+                : eventsService.listAllEvents(page, pageSize);
+        return ResponseEntity.ok(EventsResponse.from(events));
     }
 
 
@@ -114,7 +118,7 @@ public class EventController {
             @Parameter(description = "Page size") @RequestParam(defaultValue = "10") int pageSize
     ) {
         var events = eventsService.listAllUserEvents(page, pageSize);
-        return ResponseEntity.ok(new EventsResponse(events.events(), events.page(), events.pageSize(), events.totalPages(), events.totalElements()));
+        return ResponseEntity.ok(EventsResponse.from(events));
     }
 
     @Operation(summary = "List top trending events")
@@ -131,7 +135,7 @@ public class EventController {
             @Parameter(description = "Page size") @RequestParam(defaultValue = "10") int pageSize
     ) {
         var events = eventsService.listAllAvailableUserEvents(page, pageSize);
-        return ResponseEntity.ok(new EventsResponse(events.events(), events.page(), events.pageSize(), events.totalPages(), events.totalElements()));
+        return ResponseEntity.ok(EventsResponse.from(events));
     }
 
     @Operation(
@@ -145,10 +149,14 @@ public class EventController {
             @Parameter(description = "Start of date range (ISO format: YYYY-MM-DDTHH:MM:SS)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
             @Parameter(description = "End of date range (ISO format: YYYY-MM-DDTHH:MM:SS)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
             @Parameter(description = "Page number") @RequestParam(defaultValue = "0") int page,
-            @Parameter(description = "Page size") @RequestParam(defaultValue = "10") int pageSize
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "10") int pageSize,
+            @Parameter(description = "Opaque cursor from a previous response; switches to keyset pagination (empty for the first page)") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Include total counts in cursor mode") @RequestParam(defaultValue = "false") boolean count
     ) {
-        EventsDto events = eventsService.searchEvents(name, location, startDate, endDate, page, pageSize);
-        return ResponseEntity.ok(new EventsResponse(events.events(), page, pageSize, events.totalPages(), events.totalElements()));
+        EventsDto events = cursor != null
+                ? eventsService.searchEvents(name, location, startDate, endDate, cursor, pageSize, count)
+                : eventsService.searchEvents(name, location, startDate, endDate, page, pageSize);
+        return ResponseEntity.ok(EventsResponse.from(events));
     }
 
     @Operation(
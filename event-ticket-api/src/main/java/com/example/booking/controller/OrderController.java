@@ -76,9 +76,13 @@ public class OrderController {
     public ResponseEntity<OrdersResponse> getUserOrders(
             @Parameter(description = "User id") @PathVariable UUID userId,
             @Parameter(description = "Page number to retrieve") @RequestParam(defaultValue = "0") int page,
-            @Parameter(description = "Number of orders per page") @RequestParam(defaultValue = "10") int pageSize
+            @Parameter(description = "Number of orders per page") @RequestParam(defaultValue = "10") int pageSize,
+            @Parameter(description = "Opaque cursor from a previous response; switches to keyset pagination (empty for the first page)") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Include total counts in cursor mode") @RequestParam(defaultValue = "false") boolean count
     ) {
-        var ordersDto = orderService.getOrdersByUserId(userId,page, pageSize);
+        var ordersDto = cursor != null
+                ? orderService.getOrdersByUserId(userId, cursor, pageSize, count)
+                : orderService.getOrdersByUserId(userId, page, pageSize);
         return ResponseEntity.ok(ordersDto);
     }
 
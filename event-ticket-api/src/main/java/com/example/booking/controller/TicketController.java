@@ -1,11 +1,14 @@
 package com.example.booking.controller;
 
+import com.example.booking.controller.request.ticket.BatchEmmitTicketRequest;
 import com.example.booking.controller.request.ticket.CheckInRequest;
 import com.example.booking.dto.TicketsDto;
 import com.example.booking.controller.request.ticket.EmmitTicketRequest;
 import com.example.booking.controller.response.ticket.AvailableTicketsResponse;
+import com.example.booking.controller.response.ticket.BatchTicketsResponse;
 import com.example.booking.controller.response.ticket.CreateTicketResponse;
 import com.example.booking.controller.response.ticket.TicketsResponse;
+import com.example.booking.services.intefaces.AvailabilityStreamService;
 import com.example.booking.services.intefaces.QrCodeService;
 import com.example.booking.services.intefaces.TicketService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -16,9 +19,11 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
@@ -32,10 +37,14 @@ public class TicketController {
 
     private final TicketService ticketService;
     private final QrCodeService qrCodeService;
+    private final AvailabilityStreamService availabilityStreamService;
 
-    public TicketController(TicketService ticketService, QrCodeService qrCodeService) {
+    public TicketController(TicketService ticketService,
+                            QrCodeService qrCodeService,
+                            AvailabilityStreamService availabilityStreamService) {
         this.ticketService = ticketService;
         this.qrCodeService = qrCodeService;
+        this.availabilityStreamService = availabilityStreamService;
     }
 
     @Operation(
@@ -76,6 +85,34 @@ public class TicketController {
         );
     }
 
+    @Operation(
+            summary = "Emit several tickets at once",
+            description = "Reserves the requested quantity for each ticket category of the event and emits all tickets in a single transaction. Either every ticket is emitted or none is.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "201",
+                            description = "Tickets emitted successfully",
+                            content =
+                            @Content(
+                                mediaType = "application/json",
+                                schema = @Schema(implementation = BatchTicketsResponse.class)
+                            )
+                    ),
+                    @ApiResponse(responseCode = "404", description = "Event or Ticket Category not found"),
+                    @ApiResponse(responseCode = "409", description = "Not enough tickets left in one of the categories")
+            }
+    )
+    @PostMapping("/batch")
+    public ResponseEntity<BatchTicketsResponse> emmitTickets(
+            @Valid @RequestBody BatchEmmitTicketRequest request
+    ) {
+        var tickets = ticketService.emmitTickets(request).stream()
+                .map(t -> new CreateTicketResponse(t.ticketId(), t.eventId(), t.userId(), t.ticketCategoryId()))
+                .toList();
+
+        return ResponseEntity.status(HttpStatus.CREATED).body(new BatchTicketsResponse(tickets));
+    }
+
     @Operation(
             summary = "Delete an emitted ticket",
             description = "Deletes a ticket by its ID. Requires userid to be the ticket owner or an ADMIN.",
@@ -102,18 +139,14 @@ public class TicketController {
     @GetMapping
     public ResponseEntity<TicketsResponse> listAllTickets(
             @Parameter(description = "Page number to retrieve") @RequestParam(defaultValue = "0") int page,
-            @Parameter(description = "Number of tickets per page") @RequestParam(defaultValue = "10") int pageSize
+            @Parameter(description = "Number of tickets per page") @RequestParam(defaultValue = "10") int pageSize,
+            @Parameter(description = "Opaque cursor from a previous response; switches to keyset pagination (empty for the first page)") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Include total counts in cursor mode") @RequestParam(defaultValue = "false") boolean count
     ) {
-        TicketsDto ticketsDto = ticketService.listAllTickets(page, pageSize);
-        return ResponseEntity.ok(
-            new TicketsResponse(
-                ticketsDto.tickets(),
-                ticketsDto.page(),
-                ticketsDto.pageSize(),
-                ticketsDto.totalPages(),
-                ticketsDto.totalElements()
-            )
-        );
+        TicketsDto ticketsDto = cursor != null
+                ? ticketService.listAllTickets(cursor, pageSize, count)
+                : ticketService.listAllTickets(page, pageSize);
+        return ResponseEntity.ok(TicketsResponse.from(ticketsDto));
     }
 
     @Operation(
@@ -123,10 +156,14 @@ public class TicketController {
     @GetMapping("/my-tickets")
     public ResponseEntity<TicketsResponse> listAllUserTickets(
             @Parameter(description = "Page number") @RequestParam(defaultValue = "0") int page,
-            @Parameter(description = "Page size") @RequestParam(defaultValue = "10") int pageSize
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "10") int pageSize,
+            @Parameter(description = "Opaque cursor from a previous response; switches to keyset pagination (empty for the first page)") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Include total counts in cursor mode") @RequestParam(defaultValue = "false") boolean count
     ) {
-        var ticketsDto = ticketService.listAllUserTickets(page, pageSize);
-        return ResponseEntity.ok(new TicketsResponse(ticketsDto.tickets(), ticketsDto.page(), ticketsDto.pageSize(), ticketsDto.totalPages(), ticketsDto.totalElements()));
+        var ticketsDto = cursor != null
+                ? ticketService.listAllUserTickets(cursor, pageSize, count)
+                : ticketService.listAllUserTickets(page, pageSize);
+        return ResponseEntity.ok(TicketsResponse.from(ticketsDto));
     }
 
     @Operation(summary = "Get available tickets for an event", description = "Returns a list of ticket categories and the number of available tickets for a specific event.")
@@ -138,6 +175,18 @@ public class TicketController {
         return ResponseEntity.ok(new AvailableTicketsResponse(ticketService.getAvailableTicketsByCategoryFromEvent(eventId)));
     }
 
+    @Operation(
+            summary = "Stream available tickets for an event",
+            description = "Opens a Server-Sent Events stream. The current availability is sent right away as an 'availability' event, followed by a fresh one whenever reservations or releases change the counts."
+    )
+    @GetMapping(path = "/available/{eventId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAvailableTicketsForEvent(
+            @Parameter(description = "ID of the event to follow", required = true)
+            @PathVariable UUID eventId
+    ) {
+        return availabilityStreamService.subscribe(eventId);
+    }
+
     @Operation(summary = "List tickets by category ID", description = "Returns a paginated list of all tickets for a specific ticket category.")
     @GetMapping("/category/{categoryId}")
     public ResponseEntity<TicketsResponse> getTicketsByCategoryId(
@@ -146,7 +195,7 @@ public class TicketController {
             @Parameter(description = "Page size") @RequestParam(defaultValue = "10") int pageSize
     ) {
         var ticketsDto = ticketService.getTicketsByCategoryId(categoryId, page, pageSize);
-        return ResponseEntity.ok(new TicketsResponse(ticketsDto.tickets(), ticketsDto.page(), ticketsDto.pageSize(), ticketsDto.totalPages(), ticketsDto.totalElements()));
+        return ResponseEntity.ok(TicketsResponse.from(ticketsDto));
     }
 
     @Operation(summary = "Generate QR Code for a ticket")
@@ -0,0 +1,22 @@
+package com.example.booking.controller.request.ticket;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+import java.util.Map;
+import java.util.UUID;
+
+public record BatchEmmitTicketRequest(
+
+        @NotNull(message = "Event ID is required!")
+        UUID eventId,
+
+        @NotEmpty(message = "At least one ticket category is required!")
+        @Size(max = 10, message = "At most 10 ticket categories per request")
+        Map<@NotNull Long,
+            @NotNull @Positive(message = "Quantity must be greater than 0")
+            @Max(value = 10, message = "At most 10 tickets per category") Integer> quantities
+) {}
@@ -1,12 +1,18 @@
 package com.example.booking.controller.response.event;
 
 import com.example.booking.dto.EventSummaryDto;
+import com.example.booking.dto.EventsDto;
 
 import java.util.List;
 
 public record EventsResponse(List<EventSummaryDto> events,
-                             int page,
+                             Integer page,
                              int pageSize,
-                             int totalPages,
-                             long totalElements) {
+                             Integer totalPages,
+                             Long totalElements,
+                             String nextCursor) {
+
+    public static EventsResponse from(EventsDto events) {
+        return new EventsResponse(events.events(), events.page(), events.pageSize(), events.totalPages(), events.totalElements(), events.nextCursor());
+    }
 }
@@ -7,9 +7,14 @@ import java.util.List;
 
 public record OrdersResponse(
         List<OrderItemDto> orders,
-        int page,
+        Integer page,
         int pageSize,
-        int totalPages,
-        long totalElements
+        Integer totalPages,
+        Long totalElements,
+        String nextCursor
 ) implements Serializable {
+
+    public OrdersResponse(List<OrderItemDto> orders, int page, int pageSize, int totalPages, long totalElements) {
+        this(orders, page, pageSize, totalPages, totalElements, null);
+    }
 }
@@ -0,0 +1,6 @@
+package com.example.booking.controller.response.ticket;
+
+import java.util.List;
+
+public record BatchTicketsResponse(List<CreateTicketResponse> tickets) {
+}
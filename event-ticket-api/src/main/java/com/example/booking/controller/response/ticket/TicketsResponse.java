@@ -1,12 +1,18 @@
 package com.example.booking.controller.response.ticket;
 
 import com.example.booking.dto.TicketItemDto;
+import com.example.booking.dto.TicketsDto;
 
 import java.util.List;
 
 public record TicketsResponse(List<TicketItemDto> tickets,
-                              int page,
+                              Integer page,
                               int pageSize,
-                              int totalPages,
-                              long totalElements) {
+                              Integer totalPages,
+                              Long totalElements,
+                              String nextCursor) {
+
+    public static TicketsResponse from(TicketsDto tickets) {
+        return new TicketsResponse(tickets.tickets(), tickets.page(), tickets.pageSize(), tickets.totalPages(), tickets.totalElements(), tickets.nextCursor());
+    }
 }
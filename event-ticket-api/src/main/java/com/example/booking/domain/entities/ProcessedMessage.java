@@ -0,0 +1,31 @@
+package com.example.booking.domain.entities;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Id of a message that was already handled, so a redelivered copy is skipped.
+ */
+@Entity
+@Table(name = "tb_processed_messages")
+public class ProcessedMessage {
+
+    @Id
+    @Column(name = "message_id")
+    private String messageId;
+
+    @Column(name = "processed_at", nullable = false)
+    private LocalDateTime processedAt;
+
+    public ProcessedMessage() {
+    }
+
+    public String getMessageId() {
+        return messageId;
+    }
+
+    public LocalDateTime getProcessedAt() {
+        return processedAt;
+    }
+}
@@ -10,7 +10,8 @@ import java.math.BigDecimal;
 public class TicketCategory {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ticket_category_seq")
+    @SequenceGenerator(name = "ticket_category_seq", sequenceName = "tb_ticket_category_seq", allocationSize = 50)
     @Column(name = "ticket_category_id")
     private Long ticketCategoryId;
 
@@ -0,0 +1,6 @@
+package com.example.booking.dto;
+
+import java.util.UUID;
+
+public record EventStockDto(UUID eventId, Integer availableTickets) {
+}
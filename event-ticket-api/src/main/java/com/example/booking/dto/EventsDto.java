@@ -3,8 +3,13 @@ package com.example.booking.dto;
 import java.util.List;
 
 public record EventsDto(List<EventSummaryDto> events,
-                         int page,
+                         Integer page,
                          int pageSize,
-                         int totalPages,
-                         long totalElements) {
+                         Integer totalPages,
+                         Long totalElements,
+                         String nextCursor) {
+
+    public EventsDto(List<EventSummaryDto> events, int page, int pageSize, int totalPages, long totalElements) {
+        this(events, page, pageSize, totalPages, totalElements, null);
+    }
 }
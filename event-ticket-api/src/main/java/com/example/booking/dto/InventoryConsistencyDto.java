@@ -0,0 +1,11 @@
+package com.example.booking.dto;
+
+import java.util.List;
+
+public record InventoryConsistencyDto(
+        String backend,
+        int trackedCategories,
+        boolean consistent,
+        List<InventoryDriftDto> drifts
+) {
+}
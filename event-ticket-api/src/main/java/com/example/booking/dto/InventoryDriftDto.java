@@ -0,0 +1,12 @@
+package com.example.booking.dto;
+
+import java.util.UUID;
+
+public record InventoryDriftDto(
+        Long ticketCategoryId,
+        UUID eventId,
+        int inMemoryAvailable,
+        int pendingDelta,
+        Integer persistedAvailable
+) {
+}
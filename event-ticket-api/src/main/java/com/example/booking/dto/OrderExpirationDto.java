@@ -0,0 +1,10 @@
+package com.example.booking.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record OrderExpirationDto(
+        UUID orderId,
+        LocalDateTime expiresAt
+) {
+}
@@ -0,0 +1,10 @@
+package com.example.booking.dto;
+
+import java.util.UUID;
+
+public record OrderTicketCountDto(
+        Long ticketCategoryId,
+        UUID eventId,
+        Long quantity
+) {
+}
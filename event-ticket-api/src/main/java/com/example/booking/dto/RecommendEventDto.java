@@ -1,11 +1,13 @@
 package com.example.booking.dto;
 
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 public record RecommendEventDto(
         UUID eventId,
         Double latitude,
-        Double longitude
+        Double longitude,
+        LocalDateTime eventDate
 ) {
     
 }
@@ -0,0 +1,9 @@
+package com.example.booking.dto;
+
+import java.util.UUID;
+
+public interface TicketEmissionBucketView {
+    UUID getEventId();
+    Long getMinute();
+    Long getTickets();
+}
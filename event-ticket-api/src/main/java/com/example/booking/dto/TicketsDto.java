@@ -5,8 +5,14 @@ import java.util.List;
 
 public record TicketsDto(
         List<TicketItemDto> tickets,
-        int page,
+        Integer page,
         int pageSize,
-        int totalPages,
-        long totalElements
-) { }
+        Integer totalPages,
+        Long totalElements,
+        String nextCursor
+) {
+
+    public TicketsDto(List<TicketItemDto> tickets, int page, int pageSize, int totalPages, long totalElements) {
+        this(tickets, page, pageSize, totalPages, totalElements, null);
+    }
+}
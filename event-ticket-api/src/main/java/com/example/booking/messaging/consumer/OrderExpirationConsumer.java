@@ -0,0 +1,56 @@
+package com.example.booking.messaging.consumer;
+
+import com.example.booking.config.RabbitMQConfig;
+import com.example.booking.dto.OrderExpirationDto;
+import com.example.booking.services.intefaces.OrderService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+@Component
+public class OrderExpirationConsumer {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderExpirationConsumer.class);
+
+    private final OrderService orderService;
+    private final ObjectMapper objectMapper;
+    private final Timer lagTimer;
+
+    public OrderExpirationConsumer(OrderService orderService, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.orderService = orderService;
+        this.objectMapper = objectMapper;
+        this.lagTimer = Timer.builder("booking.orders.expiration.lag")
+                .description("Time from an order's payment deadline to its expiration message being handled")
+                .register(meterRegistry);
+    }
+
+    @RabbitListener(queues = RabbitMQConfig.ORDER_EXPIRATION_QUEUE)
+    public void handleOrderExpiration(Message message) {
+        OrderExpirationDto expiration = read(message);
+
+        if (orderService.expireOrder(expiration.orderId())) {
+            log.info("Order {} expired at its payment deadline {}", expiration.orderId(), expiration.expiresAt());
+        }
+
+        Duration lag = Duration.between(expiration.expiresAt(), LocalDateTime.now());
+        lagTimer.record(lag.isNegative() ? Duration.ZERO : lag);
+    }
+
+    private OrderExpirationDto read(Message message) {
+        try {
+            return objectMapper.readValue(message.getBody(), OrderExpirationDto.class);
+        } catch (IOException e) {
+            throw new AmqpRejectAndDontRequeueException("Invalid order expiration payload", e);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.booking.messaging.consumer;
+
+import com.example.booking.config.RabbitMQConfig;
+import com.example.booking.services.intefaces.PaymentStatusService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * One consumer per partition queue: partitions are processed in parallel, the events within one partition,
+ * and so of one order, one after the other.
+ */
+@Component
+public class PaymentStatusConsumer {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentStatusConsumer.class);
+
+    private final PaymentStatusService paymentStatusService;
+
+    public PaymentStatusConsumer(PaymentStatusService paymentStatusService) {
+        this.paymentStatusService = paymentStatusService;
+    }
+
+    @RabbitListener(queues = "#{paymentPartitionQueues.getDeclarablesByType(T(org.springframework.amqp.core.Queue))}",
+            containerFactory = RabbitMQConfig.PAYMENT_PARTITION_LISTENER_FACTORY)
+    public void handlePaymentStatus(Message message) {
+        MessageProperties properties = message.getMessageProperties();
+        String orderId = new String(message.getBody(), StandardCharsets.UTF_8);
+
+        try {
+            if (paymentStatusService.apply(properties.getMessageId(), properties.getType(), UUID.fromString(orderId))) {
+                log.info("Order {} updated from {} event", orderId, properties.getType());
+            }
+        } catch (Exception e) {
+            log.error("Error processing {} event of order {}", properties.getType(), orderId, e);
+            throw e;
+        }
+    }
+}
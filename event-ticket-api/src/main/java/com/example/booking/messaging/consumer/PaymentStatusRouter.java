@@ -0,0 +1,91 @@
+package com.example.booking.messaging.consumer;
+
+import com.example.booking.config.RabbitMQConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Moves payment status events from the queues the payment processor publishes to onto the partition queues,
+ * hashing by order id so every event of an order lands on the same partition. The source message is only
+ * acked once the broker confirmed the forwarded copy.
+ */
+@Component
+public class PaymentStatusRouter {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentStatusRouter.class);
+
+    private final RabbitTemplate rabbitTemplate;
+    private final int partitions;
+    private final long confirmTimeoutMs;
+
+    public PaymentStatusRouter(RabbitTemplate rabbitTemplate,
+                               @Value("${booking.payments.partitions:4}") int partitions,
+                               @Value("${booking.payments.route-confirm-timeout-ms:5000}") long confirmTimeoutMs) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.partitions = partitions;
+        this.confirmTimeoutMs = confirmTimeoutMs;
+    }
+
+    @RabbitListener(queues = {RabbitMQConfig.ORDER_PAID_QUEUE, RabbitMQConfig.PAYMENT_FAILED_QUEUE})
+    public void route(Message message) {
+        String orderId = new String(message.getBody(), StandardCharsets.UTF_8).trim();
+        String eventType = message.getMessageProperties().getReceivedRoutingKey();
+
+        UUID parsedOrderId;
+        try {
+            parsedOrderId = UUID.fromString(orderId);
+        } catch (IllegalArgumentException e) {
+            throw new AmqpRejectAndDontRequeueException("Invalid order id " + orderId + " on " + eventType, e);
+        }
+
+        int partition = partitionOf(parsedOrderId, partitions);
+        String messageId = message.getMessageProperties().getMessageId();
+        Message partitioned = MessageBuilder.withBody(orderId.getBytes(StandardCharsets.UTF_8))
+                .setContentType(MessageProperties.CONTENT_TYPE_TEXT_PLAIN)
+                .setMessageId(messageId != null ? messageId : eventType + ":" + orderId)
+                .setType(eventType)
+                .build();
+
+        CorrelationData correlation = new CorrelationData(partitioned.getMessageProperties().getMessageId());
+        rabbitTemplate.send(RabbitMQConfig.PAYMENT_PARTITION_EXCHANGE, String.valueOf(partition), partitioned, correlation);
+        awaitConfirm(correlation);
+
+        log.debug("Routed {} of order {} to partition {}", eventType, orderId, partition);
+    }
+
+    static int partitionOf(UUID orderId, int partitions) {
+        return Math.floorMod(orderId.hashCode(), partitions);
+    }
+
+    private void awaitConfirm(CorrelationData correlation) {
+        try {
+            CorrelationData.Confirm confirm = correlation.getFuture().get(confirmTimeoutMs, TimeUnit.MILLISECONDS);
+            if (!confirm.isAck()) {
+                throw new AmqpException("Broker nack while routing " + correlation.getId() + ": " + confirm.getReason());
+            }
+        } catch (TimeoutException e) {
+            throw new AmqpException("No publisher confirm within " + confirmTimeoutMs + " ms for " + correlation.getId(), e);
+        } catch (ExecutionException e) {
+            throw new AmqpException("Could not route " + correlation.getId(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AmqpException("Interrupted while routing " + correlation.getId(), e);
+        }
+    }
+}
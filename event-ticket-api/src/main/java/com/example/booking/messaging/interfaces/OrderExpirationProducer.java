@@ -0,0 +1,14 @@
+package com.example.booking.messaging.interfaces;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+import java.util.UUID;
+
+public interface OrderExpirationProducer {
+
+    /**
+     * Schedules the order to be expired once its payment window closes. Must run inside the transaction that
+     * creates the order, so nothing is scheduled for an order that was rolled back.
+     */
+    void scheduleExpiration(UUID orderId) throws JsonProcessingException;
+}
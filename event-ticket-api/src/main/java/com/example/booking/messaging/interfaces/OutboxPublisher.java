@@ -0,0 +1,13 @@
+package com.example.booking.messaging.interfaces;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+public interface OutboxPublisher {
+
+    /**
+     * Stores a message in the outbox as part of the caller's transaction. It is sent to RabbitMQ only after
+     * that transaction commits, and is never lost if the broker is down.
+     */
+    void enqueue(String exchange, String routingKey, String aggregateType, String aggregateId, String eventType, Object payload)
+            throws JsonProcessingException;
+}
@@ -0,0 +1,43 @@
+package com.example.booking.messaging.producer;
+
+import com.example.booking.config.RabbitMQConfig;
+import com.example.booking.dto.OrderExpirationDto;
+import com.example.booking.messaging.interfaces.OrderExpirationProducer;
+import com.example.booking.messaging.interfaces.OutboxPublisher;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Parks the order on the delay queue, whose TTL is the payment window. When the TTL runs out the broker
+ * dead-letters the message to the expiration queue, so the order is released at its deadline.
+ */
+@Component
+public class OrderExpirationProducerImpl implements OrderExpirationProducer {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderExpirationProducerImpl.class);
+
+    private final OutboxPublisher outboxPublisher;
+    private final long paymentTimeoutMinutes;
+
+    public OrderExpirationProducerImpl(OutboxPublisher outboxPublisher,
+                                       @Value("${booking.orders.payment-timeout-minutes:30}") long paymentTimeoutMinutes) {
+        this.outboxPublisher = outboxPublisher;
+        this.paymentTimeoutMinutes = paymentTimeoutMinutes;
+    }
+
+    @Override
+    public void scheduleExpiration(UUID orderId) throws JsonProcessingException {
+        LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(paymentTimeoutMinutes);
+
+        outboxPublisher.enqueue(RabbitMQConfig.ORDER_EXPIRATION_DELAY_EXCHANGE, RabbitMQConfig.ORDER_EXPIRATION_RK,
+                "Order", orderId.toString(), "OrderExpiration", new OrderExpirationDto(orderId, expiresAt));
+
+        log.debug("Order expiration queued in outbox. OrderId: {}, ExpiresAt: {}", orderId, expiresAt);
+    }
+}
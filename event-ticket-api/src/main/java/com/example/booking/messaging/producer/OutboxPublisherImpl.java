@@ -0,0 +1,30 @@
+package com.example.booking.messaging.producer;
+
+import com.example.booking.domain.entities.OutboxMessage;
+import com.example.booking.messaging.interfaces.OutboxPublisher;
+import com.example.booking.repositories.OutboxMessageRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@Component
+public class OutboxPublisherImpl implements OutboxPublisher {
+
+    private final OutboxMessageRepository outboxMessageRepository;
+    private final ObjectMapper objectMapper;
+
+    public OutboxPublisherImpl(OutboxMessageRepository outboxMessageRepository, ObjectMapper objectMapper) {
+        this.outboxMessageRepository = outboxMessageRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(String exchange, String routingKey, String aggregateType, String aggregateId, String eventType, Object payload)
+            throws JsonProcessingException {
+        byte[] body = objectMapper.writeValueAsBytes(payload);
+        outboxMessageRepository.save(new OutboxMessage(exchange, routingKey, aggregateType, aggregateId, eventType, body));
+    }
+}
@@ -0,0 +1,272 @@
+package com.example.booking.messaging.producer;
+
+import com.example.booking.domain.entities.OutboxMessage;
+import com.example.booking.repositories.OutboxMessageRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Drains {@code tb_outbox_messages} to RabbitMQ. A batch is written back to back on one channel and its publisher
+ * confirms are tracked asynchronously, so one round trip covers the whole batch. Only confirmed rows are deleted.
+ * A row that failed is retried after an exponential backoff, behind the messages written meanwhile, and parked once
+ * it failed {@code booking.outbox.max-attempts} times, so a message the broker keeps rejecting cannot hold up the
+ * outbox.
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private static final int MAX_BATCHES_PER_RUN = 10;
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final OutboxMessageRepository outboxMessageRepository;
+    private final RabbitTemplate rabbitTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long confirmTimeoutMs;
+    private final int maxAttempts;
+    private final long retryBackoffMs;
+    private final long maxRetryBackoffMs;
+
+    private final Timer publishTimer;
+    private final Timer confirmTimer;
+    private final Timer lagTimer;
+    private final Counter acked;
+    private final Counter nacked;
+    private final Counter timedOut;
+    private final Counter failed;
+    private final Counter parked;
+
+    public OutboxRelay(OutboxMessageRepository outboxMessageRepository,
+                       RabbitTemplate rabbitTemplate,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry,
+                       @Value("${booking.outbox.batch-size:100}") int batchSize,
+                       @Value("${booking.outbox.confirm-timeout-ms:5000}") long confirmTimeoutMs,
+                       @Value("${booking.outbox.max-attempts:10}") int maxAttempts,
+                       @Value("${booking.outbox.retry-backoff-ms:1000}") long retryBackoffMs,
+                       @Value("${booking.outbox.max-retry-backoff-ms:300000}") long maxRetryBackoffMs) {
+        this.outboxMessageRepository = outboxMessageRepository;
+        this.rabbitTemplate = rabbitTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.confirmTimeoutMs = confirmTimeoutMs;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffMs = retryBackoffMs;
+        this.maxRetryBackoffMs = maxRetryBackoffMs;
+
+        this.publishTimer = Timer.builder("booking.outbox.publish")
+                .description("Time to write one outbox batch to the broker")
+                .register(meterRegistry);
+        this.confirmTimer = Timer.builder("booking.outbox.confirm")
+                .description("Time from publishing a message to its publisher confirm")
+                .register(meterRegistry);
+        this.lagTimer = Timer.builder("booking.outbox.lag")
+                .description("Time from writing a message to the outbox to its publisher confirm")
+                .register(meterRegistry);
+        this.acked = meterRegistry.counter("booking.outbox.messages", "outcome", "acked");
+        this.nacked = meterRegistry.counter("booking.outbox.messages", "outcome", "nacked");
+        this.timedOut = meterRegistry.counter("booking.outbox.messages", "outcome", "timed_out");
+        this.failed = meterRegistry.counter("booking.outbox.messages", "outcome", "failed");
+        this.parked = meterRegistry.counter("booking.outbox.messages", "outcome", "parked");
+    }
+
+    /**
+     * Relays full batches until the outbox is drained, a publish fails or {@value #MAX_BATCHES_PER_RUN} batches
+     * were sent, so a large backlog does not hold the scheduler thread.
+     */
+    public int relayPending() {
+        int total = 0;
+        for (int i = 0; i < MAX_BATCHES_PER_RUN; i++) {
+            int confirmed = relayBatch();
+            total += confirmed;
+            if (confirmed < batchSize) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Publishes the oldest due messages and returns how many the broker confirmed.
+     */
+    public int relayBatch() {
+        Integer confirmed = transactionTemplate.execute(status -> {
+            List<OutboxMessage> batch = outboxMessageRepository.lockNextBatch(batchSize);
+            if (batch.isEmpty()) {
+                return 0;
+            }
+
+            BatchResult result = new BatchResult();
+            List<Pending> pending = publish(batch, result);
+            awaitConfirms(pending, result);
+
+            if (!result.acked.isEmpty()) {
+                outboxMessageRepository.deleteByIds(result.acked);
+            }
+            if (!result.failed.isEmpty()) {
+                recordFailures(batch, result);
+            }
+
+            log.debug("Outbox relay published {} messages", result.acked.size());
+            return result.acked.size();
+        });
+
+        return confirmed == null ? 0 : confirmed;
+    }
+
+    private void recordFailures(List<OutboxMessage> batch, BatchResult result) {
+        String error = truncate(result.lastError);
+        List<Long> retry = new ArrayList<>();
+        List<Long> exhausted = new ArrayList<>();
+        for (OutboxMessage message : batch) {
+            if (!result.failed.contains(message.getId())) {
+                continue;
+            }
+            if (message.getAttempts() + 1 >= maxAttempts) {
+                exhausted.add(message.getId());
+            } else {
+                retry.add(message.getId());
+            }
+        }
+
+        if (!retry.isEmpty()) {
+            outboxMessageRepository.recordFailedAttempt(retry, error, retryBackoffMs, maxRetryBackoffMs);
+        }
+        if (!exhausted.isEmpty()) {
+            outboxMessageRepository.park(exhausted, error);
+            parked.increment(exhausted.size());
+            log.error("Outbox relay parked messages {} after {} attempts. LastError={}", exhausted, maxAttempts, result.lastError);
+        }
+        log.warn("Outbox relay could not publish {} of {} messages. LastError={}", result.failed.size(), batch.size(), result.lastError);
+    }
+
+    /**
+     * Sends the batch on a single channel checked out once from the connection's channel cache.
+     */
+    private List<Pending> publish(List<OutboxMessage> batch, BatchResult result) {
+        List<Pending> pending = new ArrayList<>(batch.size());
+        long startedAt = System.nanoTime();
+
+        try {
+            rabbitTemplate.invoke(operations -> {
+                for (OutboxMessage outboxMessage : batch) {
+                    CorrelationData correlation = new CorrelationData(String.valueOf(outboxMessage.getId()));
+                    long sentAt = System.nanoTime();
+                    operations.send(outboxMessage.getExchange(), outboxMessage.getRoutingKey(), toAmqpMessage(outboxMessage), correlation);
+                    pending.add(new Pending(outboxMessage, trackConfirm(correlation, sentAt, outboxMessage.getCreatedAt())));
+                }
+                return null;
+            });
+        } catch (AmqpConnectException e) {
+            // the broker is unreachable, which says nothing about the messages: none of them is charged an attempt
+            log.warn("Outbox relay could not reach the broker, {} messages wait for the next run: {}", batch.size() - pending.size(), e.getMessage());
+        } catch (AmqpException e) {
+            // only the message being sent is charged; the rest never left and wait for the next run
+            if (pending.size() < batch.size()) {
+                result.fail(batch.get(pending.size()).getId(), e.getMessage());
+                failed.increment();
+            }
+        }
+
+        publishTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        return pending;
+    }
+
+    private CompletableFuture<CorrelationData.Confirm> trackConfirm(CorrelationData correlation, long sentAt, LocalDateTime createdAt) {
+        return correlation.getFuture().whenComplete((confirm, error) -> {
+            if (confirm != null && confirm.isAck()) {
+                confirmTimer.record(System.nanoTime() - sentAt, TimeUnit.NANOSECONDS);
+                lagTimer.record(Duration.between(createdAt, LocalDateTime.now()));
+            }
+        });
+    }
+
+    private void awaitConfirms(List<Pending> pending, BatchResult result) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(confirmTimeoutMs);
+
+        for (Pending message : pending) {
+            Long id = message.outboxMessage().getId();
+            try {
+                CorrelationData.Confirm confirm = message.confirm().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                if (confirm.isAck()) {
+                    result.acked.add(id);
+                    acked.increment();
+                } else {
+                    result.fail(id, "Broker nack: " + confirm.getReason());
+                    nacked.increment();
+                }
+            } catch (TimeoutException e) {
+                result.fail(id, "No publisher confirm within " + confirmTimeoutMs + " ms");
+                timedOut.increment();
+            } catch (ExecutionException e) {
+                result.fail(id, e.getCause().getMessage());
+                failed.increment();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                result.fail(id, "Interrupted while waiting for publisher confirms");
+                failed.increment();
+            }
+        }
+    }
+
+    private static Message toAmqpMessage(OutboxMessage outboxMessage) {
+        return MessageBuilder.withBody(outboxMessage.getPayload())
+                .setContentType(MessageProperties.CONTENT_TYPE_JSON)
+                .setContentEncoding(StandardCharsets.UTF_8.name())
+                .setMessageId(String.valueOf(outboxMessage.getId()))
+                .setType(outboxMessage.getEventType())
+                .setTimestamp(Timestamp.valueOf(outboxMessage.getCreatedAt()))
+                .setHeader("x-aggregate-type", outboxMessage.getAggregateType())
+                .setHeader("x-aggregate-id", outboxMessage.getAggregateId())
+                .build();
+    }
+
+    private static String truncate(String error) {
+        if (error == null || error.length() <= MAX_ERROR_LENGTH) {
+            return error;
+        }
+        return error.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    private record Pending(OutboxMessage outboxMessage, CompletableFuture<CorrelationData.Confirm> confirm) {
+    }
+
+    private static final class BatchResult {
+
+        private final List<Long> acked = new ArrayList<>();
+        private final List<Long> failed = new ArrayList<>();
+        private String lastError;
+
+        void fail(Long id, String error) {
+            failed.add(id);
+            lastError = error;
+        }
+    }
+}
@@ -5,7 +5,17 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
 
 public interface CustomEventRepository {
     Page<EventSummaryDto> findByCriteria(String name, String location, LocalDateTime startDate, LocalDateTime endDate, Pageable pageable);
+
+    /**
+     * Keyset page ordered by event date and id, newest first. A null {@code afterDate} starts from the top.
+     */
+    List<EventSummaryDto> findByCriteriaAfter(String name, String location, LocalDateTime startDate, LocalDateTime endDate,
+                                              LocalDateTime afterDate, UUID afterId, int limit);
+
+    long countByCriteria(String name, String location, LocalDateTime startDate, LocalDateTime endDate);
 }
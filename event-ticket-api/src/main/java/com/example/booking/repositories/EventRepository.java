@@ -1,7 +1,9 @@
 package com.example.booking.repositories;
 
 import com.example.booking.domain.entities.Event;
+import com.example.booking.dto.EventStockDto;
 import com.example.booking.dto.EventSummaryDto;
+import com.example.booking.dto.TrendingEventDto;
 import org.springframework.data.domain.Page;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
@@ -10,6 +12,10 @@ import org.springframework.data.repository.query.Param;
 
 import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface EventRepository extends JpaRepository<Event, UUID>, CustomEventRepository {
@@ -28,10 +34,49 @@ public interface EventRepository extends JpaRepository<Event, UUID>, CustomEvent
     Page<EventSummaryDto> findAvailableEventsByOwner(UUID ownerId, Pageable pageable);
 
     @Modifying
-    @Query("UPDATE Event e SET e.availableTickets = e.availableTickets - 1 WHERE e.eventId = :id AND e.availableTickets > 0")
-    int decrementAvailableTickets(@Param("id") UUID id);
+    @Query(value = """
+    UPDATE tb_events SET available_tickets = available_tickets - :quantity
+    WHERE event_id = (SELECT tc.event_id FROM tb_ticket_category tc WHERE tc.ticket_category_id = :categoryId)
+    AND available_tickets >= :quantity
+    """, nativeQuery = true)
+    int decrementAvailableTicketsByCategoryId(@Param("categoryId") Long categoryId, @Param("quantity") int quantity);
 
     @Modifying
-    @Query("UPDATE Event e SET e.availableTickets = e.availableTickets + 1 WHERE e.id = :eventId")
-    void incrementAvailableTickets(@Param("eventId") UUID eventId);
+    @Query(value = """
+    UPDATE tb_events SET available_tickets = available_tickets + :quantity
+    WHERE event_id = (SELECT tc.event_id FROM tb_ticket_category tc WHERE tc.ticket_category_id = :categoryId)
+    """, nativeQuery = true)
+    void incrementAvailableTicketsByCategoryId(@Param("categoryId") Long categoryId, @Param("quantity") int quantity);
+
+    @Modifying
+    @Query("UPDATE Event e SET e.availableTickets = e.availableTickets + :delta WHERE e.eventId = :eventId")
+    int applyAvailableTicketsDelta(@Param("eventId") UUID eventId, @Param("delta") int delta);
+
+    @Modifying
+    @Query("UPDATE Event e SET e.availableTickets = :available WHERE e.eventId = :eventId")
+    int updateAvailableTickets(@Param("eventId") UUID eventId, @Param("available") int available);
+
+    @Query("SELECT e.availableTickets FROM Event e WHERE e.eventId = :eventId")
+    Optional<Integer> findAvailableTicketsById(@Param("eventId") UUID eventId);
+
+    @Query("SELECT e.eventDate FROM Event e WHERE e.eventId = :eventId")
+    Optional<LocalDateTime> findEventDateById(@Param("eventId") UUID eventId);
+
+    @Query("SELECT new com.example.booking.dto.EventStockDto(e.eventId, e.availableTickets) FROM Event e WHERE e.eventId IN :eventIds")
+    List<EventStockDto> findStockByIds(@Param("eventIds") Collection<UUID> eventIds);
+
+    @Query("""
+    SELECT new com.example.booking.dto.TrendingEventDto(e.eventId, e.ticketsEmittedInTrendingPeriod)
+    FROM Event e
+    WHERE e.isTrending = true
+    """)
+    List<TrendingEventDto> findTrendingEventCounts();
+
+    @Modifying
+    @Query("UPDATE Event e SET e.isTrending = true, e.ticketsEmittedInTrendingPeriod = :ticketsEmitted WHERE e.eventId = :eventId")
+    int markTrending(@Param("eventId") UUID eventId, @Param("ticketsEmitted") Long ticketsEmitted);
+
+    @Modifying
+    @Query("UPDATE Event e SET e.isTrending = false, e.ticketsEmittedInTrendingPeriod = 0 WHERE e.eventId IN :eventIds")
+    int unmarkTrending(@Param("eventIds") Collection<UUID> eventIds);
 }
@@ -5,11 +5,14 @@ import com.example.booking.domain.enums.EOrderStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -37,14 +40,68 @@ public interface OrderRepository extends JpaRepository<Order, UUID> {
     """)
     Optional<Order> findByIdWithFullAssociations(@Param("orderId") UUID orderId);
 
+    /**
+     * Oldest orders still waiting for payment, locked until the transaction ends. Rows locked by another
+     * instance, or by a payment being applied right now, are skipped and picked up by a later chunk.
+     */
+    @Query(value = """
+    SELECT o.order_id FROM tb_orders o
+    WHERE o.order_status = 'PENDING_PAYMENT'
+    AND o.created_at < :limitDateTime
+    ORDER BY o.created_at
+    LIMIT :limit
+    FOR UPDATE SKIP LOCKED
+    """, nativeQuery = true)
+    List<UUID> lockExpiredPendingOrderIds(@Param("limitDateTime") LocalDateTime limitDateTime, @Param("limit") int limit);
+
+    @Query("""
+    SELECT o.orderId FROM Order o
+    WHERE o.user.userId = :userId
+    ORDER BY o.orderPrice ASC, o.orderId ASC
+    """)
+    List<UUID> findFirstOrderIdsByUserId(@Param("userId") UUID userId, Pageable limit);
+
+    @Query("""
+    SELECT o.orderId FROM Order o
+    WHERE o.user.userId = :userId
+    AND (o.orderPrice > :afterPrice OR (o.orderPrice = :afterPrice AND o.orderId > :afterId))
+    ORDER BY o.orderPrice ASC, o.orderId ASC
+    """)
+    List<UUID> findOrderIdsByUserIdAfter(@Param("userId") UUID userId,
+                                         @Param("afterPrice") BigDecimal afterPrice,
+                                         @Param("afterId") UUID afterId,
+                                         Pageable limit);
+
     @Query("""
     SELECT DISTINCT o FROM Order o
     LEFT JOIN FETCH o.tickets t
-    WHERE o.orderStatus = :status 
-    AND o.createdAt < :limitDateTime
+    LEFT JOIN FETCH o.user
+    LEFT JOIN FETCH t.event
+    LEFT JOIN FETCH t.ticketCategory
+    WHERE o.orderId IN :orderIds
     """)
-    List<Order> findAllByOrderStatusAndCreatedAtBefore(
-            @Param("status") EOrderStatus status,
-            @Param("limitDateTime") LocalDateTime limitDateTime
-    );
+    List<Order> findAllByIdWithAssociations(@Param("orderIds") Collection<UUID> orderIds);
+
+    @Query("SELECT count(o) FROM Order o WHERE o.user.userId = :userId")
+    long countByUserId(@Param("userId") UUID userId);
+
+    @Query("SELECT o.user.userId FROM Order o WHERE o.orderId = :orderId")
+    Optional<UUID> findUserIdByOrderId(@Param("orderId") UUID orderId);
+
+    @Query("SELECT DISTINCT o.user.userId FROM Order o WHERE o.orderId IN :orderIds")
+    List<UUID> findUserIdsByOrderIds(@Param("orderIds") Collection<UUID> orderIds);
+
+    @Query("SELECT o.orderStatus FROM Order o WHERE o.orderId = :orderId")
+    Optional<EOrderStatus> findOrderStatusById(@Param("orderId") UUID orderId);
+
+    /**
+     * Moves the order from {@code from} to {@code to} and returns 1, or returns 0 when it is not in {@code from}.
+     */
+    @Modifying
+    @Query("UPDATE Order o SET o.orderStatus = :to WHERE o.orderId = :orderId AND o.orderStatus = :from")
+    int updateStatusIfCurrent(@Param("orderId") UUID orderId, @Param("from") EOrderStatus from, @Param("to") EOrderStatus to);
+
+    @Modifying
+    @Query("UPDATE Order o SET o.orderStatus = :status WHERE o.orderId IN :orderIds")
+    int updateStatusByIds(@Param("orderIds") Collection<UUID> orderIds, @Param("status") EOrderStatus status);
 }
@@ -0,0 +1,53 @@
+package com.example.booking.repositories;
+
+import com.example.booking.domain.entities.OutboxMessage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxMessageRepository extends JpaRepository<OutboxMessage, Long> {
+
+    /**
+     * Pending messages that are due, oldest first, locked until the transaction ends. Rows locked by another relay
+     * are skipped, so several instances can drain the outbox without publishing the same message twice. A failed
+     * row is only due again after its backoff, so it queues behind messages written meanwhile; parked rows are never
+     * picked up.
+     */
+    @Query(value = """
+            SELECT * FROM tb_outbox_messages
+            WHERE parked_at IS NULL AND next_attempt_at <= now()
+            ORDER BY next_attempt_at, id
+            LIMIT :limit FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<OutboxMessage> lockNextBatch(@Param("limit") int limit);
+
+    @Modifying
+    @Query("DELETE FROM OutboxMessage m WHERE m.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Counts a failed attempt and pushes the next one back by {@code backoffMs} doubled per earlier attempt, capped
+     * at {@code maxBackoffMs}.
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE tb_outbox_messages
+            SET attempts = attempts + 1,
+                last_error = :error,
+                next_attempt_at = now() + LEAST(:maxBackoffMs, :backoffMs * power(2, attempts)) * interval '1 millisecond'
+            WHERE id IN (:ids)
+            """, nativeQuery = true)
+    int recordFailedAttempt(@Param("ids") Collection<Long> ids, @Param("error") String error,
+                            @Param("backoffMs") long backoffMs, @Param("maxBackoffMs") long maxBackoffMs);
+
+    /**
+     * Counts the last failed attempt and takes the messages out of the relay until someone looks at them.
+     */
+    @Modifying
+    @Query("UPDATE OutboxMessage m SET m.attempts = m.attempts + 1, m.lastError = :error, m.parkedAt = CURRENT_TIMESTAMP WHERE m.id IN :ids")
+    int park(@Param("ids") Collection<Long> ids, @Param("error") String error);
+}
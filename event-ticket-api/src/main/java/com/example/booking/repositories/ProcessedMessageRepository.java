@@ -0,0 +1,24 @@
+package com.example.booking.repositories;
+
+import com.example.booking.domain.entities.ProcessedMessage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+public interface ProcessedMessageRepository extends JpaRepository<ProcessedMessage, String> {
+
+    /**
+     * Records the message id and returns 1, or returns 0 when it was already recorded.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO tb_processed_messages (message_id, processed_at) VALUES (:messageId, now()) ON CONFLICT DO NOTHING",
+            nativeQuery = true)
+    int markProcessed(@Param("messageId") String messageId);
+
+    @Modifying
+    @Query("DELETE FROM ProcessedMessage m WHERE m.processedAt < :before")
+    int deleteProcessedBefore(@Param("before") LocalDateTime before);
+}
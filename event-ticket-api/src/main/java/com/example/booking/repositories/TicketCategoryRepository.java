@@ -1,12 +1,16 @@
 package com.example.booking.repositories;
 
 import com.example.booking.domain.entities.TicketCategory;
+import com.example.booking.dto.TicketCategoryStockDto;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 
@@ -16,11 +20,46 @@ public interface TicketCategoryRepository extends JpaRepository<TicketCategory,
     List<TicketCategory> findAllTicketCategoriesByEventId(UUID eventId);
 
     @Modifying
-    @Query("UPDATE TicketCategory tc SET tc.availableCategoryTickets = tc.availableCategoryTickets - 1 " +
-            "WHERE tc.ticketCategoryId = :id AND tc.availableCategoryTickets > 0")
-    int decrementQuantity(@Param("id") Long id);
+    @Query("UPDATE TicketCategory tc SET tc.availableCategoryTickets = tc.availableCategoryTickets - :quantity " +
+            "WHERE tc.ticketCategoryId = :id AND tc.availableCategoryTickets >= :quantity")
+    int decrementQuantity(@Param("id") Long id, @Param("quantity") int quantity);
 
     @Modifying
-    @Query("UPDATE TicketCategory tc SET tc.availableCategoryTickets = tc.availableCategoryTickets + 1 WHERE tc.ticketCategoryId = :id")
-    void incrementQuantity(@Param("id") Long id);
+    @Query("UPDATE TicketCategory tc SET tc.availableCategoryTickets = tc.availableCategoryTickets + :quantity WHERE tc.ticketCategoryId = :id")
+    void incrementQuantity(@Param("id") Long id, @Param("quantity") int quantity);
+
+    @Modifying
+    @Query("UPDATE TicketCategory tc SET tc.availableCategoryTickets = tc.availableCategoryTickets + :delta WHERE tc.ticketCategoryId = :id")
+    int applyQuantityDelta(@Param("id") Long id, @Param("delta") int delta);
+
+    @Modifying
+    @Query("UPDATE TicketCategory tc SET tc.availableCategoryTickets = :available WHERE tc.ticketCategoryId = :id")
+    int updateQuantity(@Param("id") Long id, @Param("available") int available);
+
+    @Query("""
+    SELECT new com.example.booking.dto.TicketCategoryStockDto(
+        tc.ticketCategoryId, tc.event.eventId, tc.availableCategoryTickets
+    )
+    FROM TicketCategory tc
+    WHERE tc.ticketCategoryId = :id
+    """)
+    Optional<TicketCategoryStockDto> findStockById(@Param("id") Long id);
+
+    @Query("""
+    SELECT new com.example.booking.dto.TicketCategoryStockDto(
+        tc.ticketCategoryId, tc.event.eventId, tc.availableCategoryTickets
+    )
+    FROM TicketCategory tc
+    WHERE tc.ticketCategoryId IN :ids
+    """)
+    List<TicketCategoryStockDto> findStockByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("""
+    SELECT new com.example.booking.dto.TicketCategoryStockDto(
+        tc.ticketCategoryId, tc.event.eventId, tc.availableCategoryTickets
+    )
+    FROM TicketCategory tc
+    WHERE tc.event.eventDate >= :from
+    """)
+    List<TicketCategoryStockDto> findStockForEventsFrom(@Param("from") LocalDateTime from);
 }
@@ -1,14 +1,20 @@
 package com.example.booking.repositories;
 
 import com.example.booking.domain.entities.Ticket;
+import com.example.booking.domain.enums.ETicketStatus;
+import com.example.booking.dto.OrderTicketCountDto;
+import com.example.booking.dto.TicketEmissionBucketView;
+import com.example.booking.dto.TrendingEventDto;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -74,4 +80,86 @@ public interface TicketRepository extends JpaRepository<Ticket, UUID> {
     WHERE t.ticketId IN :ids
     """)
     List<Ticket> findTicketsWithEventDetails(@Param("ids") List<UUID> ids);
+
+    @Query("""
+    SELECT new com.example.booking.dto.TrendingEventDto(t.event.eventId, COUNT(t))
+    FROM Ticket t
+    WHERE t.emittedAt >= :since
+    GROUP BY t.event.eventId
+    ORDER BY COUNT(t) DESC
+    """)
+    List<TrendingEventDto> findTopEventsByTicketsEmittedSince(@Param("since") LocalDateTime since, Pageable pageable);
+
+    @Query(value = """
+    SELECT t.event_id AS eventId,
+           CAST(EXTRACT(EPOCH FROM date_trunc('minute', t.emitted_at)) / 60 AS BIGINT) AS minute,
+           COUNT(*) AS tickets
+    FROM tb_tickets t
+    WHERE t.emitted_at >= :since
+    GROUP BY t.event_id, date_trunc('minute', t.emitted_at)
+    """, nativeQuery = true)
+    List<TicketEmissionBucketView> countEmissionsPerMinuteSince(@Param("since") LocalDateTime since);
+
+    @Query("""
+    SELECT t FROM Ticket t
+    JOIN FETCH t.event
+    JOIN FETCH t.ticketOwner
+    JOIN FETCH t.ticketCategory
+    ORDER BY t.ticketId DESC
+    """)
+    List<Ticket> findFirstWithAssociations(Pageable limit);
+
+    @Query("""
+    SELECT t FROM Ticket t
+    JOIN FETCH t.event
+    JOIN FETCH t.ticketOwner
+    JOIN FETCH t.ticketCategory
+    WHERE t.ticketId < :afterId
+    ORDER BY t.ticketId DESC
+    """)
+    List<Ticket> findWithAssociationsAfter(@Param("afterId") UUID afterId, Pageable limit);
+
+    @Query("""
+    SELECT t FROM Ticket t
+    JOIN FETCH t.event
+    JOIN FETCH t.ticketOwner
+    JOIN FETCH t.ticketCategory
+    WHERE t.ticketOwner.userId = :userId
+    ORDER BY t.ticketId ASC
+    """)
+    List<Ticket> findFirstTicketsByUserId(@Param("userId") UUID userId, Pageable limit);
+
+    @Query("""
+    SELECT t FROM Ticket t
+    JOIN FETCH t.event
+    JOIN FETCH t.ticketOwner
+    JOIN FETCH t.ticketCategory
+    WHERE t.ticketOwner.userId = :userId
+    AND t.ticketId > :afterId
+    ORDER BY t.ticketId ASC
+    """)
+    List<Ticket> findTicketsByUserIdAfter(@Param("userId") UUID userId, @Param("afterId") UUID afterId, Pageable limit);
+
+    @Query("SELECT count(t) FROM Ticket t WHERE t.ticketOwner.userId = :userId")
+    long countByUserId(@Param("userId") UUID userId);
+
+    @Modifying
+    @Query("UPDATE Ticket t SET t.ticketStatus = :status WHERE t.order.orderId = :orderId")
+    int updateStatusByOrderId(@Param("orderId") UUID orderId, @Param("status") ETicketStatus status);
+
+    @Query("""
+    SELECT new com.example.booking.dto.OrderTicketCountDto(t.ticketCategory.ticketCategoryId, t.event.eventId, COUNT(t))
+    FROM Ticket t
+    WHERE t.order.orderId IN :orderIds
+    GROUP BY t.ticketCategory.ticketCategoryId, t.event.eventId
+    """)
+    List<OrderTicketCountDto> countByOrderIdsGroupedByCategory(@Param("orderIds") Collection<UUID> orderIds);
+
+    @Modifying
+    @Query("DELETE FROM Ticket t WHERE t.order.orderId = :orderId")
+    int deleteByOrderId(@Param("orderId") UUID orderId);
+
+    @Modifying
+    @Query("UPDATE Ticket t SET t.ticketStatus = com.example.booking.domain.enums.ETicketStatus.EXPIRED, t.order = null WHERE t.order.orderId IN :orderIds")
+    int expireByOrderIds(@Param("orderIds") Collection<UUID> orderIds);
 }
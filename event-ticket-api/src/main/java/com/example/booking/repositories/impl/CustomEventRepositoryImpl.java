@@ -5,26 +5,47 @@ import com.example.booking.dto.EventSummaryDto;
 import com.example.booking.repositories.CustomEventRepository;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
 import jakarta.persistence.TypedQuery;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
+import java.util.stream.Collectors;
 
 public class CustomEventRepositoryImpl implements CustomEventRepository {
 
+    private static final String FULLTEXT = "fulltext";
+
     @PersistenceContext
     private EntityManager entityManager;
 
+    @Value("${booking.search.mode:like}")
+    private String searchMode;
+
+    /**
+     * Upper bound for the count of full-text results; 0 means an exact count.
+     */
+    @Value("${booking.search.count-limit:0}")
+    private int countLimit;
+
     @Override
     public Page<EventSummaryDto> findByCriteria(String name, String location, LocalDateTime startDate, LocalDateTime endDate, Pageable pageable) {
+        if (FULLTEXT.equals(searchMode) && name != null && !name.isBlank()) {
+            String tsQuery = toPrefixTsQuery(name);
+            if (!tsQuery.isEmpty()) {
+                return searchByText(name, tsQuery, location, startDate, endDate, pageable);
+            }
+        }
 
         CriteriaBuilder cb = entityManager.getCriteriaBuilder();
         CriteriaQuery<EventSummaryDto> query = cb.createQuery(EventSummaryDto.class);
@@ -55,7 +76,42 @@ public class CustomEventRepositoryImpl implements CustomEventRepository {
         return new PageImpl<>(resultList, pageable, totalRows);
     }
 
-    private long countByCriteria(String name, String location, LocalDateTime startDate, LocalDateTime endDate) {
+    @Override
+    public List<EventSummaryDto> findByCriteriaAfter(String name, String location, LocalDateTime startDate, LocalDateTime endDate,
+                                                     LocalDateTime afterDate, UUID afterId, int limit) {
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<EventSummaryDto> query = cb.createQuery(EventSummaryDto.class);
+        Root<Event> event = query.from(Event.class);
+
+        List<Predicate> predicates = createPredicates(cb, event, name, location, startDate, endDate);
+
+        if (afterDate != null) {
+            Path<LocalDateTime> eventDate = event.get("eventDate");
+            Path<UUID> eventId = event.get("eventId");
+            predicates.add(cb.or(
+                    cb.lessThan(eventDate, afterDate),
+                    cb.and(cb.equal(eventDate, afterDate), cb.lessThan(eventId, afterId))
+            ));
+        }
+
+        query.select(cb.construct(
+                EventSummaryDto.class,
+                event.get("eventId"),
+                event.get("eventName"),
+                event.get("eventLocation"),
+                event.get("availableTickets"),
+                event.get("eventDate")
+        )).where(predicates.toArray(new Predicate[0]))
+          .orderBy(cb.desc(event.get("eventDate")), cb.desc(event.get("eventId")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public long countByCriteria(String name, String location, LocalDateTime startDate, LocalDateTime endDate) {
         CriteriaBuilder cb = entityManager.getCriteriaBuilder();
         CriteriaQuery<Long> countQuery = cb.createQuery(Long.class);
         Root<Event> event = countQuery.from(Event.class);
@@ -67,6 +123,110 @@ public class CustomEventRepositoryImpl implements CustomEventRepository {
         return entityManager.createQuery(countQuery).getSingleResult();
     }
 
+    /**
+     * Ranked search over the {@code search_vector} column and the trigram index on the event name (V17).
+     * Rows come back ordered by relevance, and the total is read from a window count in the same query
+     * unless {@code booking.search.count-limit} asks for a bounded count.
+     */
+    private Page<EventSummaryDto> searchByText(String name, String tsQuery, String location, LocalDateTime startDate,
+                                               LocalDateTime endDate, Pageable pageable) {
+        Map<String, Object> params = new HashMap<>();
+        String where = createTextSearchWhere(name, tsQuery, location, startDate, endDate, params);
+        boolean exactCount = countLimit <= 0;
+
+        String sql = "SELECT e.event_id, e.event_name, e.event_location, e.available_tickets, e.event_date"
+                + (exactCount ? ", count(*) OVER ()" : "")
+                + " FROM tb_events e" + where
+                + " ORDER BY ts_rank_cd(e.search_vector, to_tsquery('simple', :tsQuery)) DESC,"
+                + " similarity(lower(e.event_name), :term) DESC, e.event_date DESC, e.event_id";
+
+        Query query = entityManager.createNativeQuery(sql);
+        params.forEach(query::setParameter);
+        query.setFirstResult((int) pageable.getOffset());
+        query.setMaxResults(pageable.getPageSize());
+
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = query.getResultList();
+
+        List<EventSummaryDto> content = rows.stream()
+                .map(row -> new EventSummaryDto(
+                        (UUID) row[0],
+                        (String) row[1],
+                        (String) row[2],
+                        row[3] == null ? null : ((Number) row[3]).intValue(),
+                        toLocalDateTime(row[4])
+                ))
+                .toList();
+
+        long totalRows;
+        if (rows.size() < pageable.getPageSize() && (!rows.isEmpty() || pageable.getOffset() == 0)) {
+            totalRows = pageable.getOffset() + rows.size();
+        } else if (exactCount && !rows.isEmpty()) {
+            totalRows = ((Number) rows.getFirst()[5]).longValue();
+        } else {
+            totalRows = countByText(where, params, exactCount ? 0 : countLimit);
+        }
+
+        return new PageImpl<>(content, pageable, totalRows);
+    }
+
+    private long countByText(String where, Map<String, Object> params, int limit) {
+        String sql = limit > 0
+                ? "SELECT count(*) FROM (SELECT 1 FROM tb_events e" + where + " LIMIT " + limit + ") t"
+                : "SELECT count(*) FROM tb_events e" + where;
+
+        Query query = entityManager.createNativeQuery(sql);
+        params.forEach((key, value) -> {
+            if (!"term".equals(key)) {
+                query.setParameter(key, value);
+            }
+        });
+
+        return ((Number) query.getSingleResult()).longValue();
+    }
+
+    private String createTextSearchWhere(String name, String tsQuery, String location, LocalDateTime startDate,
+                                         LocalDateTime endDate, Map<String, Object> params) {
+        StringBuilder where = new StringBuilder(
+                " WHERE (e.search_vector @@ to_tsquery('simple', :tsQuery) OR lower(e.event_name) LIKE :pattern)");
+        params.put("tsQuery", tsQuery);
+        params.put("pattern", "%" + name.toLowerCase() + "%");
+        params.put("term", name.toLowerCase());
+
+        if (location != null && !location.isEmpty()) {
+            where.append(" AND e.event_location = :location");
+            params.put("location", location);
+        }
+        if (startDate != null) {
+            where.append(" AND e.event_date >= :startDate");
+            params.put("startDate", startDate);
+        }
+        if (endDate != null) {
+            where.append(" AND e.event_date <= :endDate");
+            params.put("endDate", endDate);
+        }
+
+        return where.toString();
+    }
+
+    /**
+     * Turns free text into a prefix query, e.g. {@code "rock fest"} becomes {@code "rock:* & fest:*"}.
+     * Everything but letters and digits is dropped so user input can never break the tsquery syntax.
+     */
+    static String toPrefixTsQuery(String text) {
+        return Arrays.stream(text.toLowerCase().split("[^\\p{L}\\p{N}]+"))
+                .filter(token -> !token.isEmpty())
+                .map(token -> token + ":*")
+                .collect(Collectors.joining(" & "));
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime();
+        }
+        return (LocalDateTime) value;
+    }
+
     private List<Predicate> createPredicates(CriteriaBuilder cb, Root<Event> event, String name, String location, LocalDateTime startDate, LocalDateTime endDate) {
         List<Predicate> predicates = new ArrayList<>();
 
@@ -3,6 +3,7 @@ package com.example.booking.services;
 import java.util.*;
 import java.util.stream.Collectors;
 
+import com.example.booking.config.security.TokenDenylist;
 import com.example.booking.config.security.UserDetailsImpl;
 import com.example.booking.dto.CookieParDto;
 import com.example.booking.dto.UserDto;
@@ -47,19 +48,22 @@ public class AuthServiceImpl implements AuthService {
     private final PasswordEncoder encoder;
     private final JwtUtils jwtUtils;
     private final RefreshTokenService refreshTokenService;
+    private final TokenDenylist tokenDenylist;
 
     public AuthServiceImpl(AuthenticationManager authenticationManager,
                            UserRepository userRepository,
                            RoleService roleService,
                            PasswordEncoder encoder,
                            JwtUtils jwtUtils,
-                           RefreshTokenService refreshTokenService) {
+                           RefreshTokenService refreshTokenService,
+                           TokenDenylist tokenDenylist) {
         this.authenticationManager = authenticationManager;
         this.userRepository = userRepository;
         this.roleService = roleService;
         this.encoder = encoder;
         this.jwtUtils = jwtUtils;
         this.refreshTokenService = refreshTokenService;
+        this.tokenDenylist = tokenDenylist;
     }
 
     public AuthResponse authenticateUser(LoginRequest loginRequest) {
@@ -148,8 +152,10 @@ public class AuthServiceImpl implements AuthService {
         Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
 
         if (!"anonymousUser".equals(principal.toString())) {
-            UUID userId = ((UserDetailsImpl) principal).getId();
+            UserDetailsImpl userDetails = (UserDetailsImpl) principal;
+            UUID userId = userDetails.getId();
             refreshTokenService.deleteByUserId(userId);
+            tokenDenylist.revoke(userDetails.getTokenId());
 
             log.info("User logged out with userId={}", userId);
         } else {
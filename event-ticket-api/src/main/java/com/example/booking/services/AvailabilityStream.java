@@ -0,0 +1,91 @@
+package com.example.booking.services;
+
+import com.example.booking.controller.response.ticket.AvailableTicketsResponse;
+import com.example.booking.dto.RemainingTicketCategoryDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * One client connection of {@link AvailabilityStreamServiceImpl}. Snapshots go through a single slot that only
+ * keeps the latest one, and at most one sender drains it at a time, so a slow client receives snapshots in order
+ * and never has more than one waiting.
+ */
+final class AvailabilityStream {
+
+    private static final Logger log = LoggerFactory.getLogger(AvailabilityStream.class);
+
+    private final SseEmitter emitter;
+    private final Executor senders;
+    private final Runnable onDrop;
+    private final AtomicReference<List<RemainingTicketCategoryDto>> latest = new AtomicReference<>();
+    private final AtomicBoolean sending = new AtomicBoolean();
+
+    AvailabilityStream(SseEmitter emitter, Executor senders, Runnable onDrop) {
+        this.emitter = emitter;
+        this.senders = senders;
+        this.onDrop = onDrop;
+    }
+
+    SseEmitter emitter() {
+        return emitter;
+    }
+
+    /**
+     * Replaces the snapshot waiting to be sent, if any, and starts a sender unless one is already running.
+     */
+    void offer(List<RemainingTicketCategoryDto> availability) {
+        latest.set(availability);
+        if (sending.compareAndSet(false, true)) {
+            senders.execute(this::drain);
+        }
+    }
+
+    /**
+     * Sends a comment so proxies keep the connection open. Skipped while a snapshot is being sent, since the
+     * connection is not silent then.
+     */
+    void heartbeat() {
+        if (sending.compareAndSet(false, true)) {
+            senders.execute(() -> {
+                if (write(SseEmitter.event().comment("keep-alive"))) {
+                    drain();
+                }
+            });
+        }
+    }
+
+    private void drain() {
+        do {
+            List<RemainingTicketCategoryDto> availability;
+            while ((availability = latest.getAndSet(null)) != null) {
+                if (!write(SseEmitter.event()
+                        .name(AvailabilityStreamServiceImpl.EVENT_NAME)
+                        .data(new AvailableTicketsResponse(availability), MediaType.APPLICATION_JSON))) {
+                    return;
+                }
+            }
+            sending.set(false);
+            // a snapshot offered between the last read and the reset above found the flag still set
+        } while (latest.get() != null && sending.compareAndSet(false, true));
+    }
+
+    private boolean write(SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // the client went away; the container completes the emitter
+            log.debug("Dropping availability stream: {}", e.getMessage());
+            onDrop.run();
+            return false;
+        }
+    }
+}
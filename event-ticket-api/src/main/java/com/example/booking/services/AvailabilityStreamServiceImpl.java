@@ -0,0 +1,145 @@
+package com.example.booking.services;
+
+import com.example.booking.dto.RemainingTicketCategoryDto;
+import com.example.booking.services.intefaces.AvailabilityStreamService;
+import com.example.booking.services.intefaces.TicketService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Pushes availability to the clients of this pod. Every pod hears about every change through
+ * {@link com.example.booking.config.cache.AvailabilityCache#CHANGES_CHANNEL}, marks the events it has subscribers
+ * for, and sends each marked event one fresh snapshot per flush, however many changes arrived meanwhile.
+ * <p>
+ * Snapshots carry absolute counts rather than deltas, so a client that missed a message is corrected by the
+ * next one. Sends run on virtual threads, at most one per client at a time, so a slow client never holds up the
+ * others and only ever has the latest snapshot waiting; see {@link AvailabilityStream}.
+ */
+@Service
+public class AvailabilityStreamServiceImpl implements AvailabilityStreamService, MessageListener {
+
+    private static final Logger log = LoggerFactory.getLogger(AvailabilityStreamServiceImpl.class);
+
+    static final String EVENT_NAME = "availability";
+
+    private final TicketService ticketService;
+    private final long timeoutMs;
+
+    private final Map<UUID, Set<AvailabilityStream>> subscribers = new ConcurrentHashMap<>();
+    private final Set<UUID> changed = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+
+    public AvailabilityStreamServiceImpl(TicketService ticketService,
+                                         MeterRegistry meterRegistry,
+                                         @Value("${booking.availability.stream.timeout-ms:1800000}") long timeoutMs) {
+        this.ticketService = ticketService;
+        this.timeoutMs = timeoutMs;
+        meterRegistry.gauge("booking.availability.stream.subscribers", subscribers,
+                streams -> streams.values().stream().mapToInt(Set::size).sum());
+    }
+
+    @Override
+    @PreAuthorize("isAuthenticated()")
+    public SseEmitter subscribe(UUID eventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        emitter.onCompletion(() -> remove(eventId, emitter));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> remove(eventId, emitter));
+        AvailabilityStream stream = new AvailabilityStream(emitter, senders, () -> remove(eventId, emitter));
+
+        // registered before the first read, so a change landing in between still triggers a snapshot
+        subscribers.compute(eventId, (id, streams) -> {
+            Set<AvailabilityStream> registered = streams == null ? new CopyOnWriteArraySet<>() : streams;
+            registered.add(stream);
+            return registered;
+        });
+
+        try {
+            stream.offer(ticketService.findAvailableTicketsByCategory(eventId));
+        } catch (RuntimeException e) {
+            remove(eventId, emitter);
+            throw e;
+        }
+
+        log.debug("Client subscribed to availability of event {}", eventId);
+        return emitter;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        UUID eventId;
+        try {
+            eventId = UUID.fromString(new String(message.getBody(), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring malformed availability change message", e);
+            return;
+        }
+
+        if (subscribers.containsKey(eventId)) {
+            changed.add(eventId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${booking.availability.stream.flush-interval-ms:250}")
+    public void flush() {
+        // taken out before reading, so a change arriving during the read is picked up by the next flush
+        List<UUID> events = List.copyOf(changed);
+        changed.removeAll(events);
+
+        for (UUID eventId : events) {
+            Set<AvailabilityStream> streams = subscribers.get(eventId);
+            if (streams == null || streams.isEmpty()) {
+                continue;
+            }
+
+            List<RemainingTicketCategoryDto> availability;
+            try {
+                availability = ticketService.findAvailableTicketsByCategory(eventId);
+            } catch (RuntimeException e) {
+                log.warn("Could not read availability of event {} for its streams", eventId, e);
+                changed.add(eventId);
+                continue;
+            }
+
+            streams.forEach(stream -> stream.offer(availability));
+        }
+    }
+
+    // proxies and load balancers drop connections that stay silent for too long
+    @Scheduled(fixedRateString = "${booking.availability.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        subscribers.values().forEach(streams -> streams.forEach(AvailabilityStream::heartbeat));
+    }
+
+    @PreDestroy
+    void close() {
+        subscribers.values().forEach(streams -> streams.forEach(stream -> stream.emitter().complete()));
+        senders.shutdownNow();
+    }
+
+    private void remove(UUID eventId, SseEmitter emitter) {
+        subscribers.computeIfPresent(eventId, (id, streams) -> {
+            streams.removeIf(stream -> stream.emitter() == emitter);
+            return streams.isEmpty() ? null : streams;
+        });
+    }
+}
@@ -1,6 +1,5 @@
 package com.example.booking.services;
 
-import com.example.booking.config.cache.CacheNames;
 import com.example.booking.controller.request.event.UpdateEventRequest;
 import com.example.booking.dto.CityDataDto;
 import com.example.booking.controller.request.event.CreateEventRequest;
@@ -10,21 +9,23 @@ import com.example.booking.dto.RecommendEventDto;
 import com.example.booking.domain.entities.Event;
 import com.example.booking.domain.entities.User;
 import com.example.booking.dto.EventSummaryDto;
+import com.example.booking.dto.TrendingEventDto;
 import com.example.booking.exception.EventNotFoundException;
-import com.example.booking.exception.EventSoldOutException;
 import com.example.booking.messaging.interfaces.EventRequestProducer;
 import com.example.booking.repositories.EventRepository;
 import com.example.booking.services.intefaces.EventsService;
 import com.example.booking.services.intefaces.GeoService;
 import com.example.booking.services.intefaces.TicketCategoryService;
+import com.example.booking.services.intefaces.TrendingEngine;
 import com.example.booking.services.intefaces.UserService;
 import com.example.booking.util.JwtUtils;
+import com.example.booking.util.KeysetPage;
+import com.example.booking.util.PageCursor;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
@@ -46,16 +47,18 @@ public class EventsServiceImpl implements EventsService {
     private final GeoService geoService;
     private final TicketCategoryService ticketCategoryService;
     private final EventRequestProducer producer;
+    private final TrendingEngine trendingEngine;
 
     private static final Logger log = LoggerFactory.getLogger(EventsServiceImpl.class);
 
-    public EventsServiceImpl(EventRepository eventRepository, UserService userService, JwtUtils jwtUtils, GeoService geoService, TicketCategoryService ticketCategoryService, EventRequestProducer producer) {
+    public EventsServiceImpl(EventRepository eventRepository, UserService userService, JwtUtils jwtUtils, GeoService geoService, TicketCategoryService ticketCategoryService, EventRequestProducer producer, TrendingEngine trendingEngine) {
         this.eventRepository = eventRepository;
         this.userService = userService;
         this.jwtUtils = jwtUtils;
         this.geoService = geoService;
         this.ticketCategoryService = ticketCategoryService;
         this.producer = producer;
+        this.trendingEngine = trendingEngine;
     }
 
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
@@ -100,6 +103,13 @@ public class EventsServiceImpl implements EventsService {
         return new EventsDto(events.getContent(), page, pageSize, events.getTotalPages(), events.getTotalElements());
     }
 
+    @Override
+    @PreAuthorize("isAuthenticated()")
+    public EventsDto listAllEvents(String cursor, int pageSize, boolean withCount) {
+        log.info("Listing all events. Cursor={}, PageSize={}, WithCount={}", cursor, pageSize, withCount);
+        return findEventsAfter(null, null, null, null, cursor, pageSize, withCount);
+    }
+
     @PreAuthorize("isAuthenticated()")
     public EventsDto listAllUserEvents(int page, int pageSize) {
         UUID userID = jwtUtils.getAuthenticatedUserId();
@@ -114,15 +124,20 @@ public class EventsServiceImpl implements EventsService {
         return new EventsDto(events.getContent(), page, pageSize, events.getTotalPages(), events.getTotalElements());
     }
 
-    @Cacheable(
-            value = CacheNames.TOP_EVENTS,
-            key = "'topTrending'"
-    )
     @PreAuthorize("isAuthenticated()")
     public List<EventItemDto> getTopTrendingEvents() {
         log.info("Fetching top trending events");
 
-        var trendingEvents = eventRepository.findAll().stream().filter(Event::getTrending).map(Event::toEventItemDto).toList();
+        List<UUID> rankedIds = trendingEngine.topEvents().stream().map(TrendingEventDto::eventId).toList();
+
+        Map<UUID, Event> eventsById = new HashMap<>();
+        eventRepository.findAllById(rankedIds).forEach(e -> eventsById.put(e.getEventId(), e));
+
+        var trendingEvents = rankedIds.stream()
+                .map(eventsById::get)
+                .filter(Objects::nonNull)
+                .map(Event::toEventItemDto)
+                .toList();
 
         if(trendingEvents.isEmpty()) {
             log.info("No trending events found");
@@ -186,6 +201,34 @@ public class EventsServiceImpl implements EventsService {
         );
     }
 
+    @Override
+    @PreAuthorize("isAuthenticated()")
+    public EventsDto searchEvents(String name, String location, LocalDateTime start, LocalDateTime end, String cursor, int pageSize, boolean withCount) {
+        log.info("Searching events with criteria. Name='{}', Location='{}', Start='{}', End='{}', Cursor={}, PageSize={}, WithCount={}",
+                name, location, start, end, cursor, pageSize, withCount);
+        return findEventsAfter(name, location, start, end, cursor, pageSize, withCount);
+    }
+
+    private EventsDto findEventsAfter(String name, String location, LocalDateTime start, LocalDateTime end, String cursor, int pageSize, boolean withCount) {
+        PageCursor after = PageCursor.decode(cursor);
+
+        List<EventSummaryDto> rows = eventRepository.findByCriteriaAfter(
+                name,
+                location,
+                start,
+                end,
+                after == null ? null : after.sortKeyAsDateTime(),
+                after == null ? null : after.id(),
+                pageSize + 1
+        );
+        KeysetPage<EventSummaryDto> events = KeysetPage.of(rows, pageSize, e -> PageCursor.of(e.eventDate(), e.eventId()));
+
+        Long total = withCount ? eventRepository.countByCriteria(name, location, start, end) : null;
+        Integer totalPages = total == null ? null : (int) Math.ceil((double) total / pageSize);
+
+        return new EventsDto(events.items(), null, pageSize, totalPages, total, events.nextCursor());
+    }
+
     @Override
     @Transactional
     @PreAuthorize("hasAnyRole('ADMIN') or @eventSecurity.isEventOwner(#eventId)")
@@ -205,21 +248,6 @@ public class EventsServiceImpl implements EventsService {
         log.info("Event updated successfully. EventId={}", eventId);
     }
 
-    @Transactional
-    @Override
-    public void decrementAvailableTickets(UUID eventId) {
-        int updated = eventRepository.decrementAvailableTickets(eventId);
-        if (updated == 0) {
-            throw new EventSoldOutException();
-        }
-    }
-
-    @Transactional
-    @Override
-    public void incrementAvailableTickets(UUID eventId) {
-         eventRepository.incrementAvailableTickets(eventId);
-    }
-
     private void publishEventRecommendation(Event savedEvent, CityDataDto cityData) {
 
         if (cityData == null) {
@@ -231,7 +259,8 @@ public class EventsServiceImpl implements EventsService {
             RecommendEventDto recommendEventDto = new RecommendEventDto(
                     savedEvent.getEventId(),
                     cityData.latitude(),
-                    cityData.longitude()
+                    cityData.longitude(),
+                    savedEvent.getEventDate()
             );
 
             producer.publishEventRecommendation(recommendEventDto);
@@ -1,6 +1,7 @@
 package com.example.booking.services;
 
 import com.example.booking.config.cache.CacheNames;
+import com.example.booking.config.cache.UserCacheGenerations;
 import com.example.booking.controller.request.order.CreateOrderRequest;
 import com.example.booking.controller.response.order.OrdersResponse;
 import com.example.booking.domain.entities.Order;
@@ -11,21 +12,28 @@ import com.example.booking.dto.OrderItemDto;
 import com.example.booking.dto.PaymentRequestDto;
 import com.example.booking.exception.OrderAlreadyConfirmedException;
 import com.example.booking.exception.OrderNotFoundException;
+import com.example.booking.messaging.interfaces.OrderExpirationProducer;
 import com.example.booking.repositories.OrderRepository;
 import com.example.booking.services.client.PaymentClient;
 import com.example.booking.services.intefaces.OrderService;
 import com.example.booking.services.intefaces.TicketService;
 import com.example.booking.services.intefaces.UserService;
 import com.example.booking.util.JwtUtils;
+import com.example.booking.util.KeysetPage;
+import com.example.booking.util.PageCursor;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.*;
 
 import static java.util.stream.Collectors.toList;
@@ -42,19 +50,25 @@ public class OrderServiceImpl implements OrderService {
     private final JwtUtils jwtUtils;
     private final CacheManager cacheManager;
     private final PaymentClient paymentClient;
+    private final OrderExpirationProducer orderExpirationProducer;
+    private final UserCacheGenerations userCacheGenerations;
 
     public OrderServiceImpl(OrderRepository orderRepository,
                             UserService userService,
                             TicketService ticketService,
                             JwtUtils jwtUtils,
                             CacheManager cacheManager,
-                            PaymentClient paymentClient) {
+                            PaymentClient paymentClient,
+                            OrderExpirationProducer orderExpirationProducer,
+                            UserCacheGenerations userCacheGenerations) {
         this.orderRepository = orderRepository;
         this.userService = userService;
         this.ticketService = ticketService;
         this.jwtUtils = jwtUtils;
         this.cacheManager = cacheManager;
         this.paymentClient = paymentClient;
+        this.orderExpirationProducer = orderExpirationProducer;
+        this.userCacheGenerations = userCacheGenerations;
     }
 
     @Override
@@ -77,7 +91,8 @@ public class OrderServiceImpl implements OrderService {
 
         tickets.forEach(ticket -> ticket.reserve(savedOrder));
 
-        evictCaches(tickets);
+        userCacheGenerations.invalidate(CacheNames.ORDERS, userId);
+        scheduleExpiration(savedOrder.getOrderId());
 
         PaymentRequestDto paymentDto = new PaymentRequestDto(
                 savedOrder.getOrderId(),
@@ -100,7 +115,7 @@ public class OrderServiceImpl implements OrderService {
     @Override
     @PreAuthorize("isAuthenticated()")
     public OrdersResponse getOrdersByUserId(UUID userId, int page, int pageSize) {
-        String cacheKey = userId + "-" + page + "-" + pageSize;
+        String cacheKey = userCacheGenerations.keyPrefix(CacheNames.ORDERS, userId) + "-" + page + "-" + pageSize;
 
         var cache = cacheManager.getCache(CacheNames.ORDERS);
 
@@ -136,21 +151,78 @@ public class OrderServiceImpl implements OrderService {
         return response;
     }
 
+    @Override
+    @PreAuthorize("isAuthenticated()")
+    public OrdersResponse getOrdersByUserId(UUID userId, String cursor, int pageSize, boolean withCount) {
+        // decoded before the cache is touched: a malformed cursor is rejected, and the key only ever holds a
+        // cursor this service could have issued, re-encoded, instead of whatever the client sent
+        PageCursor after = PageCursor.decode(cursor);
+        BigDecimal afterPrice = after == null ? null : after.sortKeyAsDecimal();
+        String position = after == null ? "" : PageCursor.of(afterPrice, after.id()).encode();
+        String cacheKey = userCacheGenerations.keyPrefix(CacheNames.ORDERS, userId) + "-cursor-" + position + "-" + pageSize + "-" + withCount;
+
+        var cache = cacheManager.getCache(CacheNames.ORDERS);
+
+        if (cache != null) {
+            OrdersResponse cachedValue = cache.get(cacheKey, OrdersResponse.class);
+            if (cachedValue != null) {
+                log.info("Cache HIT for key={}", cacheKey);
+                return cachedValue;
+            }
+        }
+
+        log.info("Cache MISS. Fetching orders for userId={}, cursor={}, pageSize={}", userId, cursor, pageSize);
+
+        Pageable limit = PageRequest.ofSize(pageSize + 1);
+
+        // ids first, so the collection fetch below is not paginated in memory
+        List<UUID> rows = after == null
+                ? orderRepository.findFirstOrderIdsByUserId(userId, limit)
+                : orderRepository.findOrderIdsByUserIdAfter(userId, afterPrice, after.id(), limit);
+
+        Map<UUID, Order> ordersById = new HashMap<>();
+        orderRepository.findAllByIdWithAssociations(rows).forEach(o -> ordersById.put(o.getOrderId(), o));
+
+        KeysetPage<Order> orders = KeysetPage.of(
+                rows.stream().map(ordersById::get).filter(Objects::nonNull).toList(),
+                pageSize,
+                o -> PageCursor.of(o.getOrderPrice(), o.getOrderId())
+        );
+
+        Long total = withCount ? orderRepository.countByUserId(userId) : null;
+        Integer totalPages = total == null ? null : (int) Math.ceil((double) total / pageSize);
+
+        OrdersResponse response = new OrdersResponse(
+                orders.items().stream().map(Order::toOrderItemDto).toList(),
+                null,
+                pageSize,
+                totalPages,
+                total,
+                orders.nextCursor()
+        );
+
+        if (cache != null) {
+            cache.put(cacheKey, response);
+            log.info("Stored result in cache for key={}", cacheKey);
+        }
+
+        return response;
+    }
+
     @Override
     @Transactional
     @PreAuthorize("hasRole('ADMIN') or @orderSecurity.isOrderOwner(#orderId)")
     public void deleteOrder(UUID orderId) {
         log.info("Attempting to delete orderId={}", orderId);
 
-        Order order = orderRepository.findByIdWithFullAssociations(orderId)
+        UUID userId = orderRepository.findUserIdByOrderId(orderId)
                 .orElseThrow(() -> {
                     log.warn("Order not found with id={}", orderId);
                     return new OrderNotFoundException();
                 });
 
-        restoreStock(order.getTickets());
-
-        evictCaches(new ArrayList<>(order.getTickets()));
+        ticketService.releaseOrderTickets(orderId);
+        userCacheGenerations.invalidate(CacheNames.ORDERS, userId);
 
         orderRepository.deleteById(orderId);
         log.info("Order deleted successfully. orderId={}", orderId);
@@ -159,63 +231,87 @@ public class OrderServiceImpl implements OrderService {
     @Override
     @Transactional
     public void updateOrderStatusToPaid(UUID orderId) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(OrderNotFoundException::new);
-
-        if (order.getOrderStatus() == EOrderStatus.PENDING_PAYMENT) {
-            order.setOrderStatus(EOrderStatus.CONFIRMED);
-            order.getTickets().forEach(Ticket::markAsPaid);
-            orderRepository.save(order);
-            log.info("Order status {} updated with success", order.getOrderStatus());
+        if (orderRepository.updateStatusIfCurrent(orderId, EOrderStatus.PENDING_PAYMENT, EOrderStatus.CONFIRMED) == 0) {
+            EOrderStatus status = orderRepository.findOrderStatusById(orderId)
+                    .orElseThrow(OrderNotFoundException::new);
+            log.info("Order {} is {}, payment confirmation ignored", orderId, status);
+            return;
         }
+
+        ticketService.markOrderTicketsAsPaid(orderId);
+        invalidateOrdersOfOwner(orderId);
+        log.info("Order {} updated to {}", orderId, EOrderStatus.CONFIRMED);
     }
 
     @Override
     @Transactional
     public void cancelOrderAndReleaseTicket(UUID orderId) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(OrderNotFoundException::new);
+        if (orderRepository.updateStatusIfCurrent(orderId, EOrderStatus.PENDING_PAYMENT, EOrderStatus.CANCELED) == 0) {
+            EOrderStatus status = orderRepository.findOrderStatusById(orderId)
+                    .orElseThrow(OrderNotFoundException::new);
+
+            if (status == EOrderStatus.CONFIRMED) {
+                log.error("Is not possible to cancel a already confirmed order {}", orderId);
+                throw new OrderAlreadyConfirmedException("Order already confirmed! Not possible to cancel!");
+            }
 
-        if (order.getOrderStatus() == EOrderStatus.CANCELED) {
             log.warn("Order already cancelled {}", orderId);
             return;
         }
 
-        if (order.getOrderStatus() == EOrderStatus.CONFIRMED) {
-            log.error("Is not possible to cancel a already confirmed order {}", orderId);
-            throw new OrderAlreadyConfirmedException("Order already confirmed! Not possible to cancel!");
-        }
-
-        order.setOrderStatus(EOrderStatus.CANCELED);
-        orderRepository.save(order);
+        ticketService.releaseOrderTickets(orderId);
+        invalidateOrdersOfOwner(orderId);
 
-        Set<Ticket> tickets = order.getTickets();
+        log.info("Order {} canceled", orderId);
+    }
 
-        tickets.stream().toList().forEach(ticket -> {
-            ticketService.deleteEmittedTicket(ticket.getTicketId());
-        });
+    /**
+     * Expires the order if it is still waiting for payment. Returns {@code false} when it was paid or
+     * canceled in the meantime.
+     */
+    @Override
+    @Transactional
+    public boolean expireOrder(UUID orderId) {
+        if (orderRepository.updateStatusIfCurrent(orderId, EOrderStatus.PENDING_PAYMENT, EOrderStatus.CANCELED) == 0) {
+            log.debug("Order {} is no longer pending payment, expiration ignored", orderId);
+            return false;
+        }
 
-        log.info("Order {} canceled", orderId);
+        ticketService.expireOrderTickets(List.of(orderId));
+        invalidateOrdersOfOwner(orderId);
+        return true;
     }
 
-    private void restoreStock(Set<Ticket> tickets) {
-        tickets.forEach(ticket -> {
-            ticket.getTicketCategory().incrementTicketCategory();
-            ticket.getEvent().incrementAvailableTickets();
+    /**
+     * Cancels one chunk of orders that were not paid in time and returns its size. The chunk is locked, so a
+     * payment arriving meanwhile waits and then finds the order canceled.
+     */
+    @Override
+    @Transactional
+    public int expirePendingOrders(LocalDateTime createdBefore, int limit) {
+        List<UUID> orderIds = orderRepository.lockExpiredPendingOrderIds(createdBefore, limit);
+        if (orderIds.isEmpty()) {
+            return 0;
+        }
+
+        orderRepository.updateStatusByIds(orderIds, EOrderStatus.CANCELED);
+        ticketService.expireOrderTickets(orderIds);
+        userCacheGenerations.invalidate(CacheNames.ORDERS, orderRepository.findUserIdsByOrderIds(orderIds));
 
-            ticket.removeOrderAssociation();
-        });
+        log.debug("Expired {} orders created before {}", orderIds.size(), createdBefore);
+        return orderIds.size();
     }
 
-    private void evictCaches(List<Ticket> tickets) {
-        Objects.requireNonNull(cacheManager.getCache(CacheNames.ORDERS)).clear();
+    private void scheduleExpiration(UUID orderId) {
+        try {
+            orderExpirationProducer.scheduleExpiration(orderId);
+        } catch (JsonProcessingException e) {
+            log.warn("Failed to schedule expiration for orderId={}, it is left to the expiration sweep", orderId, e);
+        }
+    }
 
-        tickets.stream()
-                .map(t -> t.getEvent().getEventId())
-                .distinct()
-                .forEach(eventId -> {
-                    Objects.requireNonNull(cacheManager.getCache(CacheNames.REMAINING_TICKETS)).evict(eventId);
-                    log.info("Evicted REMAINING_TICKETS cache for eventId={}", eventId);
-                });
+    private void invalidateOrdersOfOwner(UUID orderId) {
+        orderRepository.findUserIdByOrderId(orderId)
+                .ifPresent(userId -> userCacheGenerations.invalidate(CacheNames.ORDERS, userId));
     }
-}
\ No newline at end of file
+}
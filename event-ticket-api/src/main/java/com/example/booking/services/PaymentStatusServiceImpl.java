@@ -0,0 +1,49 @@
+package com.example.booking.services;
+
+import com.example.booking.config.RabbitMQConfig;
+import com.example.booking.repositories.ProcessedMessageRepository;
+import com.example.booking.services.intefaces.OrderService;
+import com.example.booking.services.intefaces.PaymentStatusService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+/**
+ * The processed message id is recorded in the same transaction as the order change, so a redelivered message
+ * is skipped and a failed one leaves no record behind and is applied again on retry.
+ */
+@Service
+public class PaymentStatusServiceImpl implements PaymentStatusService {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentStatusServiceImpl.class);
+
+    private final ProcessedMessageRepository processedMessageRepository;
+    private final OrderService orderService;
+
+    public PaymentStatusServiceImpl(ProcessedMessageRepository processedMessageRepository, OrderService orderService) {
+        this.processedMessageRepository = processedMessageRepository;
+        this.orderService = orderService;
+    }
+
+    @Override
+    @Transactional
+    public boolean apply(String messageId, String eventType, UUID orderId) {
+        if (processedMessageRepository.markProcessed(messageId) == 0) {
+            log.info("Message {} for order {} already processed, skipping", messageId, orderId);
+            return false;
+        }
+
+        switch (eventType) {
+            case RabbitMQConfig.ORDER_PAID_RK -> orderService.updateOrderStatusToPaid(orderId);
+            case RabbitMQConfig.PAYMENT_FAILED_RK -> {
+                log.warn("Payment failed for order {}. Executing compensation transaction...", orderId);
+                orderService.cancelOrderAndReleaseTicket(orderId);
+            }
+            default -> throw new IllegalArgumentException("Unknown payment event type " + eventType);
+        }
+        return true;
+    }
+}
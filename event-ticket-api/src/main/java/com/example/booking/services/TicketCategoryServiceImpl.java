@@ -3,9 +3,10 @@ package com.example.booking.services;
 import com.example.booking.controller.request.ticket.CreateTicketCategoryRequest;
 import com.example.booking.domain.entities.Event;
 import com.example.booking.domain.entities.TicketCategory;
+import com.example.booking.dto.OrderTicketCountDto;
 import com.example.booking.exception.TicketCategoryNotFoundException;
-import com.example.booking.exception.TicketCategorySoldOutException;
 import com.example.booking.repositories.TicketCategoryRepository;
+import com.example.booking.services.intefaces.InventoryBackend;
 import com.example.booking.services.intefaces.TicketCategoryService;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
@@ -13,19 +14,28 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class TicketCategoryServiceImpl implements TicketCategoryService {
 
     private static final Logger log = LoggerFactory.getLogger(TicketCategoryServiceImpl.class);
+    private static final int MAX_LABELS = 10_000;
 
     private final TicketCategoryRepository repository;
+    private final InventoryBackend inventoryBackend;
+    // event, name and price never change once a category is created, so they are read once per category
+    private final Map<Long, CategoryLabel> labels = new ConcurrentHashMap<>();
 
-    public TicketCategoryServiceImpl(TicketCategoryRepository repository) {
+    public TicketCategoryServiceImpl(TicketCategoryRepository repository, InventoryBackend inventoryBackend) {
         this.repository = repository;
+        this.inventoryBackend = inventoryBackend;
     }
 
     @Override
@@ -35,12 +45,11 @@ public class TicketCategoryServiceImpl implements TicketCategoryService {
         for (var req : requests) {
             log.debug("Creating ticket category with name '{}' and price {} for event ID {}", req.name(), req.price(), event.getEventId());
 
-            var ticketCategory = createTicketCategory(req, event);
-            ticketCategories.add(ticketCategory);
-
+            ticketCategories.add(createTicketCategory(req, event));
         }
 
-        repository.saveAll(ticketCategories);
+        // ids come from a pooled sequence, so all categories go out in a single JDBC batch
+        ticketCategories = repository.saveAll(ticketCategories);
 
         updateEventAvailableTickets(event, ticketCategories);
 
@@ -52,35 +61,82 @@ public class TicketCategoryServiceImpl implements TicketCategoryService {
 
     @Override
     @Transactional
-    public TicketCategory reserveOneTicket(Long categoryId) {
-        int updated = repository.decrementQuantity(categoryId);
+    public TicketCategory reserveOneTicket(UUID eventId, Long categoryId) {
+        CategoryLabel label = labelOf(categoryId);
+        if (!label.eventId().equals(eventId)) {
+            log.warn("Ticket category {} not found for event {}", categoryId, eventId);
+            throw new TicketCategoryNotFoundException(categoryId);
+        }
+
+        inventoryBackend.reserve(categoryId);
+
+        // detached reference: the ticket only needs the id for its foreign key plus name and price
+        return new TicketCategory(null, null, label.price(), label.name(), categoryId);
+    }
+
+    /**
+     * Reserves every requested quantity with one conditional update per category. Categories are
+     * reserved in id order so two overlapping batches always lock rows in the same order.
+     */
+    @Override
+    @Transactional
+    public List<TicketCategory> reserveTickets(UUID eventId, Map<Long, Integer> quantities) {
+        List<TicketCategory> categories = repository.findAllById(quantities.keySet());
+
+        for (Long categoryId : quantities.keySet()) {
+            boolean belongsToEvent = categories.stream()
+                    .anyMatch(tc -> tc.getTicketCategoryId().equals(categoryId) && tc.getEvent().getEventId().equals(eventId));
 
-        if (updated == 0) {
-            throw new TicketCategorySoldOutException();
+            if (!belongsToEvent) {
+                log.warn("Ticket category {} not found for event {}", categoryId, eventId);
+                throw new TicketCategoryNotFoundException(categoryId);
+            }
         }
 
-        return repository.findById(categoryId).orElseThrow(() -> new TicketCategoryNotFoundException(categoryId));
+        new TreeMap<>(quantities).forEach(inventoryBackend::reserve);
+
+        log.info("Reserved {} tickets across {} categories for event {}",
+                quantities.values().stream().mapToInt(Integer::intValue).sum(), quantities.size(), eventId);
+        return categories;
     }
 
     @Override
     @Transactional
     public void incrementTicketCategory(Long ticketCategoryId) {
-        repository.incrementQuantity(ticketCategoryId);
+        inventoryBackend.release(ticketCategoryId);
     }
 
-    private TicketCategory createTicketCategory(CreateTicketCategoryRequest request, Event event) {
-        log.info("Creating single ticket category '{}' for event with ID {}", request.name(), event.getEventId());
+    @Override
+    @Transactional
+    public void releaseTickets(List<OrderTicketCountDto> counts) {
+        if (!counts.isEmpty()) {
+            inventoryBackend.releaseAll(counts);
+        }
+    }
+
+    private CategoryLabel labelOf(Long categoryId) {
+        CategoryLabel label = labels.get(categoryId);
+        if (label != null) {
+            return label;
+        }
+
+        TicketCategory category = repository.findById(categoryId).orElseThrow(() -> new TicketCategoryNotFoundException(categoryId));
+        if (labels.size() >= MAX_LABELS) {
+            labels.clear();
+        }
+        label = new CategoryLabel(category.getEvent().getEventId(), category.getName(), category.getPrice());
+        labels.put(categoryId, label);
+        return label;
+    }
 
+    private TicketCategory createTicketCategory(CreateTicketCategoryRequest request, Event event) {
         var ticketCategory = new TicketCategory();
         ticketCategory.setEvent(event);
         ticketCategory.setAvailableCategoryTickets(request.availableCategoryTickets());
         ticketCategory.setPrice(request.price());
         ticketCategory.setName(request.name());
 
-        var savedCategory = repository.save(ticketCategory);
-        log.info("Ticket category '{}' created with ID {}", savedCategory.getName(), savedCategory.getTicketCategoryId());
-
-        return savedCategory;
+        return ticketCategory;
     }
 
     private void updateEventAvailableTickets(Event event, List<TicketCategory> categories) {
@@ -91,4 +147,7 @@ public class TicketCategoryServiceImpl implements TicketCategoryService {
 
         log.info("Updating event available tickets");
     }
+
+    private record CategoryLabel(UUID eventId, String name, BigDecimal price) {
+    }
 }
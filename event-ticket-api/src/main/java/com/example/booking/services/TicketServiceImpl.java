@@ -1,10 +1,14 @@
 package com.example.booking.services;
 
-import com.example.booking.config.cache.CacheNames;
+import com.example.booking.config.cache.AvailabilityCache;
+import com.example.booking.controller.request.ticket.BatchEmmitTicketRequest;
 import com.example.booking.controller.request.ticket.EmmitTicketRequest;
 import com.example.booking.domain.entities.Event;
 import com.example.booking.domain.entities.Ticket;
+import com.example.booking.domain.entities.TicketCategory;
 import com.example.booking.domain.entities.User;
+import com.example.booking.domain.enums.ETicketStatus;
+import com.example.booking.dto.OrderTicketCountDto;
 import com.example.booking.dto.RemainingTicketCategoryDto;
 import com.example.booking.dto.TicketItemDto;
 import com.example.booking.dto.TicketsDto;
@@ -12,23 +16,32 @@ import com.example.booking.exception.TicketAlreadyHaveAnOrderException;
 import com.example.booking.exception.TicketNotFoundException;
 import com.example.booking.repositories.TicketRepository;
 import com.example.booking.services.intefaces.EventsService;
+import com.example.booking.services.intefaces.InventoryBackend;
 import com.example.booking.services.intefaces.TicketCategoryService;
 import com.example.booking.services.intefaces.TicketService;
 import com.example.booking.services.intefaces.UserService;
+import com.example.booking.services.trending.TicketsEmittedEvent;
 import com.example.booking.util.JwtUtils;
+import com.example.booking.util.KeysetPage;
+import com.example.booking.util.PageCursor;
 import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cache.CacheManager;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
@@ -40,16 +53,23 @@ public class TicketServiceImpl implements TicketService {
     private final UserService userService;
     private final EventsService eventService;
     private final JwtUtils jwtUtils;
-    private final CacheManager cacheManager;
+    private final AvailabilityCache availabilityCache;
     private final TicketCategoryService ticketCategoryService;
+    private final InventoryBackend inventoryBackend;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate readOnlyTransaction;
 
-    public TicketServiceImpl(TicketRepository ticketRepository, UserService userService, EventsService eventService, JwtUtils jwtUtils, CacheManager cacheManager, TicketCategoryService ticketCategoryService) {
+    public TicketServiceImpl(TicketRepository ticketRepository, UserService userService, EventsService eventService, JwtUtils jwtUtils, AvailabilityCache availabilityCache, TicketCategoryService ticketCategoryService, InventoryBackend inventoryBackend, ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager) {
         this.ticketRepository = ticketRepository;
         this.userService = userService;
         this.eventService = eventService;
         this.jwtUtils = jwtUtils;
-        this.cacheManager = cacheManager;
+        this.availabilityCache = availabilityCache;
         this.ticketCategoryService = ticketCategoryService;
+        this.inventoryBackend = inventoryBackend;
+        this.eventPublisher = eventPublisher;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
     }
 
     @Override
@@ -62,21 +82,50 @@ public class TicketServiceImpl implements TicketService {
         User user = userService.findUserEntityByUserName(userName);
         Event event = eventService.findEventEntityById(request.eventId());
 
-        var ticketCategory = ticketCategoryService.reserveOneTicket(request.ticketCategoryId());
-
-        eventService.decrementAvailableTickets(event.getEventId());
+        var ticketCategory = ticketCategoryService.reserveOneTicket(event.getEventId(), request.ticketCategoryId());
 
         Ticket ticket = Ticket.build(user, event, ticketCategory);
         ticketRepository.save(ticket);
 
         log.info("Ticket emitted with id {} for user '{}', eventId {}, category '{}'", ticket.getTicketId(), userName, event.getEventId(), ticketCategory.getName());
 
-        Objects.requireNonNull(cacheManager.getCache(CacheNames.REMAINING_TICKETS)).evict(event.getEventId());
-        log.debug("Cache '{}' evicted for eventId id {} in method emmitTicket", CacheNames.REMAINING_TICKETS, event.getEventId());
+        availabilityCache.reserved(event.getEventId(), Map.of(ticketCategory.getTicketCategoryId(), 1));
+
+        eventPublisher.publishEvent(new TicketsEmittedEvent(event.getEventId(), 1));
 
         return Ticket.toTicketItemDto(ticket);
     }
 
+    @Override
+    @Transactional
+    @PreAuthorize("isAuthenticated()")
+    public List<TicketItemDto> emmitTickets(BatchEmmitTicketRequest request) {
+        String userName = jwtUtils.getAuthenticatedUsername();
+        log.info("User '{}' requested to emit tickets for eventId={}, quantities={}", userName, request.eventId(), request.quantities());
+
+        User user = userService.findUserEntityByUserName(userName);
+        Event event = eventService.findEventEntityById(request.eventId());
+
+        List<TicketCategory> categories = ticketCategoryService.reserveTickets(event.getEventId(), request.quantities());
+
+        List<Ticket> tickets = new ArrayList<>();
+        for (TicketCategory category : categories) {
+            int quantity = request.quantities().get(category.getTicketCategoryId());
+            for (int i = 0; i < quantity; i++) {
+                tickets.add(Ticket.build(user, event, category));
+            }
+        }
+        ticketRepository.saveAll(tickets);
+
+        log.info("{} tickets emitted for user '{}', eventId {}", tickets.size(), userName, event.getEventId());
+
+        availabilityCache.reserved(event.getEventId(), request.quantities());
+
+        eventPublisher.publishEvent(new TicketsEmittedEvent(event.getEventId(), tickets.size()));
+
+        return tickets.stream().map(Ticket::toTicketItemDto).toList();
+    }
+
     @Override
     @PreAuthorize(
         "hasRole('ADMIN') or " +
@@ -91,11 +140,9 @@ public class TicketServiceImpl implements TicketService {
             return new TicketNotFoundException();
         });
 
-        Objects.requireNonNull(cacheManager.getCache(CacheNames.REMAINING_TICKETS)).evict(ticket.getEvent().getEventId());
-        log.debug("Cache '{}' evicted for eventId {}", CacheNames.REMAINING_TICKETS, ticket.getEvent().getEventId());
-
-        ticketCategoryService.incrementTicketCategory(ticket.getTicketCategory().getTicketCategoryId());
-        eventService.incrementAvailableTickets(ticket.getEvent().getEventId());
+        Long ticketCategoryId = ticket.getTicketCategory().getTicketCategoryId();
+        ticketCategoryService.incrementTicketCategory(ticketCategoryId);
+        availabilityCache.released(List.of(new OrderTicketCountDto(ticketCategoryId, ticket.getEvent().getEventId(), 1L)));
 
         ticketRepository.deleteById(ticketId);
         log.info("Ticket with id {} deleted successfully", ticketId);
@@ -113,6 +160,21 @@ public class TicketServiceImpl implements TicketService {
         return new TicketsDto(ticketsPage.getContent(), page, pageSize, ticketsPage.getTotalPages(), ticketsPage.getTotalElements());
     }
 
+    @Override
+    @PreAuthorize("hasRole('ADMIN')")
+    public TicketsDto listAllTickets(String cursor, int pageSize, boolean withCount) {
+        log.info("Listing all tickets: cursor {}, pageSize {}", cursor, pageSize);
+
+        PageCursor after = PageCursor.decode(cursor);
+        Pageable limit = PageRequest.ofSize(pageSize + 1);
+
+        List<Ticket> rows = after == null
+                ? ticketRepository.findFirstWithAssociations(limit)
+                : ticketRepository.findWithAssociationsAfter(after.id(), limit);
+
+        return toTicketsDto(rows, pageSize, withCount ? ticketRepository.count() : null);
+    }
+
     @Override
     @PreAuthorize("isAuthenticated()")
     public TicketsDto listAllUserTickets(int page, int pageSize) {
@@ -128,20 +190,65 @@ public class TicketServiceImpl implements TicketService {
         return new TicketsDto(tickets.getContent(), page, pageSize, tickets.getTotalPages(), tickets.getTotalElements());
     }
 
-    @Cacheable(value = CacheNames.REMAINING_TICKETS, key = "#eventId")
     @Override
     @PreAuthorize("isAuthenticated()")
+    public TicketsDto listAllUserTickets(String cursor, int pageSize, boolean withCount) {
+        String userName = jwtUtils.getAuthenticatedUsername();
+        log.info("Listing tickets for user '{}' cursor {}, pageSize {}", userName, cursor, pageSize);
+
+        User user = userService.findUserEntityByUserName(userName);
+
+        PageCursor after = PageCursor.decode(cursor);
+        Pageable limit = PageRequest.ofSize(pageSize + 1);
+
+        List<Ticket> rows = after == null
+                ? ticketRepository.findFirstTicketsByUserId(user.getUserId(), limit)
+                : ticketRepository.findTicketsByUserIdAfter(user.getUserId(), after.id(), limit);
+
+        return toTicketsDto(rows, pageSize, withCount ? ticketRepository.countByUserId(user.getUserId()) : null);
+    }
+
+    private TicketsDto toTicketsDto(List<Ticket> rows, int pageSize, Long total) {
+        KeysetPage<Ticket> tickets = KeysetPage.of(rows, pageSize, t -> PageCursor.of(t.getTicketId(), t.getTicketId()));
+        Integer totalPages = total == null ? null : (int) Math.ceil((double) total / pageSize);
+
+        log.debug("Found {} tickets, has next page: {}", tickets.items().size(), tickets.nextCursor() != null);
+        return new TicketsDto(tickets.items().stream().map(Ticket::toTicketItemDto).toList(), null, pageSize, totalPages, total, tickets.nextCursor());
+    }
+
+    @Override
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    @PreAuthorize("isAuthenticated()")
     public List<RemainingTicketCategoryDto> getAvailableTicketsByCategoryFromEvent(UUID eventId) {
-        log.info("Getting available tickets by category for event {}", eventId);
+        return findAvailableTicketsByCategory(eventId);
+    }
 
-        var event = eventService.findEventEntityById(eventId);
+    /**
+     * Runs outside a transaction: during a stampede most callers wait on another load, and they must not hold a
+     * database connection while doing so. Only the load itself opens one.
+     */
+    @Override
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public List<RemainingTicketCategoryDto> findAvailableTicketsByCategory(UUID eventId) {
+        return availabilityCache.get(eventId, () -> readOnlyTransaction.execute(status -> loadAvailability(eventId)));
+    }
 
-        var result = event.getTicketCategories().stream()
-                .map(tc -> new RemainingTicketCategoryDto(tc.getName(), tc.getAvailableCategoryTickets()))
-                .toList();
+    private Map<Long, RemainingTicketCategoryDto> loadAvailability(UUID eventId) {
+        log.info("Loading available tickets by category for event {}", eventId);
 
-        log.debug("Available ticket categories for event {}: {}", eventId, result);
-        return result;
+        var event = eventService.findEventEntityById(eventId);
+        var categoryIds = event.getTicketCategories().stream().map(TicketCategory::getTicketCategoryId).toList();
+        // the memory and redis backends write stock back in batches, so their counters win over the row
+        Map<Long, Integer> liveStock = inventoryBackend.currentStock(eventId, categoryIds);
+
+        Map<Long, RemainingTicketCategoryDto> categoriesById = new LinkedHashMap<>();
+        event.getTicketCategories().stream()
+                .sorted(Comparator.comparing(TicketCategory::getTicketCategoryId))
+                .forEach(tc -> categoriesById.put(tc.getTicketCategoryId(), new RemainingTicketCategoryDto(tc.getName(),
+                        liveStock.getOrDefault(tc.getTicketCategoryId(), tc.getAvailableCategoryTickets()))));
+
+        log.debug("Available ticket categories for event {}: {}", eventId, categoriesById.values());
+        return categoriesById;
     }
 
     @Override
@@ -212,4 +319,43 @@ public class TicketServiceImpl implements TicketService {
 
         return newToken;
     }
+
+    @Override
+    public void markOrderTicketsAsPaid(UUID orderId) {
+        int updated = ticketRepository.updateStatusByOrderId(orderId, ETicketStatus.PAID);
+        log.debug("Marked {} tickets as paid for orderId {}", updated, orderId);
+    }
+
+    /**
+     * Gives the stock of every ticket in the order back, one release per category, and deletes the tickets
+     * with a single statement.
+     */
+    @Override
+    public void releaseOrderTickets(UUID orderId) {
+        releaseStock(ticketRepository.countByOrderIdsGroupedByCategory(List.of(orderId)));
+        int deleted = ticketRepository.deleteByOrderId(orderId);
+
+        log.info("Released {} tickets of orderId {}", deleted, orderId);
+    }
+
+    /**
+     * Same as {@link #releaseOrderTickets(UUID)} for a batch of orders, but the tickets are kept as expired.
+     */
+    @Override
+    public int expireOrderTickets(List<UUID> orderIds) {
+        if (orderIds.isEmpty()) {
+            return 0;
+        }
+
+        releaseStock(ticketRepository.countByOrderIdsGroupedByCategory(orderIds));
+        int expired = ticketRepository.expireByOrderIds(orderIds);
+
+        log.info("Expired {} tickets of {} orders", expired, orderIds.size());
+        return expired;
+    }
+
+    private void releaseStock(List<OrderTicketCountDto> counts) {
+        ticketCategoryService.releaseTickets(counts);
+        availabilityCache.released(counts);
+    }
 }
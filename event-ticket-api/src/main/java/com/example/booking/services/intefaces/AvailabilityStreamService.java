@@ -0,0 +1,14 @@
+package com.example.booking.services.intefaces;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.UUID;
+
+public interface AvailabilityStreamService {
+
+    /**
+     * Opens a stream that first sends the event's current availability and then a new snapshot whenever
+     * reservations or releases change it.
+     */
+    SseEmitter subscribe(UUID eventId);
+}
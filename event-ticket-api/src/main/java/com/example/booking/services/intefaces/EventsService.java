@@ -17,6 +17,8 @@ public interface EventsService {
 
     EventsDto listAllEvents(int page, int pageSize);
 
+    EventsDto listAllEvents(String cursor, int pageSize, boolean withCount);
+
     List<EventItemDto> getTopTrendingEvents();
 
     Event findEventEntityById(UUID eventId);
@@ -27,9 +29,7 @@ public interface EventsService {
 
     EventsDto searchEvents(String name, String location, LocalDateTime start, LocalDateTime end, int page, int pageSize);
 
-    void updateEvent(UUID id, UpdateEventRequest request);
-
-    void decrementAvailableTickets(UUID eventId);
+    EventsDto searchEvents(String name, String location, LocalDateTime start, LocalDateTime end, String cursor, int pageSize, boolean withCount);
 
-    void incrementAvailableTickets(UUID eventId);
+    void updateEvent(UUID id, UpdateEventRequest request);
 }
@@ -0,0 +1,56 @@
+package com.example.booking.services.intefaces;
+
+import com.example.booking.dto.InventoryConsistencyDto;
+import com.example.booking.dto.OrderTicketCountDto;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public interface InventoryBackend {
+
+    /**
+     * Takes {@code quantity} tickets from the category and from the event that owns it, all or nothing.
+     * Implementations throw {@link com.example.booking.exception.TicketCategorySoldOutException}
+     * when there is not enough stock left.
+     */
+    void reserve(Long ticketCategoryId, int quantity);
+
+    /**
+     * Gives {@code quantity} tickets back to the category and to the event that owns it.
+     */
+    void release(Long ticketCategoryId, int quantity);
+
+    default void reserve(Long ticketCategoryId) {
+        reserve(ticketCategoryId, 1);
+    }
+
+    default void release(Long ticketCategoryId) {
+        release(ticketCategoryId, 1);
+    }
+
+    /**
+     * Gives back the stock of many tickets at once, already grouped per category.
+     */
+    default void releaseAll(List<OrderTicketCountDto> counts) {
+        counts.forEach(count -> release(count.ticketCategoryId(), count.quantity().intValue()));
+    }
+
+    /**
+     * Returns the live stock of the given categories of an event, for the categories whose stock the
+     * backend holds ahead of the database. Categories missing from the result are up to date in
+     * {@code tb_ticket_category}, which is always the case when the database is the source of truth.
+     */
+    default Map<Long, Integer> currentStock(UUID eventId, Collection<Long> ticketCategoryIds) {
+        return Map.of();
+    }
+
+    /**
+     * Persists stock changes that are still only held by the backend. No-op when the database is the
+     * source of truth.
+     */
+    void flush();
+
+    InventoryConsistencyDto checkConsistency();
+}
@@ -4,12 +4,16 @@ import com.example.booking.controller.request.order.CreateOrderRequest;
 import com.example.booking.dto.OrderItemDto;
 import com.example.booking.controller.response.order.OrdersResponse;
 
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 public interface OrderService {
     OrderItemDto createNewOrder(CreateOrderRequest dto);
     OrdersResponse getOrdersByUserId(UUID userId, int page, int pageSize);
+    OrdersResponse getOrdersByUserId(UUID userId, String cursor, int pageSize, boolean withCount);
     void deleteOrder(UUID orderId);
     void updateOrderStatusToPaid(UUID orderId);
     void cancelOrderAndReleaseTicket(UUID orderId);
+    boolean expireOrder(UUID orderId);
+    int expirePendingOrders(LocalDateTime createdBefore, int limit);
 }
@@ -0,0 +1,12 @@
+package com.example.booking.services.intefaces;
+
+import java.util.UUID;
+
+public interface PaymentStatusService {
+
+    /**
+     * Applies a payment status event to the order. Returns {@code false} without touching the order when
+     * {@code messageId} was already applied.
+     */
+    boolean apply(String messageId, String eventType, UUID orderId);
+}
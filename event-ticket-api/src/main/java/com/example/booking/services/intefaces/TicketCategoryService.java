@@ -3,15 +3,21 @@ package com.example.booking.services.intefaces;
 import com.example.booking.controller.request.ticket.CreateTicketCategoryRequest;
 import com.example.booking.domain.entities.Event;
 import com.example.booking.domain.entities.TicketCategory;
+import com.example.booking.dto.OrderTicketCountDto;
 
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 public interface TicketCategoryService {
 
     List<TicketCategory> createTicketCategoriesForEvent(Event event, List<CreateTicketCategoryRequest> requests);
 
-    TicketCategory reserveOneTicket(Long categoryId);
+    TicketCategory reserveOneTicket(UUID eventId, Long categoryId);
+
+    List<TicketCategory> reserveTickets(UUID eventId, Map<Long, Integer> quantities);
 
     void incrementTicketCategory(Long ticketCategoryId);
+
+    void releaseTickets(List<OrderTicketCountDto> counts);
 }
@@ -3,6 +3,7 @@ package com.example.booking.services.intefaces;
 import com.example.booking.dto.RemainingTicketCategoryDto;
 import com.example.booking.dto.TicketItemDto;
 import com.example.booking.dto.TicketsDto;
+import com.example.booking.controller.request.ticket.BatchEmmitTicketRequest;
 import com.example.booking.controller.request.ticket.EmmitTicketRequest;
 import com.example.booking.domain.entities.Ticket;
 
@@ -11,14 +12,21 @@ import java.util.UUID;
 
 public interface TicketService {
     TicketItemDto emmitTicket(EmmitTicketRequest request);
+    List<TicketItemDto> emmitTickets(BatchEmmitTicketRequest request);
     void deleteEmittedTicket(UUID ticketId);
     TicketsDto listAllUserTickets(int page, int pageSize);
+    TicketsDto listAllUserTickets(String cursor, int pageSize, boolean withCount);
     TicketsDto listAllTickets(int page, int pageSize);
+    TicketsDto listAllTickets(String cursor, int pageSize, boolean withCount);
     List<RemainingTicketCategoryDto> getAvailableTicketsByCategoryFromEvent(UUID eventId);
+    List<RemainingTicketCategoryDto> findAvailableTicketsByCategory(UUID eventId);
     TicketsDto getTicketsByCategoryId(Integer categoryId, int page, int pageSize);
     List<Ticket> findTicketsWithEventDetails(List<UUID> ticketIds);
     List<Ticket> findAndValidateAvailableTickets(List<UUID> ticketIds);
     Boolean validateTicket(UUID ticketId);
     void performCheckIn(UUID ticketId, String validationCode);
     String generateNewValidationCode(UUID ticketId);
+    void markOrderTicketsAsPaid(UUID orderId);
+    void releaseOrderTickets(UUID orderId);
+    int expireOrderTickets(List<UUID> orderIds);
 }
@@ -0,0 +1,19 @@
+package com.example.booking.services.intefaces;
+
+import com.example.booking.dto.TrendingEventDto;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface TrendingEngine {
+
+    /**
+     * Counts {@code tickets} emitted for the event in the current minute.
+     */
+    void record(UUID eventId, int tickets);
+
+    /**
+     * Events with the most tickets emitted inside the sliding window, highest first.
+     */
+    List<TrendingEventDto> topEvents();
+}
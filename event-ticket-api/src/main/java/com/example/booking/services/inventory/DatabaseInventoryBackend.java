@@ -0,0 +1,70 @@
+package com.example.booking.services.inventory;
+
+import com.example.booking.dto.InventoryConsistencyDto;
+import com.example.booking.dto.OrderTicketCountDto;
+import com.example.booking.exception.EventSoldOutException;
+import com.example.booking.exception.TicketCategorySoldOutException;
+import com.example.booking.repositories.EventRepository;
+import com.example.booking.repositories.TicketCategoryRepository;
+import com.example.booking.services.intefaces.InventoryBackend;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Component
+@ConditionalOnProperty(name = "booking.inventory.backend", havingValue = "database", matchIfMissing = true)
+public class DatabaseInventoryBackend implements InventoryBackend {
+
+    private final TicketCategoryRepository ticketCategoryRepository;
+    private final EventRepository eventRepository;
+
+    public DatabaseInventoryBackend(TicketCategoryRepository ticketCategoryRepository, EventRepository eventRepository) {
+        this.ticketCategoryRepository = ticketCategoryRepository;
+        this.eventRepository = eventRepository;
+    }
+
+    @Override
+    public void reserve(Long ticketCategoryId, int quantity) {
+        if (ticketCategoryRepository.decrementQuantity(ticketCategoryId, quantity) == 0) {
+            throw new TicketCategorySoldOutException();
+        }
+
+        if (eventRepository.decrementAvailableTicketsByCategoryId(ticketCategoryId, quantity) == 0) {
+            throw new EventSoldOutException();
+        }
+    }
+
+    @Override
+    public void release(Long ticketCategoryId, int quantity) {
+        ticketCategoryRepository.incrementQuantity(ticketCategoryId, quantity);
+        eventRepository.incrementAvailableTicketsByCategoryId(ticketCategoryId, quantity);
+    }
+
+    /**
+     * One UPDATE per category and one per event, instead of a category and an event UPDATE per category.
+     */
+    @Override
+    public void releaseAll(List<OrderTicketCountDto> counts) {
+        Map<UUID, Integer> releasedPerEvent = new HashMap<>();
+        for (OrderTicketCountDto count : counts) {
+            ticketCategoryRepository.incrementQuantity(count.ticketCategoryId(), count.quantity().intValue());
+            releasedPerEvent.merge(count.eventId(), count.quantity().intValue(), Integer::sum);
+        }
+
+        releasedPerEvent.forEach(eventRepository::applyAvailableTicketsDelta);
+    }
+
+    @Override
+    public void flush() {
+        // every reservation is already written to tb_ticket_category/tb_events
+    }
+
+    @Override
+    public InventoryConsistencyDto checkConsistency() {
+        return new InventoryConsistencyDto("database", 0, true, List.of());
+    }
+}
@@ -0,0 +1,230 @@
+package com.example.booking.services.inventory;
+
+import com.example.booking.dto.InventoryConsistencyDto;
+import com.example.booking.dto.EventStockDto;
+import com.example.booking.dto.InventoryDriftDto;
+import com.example.booking.dto.TicketCategoryStockDto;
+import com.example.booking.exception.EventNotFoundException;
+import com.example.booking.exception.EventSoldOutException;
+import com.example.booking.exception.TicketCategoryNotFoundException;
+import com.example.booking.exception.TicketCategorySoldOutException;
+import com.example.booking.repositories.EventRepository;
+import com.example.booking.repositories.TicketCategoryRepository;
+import com.example.booking.services.intefaces.InventoryBackend;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps ticket stock in striped in-memory counters and writes the accumulated deltas back to
+ * {@code tb_ticket_category}/{@code tb_events} in batches, so reservations never wait on a row lock.
+ * Each reservation takes stock from its category and from the event-wide counter, matching the two
+ * conditional updates of the database backend.
+ *
+ * This backend assumes a single node owns the inventory; use the database backend when several
+ * API pods reserve tickets at the same time.
+ */
+@Component
+@ConditionalOnProperty(name = "booking.inventory.backend", havingValue = "memory")
+public class InMemoryInventoryBackend implements InventoryBackend {
+
+    private static final Logger log = LoggerFactory.getLogger(InMemoryInventoryBackend.class);
+
+    private final TicketCategoryRepository ticketCategoryRepository;
+    private final EventRepository eventRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardedInventory inventory;
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public InMemoryInventoryBackend(TicketCategoryRepository ticketCategoryRepository,
+                                    EventRepository eventRepository,
+                                    TransactionTemplate transactionTemplate,
+                                    @Value("${booking.inventory.stripes:16}") int stripes) {
+        this.ticketCategoryRepository = ticketCategoryRepository;
+        this.eventRepository = eventRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.inventory = new ShardedInventory(stripes);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildFromDatabase() {
+        List<TicketCategoryStockDto> stock = ticketCategoryRepository.findStockForEventsFrom(LocalDate.now().atStartOfDay());
+        stock.forEach(inventory::track);
+        log.info("Inventory rebuilt from database with {} ticket categories", stock.size());
+    }
+
+    @Override
+    public void reserve(Long ticketCategoryId, int quantity) {
+        StripedStockCounter counter = counterFor(ticketCategoryId);
+        StripedStockCounter eventCounter = eventCounterFor(counter.getEventId());
+
+        if (!counter.tryAcquire(quantity)) {
+            throw new TicketCategorySoldOutException();
+        }
+
+        if (!eventCounter.tryAcquire(quantity)) {
+            counter.release(quantity);
+            throw new EventSoldOutException();
+        }
+
+        InventoryTransactions.onRollback(() -> {
+            counter.release(quantity);
+            eventCounter.release(quantity);
+        });
+    }
+
+    @Override
+    public void release(Long ticketCategoryId, int quantity) {
+        StripedStockCounter counter = counterFor(ticketCategoryId);
+        StripedStockCounter eventCounter = eventCounterFor(counter.getEventId());
+        counter.release(quantity);
+        eventCounter.release(quantity);
+
+        InventoryTransactions.onRollback(() -> {
+            if (!counter.tryAcquire(quantity) || !eventCounter.tryAcquire(quantity)) {
+                log.warn("Could not undo release for ticketCategoryId={}, stock already taken again", ticketCategoryId);
+            }
+        });
+    }
+
+    @Override
+    public Map<Long, Integer> currentStock(UUID eventId, Collection<Long> ticketCategoryIds) {
+        Map<Long, Integer> stock = new HashMap<>();
+        for (Long categoryId : ticketCategoryIds) {
+            inventory.counter(categoryId)
+                    .filter(counter -> eventId.equals(counter.getEventId()))
+                    .ifPresent(counter -> stock.put(categoryId, counter.available()));
+        }
+        return stock;
+    }
+
+    @Override
+    public void flush() {
+        flushLock.lock();
+        try {
+            writePendingDeltas();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void writePendingDeltas() {
+        List<StockDelta> deltas = inventory.drainPendingDeltas();
+        Map<UUID, Integer> eventDeltas = inventory.drainPendingEventDeltas();
+        if (deltas.isEmpty() && eventDeltas.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                deltas.forEach(d -> ticketCategoryRepository.applyQuantityDelta(d.ticketCategoryId(), d.delta()));
+                eventDeltas.forEach(eventRepository::applyAvailableTicketsDelta);
+            });
+            log.debug("Flushed inventory deltas for {} categories and {} events", deltas.size(), eventDeltas.size());
+        } catch (RuntimeException e) {
+            inventory.restorePendingDeltas(deltas);
+            inventory.restorePendingEventDeltas(eventDeltas);
+            log.error("Failed to flush inventory deltas for {} categories, will retry on next run", deltas.size(), e);
+        }
+    }
+
+    @Override
+    public InventoryConsistencyDto checkConsistency() {
+        flushLock.lock();
+        try {
+            return compareWithDatabase();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Compares what the flushes have written so far with the database. Both sides only move while the
+     * flush lock is held, so reservations running meanwhile cannot show up as drift.
+     */
+    private InventoryConsistencyDto compareWithDatabase() {
+        List<Long> trackedIds = new ArrayList<>(inventory.trackedCategoryIds());
+        List<UUID> trackedEventIds = new ArrayList<>(inventory.trackedEventIds());
+
+        Map<Long, TicketCategoryStockDto> persisted = ticketCategoryRepository.findStockByIds(trackedIds).stream()
+                .collect(Collectors.toMap(TicketCategoryStockDto::ticketCategoryId, Function.identity()));
+        Map<UUID, Integer> persistedEvents = eventRepository.findStockByIds(trackedEventIds).stream()
+                .collect(Collectors.toMap(EventStockDto::eventId, EventStockDto::availableTickets));
+
+        List<InventoryDriftDto> drifts = new ArrayList<>();
+        for (Long categoryId : trackedIds) {
+            inventory.counter(categoryId).ifPresent(counter -> {
+                TicketCategoryStockDto stored = persisted.get(categoryId);
+
+                if (stored == null) {
+                    // category (or its event) was deleted, nothing left to reconcile
+                    inventory.forget(categoryId);
+                    return;
+                }
+
+                if (counter.persisted() != stored.availableCategoryTickets()) {
+                    drifts.add(drift(categoryId, counter, stored.availableCategoryTickets()));
+                }
+            });
+        }
+
+        for (UUID eventId : trackedEventIds) {
+            inventory.eventCounter(eventId).ifPresent(counter -> {
+                Integer stored = persistedEvents.get(eventId);
+
+                if (stored == null) {
+                    inventory.forgetEvent(eventId);
+                    return;
+                }
+
+                if (counter.persisted() != stored) {
+                    drifts.add(drift(null, counter, stored));
+                }
+            });
+        }
+
+        if (!drifts.isEmpty()) {
+            log.warn("Inventory consistency check found {} drifting counters", drifts.size());
+        }
+
+        return new InventoryConsistencyDto("memory", trackedIds.size(), drifts.isEmpty(), drifts);
+    }
+
+    private static InventoryDriftDto drift(Long categoryId, StripedStockCounter counter, Integer stored) {
+        int inMemory = counter.available();
+        return new InventoryDriftDto(categoryId, counter.getEventId(), inMemory, inMemory - counter.persisted(), stored);
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        log.info("Flushing pending inventory deltas before shutdown");
+        flush();
+    }
+
+    private StripedStockCounter counterFor(Long ticketCategoryId) {
+        return inventory.counter(ticketCategoryId, ticketCategoryRepository::findStockById)
+                .orElseThrow(() -> new TicketCategoryNotFoundException(ticketCategoryId));
+    }
+
+    private StripedStockCounter eventCounterFor(UUID eventId) {
+        return inventory.eventCounter(eventId, eventRepository::findAvailableTicketsById)
+                .orElseThrow(EventNotFoundException::new);
+    }
+}
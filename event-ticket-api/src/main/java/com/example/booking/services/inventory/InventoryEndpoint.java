@@ -0,0 +1,23 @@
+package com.example.booking.services.inventory;
+
+import com.example.booking.dto.InventoryConsistencyDto;
+import com.example.booking.services.intefaces.InventoryBackend;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+@Component
+@Endpoint(id = "inventory")
+public class InventoryEndpoint {
+
+    private final InventoryBackend inventoryBackend;
+
+    public InventoryEndpoint(InventoryBackend inventoryBackend) {
+        this.inventoryBackend = inventoryBackend;
+    }
+
+    @ReadOperation
+    public InventoryConsistencyDto consistency() {
+        return inventoryBackend.checkConsistency();
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.booking.services.inventory;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+final class InventoryTransactions {
+
+    private InventoryTransactions() {
+    }
+
+    /**
+     * Stock held outside of Postgres does not take part in the JPA transaction, so a reservation made
+     * by a request that later rolls back has to be handed back explicitly.
+     */
+    static void onRollback(Runnable compensation) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    compensation.run();
+                }
+            }
+        });
+    }
+}
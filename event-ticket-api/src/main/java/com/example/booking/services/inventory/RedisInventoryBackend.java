@@ -0,0 +1,387 @@
+package com.example.booking.services.inventory;
+
+import com.example.booking.dto.EventStockDto;
+import com.example.booking.dto.InventoryConsistencyDto;
+import com.example.booking.dto.InventoryDriftDto;
+import com.example.booking.dto.TicketCategoryStockDto;
+import com.example.booking.exception.EventNotFoundException;
+import com.example.booking.exception.EventSoldOutException;
+import com.example.booking.exception.TicketCategoryNotFoundException;
+import com.example.booking.exception.TicketCategorySoldOutException;
+import com.example.booking.repositories.EventRepository;
+import com.example.booking.repositories.TicketCategoryRepository;
+import com.example.booking.services.intefaces.InventoryBackend;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps category and event stock in Redis so several API pods can reserve tickets without queueing
+ * on the same Postgres row. Both counters are checked and decremented by a single Lua script, which
+ * also accumulates the change in a delta key next to each counter. A reconciler drains those deltas
+ * and applies them to Postgres for every category touched since its last run, so stock changed in the
+ * database directly (restocks, new categories) is never overwritten by an older Redis count.
+ */
+@Component
+@ConditionalOnProperty(name = "booking.inventory.backend", havingValue = "redis")
+public class RedisInventoryBackend implements InventoryBackend {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisInventoryBackend.class);
+
+    static final String DIRTY_KEY = "inventory:dirty";
+    static final String LEASE_KEY = "inventory:reconciler:lease";
+
+    private static final long RESERVED = 1L;
+    private static final long CATEGORY_SOLD_OUT = 0L;
+    private static final long EVENT_SOLD_OUT = -1L;
+    private static final long NOT_SEEDED = -2L;
+    private static final long LEASE_POLL_INTERVAL_MS = 50;
+
+    private static final RedisScript<Long> RESERVE_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/inventory-reserve.lua"), Long.class);
+    private static final RedisScript<Long> RELEASE_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/inventory-release.lua"), Long.class);
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> DRAIN_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/inventory-drain.lua"), List.class);
+    private static final RedisScript<Long> SEED_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/inventory-seed.lua"), Long.class);
+    private static final RedisScript<Long> RELEASE_LEASE_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/release-lease.lua"), Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final TicketCategoryRepository ticketCategoryRepository;
+    private final EventRepository eventRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int reconcileBatchSize;
+    private final Duration leaseDuration;
+    private final Duration retentionAfterEvent;
+
+    // a category never moves to another event, so this mapping is safe to keep for the pod lifetime
+    private final Map<Long, UUID> categoryEvents = new ConcurrentHashMap<>();
+    private final String leaseToken = UUID.randomUUID().toString();
+
+    public RedisInventoryBackend(StringRedisTemplate redisTemplate,
+                                 TicketCategoryRepository ticketCategoryRepository,
+                                 EventRepository eventRepository,
+                                 TransactionTemplate transactionTemplate,
+                                 @Value("${booking.inventory.redis.reconcile-batch-size:500}") int reconcileBatchSize,
+                                 @Value("${booking.inventory.redis.lease-ms:30000}") long leaseMs,
+                                 @Value("${booking.inventory.redis.retention-after-event-ms:86400000}") long retentionAfterEventMs) {
+        this.redisTemplate = redisTemplate;
+        this.ticketCategoryRepository = ticketCategoryRepository;
+        this.eventRepository = eventRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.reconcileBatchSize = reconcileBatchSize;
+        this.leaseDuration = Duration.ofMillis(leaseMs);
+        this.retentionAfterEvent = Duration.ofMillis(retentionAfterEventMs);
+    }
+
+    @Override
+    public void reserve(Long ticketCategoryId, int quantity) {
+        UUID eventId = eventIdOf(ticketCategoryId);
+
+        long result = runSeeded(RESERVE_SCRIPT, ticketCategoryId, eventId, quantity);
+
+        if (result == CATEGORY_SOLD_OUT) {
+            throw new TicketCategorySoldOutException();
+        }
+        if (result == EVENT_SOLD_OUT) {
+            throw new EventSoldOutException();
+        }
+
+        markDirty(ticketCategoryId, eventId);
+        InventoryTransactions.onRollback(() -> runSeeded(RELEASE_SCRIPT, ticketCategoryId, eventId, quantity));
+    }
+
+    @Override
+    public void release(Long ticketCategoryId, int quantity) {
+        UUID eventId = eventIdOf(ticketCategoryId);
+
+        runSeeded(RELEASE_SCRIPT, ticketCategoryId, eventId, quantity);
+
+        markDirty(ticketCategoryId, eventId);
+        InventoryTransactions.onRollback(() -> {
+            if (runSeeded(RESERVE_SCRIPT, ticketCategoryId, eventId, quantity) != RESERVED) {
+                log.warn("Could not undo release for ticketCategoryId={}, stock already taken again", ticketCategoryId);
+            }
+        });
+    }
+
+    /**
+     * Reads the Redis counters of the given categories with a single MGET; they share the event's slot.
+     * Categories that were never seeded, or whose counters expired, are left to the database.
+     */
+    @Override
+    public Map<Long, Integer> currentStock(UUID eventId, Collection<Long> ticketCategoryIds) {
+        if (ticketCategoryIds.isEmpty()) {
+            return Map.of();
+        }
+
+        List<Long> ids = List.copyOf(ticketCategoryIds);
+        List<String> values = redisTemplate.opsForValue().multiGet(ids.stream().map(id -> categoryKey(id, eventId)).toList());
+        if (values == null) {
+            return Map.of();
+        }
+
+        Map<Long, Integer> stock = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            if (values.get(i) != null) {
+                stock.put(ids.get(i), Integer.parseInt(values.get(i)));
+            }
+        }
+        return stock;
+    }
+
+    /**
+     * Applies the deltas of every dirty category to Postgres. Only the pod holding the reconciler lease
+     * writes, and every delta is drained atomically, so each change reaches the database exactly once.
+     */
+    @Override
+    public void flush() {
+        if (!tryLease()) {
+            return;
+        }
+
+        try {
+            reconcile();
+        } finally {
+            releaseLease();
+        }
+    }
+
+    /**
+     * Compares Redis with Postgres for every seeded category of upcoming events. Redis stock minus the
+     * delta not written yet must match the database; the check holds the reconciler lease so no delta
+     * moves between the two reads.
+     */
+    @Override
+    public InventoryConsistencyDto checkConsistency() {
+        awaitLease();
+        try {
+            return compareWithDatabase();
+        } finally {
+            releaseLease();
+        }
+    }
+
+    private InventoryConsistencyDto compareWithDatabase() {
+        Map<UUID, List<TicketCategoryStockDto>> stockByEvent = ticketCategoryRepository.findStockForEventsFrom(LocalDate.now().atStartOfDay())
+                .stream()
+                .collect(Collectors.groupingBy(TicketCategoryStockDto::eventId));
+        Map<UUID, Integer> persistedEvents = eventRepository.findStockByIds(stockByEvent.keySet()).stream()
+                .collect(Collectors.toMap(EventStockDto::eventId, EventStockDto::availableTickets));
+
+        List<InventoryDriftDto> drifts = new ArrayList<>();
+        int tracked = 0;
+
+        for (Map.Entry<UUID, List<TicketCategoryStockDto>> entry : stockByEvent.entrySet()) {
+            UUID eventId = entry.getKey();
+            List<TicketCategoryStockDto> categories = entry.getValue();
+
+            // one MGET per event: every key shares the event's slot, so the values come from the same moment
+            List<String> keys = new ArrayList<>(List.of(eventKey(eventId), eventDeltaKey(eventId)));
+            categories.forEach(c -> keys.addAll(List.of(categoryKey(c.ticketCategoryId(), eventId), categoryDeltaKey(c.ticketCategoryId(), eventId))));
+            List<String> values = redisTemplate.opsForValue().multiGet(keys);
+            if (values == null) {
+                continue;
+            }
+
+            compare(null, eventId, values.get(0), values.get(1), persistedEvents.get(eventId), drifts);
+            for (int i = 0; i < categories.size(); i++) {
+                TicketCategoryStockDto stored = categories.get(i);
+                String current = values.get(2 + i * 2);
+                if (current != null) {
+                    tracked++;
+                }
+                compare(stored.ticketCategoryId(), eventId, current, values.get(3 + i * 2), stored.availableCategoryTickets(), drifts);
+            }
+        }
+
+        if (!drifts.isEmpty()) {
+            log.warn("Inventory consistency check found {} drifting counters", drifts.size());
+        }
+
+        return new InventoryConsistencyDto("redis", tracked, drifts.isEmpty(), drifts);
+    }
+
+    private static void compare(Long categoryId, UUID eventId, String current, String delta, Integer stored, List<InventoryDriftDto> drifts) {
+        if (current == null || stored == null) {
+            // not seeded in Redis, nothing to compare
+            return;
+        }
+
+        int inRedis = Integer.parseInt(current);
+        int pending = delta == null ? 0 : Integer.parseInt(delta);
+        if (inRedis - pending != stored) {
+            drifts.add(new InventoryDriftDto(categoryId, eventId, inRedis, pending, stored));
+        }
+    }
+
+    private void reconcile() {
+        List<String> members = redisTemplate.opsForSet().pop(DIRTY_KEY, reconcileBatchSize);
+        if (members == null || members.isEmpty()) {
+            return;
+        }
+
+        Map<UUID, List<Long>> categoriesByEvent = new HashMap<>();
+        for (String member : members) {
+            String[] parts = member.split(":");
+            categoriesByEvent.computeIfAbsent(UUID.fromString(parts[1]), id -> new ArrayList<>()).add(Long.valueOf(parts[0]));
+        }
+
+        Map<Long, UUID> categoryEventIds = new HashMap<>();
+        Map<Long, Integer> categoryDeltas = new HashMap<>();
+        Map<UUID, Integer> eventDeltas = new HashMap<>();
+
+        categoriesByEvent.forEach((eventId, categoryIds) -> {
+            List<String> keys = new ArrayList<>(List.of(eventDeltaKey(eventId)));
+            categoryIds.forEach(categoryId -> keys.add(categoryDeltaKey(categoryId, eventId)));
+
+            List<?> deltas = redisTemplate.execute(DRAIN_SCRIPT, keys);
+            if (deltas == null) {
+                return;
+            }
+
+            eventDeltas.put(eventId, ((Long) deltas.get(0)).intValue());
+            for (int i = 0; i < categoryIds.size(); i++) {
+                categoryEventIds.put(categoryIds.get(i), eventId);
+                categoryDeltas.put(categoryIds.get(i), ((Long) deltas.get(i + 1)).intValue());
+            }
+        });
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                categoryDeltas.forEach((categoryId, delta) -> {
+                    if (delta != 0) {
+                        ticketCategoryRepository.applyQuantityDelta(categoryId, delta);
+                    }
+                });
+                eventDeltas.forEach((eventId, delta) -> {
+                    if (delta != 0) {
+                        eventRepository.applyAvailableTicketsDelta(eventId, delta);
+                    }
+                });
+            });
+            log.debug("Reconciled {} categories and {} events from Redis", categoryDeltas.size(), eventDeltas.size());
+        } catch (RuntimeException e) {
+            // put the drained deltas back on top of whatever accumulated meanwhile
+            categoryDeltas.forEach((categoryId, delta) ->
+                    redisTemplate.opsForValue().increment(categoryDeltaKey(categoryId, categoryEventIds.get(categoryId)), delta));
+            eventDeltas.forEach((eventId, delta) -> redisTemplate.opsForValue().increment(eventDeltaKey(eventId), delta));
+            redisTemplate.opsForSet().add(DIRTY_KEY, members.toArray(String[]::new));
+            log.error("Failed to reconcile {} categories from Redis, will retry on next run", members.size(), e);
+        }
+    }
+
+    private boolean tryLease() {
+        return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(LEASE_KEY, leaseToken, leaseDuration));
+    }
+
+    private void awaitLease() {
+        long deadline = System.currentTimeMillis() + leaseDuration.toMillis();
+        while (!tryLease()) {
+            if (System.currentTimeMillis() >= deadline) {
+                throw new IllegalStateException("Inventory reconciler lease still held by another pod");
+            }
+            try {
+                Thread.sleep(LEASE_POLL_INTERVAL_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the inventory reconciler lease", e);
+            }
+        }
+    }
+
+    private void releaseLease() {
+        redisTemplate.execute(RELEASE_LEASE_SCRIPT, List.of(LEASE_KEY), leaseToken);
+    }
+
+    private long runSeeded(RedisScript<Long> script, Long ticketCategoryId, UUID eventId, int quantity) {
+        List<String> keys = List.of(categoryKey(ticketCategoryId, eventId), eventKey(eventId),
+                categoryDeltaKey(ticketCategoryId, eventId), eventDeltaKey(eventId));
+        String amount = String.valueOf(quantity);
+
+        Long result = redisTemplate.execute(script, keys, amount);
+        if (Objects.equals(result, NOT_SEEDED)) {
+            seed(ticketCategoryId, eventId);
+            result = redisTemplate.execute(script, keys, amount);
+        }
+
+        return Objects.requireNonNull(result);
+    }
+
+    /**
+     * Seeds the missing counters of a category and its event. They expire {@code retentionAfterEvent} after
+     * the event (or after now, for events already past) so counters of finished events do not stay forever.
+     */
+    private void seed(Long ticketCategoryId, UUID eventId) {
+        TicketCategoryStockDto stock = ticketCategoryRepository.findStockById(ticketCategoryId)
+                .orElseThrow(() -> new TicketCategoryNotFoundException(ticketCategoryId));
+        Integer eventAvailable = eventRepository.findAvailableTicketsById(eventId)
+                .orElseThrow(EventNotFoundException::new);
+        LocalDateTime eventDate = eventRepository.findEventDateById(eventId)
+                .orElseThrow(EventNotFoundException::new);
+
+        Instant expiresAt = Collections.max(List.of(eventDate.atZone(ZoneId.systemDefault()).toInstant(), Instant.now()))
+                .plus(retentionAfterEvent);
+        redisTemplate.execute(SEED_SCRIPT,
+                List.of(categoryKey(ticketCategoryId, eventId), eventKey(eventId), categoryDeltaKey(ticketCategoryId, eventId), eventDeltaKey(eventId)),
+                String.valueOf(stock.availableCategoryTickets()), String.valueOf(eventAvailable), String.valueOf(expiresAt.toEpochMilli()));
+
+        log.info("Seeded Redis inventory for ticketCategoryId={} eventId={}", ticketCategoryId, eventId);
+    }
+
+    private UUID eventIdOf(Long ticketCategoryId) {
+        return categoryEvents.computeIfAbsent(ticketCategoryId, id -> ticketCategoryRepository.findStockById(id)
+                .map(TicketCategoryStockDto::eventId)
+                .orElseThrow(() -> new TicketCategoryNotFoundException(id)));
+    }
+
+    private void markDirty(Long ticketCategoryId, UUID eventId) {
+        redisTemplate.opsForSet().add(DIRTY_KEY, member(ticketCategoryId, eventId));
+    }
+
+    // the hash tag keeps both counters of an event in the same cluster slot, as the Lua script needs
+    static String categoryKey(Long ticketCategoryId, UUID eventId) {
+        return "inventory:{" + eventId + "}:category:" + ticketCategoryId;
+    }
+
+    static String eventKey(UUID eventId) {
+        return "inventory:{" + eventId + "}:event";
+    }
+
+    static String categoryDeltaKey(Long ticketCategoryId, UUID eventId) {
+        return categoryKey(ticketCategoryId, eventId) + ":delta";
+    }
+
+    static String eventDeltaKey(UUID eventId) {
+        return eventKey(eventId) + ":delta";
+    }
+
+    private static String member(Long ticketCategoryId, UUID eventId) {
+        return ticketCategoryId + ":" + eventId;
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.booking.services.inventory;
+
+import com.example.booking.dto.TicketCategoryStockDto;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+final class ShardedInventory {
+
+    private final Map<Long, StripedStockCounter> counters = new ConcurrentHashMap<>();
+    private final Map<UUID, StripedStockCounter> eventCounters = new ConcurrentHashMap<>();
+    private final int stripes;
+
+    ShardedInventory(int stripes) {
+        this.stripes = stripes;
+    }
+
+    void track(TicketCategoryStockDto stock) {
+        counters.putIfAbsent(stock.ticketCategoryId(), newCounter(stock));
+    }
+
+    void forget(Long ticketCategoryId) {
+        counters.remove(ticketCategoryId);
+    }
+
+    boolean isTracked(Long ticketCategoryId) {
+        return counters.containsKey(ticketCategoryId);
+    }
+
+    Set<Long> trackedCategoryIds() {
+        return counters.keySet();
+    }
+
+    /**
+     * Resolves the counter for a category, loading its stock once if this node has not seen it yet.
+     */
+    Optional<StripedStockCounter> counter(Long ticketCategoryId, Function<Long, Optional<TicketCategoryStockDto>> loader) {
+        StripedStockCounter counter = counters.get(ticketCategoryId);
+        if (counter != null) {
+            return Optional.of(counter);
+        }
+
+        return Optional.ofNullable(counters.computeIfAbsent(ticketCategoryId,
+                id -> loader.apply(id).map(this::newCounter).orElse(null)));
+    }
+
+    Optional<StripedStockCounter> counter(Long ticketCategoryId) {
+        return Optional.ofNullable(counters.get(ticketCategoryId));
+    }
+
+    /**
+     * Resolves the event-wide counter, loading the event's {@code availableTickets} once. Every category
+     * counter of the event goes through it before touching stock, so it is loaded before any delta exists.
+     */
+    Optional<StripedStockCounter> eventCounter(UUID eventId, Function<UUID, Optional<Integer>> loader) {
+        StripedStockCounter counter = eventCounters.get(eventId);
+        if (counter != null) {
+            return Optional.of(counter);
+        }
+
+        return Optional.ofNullable(eventCounters.computeIfAbsent(eventId,
+                id -> loader.apply(id).map(available -> new StripedStockCounter(id, available, stripes)).orElse(null)));
+    }
+
+    Optional<StripedStockCounter> eventCounter(UUID eventId) {
+        return Optional.ofNullable(eventCounters.get(eventId));
+    }
+
+    void forgetEvent(UUID eventId) {
+        eventCounters.remove(eventId);
+    }
+
+    Set<UUID> trackedEventIds() {
+        return eventCounters.keySet();
+    }
+
+    List<StockDelta> drainPendingDeltas() {
+        List<StockDelta> deltas = new ArrayList<>();
+        counters.forEach((categoryId, counter) -> {
+            int delta = counter.drainPending();
+            if (delta != 0) {
+                deltas.add(new StockDelta(categoryId, counter.getEventId(), delta));
+            }
+        });
+        return deltas;
+    }
+
+    void restorePendingDeltas(Collection<StockDelta> deltas) {
+        deltas.forEach(delta -> counter(delta.ticketCategoryId())
+                .ifPresent(counter -> counter.restorePending(delta.delta())));
+    }
+
+    Map<UUID, Integer> drainPendingEventDeltas() {
+        Map<UUID, Integer> deltas = new HashMap<>();
+        eventCounters.forEach((eventId, counter) -> {
+            int delta = counter.drainPending();
+            if (delta != 0) {
+                deltas.put(eventId, delta);
+            }
+        });
+        return deltas;
+    }
+
+    void restorePendingEventDeltas(Map<UUID, Integer> deltas) {
+        deltas.forEach((eventId, delta) -> eventCounter(eventId)
+                .ifPresent(counter -> counter.restorePending(delta)));
+    }
+
+    private StripedStockCounter newCounter(TicketCategoryStockDto stock) {
+        return new StripedStockCounter(stock.eventId(), Objects.requireNonNullElse(stock.availableCategoryTickets(), 0), stripes);
+    }
+}
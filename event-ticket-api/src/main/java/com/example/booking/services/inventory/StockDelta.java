@@ -0,0 +1,6 @@
+package com.example.booking.services.inventory;
+
+import java.util.UUID;
+
+record StockDelta(Long ticketCategoryId, UUID eventId, int delta) {
+}
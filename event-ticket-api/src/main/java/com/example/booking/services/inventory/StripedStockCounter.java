@@ -0,0 +1,125 @@
+package com.example.booking.services.inventory;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Lock-free stock counter for a single ticket category or event.
+ *
+ * The available amount is split across a power-of-two number of stripes, each one living on its own
+ * cache line, so concurrent reservations mostly CAS different memory locations. The counter also
+ * remembers the total it last handed to the write-behind flush; the not-yet-persisted delta is the
+ * distance to that mark, so it only moves while the flush holds its lock and always matches what was
+ * written to the database.
+ */
+final class StripedStockCounter {
+
+    // 16 ints = 64 bytes, keeps every stripe on its own cache line
+    private static final int STRIDE = 16;
+    private static final int STOCK = 0;
+
+    private final UUID eventId;
+    private final AtomicIntegerArray cells;
+    private final int mask;
+    private volatile int persisted;
+
+    StripedStockCounter(UUID eventId, int available, int stripes) {
+        if (Integer.bitCount(stripes) != 1) {
+            throw new IllegalArgumentException("Stripes must be a power of two: " + stripes);
+        }
+
+        this.eventId = eventId;
+        this.cells = new AtomicIntegerArray(stripes * STRIDE);
+        this.mask = stripes - 1;
+
+        int base = Math.max(available, 0) / stripes;
+        int remainder = Math.max(available, 0) % stripes;
+        for (int stripe = 0; stripe < stripes; stripe++) {
+            cells.set(stripe * STRIDE + STOCK, base + (stripe < remainder ? 1 : 0));
+        }
+        this.persisted = Math.max(available, 0);
+    }
+
+    UUID getEventId() {
+        return eventId;
+    }
+
+    boolean tryAcquire() {
+        int start = ThreadLocalRandom.current().nextInt();
+
+        for (int i = 0; i <= mask; i++) {
+            int slot = ((start + i) & mask) * STRIDE;
+            int current;
+            while ((current = cells.get(slot + STOCK)) > 0) {
+                if (cells.compareAndSet(slot + STOCK, current, current - 1)) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Takes {@code quantity} units or none: units already taken from other stripes are handed back
+     * when the total runs out halfway.
+     */
+    boolean tryAcquire(int quantity) {
+        for (int acquired = 0; acquired < quantity; acquired++) {
+            if (!tryAcquire()) {
+                if (acquired > 0) {
+                    release(acquired);
+                }
+                return false;
+            }
+        }
+        return true;
+    }
+
+    void release() {
+        release(1);
+    }
+
+    void release(int quantity) {
+        int slot = (ThreadLocalRandom.current().nextInt() & mask) * STRIDE;
+        cells.getAndAdd(slot + STOCK, quantity);
+    }
+
+    /**
+     * Puts a delta that could not be persisted back so the next flush retries it.
+     */
+    void restorePending(int delta) {
+        persisted -= delta;
+    }
+
+    /**
+     * Moves the persisted mark to the current total and returns the distance it moved. Callers must
+     * hold the flush lock.
+     */
+    int drainPending() {
+        int current = available();
+        int delta = current - persisted;
+        persisted = current;
+        return delta;
+    }
+
+    int pending() {
+        return available() - persisted;
+    }
+
+    /**
+     * The total the database should hold once every drained delta has been written.
+     */
+    int persisted() {
+        return persisted;
+    }
+
+    int available() {
+        int total = 0;
+        for (int stripe = 0; stripe <= mask; stripe++) {
+            total += cells.get(stripe * STRIDE + STOCK);
+        }
+        return total;
+    }
+}
@@ -1,47 +1,81 @@
 package com.example.booking.services.scheduler;
 
-import com.example.booking.config.cache.CacheNames;
-import com.example.booking.domain.entities.Event;
+import com.example.booking.dto.TrendingEventDto;
 import com.example.booking.repositories.EventRepository;
+import com.example.booking.repositories.TicketRepository;
 import jakarta.transaction.Transactional;
-import org.springframework.cache.annotation.CacheEvict;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
 
 @Component
 public class EventUpdater {
 
+    private static final Logger log = LoggerFactory.getLogger(EventUpdater.class);
+
     private final EventRepository eventRepository;
+    private final TicketRepository ticketRepository;
+    private final int topSize;
+    private final Duration trendingWindow;
 
-    public EventUpdater(EventRepository eventRepository) {
+    // same properties as the trending engine, so the stored flags match the /top-trending ranking
+    public EventUpdater(EventRepository eventRepository,
+                        TicketRepository ticketRepository,
+                        @Value("${booking.trending.top-size:3}") int topSize,
+                        @Value("${booking.trending.window-minutes:60}") int windowMinutes) {
         this.eventRepository = eventRepository;
+        this.ticketRepository = ticketRepository;
+        this.topSize = topSize;
+        this.trendingWindow = Duration.ofMinutes(windowMinutes);
     }
 
+    /**
+     * Persists the trending flags on {@code tb_events}. The live ranking served by the API comes from
+     * {@link com.example.booking.services.intefaces.TrendingEngine}; this job only keeps the stored
+     * columns in line with it.
+     *
+     * Ranks events by tickets emitted inside the trending window with a single grouped query and only
+     * writes the events that enter, leave or change count in the top list, so the work stays bounded by
+     * {@code booking.trending.top-size} regardless of how many events and tickets exist.
+     */
     @Scheduled(fixedRate = 300000)
-    @CacheEvict(value = CacheNames.TOP_EVENTS, key = "'topTrending'")
     @Transactional
     public void updateEventStatuses() {
+        LocalDateTime windowStart = LocalDateTime.now().minus(trendingWindow);
 
-        LocalDateTime oneHourAgo = LocalDateTime.now().minusHours(1);
+        List<TrendingEventDto> topEvents = ticketRepository.findTopEventsByTicketsEmittedSince(windowStart, PageRequest.of(0, topSize));
 
-        List<Event> events = eventRepository.findAll();
+        Map<UUID, Long> currentlyTrending = new HashMap<>();
+        eventRepository.findTrendingEventCounts().forEach(e -> currentlyTrending.put(e.eventId(), e.ticketsEmitted()));
 
-        events.forEach(event -> {
-           Long ticketsEmittedOneOurAgo = event.getTickets().stream().filter(ticket -> ticket.getEmittedAt().isAfter(oneHourAgo)).count();
-           event.setTicketsEmittedInTrendingPeriod(ticketsEmittedOneOurAgo);
-           event.setTrending(false);
-        });
+        Set<UUID> noLongerTrending = new HashSet<>(currentlyTrending.keySet());
+        topEvents.forEach(e -> noLongerTrending.remove(e.eventId()));
 
-        List<Event> topThreeTrendingEvents = events.stream().sorted(Comparator.comparingLong(Event::getTicketsEmittedInTrendingPeriod).reversed()).limit(3).toList();
+        if (!noLongerTrending.isEmpty()) {
+            eventRepository.unmarkTrending(noLongerTrending);
+        }
 
-        topThreeTrendingEvents.forEach(event -> {
-            event.setTrending(true);
-        });
+        int updated = 0;
+        for (TrendingEventDto event : topEvents) {
+            if (!Objects.equals(currentlyTrending.get(event.eventId()), event.ticketsEmitted())) {
+                eventRepository.markTrending(event.eventId(), event.ticketsEmitted());
+                updated++;
+            }
+        }
 
-        eventRepository.saveAll(events);
+        log.info("Trending events refreshed: {} in top, {} updated, {} removed", topEvents.size(), updated, noLongerTrending.size());
     }
 }
@@ -0,0 +1,20 @@
+package com.example.booking.services.scheduler;
+
+import com.example.booking.services.intefaces.InventoryBackend;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class InventoryWriteBehindJob {
+
+    private final InventoryBackend inventoryBackend;
+
+    public InventoryWriteBehindJob(InventoryBackend inventoryBackend) {
+        this.inventoryBackend = inventoryBackend;
+    }
+
+    @Scheduled(fixedDelayString = "${booking.inventory.flush-interval-ms:1000}")
+    public void flushPendingDeltas() {
+        inventoryBackend.flush();
+    }
+}
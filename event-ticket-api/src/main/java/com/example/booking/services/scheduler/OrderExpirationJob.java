@@ -1,42 +1,48 @@
 package com.example.booking.services.scheduler;
 
-import com.example.booking.domain.entities.Order;
-import com.example.booking.domain.entities.Ticket;
-import com.example.booking.domain.enums.EOrderStatus;
-import com.example.booking.repositories.OrderRepository;
+import com.example.booking.services.intefaces.OrderService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.List;
 
+/**
+ * Orders are expired at their deadline by the order expiration delay queue. This sweep only catches orders
+ * whose expiration message never made it, e.g. created before the queue existed or lost with the broker.
+ * It runs in chunks of {@code booking.orders.expiration.batch-size}, each in its own short transaction.
+ */
 @Component
 public class OrderExpirationJob {
     private static final Logger log = LoggerFactory.getLogger(OrderExpirationJob.class);
 
-    private final OrderRepository orderRepository;
+    private final OrderService orderService;
+    private final int batchSize;
+    private final long paymentTimeoutMinutes;
 
-    public OrderExpirationJob(OrderRepository orderRepository) {
-        this.orderRepository = orderRepository;
+    public OrderExpirationJob(OrderService orderService,
+                              @Value("${booking.orders.expiration.batch-size:200}") int batchSize,
+                              @Value("${booking.orders.payment-timeout-minutes:30}") long paymentTimeoutMinutes) {
+        this.orderService = orderService;
+        this.batchSize = batchSize;
+        this.paymentTimeoutMinutes = paymentTimeoutMinutes;
     }
 
-    @Scheduled(fixedRate = 600000)
-    @Transactional
+    @Scheduled(fixedRateString = "${booking.orders.expiration.sweep-interval-ms:3600000}")
     public void cleanupExpiredOrders() {
-        LocalDateTime limit = LocalDateTime.now().minusMinutes(30);
-        List<Order> expiredOrders = orderRepository.findAllByOrderStatusAndCreatedAtBefore(
-                EOrderStatus.PENDING_PAYMENT, limit);
+        LocalDateTime limit = LocalDateTime.now().minusMinutes(paymentTimeoutMinutes);
 
-        for (Order order : expiredOrders) {
-            order.setOrderStatus(EOrderStatus.CANCELED);
+        int total = 0;
+        int expired;
+        do {
+            expired = orderService.expirePendingOrders(limit, batchSize);
+            total += expired;
+        } while (expired == batchSize);
 
-            order.getTickets().forEach(Ticket::expire);
-
-            orderRepository.save(order);
-            log.info("Order {} expired", order.getOrderId());
+        if (total > 0) {
+            log.warn("Expiration sweep released {} orders created before {} that the delay queue missed", total, limit);
         }
     }
-}
\ No newline at end of file
+}
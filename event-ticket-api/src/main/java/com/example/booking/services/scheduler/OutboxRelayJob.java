@@ -0,0 +1,20 @@
+package com.example.booking.services.scheduler;
+
+import com.example.booking.messaging.producer.OutboxRelay;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class OutboxRelayJob {
+
+    private final OutboxRelay outboxRelay;
+
+    public OutboxRelayJob(OutboxRelay outboxRelay) {
+        this.outboxRelay = outboxRelay;
+    }
+
+    @Scheduled(fixedDelayString = "${booking.outbox.poll-interval-ms:500}")
+    public void relayOutbox() {
+        outboxRelay.relayPending();
+    }
+}
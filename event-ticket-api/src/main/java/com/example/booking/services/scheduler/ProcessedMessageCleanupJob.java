@@ -0,0 +1,32 @@
+package com.example.booking.services.scheduler;
+
+import com.example.booking.repositories.ProcessedMessageRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Component
+public class ProcessedMessageCleanupJob {
+    private static final Logger log = LoggerFactory.getLogger(ProcessedMessageCleanupJob.class);
+
+    private final ProcessedMessageRepository processedMessageRepository;
+    private final int retentionDays;
+
+    public ProcessedMessageCleanupJob(ProcessedMessageRepository processedMessageRepository,
+                                      @Value("${booking.payments.idempotency-retention-days:7}") int retentionDays) {
+        this.processedMessageRepository = processedMessageRepository;
+        this.retentionDays = retentionDays;
+    }
+
+    @Scheduled(cron = "0 30 3 * * *")
+    @Transactional
+    public void purgeProcessedMessages() {
+        int deleted = processedMessageRepository.deleteProcessedBefore(LocalDateTime.now().minusDays(retentionDays));
+        log.info("Purged {} processed message ids older than {} days", deleted, retentionDays);
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.booking.services.trending;
+
+import com.example.booking.dto.TrendingEventDto;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Shares per-minute emission counts between pods. Every pod adds its local deltas to one sorted set per
+ * minute and the window is the union of the last {@code windowMinutes} sets, so ranking happens in Redis.
+ * The union is computed by a read-only script that returns the top events without storing it anywhere.
+ */
+@Component
+@ConditionalOnProperty(name = "booking.trending.merge", havingValue = "redis")
+public class RedisTrendingStore {
+
+    static final String BUCKET_PREFIX = "trending:minute:";
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> TOP_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/trending-top.lua"), List.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    public RedisTrendingStore(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    void push(Map<BucketKey, Long> deltas, int windowMinutes) {
+        long ttlSeconds = Duration.ofMinutes(windowMinutes + 1L).toSeconds();
+
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection redis = (StringRedisConnection) connection;
+            deltas.forEach((key, delta) -> {
+                String bucket = BUCKET_PREFIX + key.minute();
+                redis.zIncrBy(bucket, delta, key.eventId().toString());
+                redis.expire(bucket, ttlSeconds);
+            });
+            return null;
+        });
+    }
+
+    List<TrendingEventDto> top(long now, int windowMinutes, int k) {
+        List<String> buckets = new ArrayList<>(windowMinutes);
+        for (long minute = now - windowMinutes + 1; minute <= now; minute++) {
+            buckets.add(BUCKET_PREFIX + minute);
+        }
+
+        List<?> ranked = redisTemplate.execute(TOP_SCRIPT, buckets, String.valueOf(k));
+        if (ranked == null) {
+            return List.of();
+        }
+
+        List<TrendingEventDto> top = new ArrayList<>(ranked.size() / 2);
+        for (int i = 0; i + 1 < ranked.size(); i += 2) {
+            top.add(new TrendingEventDto(UUID.fromString((String) ranked.get(i)), (long) Double.parseDouble((String) ranked.get(i + 1))));
+        }
+        return top;
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.booking.services.trending;
+
+import com.example.booking.dto.TrendingEventDto;
+import com.example.booking.repositories.TicketRepository;
+import com.example.booking.services.intefaces.TrendingEngine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps trending events fresh within seconds. Committed ticket emissions are counted in a per-minute
+ * ring buffer per event, and a refresh task re-ranks the window into an immutable top-K snapshot that
+ * readers get in O(K).
+ *
+ * With {@code booking.trending.merge=redis} each refresh also pushes the local per-minute deltas to
+ * Redis and ranks the merged window there, so every pod serves the same top list.
+ */
+@Component
+public class SlidingWindowTrendingEngine implements TrendingEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(SlidingWindowTrendingEngine.class);
+
+    private final TicketRepository ticketRepository;
+    private final RedisTrendingStore redisStore;
+    private final int topSize;
+    private final int windowMinutes;
+    private final TrendingWindow window;
+    private final ConcurrentHashMap<BucketKey, Long> pendingDeltas = new ConcurrentHashMap<>();
+
+    private volatile List<TrendingEventDto> snapshot = List.of();
+
+    public SlidingWindowTrendingEngine(TicketRepository ticketRepository,
+                                       ObjectProvider<RedisTrendingStore> redisStore,
+                                       @Value("${booking.trending.top-size:3}") int topSize,
+                                       @Value("${booking.trending.window-minutes:60}") int windowMinutes) {
+        this.ticketRepository = ticketRepository;
+        this.redisStore = redisStore.getIfAvailable();
+        this.topSize = topSize;
+        this.windowMinutes = windowMinutes;
+        this.window = new TrendingWindow(windowMinutes);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketsEmitted(TicketsEmittedEvent event) {
+        record(event.eventId(), event.tickets());
+    }
+
+    @Override
+    public void record(UUID eventId, int tickets) {
+        long minute = currentMinute();
+        window.add(eventId, minute, tickets);
+
+        if (redisStore != null) {
+            pendingDeltas.merge(new BucketKey(eventId, minute), (long) tickets, Long::sum);
+        }
+    }
+
+    @Override
+    public List<TrendingEventDto> topEvents() {
+        return snapshot;
+    }
+
+    /**
+     * Rebuilds the local window from the tickets emitted in the last window so a restart does not
+     * empty the ranking. Only the local view is seeded, the Redis buckets already hold these counts.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        LocalDateTime since = LocalDateTime.now().minusMinutes(windowMinutes);
+
+        var buckets = ticketRepository.countEmissionsPerMinuteSince(since);
+        buckets.forEach(b -> window.add(b.getEventId(), b.getMinute(), b.getTickets()));
+
+        log.info("Trending window warmed up with {} buckets for {} events", buckets.size(), window.trackedEvents());
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${booking.trending.refresh-interval-ms:5000}")
+    public void refresh() {
+        long now = currentMinute();
+
+        if (redisStore == null) {
+            snapshot = window.top(topSize, now);
+            return;
+        }
+
+        Map<BucketKey, Long> deltas = drainPendingDeltas();
+        try {
+            redisStore.push(deltas, windowMinutes);
+            snapshot = redisStore.top(now, windowMinutes, topSize);
+        } catch (RuntimeException e) {
+            deltas.forEach((key, delta) -> pendingDeltas.merge(key, delta, Long::sum));
+            snapshot = window.top(topSize, now);
+            log.warn("Could not merge trending buckets through Redis, serving local ranking", e);
+        }
+    }
+
+    private Map<BucketKey, Long> drainPendingDeltas() {
+        Map<BucketKey, Long> drained = new HashMap<>();
+        for (BucketKey key : pendingDeltas.keySet()) {
+            Long delta = pendingDeltas.remove(key);
+            if (delta != null) {
+                drained.put(key, delta);
+            }
+        }
+        return drained;
+    }
+
+    // tb_tickets.emitted_at holds local wall-clock time, so minutes are counted on the same clock
+    static long currentMinute() {
+        return LocalDateTime.now().toEpochSecond(ZoneOffset.UTC) / 60;
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.booking.services.trending;
+
+import java.util.UUID;
+
+public record TicketsEmittedEvent(UUID eventId, int tickets) {
+}
@@ -0,0 +1,105 @@
+package com.example.booking.services.trending;
+
+import com.example.booking.dto.TrendingEventDto;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-event ring buffers of per-minute emission counts. Each event owns {@code size} buckets indexed by
+ * minute modulo size, so a bucket is reused once the window has slid past it.
+ */
+final class TrendingWindow {
+
+    private final int size;
+    private final ConcurrentHashMap<UUID, EventBuckets> events = new ConcurrentHashMap<>();
+
+    TrendingWindow(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Window size must be positive: " + size);
+        }
+        this.size = size;
+    }
+
+    void add(UUID eventId, long minute, long tickets) {
+        // counted inside compute, so top() cannot retire the buckets between lookup and increment
+        events.compute(eventId, (id, buckets) -> {
+            EventBuckets current = buckets == null ? new EventBuckets(size) : buckets;
+            current.add(minute, tickets);
+            return current;
+        });
+    }
+
+    long total(UUID eventId, long now) {
+        EventBuckets buckets = events.get(eventId);
+        return buckets == null ? 0 : buckets.total(now);
+    }
+
+    int trackedEvents() {
+        return events.size();
+    }
+
+    /**
+     * Keeps a min-heap of {@code k} entries while scanning, so ranking costs O(n log k). Events whose
+     * window has gone quiet are dropped along the way.
+     */
+    List<TrendingEventDto> top(int k, long now) {
+        PriorityQueue<TrendingEventDto> heap = new PriorityQueue<>(k + 1, Comparator.comparingLong(TrendingEventDto::ticketsEmitted));
+
+        for (UUID eventId : events.keySet()) {
+            long total = total(eventId, now);
+
+            if (total == 0) {
+                events.computeIfPresent(eventId, (id, buckets) -> buckets.total(now) == 0 ? null : buckets);
+                continue;
+            }
+
+            heap.offer(new TrendingEventDto(eventId, total));
+            if (heap.size() > k) {
+                heap.poll();
+            }
+        }
+
+        List<TrendingEventDto> top = new ArrayList<>(heap);
+        top.sort(Comparator.comparingLong(TrendingEventDto::ticketsEmitted).reversed());
+        return top;
+    }
+
+    private static final class EventBuckets {
+
+        private final long[] minutes;
+        private final long[] counts;
+
+        EventBuckets(int size) {
+            this.minutes = new long[size];
+            this.counts = new long[size];
+        }
+
+        synchronized void add(long minute, long tickets) {
+            int slot = Math.floorMod(minute, minutes.length);
+            if (minute < minutes[slot]) {
+                // the slot already belongs to a later lap of the ring, this minute fell out of the window
+                return;
+            }
+            if (minutes[slot] != minute) {
+                minutes[slot] = minute;
+                counts[slot] = 0;
+            }
+            counts[slot] += tickets;
+        }
+
+        synchronized long total(long now) {
+            long total = 0;
+            for (int slot = 0; slot < minutes.length; slot++) {
+                if (minutes[slot] > now - minutes.length && minutes[slot] <= now) {
+                    total += counts[slot];
+                }
+            }
+            return total;
+        }
+    }
+}
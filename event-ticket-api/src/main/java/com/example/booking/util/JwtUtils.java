@@ -2,11 +2,15 @@ package com.example.booking.util;
 
 
 import java.security.Key;
+import java.util.Collection;
 import java.util.Date;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 import com.example.booking.domain.entities.User;
 import com.example.booking.config.security.UserDetailsImpl;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 
@@ -15,6 +19,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseCookie;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ResponseStatusException;
@@ -23,12 +29,17 @@ import org.springframework.web.util.WebUtils;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.SignatureException;
 import io.jsonwebtoken.security.Keys;
 
 @Component
 public class JwtUtils {
     private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
 
+    private static final String CLAIM_USER_ID = "uid";
+    private static final String CLAIM_EMAIL = "email";
+    private static final String CLAIM_ROLES = "roles";
+
     @Value("${jwt.private.key}")
     private String jwtSecret;
 
@@ -41,13 +52,23 @@ public class JwtUtils {
     @Value("${booking.app.jwtRefreshCookieName}")
     private String jwtRefreshCookie;
 
+    private Key signingKey;
+
+    private JwtParser parser;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+    }
+
     public ResponseCookie generateJwtCookie(UserDetailsImpl userPrincipal) {
-        String jwt = generateTokenFromUsername(userPrincipal.getUsername());
+        String jwt = generateTokenFromUserDetails(userPrincipal);
         return generateCookie(jwtCookie, jwt, "/");
     }
 
     public ResponseCookie generateJwtCookie(User user) {
-        String jwt = generateTokenFromUsername(user.getUserName());
+        String jwt = generateTokenFromUserDetails(UserDetailsImpl.build(user));
         return generateCookie(jwtCookie, jwt, "/");
     }
 
@@ -85,18 +106,21 @@ public class JwtUtils {
     }
 
     public String getUserNameFromJwtToken(String token) {
-        return Jwts.parserBuilder().setSigningKey(key()).build()
-                .parseClaimsJws(token).getBody().getSubject();
+        return parser.parseClaimsJws(token).getBody().getSubject();
     }
 
-    private Key key() {
-        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+    public boolean validateJwtToken(String authToken) {
+        return parseClaims(authToken).isPresent();
     }
 
-    public boolean validateJwtToken(String authToken) {
+    /**
+     * Verifies the signature and expiry once and returns the claims, or empty when the token is not valid.
+     */
+    public Optional<Claims> parseClaims(String authToken) {
         try {
-            Jwts.parserBuilder().setSigningKey(key()).build().parse(authToken);
-            return true;
+            return Optional.of(parser.parseClaimsJws(authToken).getBody());
+        } catch (SignatureException e) {
+            logger.error("Invalid JWT signature: {}", e.getMessage());
         } catch (MalformedJwtException e) {
             logger.error("Invalid JWT token: {}", e.getMessage());
         } catch (ExpiredJwtException e) {
@@ -107,18 +131,60 @@ public class JwtUtils {
             logger.error("JWT claims string is empty: {}", e.getMessage());
         }
 
-        return false;
+        return Optional.empty();
+    }
+
+    /**
+     * Rebuilds the principal from the token alone. Returns empty for tokens issued before user id and roles
+     * were embedded, so callers can fall back to loading the user.
+     */
+    public Optional<UserDetailsImpl> getUserDetailsFromClaims(Claims claims) {
+        String userId = claims.get(CLAIM_USER_ID, String.class);
+        if (userId == null) {
+            return Optional.empty();
+        }
+
+        List<?> roles = claims.get(CLAIM_ROLES, List.class);
+        List<GrantedAuthority> authorities = roles == null
+                ? List.of()
+                : roles.stream().<GrantedAuthority>map(role -> new SimpleGrantedAuthority(role.toString())).toList();
+
+        return Optional.of(new UserDetailsImpl(
+                UUID.fromString(userId),
+                claims.getSubject(),
+                claims.get(CLAIM_EMAIL, String.class),
+                null,
+                authorities,
+                claims.getId()));
     }
 
     public String generateTokenFromUsername(String username) {
         return Jwts.builder()
                 .setSubject(username)
+                .setId(UUID.randomUUID().toString())
                 .setIssuedAt(new Date())
                 .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(key(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    public String generateTokenFromUserDetails(UserDetailsImpl userDetails) {
+        return Jwts.builder()
+                .setSubject(userDetails.getUsername())
+                .setId(UUID.randomUUID().toString())
+                .claim(CLAIM_USER_ID, userDetails.getId().toString())
+                .claim(CLAIM_EMAIL, userDetails.getEmail())
+                .claim(CLAIM_ROLES, toRoleNames(userDetails.getAuthorities()))
+                .setIssuedAt(new Date())
+                .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
+                .signWith(signingKey, SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    private static List<String> toRoleNames(Collection<? extends GrantedAuthority> authorities) {
+        return authorities.stream().map(GrantedAuthority::getAuthority).toList();
+    }
+
     private ResponseCookie generateCookie(String name, String value, String path) {
         return ResponseCookie
                 .from(name, value)
@@ -0,0 +1,20 @@
+package com.example.booking.util;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset listing. Repositories are asked for {@code pageSize + 1} rows; the extra row only
+ * tells whether another page exists and is never returned.
+ */
+public record KeysetPage<T>(List<T> items, String nextCursor) {
+
+    public static <T> KeysetPage<T> of(List<T> rows, int pageSize, Function<T, PageCursor> cursorOf) {
+        if (rows.size() <= pageSize) {
+            return new KeysetPage<>(rows, null);
+        }
+
+        List<T> items = rows.subList(0, pageSize);
+        return new KeysetPage<>(items, cursorOf.apply(items.getLast()).encode());
+    }
+}
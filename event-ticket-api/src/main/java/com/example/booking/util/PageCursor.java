@@ -0,0 +1,64 @@
+package com.example.booking.util;
+
+import com.example.booking.exception.InvalidCursorException;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position of the last row of a keyset page: the value of the sort column plus the id that breaks ties.
+ * Clients only see the opaque Base64 form and send it back as {@code cursor} to get the next page.
+ */
+public record PageCursor(String sortKey, UUID id) {
+
+    private static final String SEPARATOR = "|";
+
+    public static PageCursor of(Object sortKey, UUID id) {
+        return new PageCursor(sortKey == null ? "" : sortKey.toString(), id);
+    }
+
+    /**
+     * Returns {@code null} for an empty cursor, which asks for the first page.
+     */
+    public static PageCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new InvalidCursorException(cursor);
+            }
+            return new PageCursor(raw.substring(0, separator), UUID.fromString(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+
+    public String encode() {
+        String raw = sortKey + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public LocalDateTime sortKeyAsDateTime() {
+        try {
+            return LocalDateTime.parse(sortKey);
+        } catch (DateTimeParseException e) {
+            throw new InvalidCursorException(encode());
+        }
+    }
+
+    public BigDecimal sortKeyAsDecimal() {
+        try {
+            return new BigDecimal(sortKey);
+        } catch (NumberFormatException e) {
+            throw new InvalidCursorException(encode());
+        }
+    }
+}
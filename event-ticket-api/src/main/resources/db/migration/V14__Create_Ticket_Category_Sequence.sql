@@ -0,0 +1,9 @@
+CREATE SEQUENCE tb_ticket_category_seq INCREMENT BY 50;
+
+SELECT setval('tb_ticket_category_seq', COALESCE(MAX(ticket_category_id), 0) + 50, false)
+FROM tb_ticket_category;
+
+ALTER TABLE tb_ticket_category
+ALTER COLUMN ticket_category_id DROP DEFAULT;
+
+DROP SEQUENCE IF EXISTS tb_ticket_category_ticket_category_id_seq;
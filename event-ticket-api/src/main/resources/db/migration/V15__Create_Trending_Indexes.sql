@@ -0,0 +1,6 @@
+CREATE INDEX IF NOT EXISTS idx_tickets_emitted_at_event_id
+ON tb_tickets (emitted_at, event_id);
+
+CREATE INDEX IF NOT EXISTS idx_events_trending
+ON tb_events (event_id)
+WHERE is_trending = true;
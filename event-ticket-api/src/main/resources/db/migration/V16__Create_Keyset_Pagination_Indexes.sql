@@ -0,0 +1,8 @@
+CREATE INDEX IF NOT EXISTS idx_events_event_date_event_id
+ON tb_events (event_date DESC, event_id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_tickets_user_id_ticket_id
+ON tb_tickets (user_id, ticket_id);
+
+CREATE INDEX IF NOT EXISTS idx_orders_user_id_price_order_id
+ON tb_orders (user_id, order_price, order_id);
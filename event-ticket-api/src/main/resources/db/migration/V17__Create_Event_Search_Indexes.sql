@@ -0,0 +1,17 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+ALTER TABLE tb_events
+ADD COLUMN search_vector tsvector
+GENERATED ALWAYS AS (
+    setweight(to_tsvector('simple', coalesce(event_name, '')), 'A') ||
+    setweight(to_tsvector('simple', coalesce(event_location, '')), 'B')
+) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_events_search_vector
+ON tb_events USING GIN (search_vector);
+
+CREATE INDEX IF NOT EXISTS idx_events_event_name_trgm
+ON tb_events USING GIN (lower(event_name) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_events_event_location
+ON tb_events (event_location);
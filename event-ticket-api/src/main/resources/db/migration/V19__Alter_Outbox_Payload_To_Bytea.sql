@@ -0,0 +1,2 @@
+ALTER TABLE tb_outbox_messages
+ALTER COLUMN payload TYPE BYTEA USING convert_to(payload, 'UTF8');
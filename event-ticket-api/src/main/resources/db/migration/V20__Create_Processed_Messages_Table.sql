@@ -0,0 +1,7 @@
+CREATE TABLE IF NOT EXISTS tb_processed_messages (
+    message_id VARCHAR(255) PRIMARY KEY,
+    processed_at TIMESTAMP NOT NULL DEFAULT now()
+);
+
+CREATE INDEX IF NOT EXISTS idx_processed_messages_processed_at
+ON tb_processed_messages (processed_at);
@@ -0,0 +1,3 @@
+CREATE INDEX IF NOT EXISTS idx_orders_pending_created_at
+ON tb_orders (created_at)
+WHERE order_status = 'PENDING_PAYMENT';
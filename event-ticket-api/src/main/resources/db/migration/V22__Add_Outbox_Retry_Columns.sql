@@ -0,0 +1,7 @@
+ALTER TABLE tb_outbox_messages
+ADD COLUMN IF NOT EXISTS next_attempt_at TIMESTAMP NOT NULL DEFAULT now(),
+ADD COLUMN IF NOT EXISTS parked_at TIMESTAMP;
+
+CREATE INDEX IF NOT EXISTS idx_outbox_messages_next_attempt_at
+ON tb_outbox_messages (next_attempt_at, id)
+WHERE parked_at IS NULL;
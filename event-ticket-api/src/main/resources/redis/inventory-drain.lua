@@ -0,0 +1,8 @@
+-- KEYS = delta keys of one event, all in the same slot
+-- returns every delta (0 when missing) and removes them, so each delta is written to Postgres once
+local deltas = {}
+for i, key in ipairs(KEYS) do
+    deltas[i] = tonumber(redis.call('GET', key) or '0')
+    redis.call('DEL', key)
+end
+return deltas
@@ -0,0 +1,13 @@
+-- KEYS[1] = category stock, KEYS[2] = event stock,
+-- KEYS[3] = category delta not yet written to Postgres, KEYS[4] = event delta not yet written to Postgres
+-- ARGV[1] = quantity
+-- returns 1 when released and -2 when the counters were not seeded yet
+if redis.call('EXISTS', KEYS[1]) == 0 or redis.call('EXISTS', KEYS[2]) == 0 then
+    return -2
+end
+
+redis.call('INCRBY', KEYS[1], ARGV[1])
+redis.call('INCRBY', KEYS[2], ARGV[1])
+redis.call('INCRBY', KEYS[3], ARGV[1])
+redis.call('INCRBY', KEYS[4], ARGV[1])
+return 1
@@ -0,0 +1,26 @@
+-- KEYS[1] = category stock, KEYS[2] = event stock,
+-- KEYS[3] = category delta not yet written to Postgres, KEYS[4] = event delta not yet written to Postgres
+-- ARGV[1] = quantity
+-- returns 1 when reserved, 0 when the category is sold out, -1 when the event is sold out
+-- and -2 when the counters were not seeded yet
+local category = redis.call('GET', KEYS[1])
+local event = redis.call('GET', KEYS[2])
+local quantity = tonumber(ARGV[1])
+
+if not category or not event then
+    return -2
+end
+
+if tonumber(category) < quantity then
+    return 0
+end
+
+if tonumber(event) < quantity then
+    return -1
+end
+
+redis.call('DECRBY', KEYS[1], quantity)
+redis.call('DECRBY', KEYS[2], quantity)
+redis.call('DECRBY', KEYS[3], quantity)
+redis.call('DECRBY', KEYS[4], quantity)
+return 1
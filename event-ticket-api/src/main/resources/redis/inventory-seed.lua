@@ -0,0 +1,13 @@
+-- KEYS[1] = category stock, KEYS[2] = event stock,
+-- KEYS[3] = category delta not yet written to Postgres, KEYS[4] = event delta not yet written to Postgres
+-- ARGV[1] = category stock in Postgres, ARGV[2] = event stock in Postgres, ARGV[3] = expiry in unix ms
+-- a missing counter (never seeded, expired or evicted) starts from Postgres plus the delta Postgres has
+-- not seen yet, so pending reservations are not handed out a second time
+for i = 1, 2 do
+    if redis.call('EXISTS', KEYS[i]) == 0 then
+        local pending = tonumber(redis.call('GET', KEYS[i + 2]) or '0')
+        redis.call('SET', KEYS[i], tonumber(ARGV[i]) + pending)
+    end
+    redis.call('PEXPIREAT', KEYS[i], ARGV[3])
+end
+return 1
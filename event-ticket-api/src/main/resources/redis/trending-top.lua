@@ -0,0 +1,23 @@
+-- KEYS = minute buckets of the window, ARGV[1] = how many events to return
+-- returns member, score pairs of the top events, highest score first; nothing is written, so pods
+-- ranking at the same time never share an intermediate key
+local args = {#KEYS}
+for i, key in ipairs(KEYS) do
+    args[i + 1] = key
+end
+table.insert(args, 'WITHSCORES')
+
+-- sorted by ascending score, so the top events are at the end
+local union = redis.call('ZUNION', unpack(args))
+local k = tonumber(ARGV[1])
+local top = {}
+
+for i = #union - 1, 1, -2 do
+    if #top >= 2 * k then
+        break
+    end
+    table.insert(top, union[i])
+    table.insert(top, union[i + 1])
+end
+
+return top
@@ -0,0 +1,28 @@
+package com.example.booking.advice;
+
+import com.example.booking.exception.InvalidCursorException;
+import org.assertj.core.api.InstanceOfAssertFactories;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ValidationExceptionHandlerTest {
+
+    private final ValidationExceptionHandler handler = new ValidationExceptionHandler();
+
+    @Test
+    void handleInvalidCursorException_ShouldAnswerBadRequest_InsteadOfFallingBackToServerError() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/orders");
+
+        ResponseEntity<Object> response = handler.handleInvalidCursorException(new InvalidCursorException("abc"), request);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody()).asInstanceOf(InstanceOfAssertFactories.MAP)
+                .containsEntry("status", 400)
+                .containsEntry("message", "Invalid page cursor: abc")
+                .containsEntry("path", request.getRequestURI());
+    }
+}
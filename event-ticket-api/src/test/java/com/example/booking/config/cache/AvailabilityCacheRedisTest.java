@@ -0,0 +1,142 @@
+package com.example.booking.config.cache;
+
+import com.example.booking.dto.RemainingTicketCategoryDto;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers
+class AvailabilityCacheRedisTest {
+
+    private static final UUID EVENT_ID = UUID.randomUUID();
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>("redis:7.2.4-alpine")
+            .withExposedPorts(6379);
+
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redisTemplate;
+
+    private AvailabilityCache availabilityCache;
+
+    @BeforeAll
+    static void connect() {
+        connectionFactory = new LettuceConnectionFactory(redis.getHost(), redis.getMappedPort(6379));
+        connectionFactory.afterPropertiesSet();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void disconnect() {
+        connectionFactory.destroy();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate.getConnectionFactory().getConnection().serverCommands().flushAll();
+        // a random of 1 never refreshes early
+        availabilityCache = new AvailabilityCache(redisTemplate, 60_000, 5_000, 100, 1.0, new NearCache<>(0, 0), () -> 1.0);
+    }
+
+    @Test
+    void get_ShouldReplayChanges_CommittedBetweenTheReadAndTheFill() {
+        availabilityCache.get(EVENT_ID, () -> {
+            Map<Long, RemainingTicketCategoryDto> read = Map.of(7L, new RemainingTicketCategoryDto("VIP", 40));
+            availabilityCache.reserved(EVENT_ID, Map.of(7L, 2));
+            availabilityCache.reserved(EVENT_ID, Map.of(7L, 1));
+            return read;
+        });
+
+        assertThat(cachedHash()).containsEntry("7", "37");
+    }
+
+    @Test
+    void get_ShouldOnlyReplayChanges_AppendedAfterItsOwnJournalPosition() {
+        availabilityCache.get(EVENT_ID, () -> {
+            availabilityCache.reserved(EVENT_ID, Map.of(7L, 2));
+            return Map.of(7L, new RemainingTicketCategoryDto("VIP", 40));
+        });
+        redisTemplate.delete("availability:" + EVENT_ID);
+
+        availabilityCache.get(EVENT_ID, () -> Map.of(7L, new RemainingTicketCategoryDto("VIP", 38)));
+
+        assertThat(cachedHash()).containsEntry("7", "38");
+    }
+
+    @Test
+    void get_ShouldNotCache_WhenJournalExpiredDuringTheLoad() {
+        AtomicInteger loads = new AtomicInteger();
+
+        availabilityCache.get(EVENT_ID, () -> {
+            loads.incrementAndGet();
+            redisTemplate.delete("availability-journal:" + EVENT_ID);
+            return Map.of(7L, new RemainingTicketCategoryDto("VIP", 40));
+        });
+        availabilityCache.get(EVENT_ID, () -> {
+            loads.incrementAndGet();
+            return Map.of(7L, new RemainingTicketCategoryDto("VIP", 40));
+        });
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void reserved_ShouldPatchTheCachedCounter() {
+        availabilityCache.get(EVENT_ID, () -> Map.of(7L, new RemainingTicketCategoryDto("VIP", 40)));
+
+        availabilityCache.reserved(EVENT_ID, Map.of(7L, 3));
+
+        assertThat(cachedHash()).containsEntry("7", "37");
+    }
+
+    @Test
+    void get_ShouldNotReplaceTheHash_WhenPatchedDuringAnEarlyRefresh() {
+        availabilityCache.get(EVENT_ID, () -> Map.of(7L, new RemainingTicketCategoryDto("VIP", 40)));
+        Long ttlBefore = redisTemplate.getExpire("availability:" + EVENT_ID);
+        slowLastLoad();
+        AvailabilityCache refreshing = new AvailabilityCache(redisTemplate, 3_600_000, 5_000, 100, 1.0, new NearCache<>(0, 0), () -> 1e-300);
+
+        refreshing.get(EVENT_ID, () -> {
+            Map<Long, RemainingTicketCategoryDto> read = Map.of(7L, new RemainingTicketCategoryDto("VIP", 40));
+            availabilityCache.reserved(EVENT_ID, Map.of(7L, 2));
+            return read;
+        });
+
+        assertThat(cachedHash()).containsEntry("7", "38").containsEntry("meta:version", "1");
+        assertThat(redisTemplate.getExpire("availability:" + EVENT_ID)).isLessThanOrEqualTo(ttlBefore);
+    }
+
+    @Test
+    void get_ShouldReplaceTheHash_WhenNothingChangedDuringAnEarlyRefresh() {
+        availabilityCache.get(EVENT_ID, () -> Map.of(7L, new RemainingTicketCategoryDto("VIP", 40)));
+        availabilityCache.reserved(EVENT_ID, Map.of(7L, 2));
+        slowLastLoad();
+        AvailabilityCache refreshing = new AvailabilityCache(redisTemplate, 3_600_000, 5_000, 100, 1.0, new NearCache<>(0, 0), () -> 1e-300);
+
+        refreshing.get(EVENT_ID, () -> Map.of(7L, new RemainingTicketCategoryDto("VIP", 38)));
+
+        assertThat(cachedHash()).containsEntry("7", "38").containsEntry("meta:version", "0");
+        assertThat(redisTemplate.getExpire("availability:" + EVENT_ID)).isGreaterThan(60L);
+    }
+
+    // with a random close to 0, XFetch then refreshes the hash on the next read
+    private void slowLastLoad() {
+        redisTemplate.opsForHash().put("availability:" + EVENT_ID, "meta:load-ms", "1000000");
+    }
+
+    private Map<Object, Object> cachedHash() {
+        return redisTemplate.opsForHash().entries("availability:" + EVENT_ID);
+    }
+}
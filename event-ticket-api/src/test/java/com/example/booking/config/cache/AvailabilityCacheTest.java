@@ -0,0 +1,235 @@
+package com.example.booking.config.cache;
+
+import com.example.booking.dto.OrderTicketCountDto;
+import com.example.booking.dto.RemainingTicketCategoryDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AvailabilityCacheTest {
+
+    private static final UUID EVENT_ID = UUID.randomUUID();
+    private static final String KEY = "availability:" + EVENT_ID;
+    private static final String LEASE_KEY = "availability-lease:" + EVENT_ID;
+    private static final String JOURNAL_KEY = "availability-journal:" + EVENT_ID;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+    @Mock
+    private Supplier<Map<Long, RemainingTicketCategoryDto>> loader;
+    @Captor
+    private ArgumentCaptor<RedisScript<Long>> scripts;
+
+    private AvailabilityCache availabilityCache;
+
+    @BeforeEach
+    void setUp() {
+        availabilityCache = new AvailabilityCache(redisTemplate, 60_000, 5_000, 100, 1.0, new NearCache<>(0, 0), () -> 0.5);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void get_ShouldServeCachedCategoriesInIdOrder_WithoutLoading() {
+        cachedHashes(Map.of(
+                "12", "3", "name:12", "Pista",
+                "7", "40", "name:7", "VIP",
+                "meta:load-ms", "100"));
+
+        List<RemainingTicketCategoryDto> result = availabilityCache.get(EVENT_ID, loader);
+
+        assertThat(result).containsExactly(
+                new RemainingTicketCategoryDto("VIP", 40),
+                new RemainingTicketCategoryDto("Pista", 3));
+        verifyNoInteractions(loader);
+    }
+
+    @Test
+    void get_ShouldLoadAndFill_WhenMissedAndLeaseAcquired() {
+        cachedHashes(Map.of());
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(eq(LEASE_KEY), anyString(), eq(Duration.ofMillis(5_000)))).thenReturn(true);
+        openedJournal("generation-1", 3L);
+        when(loader.get()).thenReturn(Map.of(7L, new RemainingTicketCategoryDto("VIP", 40)));
+
+        List<RemainingTicketCategoryDto> result = availabilityCache.get(EVENT_ID, loader);
+
+        assertThat(result).containsExactly(new RemainingTicketCategoryDto("VIP", 40));
+        verify(redisTemplate).execute(scripts.capture(), eq(List.of(KEY, JOURNAL_KEY)), eq("60000"), eq("generation-1"), eq("3"),
+                eq("meta:load-ms"), anyString(), eq("meta:version"), eq("0"), eq("7"), eq("40"), eq("name:7"), eq("VIP"));
+        assertThat(scripts.getValue().getScriptAsString()).contains("LRANGE").doesNotContain("DEL");
+        verify(redisTemplate).execute(anyScript(), eq(List.of(LEASE_KEY)), anyString());
+    }
+
+    @Test
+    void get_ShouldOpenTheJournal_BeforeReadingTheDatabase() {
+        cachedHashes(Map.of());
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(eq(LEASE_KEY), anyString(), any(Duration.class))).thenReturn(true);
+        openedJournal("generation-1", 1L);
+        when(loader.get()).thenReturn(Map.of());
+
+        availabilityCache.get(EVENT_ID, loader);
+
+        var order = inOrder(redisTemplate, loader);
+        order.verify(redisTemplate).execute(anyScript(), eq(List.of(JOURNAL_KEY)), eq("5000"), anyString());
+        order.verify(loader).get();
+        order.verify(redisTemplate).execute(anyScript(), eq(List.of(KEY, JOURNAL_KEY)), any(Object[].class));
+    }
+
+    @Test
+    void get_ShouldWaitForTheLeaseHolder_InsteadOfLoading() {
+        cachedHashes(Map.of(), Map.of("7", "38", "name:7", "VIP", "meta:load-ms", "100"));
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(eq(LEASE_KEY), anyString(), any(Duration.class))).thenReturn(false);
+
+        List<RemainingTicketCategoryDto> result = availabilityCache.get(EVENT_ID, loader);
+
+        assertThat(result).containsExactly(new RemainingTicketCategoryDto("VIP", 38));
+        verifyNoInteractions(loader);
+    }
+
+    @Test
+    void get_ShouldRefreshEarly_WhenCloseToExpiryAndXFetchFires() {
+        availabilityCache = new AvailabilityCache(redisTemplate, 60_000, 5_000, 100, 1.0, new NearCache<>(0, 0), () -> 0.1);
+        // -100 ms * ln(0.1) is about 230 ms, more than the 50 ms left
+        cachedHashes(50L, Map.of("7", "40", "name:7", "VIP", "meta:load-ms", "100", "meta:version", "4"));
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(eq(LEASE_KEY), anyString(), any(Duration.class))).thenReturn(true);
+        when(loader.get()).thenReturn(Map.of(7L, new RemainingTicketCategoryDto("VIP", 39)));
+
+        List<RemainingTicketCategoryDto> result = availabilityCache.get(EVENT_ID, loader);
+
+        assertThat(result).containsExactly(new RemainingTicketCategoryDto("VIP", 39));
+        verify(redisTemplate).execute(scripts.capture(), eq(List.of(KEY)), eq("60000"), eq("4"), eq("meta:load-ms"), anyString(),
+                eq("meta:version"), eq("0"), eq("7"), eq("39"), eq("name:7"), eq("VIP"));
+        assertThat(scripts.getValue().getScriptAsString()).contains("DEL").contains("meta:version");
+    }
+
+    @Test
+    void get_ShouldKeepCachedValue_WhenFarFromExpiry() {
+        availabilityCache = new AvailabilityCache(redisTemplate, 60_000, 5_000, 100, 1.0, new NearCache<>(0, 0), () -> 0.1);
+        cachedHashes(50_000L, Map.of("7", "40", "name:7", "VIP", "meta:load-ms", "100"));
+
+        assertThat(availabilityCache.get(EVENT_ID, loader)).containsExactly(new RemainingTicketCategoryDto("VIP", 40));
+        verifyNoInteractions(loader);
+    }
+
+    @Test
+    void reserved_ShouldDecrementCountersRightAway_WhenNoTransactionIsActive() {
+        availabilityCache.reserved(EVENT_ID, Map.of(7L, 2));
+
+        verify(redisTemplate).execute(anyScript(), eq(List.of(KEY, JOURNAL_KEY)), eq(AvailabilityCache.CHANGES_CHANNEL), eq(EVENT_ID.toString()),
+                eq("7"), eq("-2"));
+    }
+
+    @Test
+    void released_ShouldWaitForCommit_AndSumQuantitiesPerCategory() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        availabilityCache.released(List.of(
+                new OrderTicketCountDto(7L, EVENT_ID, 2L),
+                new OrderTicketCountDto(7L, EVENT_ID, 1L)));
+
+        verifyNoInteractions(redisTemplate);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        verify(redisTemplate).execute(anyScript(), eq(List.of(KEY, JOURNAL_KEY)), eq(AvailabilityCache.CHANGES_CHANNEL), eq(EVENT_ID.toString()),
+                eq("7"), eq("3"));
+    }
+
+    @Test
+    void reserved_ShouldNotPropagate_WhenRedisFails() {
+        when(redisTemplate.execute(anyScript(), eq(List.of(KEY, JOURNAL_KEY)), any(Object[].class)))
+                .thenThrow(new IllegalStateException("redis down"));
+
+        availabilityCache.reserved(EVENT_ID, Map.of(7L, 1));
+
+        verify(redisTemplate).execute(anyScript(), eq(List.of(KEY, JOURNAL_KEY)), any(Object[].class));
+    }
+
+    @Test
+    void get_ShouldServeRepeatedReadsFromNearCache_UntilTheEventChanges() {
+        availabilityCache = new AvailabilityCache(redisTemplate, 60_000, 5_000, 100, 1.0, new NearCache<>(100, 60_000), () -> 0.5);
+        cachedHashes(
+                Map.of("7", "40", "name:7", "VIP", "meta:load-ms", "100"),
+                Map.of("7", "38", "name:7", "VIP", "meta:load-ms", "100"));
+
+        assertThat(availabilityCache.get(EVENT_ID, loader)).containsExactly(new RemainingTicketCategoryDto("VIP", 40));
+        assertThat(availabilityCache.get(EVENT_ID, loader)).containsExactly(new RemainingTicketCategoryDto("VIP", 40));
+        verify(redisTemplate, times(1)).executePipelined(any(RedisCallback.class));
+
+        availabilityCache.reserved(EVENT_ID, Map.of(7L, 2));
+
+        assertThat(availabilityCache.get(EVENT_ID, loader)).containsExactly(new RemainingTicketCategoryDto("VIP", 38));
+        verifyNoInteractions(loader);
+    }
+
+    @Test
+    void onMessage_ShouldDropNearCopy_WhenAnotherPodChangedTheEvent() {
+        availabilityCache = new AvailabilityCache(redisTemplate, 60_000, 5_000, 100, 1.0, new NearCache<>(100, 60_000), () -> 0.5);
+        cachedHashes(
+                Map.of("7", "40", "name:7", "VIP", "meta:load-ms", "100"),
+                Map.of("7", "37", "name:7", "VIP", "meta:load-ms", "100"));
+        availabilityCache.get(EVENT_ID, loader);
+
+        availabilityCache.onMessage(new DefaultMessage(AvailabilityCache.CHANGES_CHANNEL.getBytes(StandardCharsets.UTF_8),
+                EVENT_ID.toString().getBytes(StandardCharsets.UTF_8)), null);
+
+        assertThat(availabilityCache.get(EVENT_ID, loader)).containsExactly(new RemainingTicketCategoryDto("VIP", 37));
+    }
+
+    private void openedJournal(String generation, long position) {
+        lenient().when(redisTemplate.execute(anyScript(), eq(List.of(JOURNAL_KEY)), anyString(), anyString()))
+                .thenReturn(List.of(generation, position));
+    }
+
+    @SafeVarargs
+    private void cachedHashes(Map<String, String>... reads) {
+        cachedHashes(60_000L, reads);
+    }
+
+    @SafeVarargs
+    private void cachedHashes(long pttl, Map<String, String>... reads) {
+        var stubbing = when(redisTemplate.executePipelined(any(RedisCallback.class)));
+        for (Map<String, String> read : reads) {
+            stubbing = stubbing.thenReturn(List.of(read, read.isEmpty() ? -2L : pttl));
+        }
+    }
+
+    private static <T> RedisScript<T> anyScript() {
+        return any();
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.booking.config.cache;
+
+import com.example.booking.controller.response.order.OrdersResponse;
+import com.example.booking.dto.OrderItemDto;
+import com.example.booking.dto.TicketItemDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BinaryCacheSerializerTest {
+
+    @Test
+    void deserialize_ShouldRestoreOrdersPage_WithNullableFields() {
+        BinaryCacheSerializer<OrdersResponse> serializer = new BinaryCacheSerializer<>(CacheValueCodecs.ORDERS_PAGE, 0);
+        OrdersResponse page = ordersPage(3);
+        OrdersResponse cursorPage = new OrdersResponse(List.of(), 0, 20, null, null, "next");
+
+        assertThat(serializer.deserialize(serializer.serialize(page))).isEqualTo(page);
+        assertThat(serializer.deserialize(serializer.serialize(cursorPage))).isEqualTo(cursorPage);
+    }
+
+    @Test
+    void serialize_ShouldDeflate_WhenEntryReachesThreshold() {
+        BinaryCacheSerializer<OrdersResponse> plain = new BinaryCacheSerializer<>(CacheValueCodecs.ORDERS_PAGE, 0);
+        BinaryCacheSerializer<OrdersResponse> deflating = new BinaryCacheSerializer<>(CacheValueCodecs.ORDERS_PAGE, 512);
+        OrdersResponse page = ordersPage(50);
+
+        byte[] compressed = deflating.serialize(page);
+
+        assertThat(compressed.length).isLessThan(plain.serialize(page).length);
+        assertThat(deflating.deserialize(compressed)).isEqualTo(page);
+        assertThat(plain.deserialize(compressed)).isEqualTo(page);
+    }
+
+    @Test
+    void serialize_ShouldBeSmallerThanTypedJson() {
+        BinaryCacheSerializer<OrdersResponse> binary = new BinaryCacheSerializer<>(CacheValueCodecs.ORDERS_PAGE, 0);
+        Jackson2JsonRedisSerializer<OrdersResponse> json = new Jackson2JsonRedisSerializer<>(RedisCacheConfig.cacheObjectMapper(), OrdersResponse.class);
+        OrdersResponse page = ordersPage(10);
+
+        assertThat(binary.serialize(page).length).isLessThan(json.serialize(page).length / 2);
+        assertThat(json.deserialize(json.serialize(page))).isEqualTo(page);
+    }
+
+    @Test
+    void deserialize_ShouldThrow_WhenFormatByteIsUnknown() {
+        BinaryCacheSerializer<OrdersResponse> serializer = new BinaryCacheSerializer<>(CacheValueCodecs.ORDERS_PAGE, 0);
+
+        assertThatThrownBy(() -> serializer.deserialize("{\"orders\":[]}".getBytes()))
+                .isInstanceOf(SerializationException.class);
+    }
+
+    private static OrdersResponse ordersPage(int orders) {
+        UUID userId = UUID.randomUUID();
+        List<OrderItemDto> items = new ArrayList<>();
+        for (int i = 0; i < orders; i++) {
+            List<TicketItemDto> tickets = List.of(
+                    new TicketItemDto(UUID.randomUUID(), UUID.randomUUID(), userId, 1L, new BigDecimal("150.00")),
+                    new TicketItemDto(UUID.randomUUID(), UUID.randomUUID(), userId, 2L, new BigDecimal("80.00"))
+            );
+            items.add(new OrderItemDto(UUID.randomUUID(), new BigDecimal("230.00"), tickets, userId, i % 2 == 0 ? null : "https://pay/" + i));
+        }
+        return new OrdersResponse(items, 1, orders, 4, 4L * orders);
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.booking.config.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NearCacheTest {
+
+    @Test
+    void get_ShouldReturnStoredValue_UntilItIsEvicted() {
+        NearCache<String, String> cache = new NearCache<>(100, 60_000);
+
+        cache.put("a", "value", cache.stamp("a"));
+
+        assertThat(cache.get("a")).isEqualTo("value");
+        cache.evict("a");
+        assertThat(cache.get("a")).isNull();
+    }
+
+    @Test
+    void get_ShouldReturnNull_WhenEntryOutlivedItsTtl() throws InterruptedException {
+        NearCache<String, String> cache = new NearCache<>(100, 5);
+
+        cache.put("a", "value", cache.stamp("a"));
+        Thread.sleep(20);
+
+        assertThat(cache.get("a")).isNull();
+    }
+
+    @Test
+    void put_ShouldKeepNothing_WhenKeyWasEvictedSinceTheStamp() {
+        NearCache<String, String> cache = new NearCache<>(100, 60_000);
+        long stamp = cache.stamp("a");
+
+        cache.evict("a");
+        cache.put("a", "read before the change", stamp);
+
+        assertThat(cache.get("a")).isNull();
+    }
+
+    @Test
+    void put_ShouldKeepSizeBounded() {
+        NearCache<String, Integer> cache = new NearCache<>(160, 60_000);
+
+        for (int i = 0; i < 10_000; i++) {
+            cache.put("key-" + i, i, cache.stamp("key-" + i));
+        }
+
+        assertThat(cache.size()).isLessThanOrEqualTo(160);
+        assertThat(cache.get("key-9999")).isEqualTo(9999);
+    }
+
+    @Test
+    void put_ShouldKeepNothing_WhenMaxEntriesIsZero() {
+        NearCache<String, String> cache = new NearCache<>(0, 60_000);
+
+        cache.put("a", "value", cache.stamp("a"));
+
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void bindTo_ShouldCountHitsAndMisses() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        NearCache<String, String> cache = new NearCache<>(100, 60_000);
+        cache.bindTo(meterRegistry, "orders");
+
+        cache.get("a");
+        cache.put("a", "value", cache.stamp("a"));
+        cache.get("a");
+        cache.get("a");
+
+        assertThat(meterRegistry.get("booking.cache.near.gets").tags("cache", "orders", "result", "hit").functionCounter().count())
+                .isEqualTo(2);
+        assertThat(meterRegistry.get("booking.cache.near.gets").tags("cache", "orders", "result", "miss").functionCounter().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("booking.cache.near.size").tag("cache", "orders").gauge().value()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.booking.config.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TwoLevelCacheManagerTest {
+
+    private static final String KEY = "6f1c-g3-0-10";
+    private static final String OTHER_CACHE = "other";
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private ConcurrentMapCacheManager remote;
+    private TwoLevelCacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        remote = new ConcurrentMapCacheManager(CacheNames.ORDERS, OTHER_CACHE);
+        cacheManager = new TwoLevelCacheManager(remote, Set.of(CacheNames.ORDERS), redisTemplate, meterRegistry, 100, 60_000);
+    }
+
+    @Test
+    void getCache_ShouldServeRepeatedReadsFromHeap_AfterFirstRemoteRead() {
+        remote.getCache(CacheNames.ORDERS).put(KEY, "remote value");
+        Cache cache = cacheManager.getCache(CacheNames.ORDERS);
+
+        assertThat(cache.get(KEY).get()).isEqualTo("remote value");
+        remote.getCache(CacheNames.ORDERS).evict(KEY);
+
+        assertThat(cache.get(KEY).get()).isEqualTo("remote value");
+        assertThat(meterRegistry.get("booking.cache.near.gets").tag("result", "hit").functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("booking.cache.near.gets").tag("result", "miss").functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void getCache_ShouldReturnRemoteCache_WhenCacheHasNoNearLevel() {
+        assertThat(cacheManager.getCache(OTHER_CACHE)).isSameAs(remote.getCache(OTHER_CACHE));
+    }
+
+    @Test
+    void evict_ShouldDropBothLevels_AndPublishTheKey() throws Exception {
+        Cache cache = cacheManager.getCache(CacheNames.ORDERS);
+        cache.put(KEY, "value");
+
+        cache.evict(KEY);
+
+        assertThat(cache.get(KEY)).isNull();
+        ArgumentCaptor<String> published = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate, times(2)).convertAndSend(eq(TwoLevelCacheManager.INVALIDATION_CHANNEL), published.capture());
+        TwoLevelCacheManager.Invalidation invalidation = objectMapper.readValue(published.getValue(), TwoLevelCacheManager.Invalidation.class);
+        assertThat(invalidation.cache()).isEqualTo(CacheNames.ORDERS);
+        assertThat(invalidation.key()).isEqualTo(KEY);
+    }
+
+    @Test
+    void onMessage_ShouldDropNearCopy_WhenAnotherPodChangedTheKey() throws Exception {
+        Cache cache = cacheManager.getCache(CacheNames.ORDERS);
+        cache.put(KEY, "old value");
+        remote.getCache(CacheNames.ORDERS).put(KEY, "new value");
+
+        cacheManager.onMessage(message(new TwoLevelCacheManager.Invalidation("other-pod", CacheNames.ORDERS, KEY)), null);
+
+        assertThat(cache.get(KEY).get()).isEqualTo("new value");
+    }
+
+    @Test
+    void onMessage_ShouldIgnoreOwnInvalidations() {
+        Cache cache = cacheManager.getCache(CacheNames.ORDERS);
+        cache.put(KEY, "value");
+        ArgumentCaptor<String> published = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(anyString(), published.capture());
+        remote.getCache(CacheNames.ORDERS).evict(KEY);
+
+        cacheManager.onMessage(new DefaultMessage(new byte[0], published.getValue().getBytes(StandardCharsets.UTF_8)), null);
+
+        assertThat(cache.get(KEY).get()).isEqualTo("value");
+    }
+
+    private DefaultMessage message(TwoLevelCacheManager.Invalidation invalidation) throws Exception {
+        return new DefaultMessage(TwoLevelCacheManager.INVALIDATION_CHANNEL.getBytes(StandardCharsets.UTF_8),
+                objectMapper.writeValueAsBytes(invalidation));
+    }
+}
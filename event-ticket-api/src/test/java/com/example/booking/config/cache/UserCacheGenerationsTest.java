@@ -0,0 +1,80 @@
+package com.example.booking.config.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserCacheGenerationsTest {
+
+    private static final UUID USER_ID = UUID.randomUUID();
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private UserCacheGenerations generations;
+
+    @BeforeEach
+    void setUp() {
+        generations = new UserCacheGenerations(redisTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void keyPrefix_ShouldStartAtGenerationZero_WhenUserWasNeverInvalidated() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get("cache-generation:ORDERS_CACHE:" + USER_ID)).thenReturn(null);
+
+        assertThat(generations.keyPrefix(CacheNames.ORDERS, USER_ID)).isEqualTo(USER_ID + "-g0");
+    }
+
+    @Test
+    void keyPrefix_ShouldUseCurrentGeneration() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get("cache-generation:ORDERS_CACHE:" + USER_ID)).thenReturn("7");
+
+        assertThat(generations.keyPrefix(CacheNames.ORDERS, USER_ID)).isEqualTo(USER_ID + "-g7");
+    }
+
+    @Test
+    void invalidate_ShouldBumpRightAway_WhenNoTransactionIsActive() {
+        generations.invalidate(CacheNames.ORDERS, USER_ID);
+
+        verify(redisTemplate).executePipelined(any(RedisCallback.class));
+    }
+
+    @Test
+    void invalidate_ShouldWaitForCommit_WhenTransactionIsActive() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        generations.invalidate(CacheNames.ORDERS, USER_ID);
+
+        verify(redisTemplate, never()).executePipelined(any(RedisCallback.class));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        verify(redisTemplate).executePipelined(any(RedisCallback.class));
+    }
+}
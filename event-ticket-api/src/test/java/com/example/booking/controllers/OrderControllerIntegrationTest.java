@@ -125,6 +125,28 @@ public class OrderControllerIntegrationTest extends AbstractIntegrationTest {
                 .andExpect(jsonPath("$.orders.length()", is(1)));
     }
 
+    @Test
+    void shouldListUserOrdersByCursor_WithoutPageNumber() throws Exception {
+        createTestOrder(List.of(this.ticketId));
+
+        mockMvc.perform(get(GET_ORDERS_BY_USER_ID_URL, userid)
+                        .param("cursor", "")
+                        .cookie(new Cookie(JWT_COOKIE_NAME, jwt)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.orders.length()", is(1)))
+                .andExpect(jsonPath("$.page").value(nullValue()))
+                .andExpect(jsonPath("$.nextCursor").value(nullValue()));
+    }
+
+    @Test
+    void shouldReturnBadRequest_WhenOrdersCursorIsMalformed() throws Exception {
+        mockMvc.perform(get(GET_ORDERS_BY_USER_ID_URL, userid)
+                        .param("cursor", "not a cursor!")
+                        .cookie(new Cookie(JWT_COOKIE_NAME, jwt)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", containsString("Invalid page cursor")));
+    }
+
     @Test
     void shouldDeleteOrderSuccessfully() throws Exception {
         UUID orderIdToDelete = createTestOrder(List.of(this.ticketId));
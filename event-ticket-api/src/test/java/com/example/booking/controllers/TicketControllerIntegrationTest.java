@@ -1,6 +1,7 @@
 package com.example.booking.controllers;
 
 import com.example.booking.controller.request.event.CreateEventRequest;
+import com.example.booking.controller.request.ticket.BatchEmmitTicketRequest;
 import com.example.booking.controller.request.ticket.CheckInRequest; // Import Adicionado
 import com.example.booking.controller.request.ticket.CreateTicketCategoryRequest;
 import com.example.booking.controller.request.ticket.EmmitTicketRequest;
@@ -26,6 +27,7 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
@@ -40,6 +42,7 @@ public class TicketControllerIntegrationTest extends AbstractIntegrationTest {
     private static final String API_BASE_URL = "/api";
     private static final String TICKET_URL = API_BASE_URL + "/tickets";
     private static final String TICKETS_URL = API_BASE_URL + "/tickets";
+    private static final String TICKET_BATCH_URL = API_BASE_URL + "/tickets/batch";
     private static final String USER_TICKETS_URL = API_BASE_URL + "/tickets/my-tickets";
     private static final String EVENTS_URL = API_BASE_URL + "/events";
     private static final String AUTH_SIGNIN_URL = API_BASE_URL + "/auth/signin";
@@ -128,6 +131,24 @@ public class TicketControllerIntegrationTest extends AbstractIntegrationTest {
         assertThat(eventAfter.getAvailableTickets(), is(initialEventCount - 1));
     }
 
+    @Test
+    void shouldEmmitTicketsInBatchAndDecrementStockOnce() throws Exception {
+        int initialVip = ticketCategoryRepository.findById(this.vipCategoryId).orElseThrow().getAvailableCategoryTickets();
+        int initialPista = ticketCategoryRepository.findById(this.pistaCategoryId).orElseThrow().getAvailableCategoryTickets();
+        int initialEvent = eventRepository.findById(this.eventId).orElseThrow().getAvailableTickets();
+
+        var batchRequest = new BatchEmmitTicketRequest(eventId, Map.of(this.vipCategoryId, 3, this.pistaCategoryId, 2));
+        mockMvc.perform(post(TICKET_BATCH_URL)
+                        .cookie(new Cookie(JWT_COOKIE_NAME, jwt))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batchRequest)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.tickets.length()", is(5)));
+
+        assertThat(ticketCategoryRepository.findById(this.vipCategoryId).orElseThrow().getAvailableCategoryTickets(), is(initialVip - 3));
+        assertThat(ticketCategoryRepository.findById(this.pistaCategoryId).orElseThrow().getAvailableCategoryTickets(), is(initialPista - 2));
+        assertThat(eventRepository.findById(this.eventId).orElseThrow().getAvailableTickets(), is(initialEvent - 5));
+    }
 
     @Test
     void shouldDeleteTicketSuccessfully() throws Exception {
@@ -0,0 +1,63 @@
+package com.example.booking.messaging.consumer;
+
+import com.example.booking.dto.OrderExpirationDto;
+import com.example.booking.services.intefaces.OrderService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.amqp.core.MessageBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderExpirationConsumerTest {
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Mock
+    private OrderService orderService;
+
+    private OrderExpirationConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        consumer = new OrderExpirationConsumer(orderService, objectMapper, meterRegistry);
+    }
+
+    @Test
+    void handleOrderExpiration_ShouldExpireOrder_AndRecordLagPastDeadline() throws Exception {
+        UUID orderId = UUID.randomUUID();
+        byte[] payload = objectMapper.writeValueAsBytes(new OrderExpirationDto(orderId, LocalDateTime.now().minusSeconds(2)));
+        when(orderService.expireOrder(orderId)).thenReturn(true);
+
+        consumer.handleOrderExpiration(MessageBuilder.withBody(payload).build());
+
+        verify(orderService).expireOrder(orderId);
+        assertThat(meterRegistry.get("booking.orders.expiration.lag").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("booking.orders.expiration.lag").timer().totalTime(TimeUnit.SECONDS))
+                .isGreaterThanOrEqualTo(2);
+    }
+
+    @Test
+    void handleOrderExpiration_ShouldRejectWithoutRequeue_WhenPayloadIsInvalid() {
+        byte[] payload = "not-json".getBytes(StandardCharsets.UTF_8);
+
+        assertThatThrownBy(() -> consumer.handleOrderExpiration(MessageBuilder.withBody(payload).build()))
+                .isInstanceOf(AmqpRejectAndDontRequeueException.class);
+        verifyNoInteractions(orderService);
+    }
+}
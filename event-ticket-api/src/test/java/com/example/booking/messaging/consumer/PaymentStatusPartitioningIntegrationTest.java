@@ -0,0 +1,111 @@
+package com.example.booking.messaging.consumer;
+
+import com.example.booking.config.RabbitMQConfig;
+import com.example.booking.controllers.AbstractIntegrationTest;
+import com.example.booking.services.intefaces.PaymentStatusService;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.testcontainers.containers.GenericContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.timeout;
+
+class PaymentStatusPartitioningIntegrationTest extends AbstractIntegrationTest {
+
+    private static final int PARTITIONS = 4;
+    private static final int ORDERS = 40;
+    private static final int EVENTS_PER_ORDER = 3;
+    private static final long HANDLING_MS = 20;
+
+    static GenericContainer<?> rabbit = new GenericContainer<>("rabbitmq:3.13-alpine")
+            .withExposedPorts(5672);
+
+    static {
+        rabbit.start();
+    }
+
+    @DynamicPropertySource
+    static void rabbitProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.rabbitmq.host", rabbit::getHost);
+        registry.add("spring.rabbitmq.port", () -> rabbit.getMappedPort(5672));
+        registry.add("spring.rabbitmq.username", () -> "guest");
+        registry.add("spring.rabbitmq.password", () -> "guest");
+        registry.add("booking.payments.partitions", () -> PARTITIONS);
+    }
+
+    @MockitoBean
+    private PaymentStatusService paymentStatusService;
+
+    @Autowired
+    private RabbitTemplate rabbitTemplate;
+
+    @Test
+    void partitions_ShouldProcessInParallel_AndKeepTheOrderOfEachOrdersEvents() throws InterruptedException {
+        Map<UUID, List<String>> appliedByOrder = new ConcurrentHashMap<>();
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        CountDownLatch done = new CountDownLatch(ORDERS * EVENTS_PER_ORDER);
+        doAnswer(invocation -> {
+            Thread.sleep(HANDLING_MS);
+            appliedByOrder.computeIfAbsent(invocation.getArgument(2), id -> new CopyOnWriteArrayList<>()).add(invocation.getArgument(0));
+            threads.add(Thread.currentThread().getName());
+            done.countDown();
+            return true;
+        }).when(paymentStatusService).apply(anyString(), anyString(), any());
+
+        List<UUID> orderIds = new ArrayList<>();
+        for (int i = 0; i < ORDERS; i++) {
+            orderIds.add(UUID.randomUUID());
+        }
+
+        long startedAt = System.nanoTime();
+        for (int sequence = 0; sequence < EVENTS_PER_ORDER; sequence++) {
+            for (UUID orderId : orderIds) {
+                rabbitTemplate.send(RabbitMQConfig.PAYMENT_PARTITION_EXCHANGE,
+                        String.valueOf(PaymentStatusRouter.partitionOf(orderId, PARTITIONS)),
+                        MessageBuilder.withBody(orderId.toString().getBytes(StandardCharsets.UTF_8))
+                                .setMessageId(orderId + ":" + sequence)
+                                .setType(RabbitMQConfig.ORDER_PAID_RK)
+                                .build());
+            }
+        }
+
+        assertThat(done.await(30, TimeUnit.SECONDS)).isTrue();
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+
+        long serialMs = (long) ORDERS * EVENTS_PER_ORDER * HANDLING_MS;
+        assertThat(elapsedMs).isLessThan(serialMs / 2);
+        assertThat(threads).hasSizeGreaterThan(1);
+        orderIds.forEach(orderId -> assertThat(appliedByOrder.get(orderId))
+                .containsExactly(orderId + ":0", orderId + ":1", orderId + ":2"));
+    }
+
+    @Test
+    void route_ShouldForwardPaymentEvents_WithDeterministicMessageId() {
+        UUID orderId = UUID.randomUUID();
+
+        rabbitTemplate.convertAndSend(RabbitMQConfig.ORDER_STATUS_EXCHANGE, RabbitMQConfig.PAYMENT_FAILED_RK, orderId.toString());
+
+        verify(paymentStatusService, timeout(10000))
+                .apply("payment.failed:" + orderId, RabbitMQConfig.PAYMENT_FAILED_RK, orderId);
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.booking.messaging.producer;
+
+import com.example.booking.controllers.AbstractIntegrationTest;
+import com.example.booking.domain.entities.OutboxMessage;
+import com.example.booking.dto.RecommendEventDto;
+import com.example.booking.messaging.interfaces.OutboxPublisher;
+import com.example.booking.repositories.OutboxMessageRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.GenericContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OutboxRelayIntegrationTest extends AbstractIntegrationTest {
+
+    static GenericContainer<?> rabbit = new GenericContainer<>("rabbitmq:3.13-alpine")
+            .withExposedPorts(5672);
+
+    static {
+        rabbit.start();
+    }
+
+    @DynamicPropertySource
+    static void rabbitProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.rabbitmq.host", rabbit::getHost);
+        registry.add("spring.rabbitmq.port", () -> rabbit.getMappedPort(5672));
+        registry.add("spring.rabbitmq.username", () -> "guest");
+        registry.add("spring.rabbitmq.password", () -> "guest");
+    }
+
+    @Autowired
+    private OutboxPublisher outboxPublisher;
+    @Autowired
+    private OutboxRelay outboxRelay;
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+    @Autowired
+    private RabbitTemplate rabbitTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void relayPending_ShouldPublishCommittedMessages_AndEmptyTheOutbox() {
+        UUID eventId = UUID.randomUUID();
+        transactionTemplate.executeWithoutResult(status -> {
+            try {
+                outboxPublisher.enqueue("event-request-exchange", "event-request-queue-key", "Event", eventId.toString(),
+                        "EventRecommendation", new RecommendEventDto(eventId, -21.4256, -45.947, LocalDateTime.of(2025, 6, 1, 20, 0)));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        outboxRelay.relayPending();
+        Message received = rabbitTemplate.receive("event-request-queue", 5000);
+
+        assertThat(received).isNotNull();
+        assertThat(new String(received.getBody(), StandardCharsets.UTF_8)).contains(eventId.toString());
+        assertThat(received.getMessageProperties().getType()).isEqualTo("EventRecommendation");
+        assertThat(outboxMessageRepository.count()).isZero();
+    }
+
+    @Test
+    void enqueue_ShouldNotPublish_WhenTransactionRollsBack() {
+        transactionTemplate.executeWithoutResult(status -> {
+            try {
+                outboxPublisher.enqueue("event-request-exchange", "event-request-queue-key", "Event", "rolled-back",
+                        "EventRecommendation", Map.of());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            status.setRollbackOnly();
+        });
+
+        outboxRelay.relayPending();
+
+        assertThat(rabbitTemplate.receive("event-request-queue", 500)).isNull();
+    }
+
+    @Test
+    void lockNextBatch_ShouldSkipMessagesBackingOffOrParked() {
+        OutboxMessage failing = outboxMessageRepository.save(message("failing"));
+        OutboxMessage poisoned = outboxMessageRepository.save(message("poisoned"));
+        OutboxMessage fresh = outboxMessageRepository.save(message("fresh"));
+
+        List<Long> due = transactionTemplate.execute(status -> {
+            outboxMessageRepository.recordFailedAttempt(List.of(failing.getId()), "queue full", 60_000, 300_000);
+            outboxMessageRepository.park(List.of(poisoned.getId()), "queue full");
+            return outboxMessageRepository.lockNextBatch(10).stream().map(OutboxMessage::getId).toList();
+        });
+
+        assertThat(due).containsExactly(fresh.getId());
+        outboxMessageRepository.deleteAll();
+    }
+
+    private static OutboxMessage message(String aggregateId) {
+        return new OutboxMessage("event-request-exchange", "event-request-queue-key", "Event", aggregateId,
+                "EventRecommendation", "{}".getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.booking.messaging.producer;
+
+import com.example.booking.domain.entities.OutboxMessage;
+import com.example.booking.repositories.OutboxMessageRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.AmqpIOException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long BACKOFF_MS = 1_000;
+    private static final long MAX_BACKOFF_MS = 60_000;
+
+    @Mock
+    private OutboxMessageRepository outboxMessageRepository;
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        relay = new OutboxRelay(outboxMessageRepository, rabbitTemplate, transactionManager, meterRegistry, 2, 200,
+                MAX_ATTEMPTS, BACKOFF_MS, MAX_BACKOFF_MS);
+        when(rabbitTemplate.invoke(any()))
+                .thenAnswer(invocation -> invocation.<RabbitOperations.OperationsCallback<?>>getArgument(0).doInRabbit(rabbitTemplate));
+    }
+
+    @Test
+    void relayBatch_ShouldDeleteConfirmedMessages_AndRecordNackedOnes() {
+        when(outboxMessageRepository.lockNextBatch(2)).thenReturn(List.of(message(1L), message(2L)));
+        doAnswer(invocation -> {
+            CorrelationData correlation = invocation.getArgument(3);
+            boolean ack = correlation.getId().equals("1");
+            correlation.getFuture().complete(new CorrelationData.Confirm(ack, ack ? null : "queue full"));
+            return null;
+        }).when(rabbitTemplate).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+
+        int confirmed = relay.relayBatch();
+
+        assertThat(confirmed).isEqualTo(1);
+        verify(outboxMessageRepository).deleteByIds(List.of(1L));
+        verify(outboxMessageRepository).recordFailedAttempt(eq(List.of(2L)), contains("queue full"), eq(BACKOFF_MS), eq(MAX_BACKOFF_MS));
+        assertThat(meterRegistry.counter("booking.outbox.messages", "outcome", "nacked").count()).isEqualTo(1);
+        assertThat(meterRegistry.timer("booking.outbox.confirm").count()).isEqualTo(1);
+    }
+
+    @Test
+    void relayBatch_ShouldKeepMessages_WhenConfirmDoesNotArrive() {
+        when(outboxMessageRepository.lockNextBatch(2)).thenReturn(List.of(message(1L)));
+
+        int confirmed = relay.relayBatch();
+
+        assertThat(confirmed).isZero();
+        verify(outboxMessageRepository, never()).deleteByIds(anyCollection());
+        verify(outboxMessageRepository).recordFailedAttempt(eq(List.of(1L)), contains("No publisher confirm"), eq(BACKOFF_MS), eq(MAX_BACKOFF_MS));
+        assertThat(meterRegistry.counter("booking.outbox.messages", "outcome", "timed_out").count()).isEqualTo(1);
+    }
+
+    @Test
+    void relayPending_ShouldStopWithoutChargingAttempts_WhenBrokerIsDown() {
+        when(outboxMessageRepository.lockNextBatch(2)).thenReturn(List.of(message(1L), message(2L)));
+        doThrow(new AmqpConnectException(new ConnectException("refused")))
+                .when(rabbitTemplate).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+
+        int relayed = relay.relayPending();
+
+        assertThat(relayed).isZero();
+        verify(outboxMessageRepository, times(1)).lockNextBatch(2);
+        verify(outboxMessageRepository, never()).recordFailedAttempt(anyCollection(), any(), anyLong(), anyLong());
+        verify(outboxMessageRepository, never()).park(anyCollection(), any());
+    }
+
+    @Test
+    void relayBatch_ShouldChargeOnlyTheMessageBeingSent_WhenSendFails() {
+        when(outboxMessageRepository.lockNextBatch(2)).thenReturn(List.of(message(1L), message(2L)));
+        doThrow(new AmqpIOException(new IOException("channel closed")))
+                .when(rabbitTemplate).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+
+        relay.relayBatch();
+
+        verify(outboxMessageRepository).recordFailedAttempt(eq(List.of(1L)), contains("channel closed"), eq(BACKOFF_MS), eq(MAX_BACKOFF_MS));
+        assertThat(meterRegistry.counter("booking.outbox.messages", "outcome", "failed").count()).isEqualTo(1);
+    }
+
+    @Test
+    void relayBatch_ShouldParkMessage_WhenItRanOutOfAttempts() {
+        OutboxMessage exhausted = message(1L);
+        ReflectionTestUtils.setField(exhausted, "attempts", MAX_ATTEMPTS - 1);
+        when(outboxMessageRepository.lockNextBatch(2)).thenReturn(List.of(exhausted, message(2L)));
+        doAnswer(invocation -> {
+            CorrelationData correlation = invocation.getArgument(3);
+            correlation.getFuture().complete(new CorrelationData.Confirm(false, "queue full"));
+            return null;
+        }).when(rabbitTemplate).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+
+        relay.relayBatch();
+
+        verify(outboxMessageRepository).park(eq(List.of(1L)), contains("queue full"));
+        verify(outboxMessageRepository).recordFailedAttempt(eq(List.of(2L)), contains("queue full"), eq(BACKOFF_MS), eq(MAX_BACKOFF_MS));
+        assertThat(meterRegistry.counter("booking.outbox.messages", "outcome", "parked").count()).isEqualTo(1);
+    }
+
+    @Test
+    void relayPending_ShouldDrainFullBatches_UntilOutboxIsEmpty() {
+        when(outboxMessageRepository.lockNextBatch(2))
+                .thenReturn(List.of(message(1L), message(2L)))
+                .thenReturn(List.of(message(3L)));
+        doAnswer(invocation -> {
+            CorrelationData correlation = invocation.getArgument(3);
+            correlation.getFuture().complete(new CorrelationData.Confirm(true, null));
+            return null;
+        }).when(rabbitTemplate).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+
+        int relayed = relay.relayPending();
+
+        assertThat(relayed).isEqualTo(3);
+        verify(outboxMessageRepository, times(2)).lockNextBatch(2);
+    }
+
+    private static OutboxMessage message(Long id) {
+        OutboxMessage message = new OutboxMessage("event-request-exchange", "event-request-queue-key",
+                "Event", "0df1a809-b6cf-49ee-9081-78adafefef27", "EventRecommendation", "{}".getBytes());
+        message.setId(id);
+        return message;
+    }
+}
@@ -62,4 +62,36 @@ class CustomEventRepositoryTest  {
         assertEquals(1, result.getTotalElements());
         assertEquals("Show Futuro", result.getContent().getFirst().name());
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldMatchByPrefixAndRankNameMatchesFirst() {
+        LocalDateTime now = LocalDateTime.now();
+        Event locationMatch = new Event();
+        locationMatch.setEventName("Festa Junina");
+        locationMatch.setEventLocation("Rockfeller Hall");
+        locationMatch.setEventDate(now.plusDays(2));
+        locationMatch.setAvailableTickets(10);
+        testEntityManager.persist(locationMatch);
+
+        Event nameMatch = new Event();
+        nameMatch.setEventName("Rock Futuro");
+        nameMatch.setEventLocation("Alfenas");
+        nameMatch.setEventDate(now.plusDays(1));
+        nameMatch.setAvailableTickets(10);
+        testEntityManager.persist(nameMatch);
+
+        Event noMatch = new Event();
+        noMatch.setEventName("Show Antigo");
+        noMatch.setEventLocation("Alfenas");
+        noMatch.setEventDate(now.plusDays(3));
+        noMatch.setAvailableTickets(10);
+        testEntityManager.persist(noMatch);
+        testEntityManager.flush();
+
+        Page<EventSummaryDto> result = eventRepository.findByCriteria("roc", null, null, null, PageRequest.of(0, 10));
+
+        assertEquals(2, result.getTotalElements());
+        assertEquals("Rock Futuro", result.getContent().getFirst().name());
+        assertEquals("Festa Junina", result.getContent().get(1).name());
+    }
+}
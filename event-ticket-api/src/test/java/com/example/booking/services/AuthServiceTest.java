@@ -1,5 +1,6 @@
 package com.example.booking.services;
 
+import com.example.booking.config.security.TokenDenylist;
 import com.example.booking.config.security.UserDetailsImpl;
 import com.example.booking.dto.CookieParDto;
 import com.example.booking.dto.UserDto;
@@ -57,6 +58,8 @@ class AuthServiceTest {
     private JwtUtils jwtUtils;
     @Mock
     private RefreshTokenService refreshTokenService;
+    @Mock
+    private TokenDenylist tokenDenylist;
     @InjectMocks
     private AuthServiceImpl authServiceImpl;
 
@@ -228,6 +231,7 @@ class AuthServiceTest {
 
         when(authentication.getPrincipal()).thenReturn(userDetails);
         when(userDetails.getId()).thenReturn(user.getUserId());
+        when(userDetails.getTokenId()).thenReturn(EXAMPLE_JWT_TOKEN);
         SecurityContextHolder.getContext().setAuthentication(authentication);
 
         ResponseCookie cleanJwtCookie = ResponseCookie.from(JWT_COOKIE_NAME, EMPTY_COOKIE_VALUE).build();
@@ -243,6 +247,7 @@ class AuthServiceTest {
         assertEquals(cleanRefreshCookie, result.refresh());
 
         verify(refreshTokenService).deleteByUserId(user.getUserId());
+        verify(tokenDenylist).revoke(EXAMPLE_JWT_TOKEN);
         verify(jwtUtils).getCleanJwtCookie();
         verify(jwtUtils).getCleanJwtRefreshCookie();
     }
@@ -266,6 +271,7 @@ class AuthServiceTest {
         assertEquals(cleanRefreshCookie, result.refresh());
 
         verify(refreshTokenService, never()).deleteByUserId(any());
+        verify(tokenDenylist, never()).revoke(any());
         verify(jwtUtils).getCleanJwtCookie();
         verify(jwtUtils).getCleanJwtRefreshCookie();
     }
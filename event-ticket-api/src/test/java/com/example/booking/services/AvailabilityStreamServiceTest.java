@@ -0,0 +1,122 @@
+package com.example.booking.services;
+
+import com.example.booking.dto.RemainingTicketCategoryDto;
+import com.example.booking.services.intefaces.TicketService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.Message;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AvailabilityStreamServiceTest {
+
+    private static final UUID EVENT_ID = UUID.randomUUID();
+
+    @Mock
+    private TicketService ticketService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private AvailabilityStreamServiceImpl availabilityStreamService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        availabilityStreamService = new AvailabilityStreamServiceImpl(ticketService, meterRegistry, 60_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        availabilityStreamService.close();
+    }
+
+    @Test
+    void subscribe_ShouldReadAvailabilityOnce_AndCountTheSubscriber() {
+        when(ticketService.findAvailableTicketsByCategory(EVENT_ID))
+                .thenReturn(List.of(new RemainingTicketCategoryDto("VIP", 40)));
+
+        assertThat(availabilityStreamService.subscribe(EVENT_ID)).isNotNull();
+
+        verify(ticketService).findAvailableTicketsByCategory(EVENT_ID);
+        assertThat(subscribers()).isEqualTo(1);
+    }
+
+    @Test
+    void flush_ShouldReadOncePerEvent_WhenSeveralChangesArrivedSinceLastFlush() {
+        when(ticketService.findAvailableTicketsByCategory(EVENT_ID))
+                .thenReturn(List.of(new RemainingTicketCategoryDto("VIP", 40)));
+        availabilityStreamService.subscribe(EVENT_ID);
+        availabilityStreamService.subscribe(EVENT_ID);
+
+        availabilityStreamService.onMessage(change(EVENT_ID.toString()), null);
+        availabilityStreamService.onMessage(change(EVENT_ID.toString()), null);
+        availabilityStreamService.onMessage(change(EVENT_ID.toString()), null);
+        availabilityStreamService.flush();
+        availabilityStreamService.flush();
+
+        // two for the initial snapshots, one for the coalesced changes
+        verify(ticketService, times(3)).findAvailableTicketsByCategory(EVENT_ID);
+    }
+
+    @Test
+    void flush_ShouldNotRead_WhenChangedEventHasNoSubscribers() {
+        availabilityStreamService.onMessage(change(EVENT_ID.toString()), null);
+        availabilityStreamService.flush();
+
+        verifyNoInteractions(ticketService);
+    }
+
+    @Test
+    void flush_ShouldRetryNextTime_WhenReadFails() {
+        when(ticketService.findAvailableTicketsByCategory(EVENT_ID))
+                .thenReturn(List.of(new RemainingTicketCategoryDto("VIP", 40)))
+                .thenThrow(new IllegalStateException("database down"))
+                .thenReturn(List.of(new RemainingTicketCategoryDto("VIP", 39)));
+        availabilityStreamService.subscribe(EVENT_ID);
+
+        availabilityStreamService.onMessage(change(EVENT_ID.toString()), null);
+        availabilityStreamService.flush();
+        availabilityStreamService.flush();
+        availabilityStreamService.flush();
+
+        verify(ticketService, times(3)).findAvailableTicketsByCategory(EVENT_ID);
+    }
+
+    @Test
+    void onMessage_ShouldIgnoreMalformedEventId() {
+        availabilityStreamService.onMessage(change("not-a-uuid"), null);
+        availabilityStreamService.flush();
+
+        verifyNoInteractions(ticketService);
+    }
+
+    @Test
+    void subscribe_ShouldNotKeepSubscriber_WhenInitialReadFails() {
+        when(ticketService.findAvailableTicketsByCategory(EVENT_ID)).thenThrow(new IllegalStateException("database down"));
+
+        assertThatThrownBy(() -> availabilityStreamService.subscribe(EVENT_ID)).isInstanceOf(IllegalStateException.class);
+
+        assertThat(subscribers()).isZero();
+    }
+
+    private double subscribers() {
+        return meterRegistry.get("booking.availability.stream.subscribers").gauge().value();
+    }
+
+    private static Message change(String body) {
+        return new DefaultMessage("booking:availability-changes".getBytes(StandardCharsets.UTF_8),
+                body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.booking.services;
+
+import com.example.booking.controller.response.ticket.AvailableTicketsResponse;
+import com.example.booking.dto.RemainingTicketCategoryDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AvailabilityStreamTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final AtomicInteger tasks = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void offer_ShouldSendOnlyTheLatestSnapshot_InOrder_WhenClientIsSlow() throws Exception {
+        RecordingEmitter emitter = new RecordingEmitter();
+        AvailabilityStream stream = new AvailabilityStream(emitter, this::count, () -> { });
+
+        stream.offer(snapshot(40));
+        assertThat(emitter.sending.await(5, TimeUnit.SECONDS)).isTrue();
+        stream.offer(snapshot(39));
+        stream.offer(snapshot(38));
+        stream.offer(snapshot(37));
+        emitter.release.countDown();
+
+        awaitSent(emitter, 2);
+        assertThat(emitter.sent).containsExactly(40, 37);
+        assertThat(tasks).hasValue(1);
+    }
+
+    @Test
+    void offer_ShouldStopSending_WhenClientWentAway() throws Exception {
+        CountDownLatch dropped = new CountDownLatch(1);
+        SseEmitter emitter = new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+        AvailabilityStream stream = new AvailabilityStream(emitter, this::count, dropped::countDown);
+
+        stream.offer(snapshot(40));
+        assertThat(dropped.await(5, TimeUnit.SECONDS)).isTrue();
+        stream.offer(snapshot(39));
+        stream.heartbeat();
+
+        assertThat(tasks).hasValue(1);
+    }
+
+    private void count(Runnable task) {
+        tasks.incrementAndGet();
+        executor.execute(task);
+    }
+
+    private static void awaitSent(RecordingEmitter emitter, int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (emitter.sent.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        // give a wrongly queued extra send the chance to show up
+        Thread.sleep(50);
+    }
+
+    private static List<RemainingTicketCategoryDto> snapshot(int remaining) {
+        return List.of(new RemainingTicketCategoryDto("VIP", remaining));
+    }
+
+    /**
+     * Blocks the first send until released and records the remaining tickets of every snapshot it gets.
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final List<Integer> sent = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sending.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+            builder.build().stream()
+                    .map(DataWithMediaType::getData)
+                    .filter(AvailableTicketsResponse.class::isInstance)
+                    .map(data -> ((AvailableTicketsResponse) data).availableTickets().getFirst().remainingTickets())
+                    .forEach(sent::add);
+        }
+    }
+}
@@ -20,9 +20,13 @@ import com.example.booking.domain.entities.TicketCategory;
 import com.example.booking.domain.entities.User;
 import com.example.booking.domain.enums.ERole;
 import com.example.booking.dto.EventSummaryDto;
+import com.example.booking.dto.TrendingEventDto;
 import com.example.booking.exception.EventNotFoundException;
+import com.example.booking.exception.InvalidCursorException;
 import com.example.booking.services.intefaces.GeoService;
 import com.example.booking.services.intefaces.TicketCategoryService;
+import com.example.booking.services.intefaces.TrendingEngine;
+import com.example.booking.util.PageCursor;
 import io.jsonwebtoken.MalformedJwtException;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
@@ -58,6 +62,8 @@ public class EventServiceTest {
     private GeoService geoService;
     @Mock
     private TicketCategoryService ticketCategoryService;
+    @Mock
+    private TrendingEngine trendingEngine;
     @InjectMocks
     private EventsServiceImpl eventsService;
     @Captor
@@ -488,21 +494,19 @@ public class EventServiceTest {
         Event event1 = createSimpleEvent(LOCATION_ALFENAS, eventDate, null, TICKET_COUNT_1000, false);
         Event event2 = createSimpleEvent(LOCATION_BOTELHOS, eventDate, null, TICKET_COUNT_1000, true);
 
-        when(eventRepository.findAll()).thenReturn(List.of(event1, event2));
+        when(trendingEngine.topEvents()).thenReturn(List.of(new TrendingEventDto(event2.getEventId(), 10L), new TrendingEventDto(event1.getEventId(), 2L)));
+        when(eventRepository.findAllById(List.of(event2.getEventId(), event1.getEventId()))).thenReturn(List.of(event1, event2));
 
         List<EventItemDto> trendingEvents = eventsService.getTopTrendingEvents();
 
-        assertEquals(RESULT_SIZE_1, trendingEvents.size());
-        assertEquals(event2.getEventName(), trendingEvents.getFirst().eventName());
+        assertEquals(RESULT_SIZE_2, trendingEvents.size());
+        assertEquals(event2.getEventId(), trendingEvents.getFirst().eventId());
+        assertEquals(event1.getEventId(), trendingEvents.get(1).eventId());
     }
 
     @Test
     void getTopTrendingEvents_ShouldReturnAnEmptyListWhenNoEventsAreTrending() {
-        LocalDateTime eventDate = COMMON_EVENT_DATE;
-        Event event1 = createSimpleEvent(LOCATION_ALFENAS, eventDate, null, TICKET_COUNT_1000, false);
-        Event event2 = createSimpleEvent(LOCATION_BOTELHOS, eventDate, null, TICKET_COUNT_1000, false);
-
-        when(eventRepository.findAll()).thenReturn(List.of(event1, event2));
+        when(trendingEngine.topEvents()).thenReturn(List.of());
 
         List<EventItemDto> trendingEvents = eventsService.getTopTrendingEvents();
 
@@ -635,6 +639,44 @@ public class EventServiceTest {
         );
     }
 
+    @Test
+    void searchEvents_ShouldReturnNextCursorFromLastRow_WhenMoreRowsThanPageSize() {
+        LocalDateTime eventDate = LocalDateTime.of(2026, 1, 10, 20, 0);
+        EventSummaryDto first = new EventSummaryDto(UUID.randomUUID(), SIMPLE_EVENT_NAME, LOCATION_ALFENAS, SEARCH_TICKETS_150, eventDate);
+        EventSummaryDto extra = new EventSummaryDto(UUID.randomUUID(), SEARCH_NAME_PAGODE, SEARCH_LOCATION_VARGINHA, SEARCH_TICKETS_200, eventDate.minusDays(1));
+
+        when(eventRepository.findByCriteriaAfter(null, null, null, null, null, null, 2)).thenReturn(List.of(first, extra));
+
+        EventsDto result = eventsService.listAllEvents("", 1, false);
+
+        assertEquals(1, result.events().size());
+        assertNull(result.totalElements());
+        assertEquals(PageCursor.of(eventDate, first.eventId()), PageCursor.decode(result.nextCursor()));
+        verify(eventRepository, never()).countByCriteria(any(), any(), any(), any());
+    }
+
+    @Test
+    void searchEvents_ShouldSeekAfterCursorAndCount_WhenCursorAndCountAreGiven() {
+        LocalDateTime eventDate = LocalDateTime.of(2026, 1, 10, 20, 0);
+        UUID lastSeenId = UUID.randomUUID();
+        String cursor = PageCursor.of(eventDate, lastSeenId).encode();
+
+        when(eventRepository.findByCriteriaAfter(SEARCH_NAME, null, null, null, eventDate, lastSeenId, PAGE_SIZE_10 + 1)).thenReturn(List.of());
+        when(eventRepository.countByCriteria(SEARCH_NAME, null, null, null)).thenReturn(20L);
+
+        EventsDto result = eventsService.searchEvents(SEARCH_NAME, null, null, null, cursor, PAGE_SIZE_10, true);
+
+        assertTrue(result.events().isEmpty());
+        assertNull(result.nextCursor());
+        assertEquals(20L, result.totalElements());
+        assertEquals(2, result.totalPages());
+    }
+
+    @Test
+    void listAllEvents_ShouldThrowInvalidCursor_WhenCursorIsMalformed() {
+        assertThrows(InvalidCursorException.class, () -> eventsService.listAllEvents("not-a-cursor", PAGE_SIZE_10, false));
+    }
+
 
 
     @Test
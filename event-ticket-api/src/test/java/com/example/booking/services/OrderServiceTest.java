@@ -5,6 +5,7 @@ import com.example.booking.builders.EventBuilder;
 import com.example.booking.builders.OrderBuilder;
 import com.example.booking.builders.TicketCategoryBuilder;
 import com.example.booking.config.cache.CacheNames;
+import com.example.booking.config.cache.UserCacheGenerations;
 import com.example.booking.controller.request.order.CreateOrderRequest;
 import com.example.booking.controller.response.order.OrdersResponse;
 import com.example.booking.domain.entities.*;
@@ -12,14 +13,18 @@ import com.example.booking.domain.enums.EOrderStatus;
 import com.example.booking.domain.enums.ETicketStatus;
 import com.example.booking.dto.OrderItemDto;
 import com.example.booking.dto.TicketItemDto;
+import com.example.booking.exception.InvalidCursorException;
+import com.example.booking.exception.OrderAlreadyConfirmedException;
 import com.example.booking.exception.OrderNotFoundException;
 import com.example.booking.exception.TicketAlreadyHaveAnOrderException;
 import com.example.booking.exception.TicketNotFoundException;
+import com.example.booking.messaging.interfaces.OrderExpirationProducer;
 import com.example.booking.repositories.OrderRepository;
 import com.example.booking.services.client.PaymentClient;
 import com.example.booking.services.intefaces.TicketService;
 import com.example.booking.services.intefaces.UserService;
 import com.example.booking.util.JwtUtils;
+import com.example.booking.util.PageCursor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -69,11 +74,13 @@ class OrderServiceTest {
     @Mock
     private CacheManager cacheManager;
     @Mock
-    private Cache remainingTicketsCache;
-    @Mock
     private Cache ordersCache;
     @Mock
     private PaymentClient paymentClient;
+    @Mock
+    private OrderExpirationProducer orderExpirationProducer;
+    @Mock
+    private UserCacheGenerations userCacheGenerations;
 
     @Captor
     private ArgumentCaptor<Order> orderArgumentCaptor;
@@ -92,12 +99,12 @@ class OrderServiceTest {
         user.setUserId(userId);
         user.setUserName(TEST_USER_NAME);
 
-        lenient().when(cacheManager.getCache(CacheNames.REMAINING_TICKETS)).thenReturn(remainingTicketsCache);
         lenient().when(cacheManager.getCache(CacheNames.ORDERS)).thenReturn(ordersCache);
+        lenient().when(userCacheGenerations.keyPrefix(CacheNames.ORDERS, userId)).thenReturn(userId + "-g3");
     }
 
     @Test
-    void createNewOrder_shouldCreateNewOrderSuccessfully() {
+    void createNewOrder_shouldCreateNewOrderSuccessfully() throws Exception {
         UUID ticketId1 = UUID.randomUUID();
         UUID ticketId2 = UUID.randomUUID();
         UUID eventId = UUID.randomUUID();
@@ -158,8 +165,9 @@ class OrderServiceTest {
         assertThat(ticket1.getOrder()).isEqualTo(savedOrder);
         assertThat(ticket2.getOrder()).isEqualTo(savedOrder);
 
-        verify(remainingTicketsCache, times(1)).evict(eventId);
-        verify(ordersCache).clear();
+        verify(userCacheGenerations).invalidate(CacheNames.ORDERS, userId);
+        verify(ordersCache, never()).clear();
+        verify(orderExpirationProducer).scheduleExpiration(savedOrder.getOrderId());
     }
 
     @Test
@@ -198,7 +206,7 @@ class OrderServiceTest {
     void getUserOrders_shouldReturnOrdersFromCache_whenCacheHit() {
         int page = DEFAULT_PAGE;
         int pageSize = DEFAULT_PAGE_SIZE;
-        String cacheKey = userId + "-" + DEFAULT_PAGE + "-" + DEFAULT_PAGE_SIZE;
+        String cacheKey = userId + "-g3-" + DEFAULT_PAGE + "-" + DEFAULT_PAGE_SIZE;
 
         OrdersResponse cachedResponse = new OrdersResponse(Collections.emptyList(), page, pageSize, 0, 0L);
 
@@ -215,7 +223,7 @@ class OrderServiceTest {
     void getUserOrders_shouldFetchFromRepository_whenCacheMiss() {
         int page = DEFAULT_PAGE;
         int pageSize = DEFAULT_PAGE_SIZE;
-        String cacheKey = userId + "-" + page + "-" + pageSize;
+        String cacheKey = userId + "-g3-" + page + "-" + pageSize;
         PageRequest pageRequest = PageRequest.of(page, pageSize, Sort.Direction.ASC, "orderPrice");
 
         UUID orderId = UUID.randomUUID();
@@ -284,41 +292,56 @@ class OrderServiceTest {
     }
 
     @Test
-    void deleteOrder_shouldDeleteOrderSuccessfully() {
-        UUID orderId = UUID.randomUUID();
-        UUID eventId = UUID.randomUUID();
-
-        Event event = mock(Event.class);
-        when(event.getEventId()).thenReturn(eventId);
+    void getUserOrdersWithCursor_shouldReturnNextPageWithoutPageNumber_andCacheUnderReencodedCursor() {
+        UUID afterId = UUID.randomUUID();
+        String cursor = PageCursor.of(MOCK_ORDER_PRICE, afterId).encode();
+        Order first = OrderBuilder.anOrder().withOrderId(UUID.randomUUID()).withUser(user).withOrderPrice(TICKET_PRICE_1).build();
+        Order second = OrderBuilder.anOrder().withOrderId(UUID.randomUUID()).withUser(user).withOrderPrice(TICKET_PRICE_2).build();
+
+        when(orderRepository.findOrderIdsByUserIdAfter(userId, MOCK_ORDER_PRICE, afterId, PageRequest.ofSize(2)))
+                .thenReturn(List.of(first.getOrderId(), second.getOrderId()));
+        when(orderRepository.findAllByIdWithAssociations(List.of(first.getOrderId(), second.getOrderId())))
+                .thenReturn(List.of(second, first));
+
+        OrdersResponse result = orderServiceImpl.getOrdersByUserId(userId, cursor, 1, false);
+
+        assertThat(result.page()).isNull();
+        assertThat(result.totalPages()).isNull();
+        assertThat(result.orders()).extracting(OrderItemDto::orderId).containsExactly(first.getOrderId());
+        assertThat(result.nextCursor()).isEqualTo(PageCursor.of(first.getOrderPrice(), first.getOrderId()).encode());
+        verify(ordersCache).put(userId + "-g3-cursor-" + cursor + "-1-false", result);
+        verify(orderRepository, never()).countByUserId(any());
+    }
 
-        TicketCategory ticketCategory = mock(TicketCategory.class);
+    @Test
+    void getUserOrdersWithCursor_shouldRejectMalformedCursor_beforeTouchingCache() {
+        String notBase64 = "not a cursor!";
+        String notAPrice = PageCursor.of("cheap", UUID.randomUUID()).encode();
 
-        Ticket ticket = mock(Ticket.class);
-        when(ticket.getEvent()).thenReturn(event);
-        when(ticket.getTicketCategory()).thenReturn(ticketCategory);
+        assertThatThrownBy(() -> orderServiceImpl.getOrdersByUserId(userId, notBase64, DEFAULT_PAGE_SIZE, false))
+                .isInstanceOf(InvalidCursorException.class);
+        assertThatThrownBy(() -> orderServiceImpl.getOrdersByUserId(userId, notAPrice, DEFAULT_PAGE_SIZE, false))
+                .isInstanceOf(InvalidCursorException.class);
 
-        Order order = new Order();
-        order.setOrderId(orderId);
-        order.setTickets(Set.of(ticket));
+        verifyNoInteractions(ordersCache, orderRepository);
+    }
 
-        when(orderRepository.findByIdWithFullAssociations(orderId)).thenReturn(Optional.of(order));
+    @Test
+    void deleteOrder_shouldDeleteOrderSuccessfully() {
+        UUID orderId = UUID.randomUUID();
+        when(orderRepository.findUserIdByOrderId(orderId)).thenReturn(Optional.of(userId));
 
         orderServiceImpl.deleteOrder(orderId);
 
-        verify(ticketCategory).incrementTicketCategory();
-        verify(event).incrementAvailableTickets();
-        verify(ticket).removeOrderAssociation();
-
-        verify(remainingTicketsCache).evict(eventId);
-        verify(ordersCache).clear();
-
+        verify(ticketService).releaseOrderTickets(orderId);
+        verify(userCacheGenerations).invalidate(CacheNames.ORDERS, userId);
         verify(orderRepository).deleteById(orderId);
     }
 
     @Test
     void deleteOrder_shouldThrowOrderNotFoundException() {
         UUID orderId = UUID.randomUUID();
-        when(orderRepository.findByIdWithFullAssociations(orderId)).thenReturn(Optional.empty());
+        when(orderRepository.findUserIdByOrderId(orderId)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> orderServiceImpl.deleteOrder(orderId))
                 .isInstanceOf(OrderNotFoundException.class);
@@ -330,67 +353,119 @@ class OrderServiceTest {
     @Test
     void updateOrderStatusToPaid_shouldUpdateOrderAndTickets_whenStatusIsPending() {
         UUID orderId = UUID.randomUUID();
-        User dummyUser = new User();
-
-        Event dummyEvent = new Event();
-        dummyEvent.setEventLocation("Loc");
-        dummyEvent.setEventDate(LocalDateTime.now());
+        when(orderRepository.updateStatusIfCurrent(orderId, EOrderStatus.PENDING_PAYMENT, EOrderStatus.CONFIRMED)).thenReturn(1);
 
-        TicketCategory dummyCategory = new TicketCategory();
-        dummyCategory.setName("Cat");
-        dummyCategory.setPrice(BigDecimal.TEN);
+        orderServiceImpl.updateOrderStatusToPaid(orderId);
 
-        Ticket ticket1 = Ticket.build(dummyUser, dummyEvent, dummyCategory);
-        Ticket ticket2 = Ticket.build(dummyUser, dummyEvent, dummyCategory);
+        verify(ticketService).markOrderTicketsAsPaid(orderId);
+        verify(orderRepository, never()).findById(any());
+    }
 
-        Order order = OrderBuilder.anOrder()
-                .withOrderId(orderId)
-                .withTickets(Set.of(ticket1, ticket2))
-                .build();
+    @Test
+    void updateOrderStatusToPaid_shouldThrowOrderNotFoundException_whenOrderDoesNotExist() {
+        UUID orderId = UUID.randomUUID();
+        when(orderRepository.updateStatusIfCurrent(orderId, EOrderStatus.PENDING_PAYMENT, EOrderStatus.CONFIRMED)).thenReturn(0);
+        when(orderRepository.findOrderStatusById(orderId)).thenReturn(Optional.empty());
 
-        ReflectionTestUtils.setField(ticket1, "order", order);
-        ReflectionTestUtils.setField(ticket2, "order", order);
+        assertThatThrownBy(() -> orderServiceImpl.updateOrderStatusToPaid(orderId))
+                .isInstanceOf(OrderNotFoundException.class);
 
-        order.setOrderStatus(EOrderStatus.PENDING_PAYMENT);
+        verify(ticketService, never()).markOrderTicketsAsPaid(any());
+    }
 
-        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+    @Test
+    void updateOrderStatusToPaid_shouldDoNothing_whenOrderIsNotPendingPayment() {
+        UUID orderId = UUID.randomUUID();
+        when(orderRepository.updateStatusIfCurrent(orderId, EOrderStatus.PENDING_PAYMENT, EOrderStatus.CONFIRMED)).thenReturn(0);
+        when(orderRepository.findOrderStatusById(orderId)).thenReturn(Optional.of(EOrderStatus.CONFIRMED));
 
         orderServiceImpl.updateOrderStatusToPaid(orderId);
 
-        assertThat(order.getOrderStatus()).isEqualTo(EOrderStatus.CONFIRMED);
+        verify(ticketService, never()).markOrderTicketsAsPaid(any());
+    }
+
+    @Test
+    void cancelOrderAndReleaseTicket_shouldReleaseTickets_whenStatusIsPending() {
+        UUID orderId = UUID.randomUUID();
+        when(orderRepository.updateStatusIfCurrent(orderId, EOrderStatus.PENDING_PAYMENT, EOrderStatus.CANCELED)).thenReturn(1);
 
-        assertThat(ticket1.getTicketStatus()).isEqualTo(ETicketStatus.PAID);
-        assertThat(ticket2.getTicketStatus()).isEqualTo(ETicketStatus.PAID);
+        orderServiceImpl.cancelOrderAndReleaseTicket(orderId);
 
-        verify(orderRepository).save(order);
+        verify(ticketService).releaseOrderTickets(orderId);
+        verify(ticketService, never()).deleteEmittedTicket(any());
     }
 
     @Test
-    void updateOrderStatusToPaid_shouldThrowOrderNotFoundException_whenOrderDoesNotExist() {
+    void cancelOrderAndReleaseTicket_shouldDoNothing_whenOrderIsAlreadyCanceled() {
         UUID orderId = UUID.randomUUID();
-        when(orderRepository.findById(orderId)).thenReturn(Optional.empty());
+        when(orderRepository.updateStatusIfCurrent(orderId, EOrderStatus.PENDING_PAYMENT, EOrderStatus.CANCELED)).thenReturn(0);
+        when(orderRepository.findOrderStatusById(orderId)).thenReturn(Optional.of(EOrderStatus.CANCELED));
 
-        assertThatThrownBy(() -> orderServiceImpl.updateOrderStatusToPaid(orderId))
-                .isInstanceOf(OrderNotFoundException.class);
+        orderServiceImpl.cancelOrderAndReleaseTicket(orderId);
 
-        verify(orderRepository, never()).save(any());
+        verify(ticketService, never()).releaseOrderTickets(any());
     }
 
     @Test
-    void updateOrderStatusToPaid_shouldDoNothing_whenOrderIsNotPendingPayment() {
+    void cancelOrderAndReleaseTicket_shouldThrowOrderAlreadyConfirmedException_whenOrderIsConfirmed() {
         UUID orderId = UUID.randomUUID();
-        Order order = OrderBuilder.anOrder()
-                .withOrderId(orderId)
-                .build();
+        when(orderRepository.updateStatusIfCurrent(orderId, EOrderStatus.PENDING_PAYMENT, EOrderStatus.CANCELED)).thenReturn(0);
+        when(orderRepository.findOrderStatusById(orderId)).thenReturn(Optional.of(EOrderStatus.CONFIRMED));
 
-        order.setOrderStatus(EOrderStatus.CONFIRMED);
+        assertThatThrownBy(() -> orderServiceImpl.cancelOrderAndReleaseTicket(orderId))
+                .isInstanceOf(OrderAlreadyConfirmedException.class);
 
-        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+        verify(ticketService, never()).releaseOrderTickets(any());
+    }
 
-        orderServiceImpl.updateOrderStatusToPaid(orderId);
+    @Test
+    void expireOrder_shouldExpireTickets_whenOrderIsStillPending() {
+        UUID orderId = UUID.randomUUID();
+        when(orderRepository.updateStatusIfCurrent(orderId, EOrderStatus.PENDING_PAYMENT, EOrderStatus.CANCELED)).thenReturn(1);
 
-        assertThat(order.getOrderStatus()).isEqualTo(EOrderStatus.CONFIRMED);
+        when(orderRepository.findUserIdByOrderId(orderId)).thenReturn(Optional.of(userId));
 
-        verify(orderRepository, never()).save(any());
+        assertThat(orderServiceImpl.expireOrder(orderId)).isTrue();
+
+        verify(ticketService).expireOrderTickets(List.of(orderId));
+        verify(userCacheGenerations).invalidate(CacheNames.ORDERS, userId);
+    }
+
+    @Test
+    void expireOrder_shouldDoNothing_whenOrderWasAlreadyPaid() {
+        UUID orderId = UUID.randomUUID();
+        when(orderRepository.updateStatusIfCurrent(orderId, EOrderStatus.PENDING_PAYMENT, EOrderStatus.CANCELED)).thenReturn(0);
+
+        assertThat(orderServiceImpl.expireOrder(orderId)).isFalse();
+
+        verifyNoInteractions(ticketService);
+    }
+
+    @Test
+    void expirePendingOrders_shouldCancelLockedChunkAndExpireItsTickets() {
+        LocalDateTime limit = LocalDateTime.now().minusMinutes(30);
+        List<UUID> orderIds = List.of(UUID.randomUUID(), UUID.randomUUID());
+        UUID otherUserId = UUID.randomUUID();
+        when(orderRepository.lockExpiredPendingOrderIds(limit, 50)).thenReturn(orderIds);
+        when(orderRepository.findUserIdsByOrderIds(orderIds)).thenReturn(List.of(userId, otherUserId));
+
+        int expired = orderServiceImpl.expirePendingOrders(limit, 50);
+
+        assertThat(expired).isEqualTo(2);
+        verify(orderRepository).updateStatusByIds(orderIds, EOrderStatus.CANCELED);
+        verify(ticketService).expireOrderTickets(orderIds);
+        verify(userCacheGenerations).invalidate(CacheNames.ORDERS, List.of(userId, otherUserId));
+        verify(ordersCache, never()).clear();
+    }
+
+    @Test
+    void expirePendingOrders_shouldDoNothing_whenNoOrderExpired() {
+        LocalDateTime limit = LocalDateTime.now().minusMinutes(30);
+        when(orderRepository.lockExpiredPendingOrderIds(limit, 50)).thenReturn(List.of());
+
+        assertThat(orderServiceImpl.expirePendingOrders(limit, 50)).isZero();
+
+        verify(orderRepository, never()).updateStatusByIds(any(), any());
+        verifyNoInteractions(ticketService);
     }
 }
@@ -0,0 +1,71 @@
+package com.example.booking.services;
+
+import com.example.booking.repositories.ProcessedMessageRepository;
+import com.example.booking.services.intefaces.OrderService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentStatusServiceTest {
+
+    @Mock
+    private ProcessedMessageRepository processedMessageRepository;
+    @Mock
+    private OrderService orderService;
+
+    @InjectMocks
+    private PaymentStatusServiceImpl paymentStatusService;
+
+    @Test
+    void apply_ShouldConfirmOrder_WhenOrderPaidMessageIsNew() {
+        UUID orderId = UUID.randomUUID();
+        when(processedMessageRepository.markProcessed("order.paid:" + orderId)).thenReturn(1);
+
+        boolean applied = paymentStatusService.apply("order.paid:" + orderId, "order.paid", orderId);
+
+        assertThat(applied).isTrue();
+        verify(orderService).updateOrderStatusToPaid(orderId);
+        verifyNoMoreInteractions(orderService);
+    }
+
+    @Test
+    void apply_ShouldCancelOrder_WhenPaymentFailedMessageIsNew() {
+        UUID orderId = UUID.randomUUID();
+        when(processedMessageRepository.markProcessed("payment.failed:" + orderId)).thenReturn(1);
+
+        paymentStatusService.apply("payment.failed:" + orderId, "payment.failed", orderId);
+
+        verify(orderService).cancelOrderAndReleaseTicket(orderId);
+        verifyNoMoreInteractions(orderService);
+    }
+
+    @Test
+    void apply_ShouldDoNothing_WhenMessageWasAlreadyProcessed() {
+        UUID orderId = UUID.randomUUID();
+        when(processedMessageRepository.markProcessed("order.paid:" + orderId)).thenReturn(0);
+
+        boolean applied = paymentStatusService.apply("order.paid:" + orderId, "order.paid", orderId);
+
+        assertThat(applied).isFalse();
+        verifyNoInteractions(orderService);
+    }
+
+    @Test
+    void apply_ShouldThrow_WhenEventTypeIsUnknown() {
+        UUID orderId = UUID.randomUUID();
+        when(processedMessageRepository.markProcessed("x")).thenReturn(1);
+
+        assertThatThrownBy(() -> paymentStatusService.apply("x", "order.refunded", orderId))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(orderService);
+    }
+}
@@ -1,19 +1,24 @@
 package com.example.booking.services;
 
 import com.example.booking.builders.EventBuilder;
+import com.example.booking.builders.TicketCategoryBuilder;
 import com.example.booking.controller.request.ticket.CreateTicketCategoryRequest;
 import com.example.booking.domain.entities.Event;
 import com.example.booking.domain.entities.TicketCategory;
+import com.example.booking.exception.TicketCategoryNotFoundException;
 import com.example.booking.exception.TicketCategorySoldOutException;
 import com.example.booking.repositories.TicketCategoryRepository;
+import com.example.booking.services.intefaces.InventoryBackend;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.ThreadLocalRandom;
@@ -22,6 +27,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.tuple;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -30,10 +36,14 @@ class TicketCategoryServiceTest {
     @Mock
     private TicketCategoryRepository repository;
 
+    @Mock
+    private InventoryBackend inventoryBackend;
+
     @InjectMocks
     TicketCategoryServiceImpl ticketCategoryService;
 
     private static final Long TEST_CATEGORY_ID = 123L;
+    private static final Long OTHER_CATEGORY_ID = 456L;
 
     private static final String CAT_NAME_VIP = "VIP";
     private static final BigDecimal CAT_PRICE_VIP = BigDecimal.valueOf(150.00);
@@ -44,7 +54,6 @@ class TicketCategoryServiceTest {
     private static final int CAT_TICKETS_PISTA = 500;
 
     private static final int EXPECTED_LIST_SIZE = 2;
-    private static final int EXPECTED_SAVE_CALLS = 2;
 
     private static final String EXTRACT_PROP_NAME = "name";
     private static final String EXTRACT_PROP_PRICE = "price";
@@ -63,10 +72,10 @@ class TicketCategoryServiceTest {
                 new CreateTicketCategoryRequest(CAT_NAME_PISTA, CAT_PRICE_PISTA, CAT_TICKETS_PISTA)
         );
 
-        when(repository.save(any(TicketCategory.class)))
+        when(repository.saveAll(anyList()))
                 .thenAnswer(invocation -> {
-                    TicketCategory arg = invocation.getArgument(0);
-                    arg.setTicketCategoryId(ThreadLocalRandom.current().nextLong());
+                    List<TicketCategory> arg = invocation.getArgument(0);
+                    arg.forEach(tc -> tc.setTicketCategoryId(ThreadLocalRandom.current().nextLong()));
                     return arg;
                 });
 
@@ -80,37 +89,109 @@ class TicketCategoryServiceTest {
                         tuple(CAT_NAME_PISTA, CAT_PRICE_PISTA, CAT_TICKETS_PISTA)
                 );
 
-        verify(repository, times(EXPECTED_SAVE_CALLS)).save(any(TicketCategory.class));
+        verify(repository, times(1)).saveAll(anyList());
+        verify(repository, never()).save(any(TicketCategory.class));
     }
 
     @Test
     void reserveOneTicket_ShouldReturnTicketCategory_WhenReservationIsSuccessful() {
-        TicketCategory mockCategory = new TicketCategory();
-        mockCategory.setTicketCategoryId(TEST_CATEGORY_ID);
-        mockCategory.setName(CAT_NAME_VIP);
-        mockCategory.setAvailableCategoryTickets(10);
-
-        when(repository.decrementQuantity(TEST_CATEGORY_ID)).thenReturn(1);
-        when(repository.findById(TEST_CATEGORY_ID)).thenReturn(Optional.of(mockCategory));
+        Event event = EventBuilder.anEvent().withEventId(UUID.randomUUID()).build();
+        when(repository.findById(TEST_CATEGORY_ID)).thenReturn(Optional.of(vipCategoryOf(event)));
 
-        TicketCategory result = ticketCategoryService.reserveOneTicket(TEST_CATEGORY_ID);
+        TicketCategory result = ticketCategoryService.reserveOneTicket(event.getEventId(), TEST_CATEGORY_ID);
 
         assertThat(result).isNotNull();
         assertThat(result.getTicketCategoryId()).isEqualTo(TEST_CATEGORY_ID);
         assertThat(result.getName()).isEqualTo(CAT_NAME_VIP);
+        assertThat(result.getPrice()).isEqualTo(CAT_PRICE_VIP);
 
-        verify(repository, times(1)).decrementQuantity(TEST_CATEGORY_ID);
+        verify(inventoryBackend, times(1)).reserve(TEST_CATEGORY_ID);
         verify(repository, times(1)).findById(TEST_CATEGORY_ID);
     }
 
     @Test
-    void reserveOneTicket_ShouldThrowSoldOutException_WhenNoRowsUpdated() {
-        when(repository.decrementQuantity(TEST_CATEGORY_ID)).thenReturn(0);
+    void reserveOneTicket_ShouldNotReloadCategory_WhenItWasReservedBefore() {
+        Event event = EventBuilder.anEvent().withEventId(UUID.randomUUID()).build();
+        when(repository.findById(TEST_CATEGORY_ID)).thenReturn(Optional.of(vipCategoryOf(event)));
 
-        assertThatThrownBy(() -> ticketCategoryService.reserveOneTicket(TEST_CATEGORY_ID))
+        ticketCategoryService.reserveOneTicket(event.getEventId(), TEST_CATEGORY_ID);
+        TicketCategory result = ticketCategoryService.reserveOneTicket(event.getEventId(), TEST_CATEGORY_ID);
+
+        assertThat(result.getName()).isEqualTo(CAT_NAME_VIP);
+        verify(inventoryBackend, times(2)).reserve(TEST_CATEGORY_ID);
+        verify(repository, times(1)).findById(TEST_CATEGORY_ID);
+    }
+
+    @Test
+    void reserveOneTicket_ShouldThrowNotFoundWithoutReserving_WhenCategoryBelongsToAnotherEvent() {
+        Event otherEvent = EventBuilder.anEvent().withEventId(UUID.randomUUID()).build();
+        when(repository.findById(TEST_CATEGORY_ID)).thenReturn(Optional.of(vipCategoryOf(otherEvent)));
+
+        assertThatThrownBy(() -> ticketCategoryService.reserveOneTicket(UUID.randomUUID(), TEST_CATEGORY_ID))
+                .isInstanceOf(TicketCategoryNotFoundException.class);
+
+        verifyNoInteractions(inventoryBackend);
+    }
+
+    @Test
+    void reserveOneTicket_ShouldThrowSoldOutException_WhenInventoryIsExhausted() {
+        Event event = EventBuilder.anEvent().withEventId(UUID.randomUUID()).build();
+        when(repository.findById(TEST_CATEGORY_ID)).thenReturn(Optional.of(vipCategoryOf(event)));
+        doThrow(new TicketCategorySoldOutException()).when(inventoryBackend).reserve(TEST_CATEGORY_ID);
+
+        assertThatThrownBy(() -> ticketCategoryService.reserveOneTicket(event.getEventId(), TEST_CATEGORY_ID))
                 .isInstanceOf(TicketCategorySoldOutException.class);
 
-        verify(repository, times(1)).decrementQuantity(TEST_CATEGORY_ID);
-        verify(repository, never()).findById(any());
+        verify(inventoryBackend, times(1)).reserve(TEST_CATEGORY_ID);
+    }
+
+    @Test
+    void incrementTicketCategory_ShouldReleaseStockThroughInventoryBackend() {
+        ticketCategoryService.incrementTicketCategory(TEST_CATEGORY_ID);
+
+        verify(inventoryBackend, times(1)).release(TEST_CATEGORY_ID);
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void reserveTickets_ShouldReserveEachCategoryOnce_WhenCategoriesBelongToEvent() {
+        Event event = EventBuilder.anEvent().withEventId(UUID.randomUUID()).build();
+        TicketCategory vip = TicketCategoryBuilder.aTicketCategory().withTicketCategoryId(TEST_CATEGORY_ID).withEvent(event).build();
+        TicketCategory pista = TicketCategoryBuilder.aTicketCategory().withTicketCategoryId(OTHER_CATEGORY_ID).withEvent(event).build();
+        Map<Long, Integer> quantities = Map.of(TEST_CATEGORY_ID, 4, OTHER_CATEGORY_ID, 2);
+
+        when(repository.findAllById(quantities.keySet())).thenReturn(List.of(vip, pista));
+
+        List<TicketCategory> result = ticketCategoryService.reserveTickets(event.getEventId(), quantities);
+
+        assertThat(result).containsExactly(vip, pista);
+        InOrder inOrder = inOrder(inventoryBackend);
+        inOrder.verify(inventoryBackend).reserve(TEST_CATEGORY_ID, 4);
+        inOrder.verify(inventoryBackend).reserve(OTHER_CATEGORY_ID, 2);
+        verifyNoMoreInteractions(inventoryBackend);
+    }
+
+    @Test
+    void reserveTickets_ShouldThrowNotFound_WhenCategoryBelongsToAnotherEvent() {
+        Event event = EventBuilder.anEvent().withEventId(UUID.randomUUID()).build();
+        Event otherEvent = EventBuilder.anEvent().withEventId(UUID.randomUUID()).build();
+        TicketCategory foreign = TicketCategoryBuilder.aTicketCategory().withTicketCategoryId(TEST_CATEGORY_ID).withEvent(otherEvent).build();
+        Map<Long, Integer> quantities = Map.of(TEST_CATEGORY_ID, 2);
+
+        when(repository.findAllById(quantities.keySet())).thenReturn(List.of(foreign));
+
+        assertThatThrownBy(() -> ticketCategoryService.reserveTickets(event.getEventId(), quantities))
+                .isInstanceOf(TicketCategoryNotFoundException.class);
+
+        verifyNoInteractions(inventoryBackend);
+    }
+
+    private static TicketCategory vipCategoryOf(Event event) {
+        return TicketCategoryBuilder.aTicketCategory()
+                .withTicketCategoryId(TEST_CATEGORY_ID)
+                .withName(CAT_NAME_VIP)
+                .withPrice(CAT_PRICE_VIP)
+                .withEvent(event)
+                .build();
     }
-}
\ No newline at end of file
+}
@@ -2,42 +2,85 @@ package com.example.booking.services;
 
 import com.example.booking.builders.EventBuilder;
 import com.example.booking.builders.TicketCategoryBuilder;
-import com.example.booking.config.cache.CacheNames;
+import com.example.booking.config.cache.AvailabilityCache;
+import com.example.booking.controller.request.ticket.BatchEmmitTicketRequest;
 import com.example.booking.controller.request.ticket.EmmitTicketRequest;
 import com.example.booking.domain.entities.*;
 import com.example.booking.domain.enums.ETicketStatus;
+import com.example.booking.dto.OrderTicketCountDto;
 import com.example.booking.dto.RemainingTicketCategoryDto;
 import com.example.booking.dto.TicketItemDto;
 import com.example.booking.dto.TicketsDto;
 import com.example.booking.exception.*;
 import com.example.booking.repositories.TicketRepository;
 import com.example.booking.services.intefaces.EventsService;
+import com.example.booking.services.intefaces.InventoryBackend;
 import com.example.booking.services.intefaces.TicketCategoryService;
 import com.example.booking.services.intefaces.UserService;
+import com.example.booking.services.trending.TicketsEmittedEvent;
 import com.example.booking.util.JwtUtils;
+import com.example.booking.util.PageCursor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.cache.Cache;
-import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class TicketServiceTest {
 
+    @Test
+    void expireOrderTickets_ShouldReleaseGroupedStockAndExpireTicketsWithOneStatement() {
+        List<UUID> orderIds = List.of(UUID.randomUUID(), UUID.randomUUID());
+        UUID otherEventId = UUID.randomUUID();
+        List<OrderTicketCountDto> counts = List.of(
+                new OrderTicketCountDto(1L, testEventId, 3L),
+                new OrderTicketCountDto(2L, testEventId, 1L),
+                new OrderTicketCountDto(3L, otherEventId, 2L));
+        when(ticketRepository.countByOrderIdsGroupedByCategory(orderIds)).thenReturn(counts);
+        when(ticketRepository.expireByOrderIds(orderIds)).thenReturn(6);
+
+        int expired = ticketsService.expireOrderTickets(orderIds);
+
+        assertEquals(6, expired);
+        verify(ticketCategoryService).releaseTickets(counts);
+        verify(availabilityCache).released(counts);
+        verify(ticketRepository, never()).deleteById(any());
+    }
+
+    @Test
+    void releaseOrderTickets_ShouldReleaseGroupedStockAndDeleteTickets() {
+        UUID orderId = UUID.randomUUID();
+        List<OrderTicketCountDto> counts = List.of(new OrderTicketCountDto(1L, testEventId, 2L));
+        when(ticketRepository.countByOrderIdsGroupedByCategory(List.of(orderId))).thenReturn(counts);
+
+        ticketsService.releaseOrderTickets(orderId);
+
+        verify(ticketCategoryService).releaseTickets(counts);
+        verify(ticketRepository).deleteByOrderId(orderId);
+        verify(availabilityCache).released(counts);
+    }
+
     private static final String CATEGORY_NAME = "Pista Premium";
     private static final String TEST_LOCATION = "Estádio Nacional";
     private static final String TEST_USERNAME = "testUser";
@@ -52,6 +95,7 @@ class TicketServiceTest {
     private static final Integer PAGE_SIZE_10 = 10;
     private static final String SORT_BY_TICKET_ID = "ticketId";
     private static final Integer EXPECTED_LIST_SIZE_1 = 1;
+    private static final int BATCH_QUANTITY = 6;
 
     @Mock
     private TicketRepository ticketRepository;
@@ -62,11 +106,15 @@ class TicketServiceTest {
     @Mock
     private JwtUtils jwtUtils;
     @Mock
-    private CacheManager cacheManager;
+    private AvailabilityCache availabilityCache;
     @Mock
     private TicketCategoryService ticketCategoryService;
     @Mock
-    private Cache cache;
+    private InventoryBackend inventoryBackend;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private PlatformTransactionManager transactionManager;
 
     @InjectMocks
     private TicketServiceImpl ticketsService;
@@ -112,16 +160,15 @@ class TicketServiceTest {
 
         when(jwtUtils.getAuthenticatedUsername()).thenReturn(testUsername);
         when(userService.findUserEntityByUserName(testUsername)).thenReturn(testUser);
-        when(ticketCategoryService.reserveOneTicket(testTicketCategoryId)).thenReturn(testCategory);
+        when(ticketCategoryService.reserveOneTicket(testEventId, testTicketCategoryId)).thenReturn(testCategory);
         when(eventService.findEventEntityById(testEventId)).thenReturn(testEvent);
-        when(cacheManager.getCache(CacheNames.REMAINING_TICKETS)).thenReturn(cache);
         when(ticketRepository.save(any(Ticket.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         TicketItemDto result = ticketsService.emmitTicket(request);
 
         assertNotNull(result);
-        verify(eventService, times(1)).decrementAvailableTickets(testEventId);
-        verify(ticketCategoryService, times(1)).reserveOneTicket(testTicketCategoryId);
+        verify(ticketCategoryService, times(1)).reserveOneTicket(testEventId, testTicketCategoryId);
+        verify(availabilityCache).reserved(testEventId, Map.of(testTicketCategoryId, 1));
     }
 
     @Test
@@ -132,14 +179,14 @@ class TicketServiceTest {
         when(userService.findUserEntityByUserName(testUsername)).thenReturn(testUser);
         when(eventService.findEventEntityById(testEventId)).thenReturn(testEvent);
 
-        when(ticketCategoryService.reserveOneTicket(INVALID_TICKET_CATEGORY_ID))
+        when(ticketCategoryService.reserveOneTicket(testEventId, INVALID_TICKET_CATEGORY_ID))
                 .thenThrow(new TicketCategoryNotFoundException(INVALID_TICKET_CATEGORY_ID));
 
         assertThrows(TicketCategoryNotFoundException.class,
                 () -> ticketsService.emmitTicket(request));
 
         verify(ticketRepository, never()).save(any(Ticket.class));
-        verify(eventService, never()).decrementAvailableTickets(any());
+        verifyNoInteractions(availabilityCache);
     }
 
     @Test
@@ -150,14 +197,49 @@ class TicketServiceTest {
         when(userService.findUserEntityByUserName(testUsername)).thenReturn(testUser);
         when(eventService.findEventEntityById(testEventId)).thenReturn(testEvent);
 
-        when(ticketCategoryService.reserveOneTicket(testTicketCategoryId))
+        when(ticketCategoryService.reserveOneTicket(testEventId, testTicketCategoryId))
                 .thenThrow(new TicketCategorySoldOutException());
 
         assertThrows(TicketCategorySoldOutException.class,
                 () -> ticketsService.emmitTicket(request));
 
         verify(ticketRepository, never()).save(any(Ticket.class));
-        verify(eventService, never()).decrementAvailableTickets(any());
+        verifyNoInteractions(availabilityCache);
+    }
+
+    @Test
+    void emmitTickets_ShouldSaveAllTicketsAndPatchAvailabilityOnce_WhenRequestIsValid() {
+        BatchEmmitTicketRequest request = new BatchEmmitTicketRequest(testEventId, Map.of(testTicketCategoryId, BATCH_QUANTITY));
+
+        when(jwtUtils.getAuthenticatedUsername()).thenReturn(testUsername);
+        when(userService.findUserEntityByUserName(testUsername)).thenReturn(testUser);
+        when(eventService.findEventEntityById(testEventId)).thenReturn(testEvent);
+        when(ticketCategoryService.reserveTickets(testEventId, request.quantities())).thenReturn(List.of(testCategory));
+
+        List<TicketItemDto> result = ticketsService.emmitTickets(request);
+
+        assertEquals(BATCH_QUANTITY, result.size());
+        verify(ticketRepository, times(1)).saveAll(argThat(tickets -> ((List<?>) tickets).size() == BATCH_QUANTITY));
+        verify(ticketRepository, never()).save(any(Ticket.class));
+        verify(availabilityCache, times(1)).reserved(testEventId, request.quantities());
+        verify(eventPublisher).publishEvent(new TicketsEmittedEvent(testEventId, BATCH_QUANTITY));
+    }
+
+    @Test
+    void emmitTickets_ShouldNotSaveTickets_WhenReservationFails() {
+        BatchEmmitTicketRequest request = new BatchEmmitTicketRequest(testEventId, Map.of(testTicketCategoryId, BATCH_QUANTITY));
+
+        when(jwtUtils.getAuthenticatedUsername()).thenReturn(testUsername);
+        when(userService.findUserEntityByUserName(testUsername)).thenReturn(testUser);
+        when(eventService.findEventEntityById(testEventId)).thenReturn(testEvent);
+        when(ticketCategoryService.reserveTickets(testEventId, request.quantities()))
+                .thenThrow(new TicketCategorySoldOutException());
+
+        assertThrows(TicketCategorySoldOutException.class,
+                () -> ticketsService.emmitTickets(request));
+
+        verify(ticketRepository, never()).saveAll(any());
+        verifyNoInteractions(availabilityCache);
     }
 
     @Test
@@ -166,14 +248,11 @@ class TicketServiceTest {
 
         when(ticketRepository.findTicketWithEvent(ticket.getTicketId())).thenReturn(Optional.of(ticket));
 
-        when(cacheManager.getCache(CacheNames.REMAINING_TICKETS)).thenReturn(cache);
-
         ticketsService.deleteEmittedTicket(ticket.getTicketId());
 
         verify(ticketRepository).deleteById(ticket.getTicketId());
-        verify(cache).evict(testEvent.getEventId());
+        verify(availabilityCache).released(List.of(new OrderTicketCountDto(testCategory.getTicketCategoryId(), testEventId, 1L)));
 
-        verify(eventService).incrementAvailableTickets(testEvent.getEventId());
         verify(ticketCategoryService).incrementTicketCategory(testCategory.getTicketCategoryId());
     }
 
@@ -249,7 +328,41 @@ class TicketServiceTest {
     }
 
     @Test
-    void getAvailableTicketsByCategoryFromEvent_ShouldReturnListOfRemainingTicketCategories_WhenEventExists() {
+    void listAllUserTickets_ShouldSeekAfterCursorTicket_WhenCursorIsGiven() {
+        UUID lastSeenId = UUID.randomUUID();
+        String cursor = PageCursor.of(lastSeenId, lastSeenId).encode();
+        List<Ticket> rows = List.of(mockTicketWithUser(testUserId), mockTicketWithUser(testUserId));
+
+        when(jwtUtils.getAuthenticatedUsername()).thenReturn(testUsername);
+        when(userService.findUserEntityByUserName(testUsername)).thenReturn(testUser);
+        when(ticketRepository.findTicketsByUserIdAfter(testUserId, lastSeenId, PageRequest.ofSize(2))).thenReturn(rows);
+
+        TicketsDto result = ticketsService.listAllUserTickets(cursor, 1, false);
+
+        assertEquals(1, result.tickets().size());
+        assertEquals(rows.getFirst().getTicketId(), PageCursor.decode(result.nextCursor()).id());
+        assertNull(result.totalElements());
+        verify(ticketRepository, never()).countByUserId(any());
+    }
+
+    @Test
+    void listAllTickets_ShouldReturnNoNextCursor_WhenLastPageIsReached() {
+        List<Ticket> rows = List.of(mockTicket(), mockTicket());
+
+        when(ticketRepository.findFirstWithAssociations(PageRequest.ofSize(PAGE_SIZE_10 + 1))).thenReturn(rows);
+        when(ticketRepository.count()).thenReturn(2L);
+
+        TicketsDto result = ticketsService.listAllTickets("", PAGE_SIZE_10, true);
+
+        assertEquals(rows.size(), result.tickets().size());
+        assertNull(result.nextCursor());
+        assertEquals(2L, result.totalElements());
+        assertEquals(1, result.totalPages());
+    }
+
+    @Test
+    void getAvailableTicketsByCategoryFromEvent_ShouldLoadRemainingTicketCategories_WhenCacheAsksForThem() {
+        loadThroughAvailabilityCache();
         when(eventService.findEventEntityById(testEventId)).thenReturn(testEvent);
 
         List<RemainingTicketCategoryDto> result = ticketsService.getAvailableTicketsByCategoryFromEvent(testEventId);
@@ -258,11 +371,38 @@ class TicketServiceTest {
         assertEquals(EXPECTED_LIST_SIZE_1, result.size());
         assertEquals(CATEGORY_NAME, result.getFirst().categoryName());
         assertEquals(TEST_CATEGORY_TICKETS, result.getFirst().remainingTickets());
+        verify(transactionManager).getTransaction(argThat(TransactionDefinition::isReadOnly));
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void getAvailableTicketsByCategoryFromEvent_ShouldUseBackendStock_WhenDatabaseLagsBehind() {
+        loadThroughAvailabilityCache();
+        when(eventService.findEventEntityById(testEventId)).thenReturn(testEvent);
+        when(inventoryBackend.currentStock(testEventId, List.of(testTicketCategoryId))).thenReturn(Map.of(testTicketCategoryId, 42));
+
+        List<RemainingTicketCategoryDto> result = ticketsService.getAvailableTicketsByCategoryFromEvent(testEventId);
+
+        assertEquals(EXPECTED_LIST_SIZE_1, result.size());
+        assertEquals(42, result.getFirst().remainingTickets());
+    }
+
+    @Test
+    void getAvailableTicketsByCategoryFromEvent_ShouldNotLoadEvent_WhenCached() {
+        List<RemainingTicketCategoryDto> cached = List.of(new RemainingTicketCategoryDto(CATEGORY_NAME, 12));
+        when(availabilityCache.get(eq(testEventId), any())).thenReturn(cached);
+
+        List<RemainingTicketCategoryDto> result = ticketsService.getAvailableTicketsByCategoryFromEvent(testEventId);
+
+        assertEquals(cached, result);
+        verify(eventService, never()).findEventEntityById(any());
+        verifyNoInteractions(transactionManager);
     }
 
     @Test
     void getAvailableTicketsByCategoryFromEvent_ShouldReturnEmptyList_WhenEventHasNoCategories() {
         testEvent.setTicketCategories(List.of());
+        loadThroughAvailabilityCache();
         when(eventService.findEventEntityById(testEventId)).thenReturn(testEvent);
 
         List<RemainingTicketCategoryDto> result = ticketsService.getAvailableTicketsByCategoryFromEvent(testEventId);
@@ -449,4 +589,11 @@ class TicketServiceTest {
 
         return ticket;
     }
+
+    @SuppressWarnings("unchecked")
+    private void loadThroughAvailabilityCache() {
+        lenient().when(transactionManager.getTransaction(any(TransactionDefinition.class))).thenReturn(mock(TransactionStatus.class));
+        when(availabilityCache.get(eq(testEventId), any())).thenAnswer(invocation ->
+                List.copyOf(((Supplier<Map<Long, RemainingTicketCategoryDto>>) invocation.getArgument(1)).get().values()));
+    }
 }
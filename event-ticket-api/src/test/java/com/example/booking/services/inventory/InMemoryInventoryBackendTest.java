@@ -0,0 +1,185 @@
+package com.example.booking.services.inventory;
+
+import com.example.booking.dto.EventStockDto;
+import com.example.booking.dto.InventoryConsistencyDto;
+import com.example.booking.dto.TicketCategoryStockDto;
+import com.example.booking.exception.EventSoldOutException;
+import com.example.booking.exception.TicketCategoryNotFoundException;
+import com.example.booking.exception.TicketCategorySoldOutException;
+import com.example.booking.repositories.EventRepository;
+import com.example.booking.repositories.TicketCategoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InMemoryInventoryBackendTest {
+
+    private static final Long CATEGORY_ID = 1L;
+    private static final UUID EVENT_ID = UUID.randomUUID();
+    private static final int STRIPES = 4;
+
+    @Mock
+    private TicketCategoryRepository ticketCategoryRepository;
+    @Mock
+    private EventRepository eventRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private InMemoryInventoryBackend backend;
+
+    @BeforeEach
+    void setUp() {
+        backend = new InMemoryInventoryBackend(ticketCategoryRepository, eventRepository, new TransactionTemplate(transactionManager), STRIPES);
+    }
+
+    @Test
+    void reserve_ShouldNotTouchDatabaseRows_WhenStockIsAvailable() {
+        seed(2, 100);
+
+        backend.reserve(CATEGORY_ID);
+        backend.reserve(CATEGORY_ID);
+
+        verify(ticketCategoryRepository, never()).decrementQuantity(any(), anyInt());
+        verify(eventRepository, never()).decrementAvailableTicketsByCategoryId(any(), anyInt());
+        assertThatThrownBy(() -> backend.reserve(CATEGORY_ID)).isInstanceOf(TicketCategorySoldOutException.class);
+    }
+
+    @Test
+    void reserve_ShouldThrowEventSoldOut_AndKeepCategoryStock_WhenEventTotalIsExhausted() {
+        seed(5, 1);
+
+        backend.reserve(CATEGORY_ID);
+
+        assertThatThrownBy(() -> backend.reserve(CATEGORY_ID)).isInstanceOf(EventSoldOutException.class);
+        backend.flush();
+        verify(ticketCategoryRepository, times(1)).applyQuantityDelta(CATEGORY_ID, -1);
+        verify(eventRepository, times(1)).applyAvailableTicketsDelta(EVENT_ID, -1);
+    }
+
+    @Test
+    void reserve_ShouldThrowNotFound_WhenCategoryDoesNotExist() {
+        when(ticketCategoryRepository.findStockById(CATEGORY_ID)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> backend.reserve(CATEGORY_ID)).isInstanceOf(TicketCategoryNotFoundException.class);
+    }
+
+    @Test
+    void flush_ShouldWriteBatchedDeltasToCategoryAndEvent() {
+        seed(10, 100);
+
+        backend.reserve(CATEGORY_ID);
+        backend.reserve(CATEGORY_ID);
+        backend.reserve(CATEGORY_ID);
+        backend.release(CATEGORY_ID);
+
+        backend.flush();
+        backend.flush();
+
+        verify(ticketCategoryRepository, times(1)).applyQuantityDelta(CATEGORY_ID, -2);
+        verify(eventRepository, times(1)).applyAvailableTicketsDelta(EVENT_ID, -2);
+    }
+
+    @Test
+    void flush_ShouldRetryDeltas_WhenDatabaseWriteFails() {
+        seed(10, 100);
+        when(ticketCategoryRepository.applyQuantityDelta(CATEGORY_ID, -1))
+                .thenThrow(new IllegalStateException("database down"))
+                .thenReturn(1);
+
+        backend.reserve(CATEGORY_ID);
+
+        backend.flush();
+        backend.flush();
+
+        verify(ticketCategoryRepository, times(2)).applyQuantityDelta(CATEGORY_ID, -1);
+        verify(eventRepository, times(1)).applyAvailableTicketsDelta(EVENT_ID, -1);
+    }
+
+    @Test
+    void checkConsistency_ShouldReportDrift_WhenPersistedCountDiffers() {
+        seed(10, 100);
+        backend.reserve(CATEGORY_ID);
+        backend.flush();
+
+        when(eventRepository.findStockByIds(anyCollection())).thenReturn(List.of(new EventStockDto(EVENT_ID, 99)));
+        when(ticketCategoryRepository.findStockByIds(anyCollection()))
+                .thenReturn(List.of(new TicketCategoryStockDto(CATEGORY_ID, EVENT_ID, 9)))
+                .thenReturn(List.of(new TicketCategoryStockDto(CATEGORY_ID, EVENT_ID, 7)));
+
+        InventoryConsistencyDto consistent = backend.checkConsistency();
+        InventoryConsistencyDto drifting = backend.checkConsistency();
+
+        assertThat(consistent.consistent()).isTrue();
+        assertThat(drifting.consistent()).isFalse();
+        assertThat(drifting.drifts()).singleElement()
+                .satisfies(drift -> {
+                    assertThat(drift.ticketCategoryId()).isEqualTo(CATEGORY_ID);
+                    assertThat(drift.inMemoryAvailable()).isEqualTo(9);
+                    assertThat(drift.persistedAvailable()).isEqualTo(7);
+                });
+    }
+
+    @Test
+    void checkConsistency_ShouldNotReportDrift_WhenReservationsAreNotFlushedYet() {
+        seed(10, 100);
+        backend.reserve(CATEGORY_ID);
+        backend.flush();
+        backend.reserve(CATEGORY_ID);
+        backend.reserve(CATEGORY_ID);
+
+        when(eventRepository.findStockByIds(anyCollection())).thenReturn(List.of(new EventStockDto(EVENT_ID, 99)));
+        when(ticketCategoryRepository.findStockByIds(anyCollection()))
+                .thenReturn(List.of(new TicketCategoryStockDto(CATEGORY_ID, EVENT_ID, 9)));
+
+        assertThat(backend.checkConsistency().consistent()).isTrue();
+    }
+
+    @Test
+    void checkConsistency_ShouldReportEventDrift_WhenEventTotalWasChangedOutsideTheBackend() {
+        seed(10, 100);
+        backend.reserve(CATEGORY_ID);
+
+        when(eventRepository.findStockByIds(anyCollection())).thenReturn(List.of(new EventStockDto(EVENT_ID, 120)));
+        when(ticketCategoryRepository.findStockByIds(anyCollection()))
+                .thenReturn(List.of(new TicketCategoryStockDto(CATEGORY_ID, EVENT_ID, 10)));
+
+        assertThat(backend.checkConsistency().drifts()).singleElement()
+                .satisfies(drift -> {
+                    assertThat(drift.ticketCategoryId()).isNull();
+                    assertThat(drift.eventId()).isEqualTo(EVENT_ID);
+                    assertThat(drift.inMemoryAvailable()).isEqualTo(99);
+                    assertThat(drift.pendingDelta()).isEqualTo(-1);
+                    assertThat(drift.persistedAvailable()).isEqualTo(120);
+                });
+    }
+
+    @Test
+    void currentStock_ShouldReturnUnflushedCounters_OnlyForTrackedCategoriesOfTheEvent() {
+        seed(10, 100);
+        backend.reserve(CATEGORY_ID, 3);
+
+        assertThat(backend.currentStock(EVENT_ID, List.of(CATEGORY_ID, 2L))).isEqualTo(Map.of(CATEGORY_ID, 7));
+        assertThat(backend.currentStock(UUID.randomUUID(), List.of(CATEGORY_ID))).isEmpty();
+    }
+
+    private void seed(int categoryStock, int eventStock) {
+        when(ticketCategoryRepository.findStockById(CATEGORY_ID))
+                .thenReturn(Optional.of(new TicketCategoryStockDto(CATEGORY_ID, EVENT_ID, categoryStock)));
+        when(eventRepository.findAvailableTicketsById(EVENT_ID)).thenReturn(Optional.of(eventStock));
+    }
+}
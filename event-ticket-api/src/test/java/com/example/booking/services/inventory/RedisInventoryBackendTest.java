@@ -0,0 +1,239 @@
+package com.example.booking.services.inventory;
+
+import com.example.booking.dto.EventStockDto;
+import com.example.booking.dto.InventoryConsistencyDto;
+import com.example.booking.dto.TicketCategoryStockDto;
+import com.example.booking.exception.EventSoldOutException;
+import com.example.booking.exception.TicketCategorySoldOutException;
+import com.example.booking.repositories.EventRepository;
+import com.example.booking.repositories.TicketCategoryRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@Testcontainers
+@ExtendWith(MockitoExtension.class)
+class RedisInventoryBackendTest {
+
+    private static final Long CATEGORY_ID = 1L;
+    private static final UUID EVENT_ID = UUID.randomUUID();
+    private static final long RETENTION_MS = 86_400_000;
+    private static final LocalDateTime EVENT_DATE = LocalDateTime.now().plusDays(10);
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>("redis:7.2.4-alpine")
+            .withExposedPorts(6379);
+
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redisTemplate;
+
+    @Mock
+    private TicketCategoryRepository ticketCategoryRepository;
+    @Mock
+    private EventRepository eventRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private RedisInventoryBackend backend;
+
+    @BeforeAll
+    static void connect() {
+        connectionFactory = new LettuceConnectionFactory(redis.getHost(), redis.getMappedPort(6379));
+        connectionFactory.afterPropertiesSet();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void disconnect() {
+        connectionFactory.destroy();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate.getConnectionFactory().getConnection().serverCommands().flushAll();
+        backend = new RedisInventoryBackend(redisTemplate, ticketCategoryRepository, eventRepository,
+                new TransactionTemplate(transactionManager), 100, 30_000, RETENTION_MS);
+    }
+
+    @Test
+    void reserve_ShouldNeverOversell_WhenManyThreadsCompete() throws InterruptedException {
+        givenStock(50, 1_000);
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        for (int i = 0; i < 200; i++) {
+            executor.submit(() -> {
+                try {
+                    backend.reserve(CATEGORY_ID);
+                    reserved.incrementAndGet();
+                } catch (TicketCategorySoldOutException e) {
+                    rejected.incrementAndGet();
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+
+        assertThat(reserved.get()).isEqualTo(50);
+        assertThat(rejected.get()).isEqualTo(150);
+        assertThat(redisTemplate.opsForValue().get(RedisInventoryBackend.categoryKey(CATEGORY_ID, EVENT_ID))).isEqualTo("0");
+        assertThat(redisTemplate.opsForValue().get(RedisInventoryBackend.eventKey(EVENT_ID))).isEqualTo("950");
+    }
+
+    @Test
+    void reserve_ShouldThrowEventSoldOut_WhenEventCounterIsExhausted() {
+        givenStock(5, 0);
+
+        assertThatThrownBy(() -> backend.reserve(CATEGORY_ID)).isInstanceOf(EventSoldOutException.class);
+    }
+
+    @Test
+    void flush_ShouldApplyRedisDeltasToDatabase_WhenCategoriesAreDirty() {
+        givenStock(10, 100);
+
+        backend.reserve(CATEGORY_ID);
+        backend.reserve(CATEGORY_ID);
+        backend.release(CATEGORY_ID);
+        backend.flush();
+        backend.flush();
+
+        verify(ticketCategoryRepository, times(1)).applyQuantityDelta(CATEGORY_ID, -1);
+        verify(eventRepository, times(1)).applyAvailableTicketsDelta(EVENT_ID, -1);
+        verify(ticketCategoryRepository, never()).updateQuantity(any(), anyInt());
+        assertThat(redisTemplate.opsForSet().size(RedisInventoryBackend.DIRTY_KEY)).isZero();
+        assertThat(redisTemplate.hasKey(RedisInventoryBackend.LEASE_KEY)).isFalse();
+    }
+
+    @Test
+    void flush_ShouldKeepCategoriesDirtyAndDeltasPending_WhenDatabaseWriteFails() {
+        givenStock(10, 100);
+        when(ticketCategoryRepository.applyQuantityDelta(CATEGORY_ID, -1)).thenThrow(new RuntimeException("db down"));
+
+        backend.reserve(CATEGORY_ID);
+        backend.flush();
+
+        assertThat(redisTemplate.opsForSet().size(RedisInventoryBackend.DIRTY_KEY)).isEqualTo(1);
+        assertThat(redisTemplate.opsForValue().get(RedisInventoryBackend.categoryDeltaKey(CATEGORY_ID, EVENT_ID))).isEqualTo("-1");
+        assertThat(redisTemplate.opsForValue().get(RedisInventoryBackend.eventDeltaKey(EVENT_ID))).isEqualTo("-1");
+    }
+
+    @Test
+    void flush_ShouldSkipReconcile_WhenAnotherPodHoldsTheLease() {
+        givenStock(10, 100);
+        redisTemplate.opsForValue().set(RedisInventoryBackend.LEASE_KEY, "other-pod");
+
+        backend.reserve(CATEGORY_ID);
+        backend.flush();
+
+        verify(ticketCategoryRepository, never()).applyQuantityDelta(any(), anyInt());
+        assertThat(redisTemplate.opsForValue().get(RedisInventoryBackend.LEASE_KEY)).isEqualTo("other-pod");
+    }
+
+    @Test
+    void reserve_ShouldExpireCountersAfterTheEvent_WhenSeeding() {
+        givenStock(10, 100);
+
+        backend.reserve(CATEGORY_ID);
+
+        long expectedTtl = Duration.between(LocalDateTime.now(), EVENT_DATE).toMillis() + RETENTION_MS;
+        assertThat(redisTemplate.getExpire(RedisInventoryBackend.categoryKey(CATEGORY_ID, EVENT_ID), TimeUnit.MILLISECONDS))
+                .isCloseTo(expectedTtl, within(60_000L));
+        assertThat(redisTemplate.getExpire(RedisInventoryBackend.eventKey(EVENT_ID), TimeUnit.MILLISECONDS))
+                .isCloseTo(expectedTtl, within(60_000L));
+    }
+
+    @Test
+    void reserve_ShouldReseedWithPendingDelta_WhenCounterWasEvicted() {
+        givenStock(10, 100);
+        backend.reserve(CATEGORY_ID);
+        backend.reserve(CATEGORY_ID);
+        // evicted before the reconciler wrote the two reservations to Postgres
+        redisTemplate.delete(RedisInventoryBackend.categoryKey(CATEGORY_ID, EVENT_ID));
+
+        backend.reserve(CATEGORY_ID);
+
+        assertThat(redisTemplate.opsForValue().get(RedisInventoryBackend.categoryKey(CATEGORY_ID, EVENT_ID))).isEqualTo("7");
+        assertThat(redisTemplate.opsForValue().get(RedisInventoryBackend.eventKey(EVENT_ID))).isEqualTo("97");
+    }
+
+    @Test
+    void checkConsistency_ShouldNotReportDrift_WhenDeltasAreNotReconciledYet() {
+        givenStock(10, 100);
+        backend.reserve(CATEGORY_ID);
+        givenPersisted(10, 100);
+
+        InventoryConsistencyDto result = backend.checkConsistency();
+
+        assertThat(result.consistent()).isTrue();
+        assertThat(result.trackedCategories()).isEqualTo(1);
+    }
+
+    @Test
+    void checkConsistency_ShouldCompareCategoriesSeededByOtherPods() {
+        givenStock(10, 100);
+        backend.reserve(CATEGORY_ID);
+        backend.flush();
+        givenPersisted(12, 99);
+        RedisInventoryBackend otherPod = new RedisInventoryBackend(redisTemplate, ticketCategoryRepository, eventRepository,
+                new TransactionTemplate(transactionManager), 100, 30_000, RETENTION_MS);
+
+        InventoryConsistencyDto result = otherPod.checkConsistency();
+
+        assertThat(result.drifts()).singleElement()
+                .satisfies(drift -> {
+                    assertThat(drift.ticketCategoryId()).isEqualTo(CATEGORY_ID);
+                    assertThat(drift.inMemoryAvailable()).isEqualTo(9);
+                    assertThat(drift.persistedAvailable()).isEqualTo(12);
+                });
+    }
+
+    @Test
+    void currentStock_ShouldReadSeededCounters_AndLeaveOthersToTheDatabase() {
+        givenStock(10, 100);
+        backend.reserve(CATEGORY_ID, 4);
+
+        assertThat(backend.currentStock(EVENT_ID, List.of(CATEGORY_ID, 2L))).isEqualTo(Map.of(CATEGORY_ID, 6));
+    }
+
+    private void givenStock(int categoryAvailable, int eventAvailable) {
+        when(ticketCategoryRepository.findStockById(CATEGORY_ID))
+                .thenReturn(Optional.of(new TicketCategoryStockDto(CATEGORY_ID, EVENT_ID, categoryAvailable)));
+        when(eventRepository.findAvailableTicketsById(EVENT_ID)).thenReturn(Optional.of(eventAvailable));
+        when(eventRepository.findEventDateById(EVENT_ID)).thenReturn(Optional.of(EVENT_DATE));
+    }
+
+    private void givenPersisted(int categoryAvailable, int eventAvailable) {
+        when(ticketCategoryRepository.findStockForEventsFrom(any()))
+                .thenReturn(List.of(new TicketCategoryStockDto(CATEGORY_ID, EVENT_ID, categoryAvailable)));
+        when(eventRepository.findStockByIds(anyCollection())).thenReturn(List.of(new EventStockDto(EVENT_ID, eventAvailable)));
+    }
+}
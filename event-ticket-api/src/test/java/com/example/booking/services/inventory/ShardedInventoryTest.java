@@ -0,0 +1,111 @@
+package com.example.booking.services.inventory;
+
+import com.example.booking.dto.TicketCategoryStockDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ShardedInventoryTest {
+
+    private static final Long CATEGORY_ID = 7L;
+    private static final UUID EVENT_ID = UUID.randomUUID();
+    private static final int STRIPES = 8;
+    private static final int STOCK = 1_000;
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS_PER_THREAD = 150;
+
+    @Test
+    void tryAcquire_ShouldNeverOversell_WhenManyThreadsReserveConcurrently() throws Exception {
+        ShardedInventory inventory = new ShardedInventory(STRIPES);
+        inventory.track(new TicketCategoryStockDto(CATEGORY_ID, EVENT_ID, STOCK));
+        StripedStockCounter counter = inventory.counter(CATEGORY_ID).orElseThrow();
+
+        AtomicInteger reserved = new AtomicInteger();
+        Callable<Void> buyer = () -> {
+            for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                if (counter.tryAcquire()) {
+                    reserved.incrementAndGet();
+                }
+            }
+            return null;
+        };
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            List<Future<Void>> futures = executor.invokeAll(IntStream.range(0, THREADS).mapToObj(i -> buyer).toList());
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        }
+
+        assertThat(reserved.get()).isEqualTo(STOCK);
+        assertThat(counter.available()).isZero();
+        assertThat(counter.tryAcquire()).isFalse();
+        assertThat(inventory.drainPendingDeltas())
+                .containsExactly(new StockDelta(CATEGORY_ID, EVENT_ID, -STOCK));
+    }
+
+    @Test
+    void drainPendingDeltas_ShouldReturnNetDeltaOnlyOnce_WhenReservationsAndReleasesHappened() {
+        ShardedInventory inventory = new ShardedInventory(STRIPES);
+        inventory.track(new TicketCategoryStockDto(CATEGORY_ID, EVENT_ID, 10));
+        StripedStockCounter counter = inventory.counter(CATEGORY_ID).orElseThrow();
+
+        counter.tryAcquire();
+        counter.tryAcquire();
+        counter.tryAcquire();
+        counter.release();
+
+        assertThat(counter.available()).isEqualTo(8);
+        assertThat(inventory.drainPendingDeltas()).containsExactly(new StockDelta(CATEGORY_ID, EVENT_ID, -2));
+        assertThat(inventory.drainPendingDeltas()).isEmpty();
+    }
+
+    @Test
+    void restorePendingDeltas_ShouldKeepDeltaForNextDrain_WhenFlushFailed() {
+        ShardedInventory inventory = new ShardedInventory(STRIPES);
+        inventory.track(new TicketCategoryStockDto(CATEGORY_ID, EVENT_ID, 10));
+        inventory.counter(CATEGORY_ID).orElseThrow().tryAcquire();
+
+        List<StockDelta> drained = inventory.drainPendingDeltas();
+        inventory.restorePendingDeltas(drained);
+
+        assertThat(inventory.drainPendingDeltas()).isEqualTo(drained);
+    }
+
+    @Test
+    void counter_ShouldLoadStockOnce_WhenCategoryIsNotTrackedYet() {
+        ShardedInventory inventory = new ShardedInventory(STRIPES);
+        AtomicInteger loads = new AtomicInteger();
+
+        inventory.counter(CATEGORY_ID, id -> {
+            loads.incrementAndGet();
+            return Optional.of(new TicketCategoryStockDto(id, EVENT_ID, 3));
+        });
+        var counter = inventory.counter(CATEGORY_ID, id -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(counter).isPresent();
+        assertThat(counter.get().available()).isEqualTo(3);
+    }
+
+    @Test
+    void counter_ShouldBeEmpty_WhenCategoryDoesNotExist() {
+        ShardedInventory inventory = new ShardedInventory(STRIPES);
+
+        assertThat(inventory.counter(CATEGORY_ID, id -> Optional.empty())).isEmpty();
+        assertThat(inventory.isTracked(CATEGORY_ID)).isFalse();
+    }
+}
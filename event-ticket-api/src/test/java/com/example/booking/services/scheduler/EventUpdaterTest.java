@@ -1,82 +1,102 @@
 package com.example.booking.services.scheduler;
 
-import com.example.booking.domain.entities.Event;
-import com.example.booking.domain.entities.Ticket;
+import com.example.booking.dto.TrendingEventDto;
 import com.example.booking.repositories.EventRepository;
+import com.example.booking.repositories.TicketRepository;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.UUID;
 
 import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 
 @ExtendWith(MockitoExtension.class)
 class EventUpdaterTest {
 
+    private static final UUID EVENT_1 = UUID.randomUUID();
+    private static final UUID EVENT_2 = UUID.randomUUID();
+    private static final UUID EVENT_3 = UUID.randomUUID();
+    private static final UUID EVENT_4 = UUID.randomUUID();
+    private static final int TOP_SIZE = 3;
+    private static final int WINDOW_MINUTES = 60;
+
     @Mock
     private EventRepository eventRepository;
 
-    @InjectMocks
+    @Mock
+    private TicketRepository ticketRepository;
+
     private EventUpdater eventUpdater;
 
     @Captor
-    private ArgumentCaptor<List<Event>> eventsCaptor;
+    private ArgumentCaptor<Pageable> pageableCaptor;
 
-    @Test
-    void updateEventStatuses_ShouldMarkTopThreeEventsAsTrending_WhenExecuted() {
-        LocalDateTime now = LocalDateTime.now();
-
-        Set<Ticket> ticketsForEvent1 = Stream.generate(() -> mockTicket(now.minusMinutes(10))).limit(5).collect(Collectors.toSet());
-        Set<Ticket> ticketsForEvent2 = Stream.generate(() -> mockTicket(now.minusMinutes(20))).limit(3).collect(Collectors.toSet());
-        Set<Ticket> ticketsForEvent3 = Set.of(mockTicket(now.minusHours(2)), mockTicket(now.minusMinutes(5)));
-        Set<Ticket> ticketsForEvent4 = Set.of(mockTicket(now.minusDays(1)));
+    @Captor
+    private ArgumentCaptor<Collection<UUID>> idsCaptor;
 
-        Event event1 = mock(Event.class);
-        Event event2 = mock(Event.class);
-        Event event3 = mock(Event.class);
-        Event event4 = mock(Event.class);
+    @Captor
+    private ArgumentCaptor<LocalDateTime> sinceCaptor;
 
-        when(event1.getTickets()).thenReturn(ticketsForEvent1);
-        when(event2.getTickets()).thenReturn(ticketsForEvent2);
-        when(event3.getTickets()).thenReturn(ticketsForEvent3);
-        when(event4.getTickets()).thenReturn(ticketsForEvent4);
+    @BeforeEach
+    void setUp() {
+        eventUpdater = new EventUpdater(eventRepository, ticketRepository, TOP_SIZE, WINDOW_MINUTES);
+    }
 
-        List<Event> allEvents = List.of(event1, event2, event3, event4);
-        when(eventRepository.findAll()).thenReturn(allEvents);
+    @Test
+    void updateEventStatuses_ShouldMarkTopThreeEventsAsTrending_WhenExecuted() {
+        when(ticketRepository.findTopEventsByTicketsEmittedSince(any(LocalDateTime.class), pageableCaptor.capture()))
+                .thenReturn(List.of(new TrendingEventDto(EVENT_1, 5L), new TrendingEventDto(EVENT_2, 3L), new TrendingEventDto(EVENT_3, 1L)));
+        when(eventRepository.findTrendingEventCounts()).thenReturn(List.of());
 
         eventUpdater.updateEventStatuses();
 
+        assertThat(pageableCaptor.getValue().getPageSize()).isEqualTo(TOP_SIZE);
+        verify(eventRepository).markTrending(EVENT_1, 5L);
+        verify(eventRepository).markTrending(EVENT_2, 3L);
+        verify(eventRepository).markTrending(EVENT_3, 1L);
+        verify(eventRepository, never()).unmarkTrending(any());
+        verify(eventRepository, never()).findAll();
+        verify(eventRepository, never()).saveAll(any());
+    }
 
-        verify(event1).setTrending(true);
-        verify(event2).setTrending(true);
-        verify(event3).setTrending(true);
+    @Test
+    void updateEventStatuses_ShouldOnlyWriteChangedEvents_WhenRankingShifts() {
+        when(ticketRepository.findTopEventsByTicketsEmittedSince(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(new TrendingEventDto(EVENT_1, 5L), new TrendingEventDto(EVENT_2, 4L), new TrendingEventDto(EVENT_4, 2L)));
+        when(eventRepository.findTrendingEventCounts())
+                .thenReturn(List.of(new TrendingEventDto(EVENT_1, 5L), new TrendingEventDto(EVENT_2, 3L), new TrendingEventDto(EVENT_3, 1L)));
 
-        verify(event4).setTrending(false);
+        eventUpdater.updateEventStatuses();
 
-        verify(event4, never()).setTrending(true);
+        verify(eventRepository, never()).markTrending(eq(EVENT_1), any());
+        verify(eventRepository).markTrending(EVENT_2, 4L);
+        verify(eventRepository).markTrending(EVENT_4, 2L);
+        verify(eventRepository).unmarkTrending(idsCaptor.capture());
+        assertThat(idsCaptor.getValue()).containsExactly(EVENT_3);
+    }
 
-        verify(eventRepository).saveAll(eventsCaptor.capture());
-        List<Event> savedEvents = eventsCaptor.getValue();
+    @Test
+    void updateEventStatuses_ShouldUseTheTrendingEngineSizeAndWindow_WhenTheyAreConfigured() {
+        eventUpdater = new EventUpdater(eventRepository, ticketRepository, 5, 15);
+        when(ticketRepository.findTopEventsByTicketsEmittedSince(sinceCaptor.capture(), pageableCaptor.capture())).thenReturn(List.of());
+        when(eventRepository.findTrendingEventCounts()).thenReturn(List.of());
 
-        assertThat(savedEvents)
-                .hasSize(4)
-                .containsExactlyInAnyOrder(event1, event2, event3, event4);
-    }
+        LocalDateTime before = LocalDateTime.now();
+        eventUpdater.updateEventStatuses();
 
-    private Ticket mockTicket(LocalDateTime emittedAt) {
-        Ticket ticket = mock(Ticket.class);
-        when(ticket.getEmittedAt()).thenReturn(emittedAt);
-        return ticket;
+        assertThat(pageableCaptor.getValue().getPageSize()).isEqualTo(5);
+        assertThat(sinceCaptor.getValue()).isBetween(before.minusMinutes(15), LocalDateTime.now().minusMinutes(15));
     }
-}
\ No newline at end of file
+}
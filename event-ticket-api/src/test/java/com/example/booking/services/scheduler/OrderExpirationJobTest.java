@@ -0,0 +1,46 @@
+package com.example.booking.services.scheduler;
+
+import com.example.booking.services.intefaces.OrderService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderExpirationJobTest {
+
+    private static final int BATCH_SIZE = 100;
+
+    @Mock
+    private OrderService orderService;
+
+    private OrderExpirationJob orderExpirationJob;
+
+    @BeforeEach
+    void setUp() {
+        orderExpirationJob = new OrderExpirationJob(orderService, BATCH_SIZE, 30);
+    }
+
+    @Test
+    void cleanupExpiredOrders_ShouldRunChunksUntilOneIsNotFull() {
+        when(orderService.expirePendingOrders(any(), eq(BATCH_SIZE))).thenReturn(BATCH_SIZE, BATCH_SIZE, 7);
+
+        orderExpirationJob.cleanupExpiredOrders();
+
+        verify(orderService, times(3)).expirePendingOrders(any(), eq(BATCH_SIZE));
+    }
+
+    @Test
+    void cleanupExpiredOrders_ShouldRunOneChunk_WhenNothingExpired() {
+        when(orderService.expirePendingOrders(any(), eq(BATCH_SIZE))).thenReturn(0);
+
+        orderExpirationJob.cleanupExpiredOrders();
+
+        verify(orderService, times(1)).expirePendingOrders(any(), eq(BATCH_SIZE));
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.booking.services.trending;
+
+import com.example.booking.dto.TrendingEventDto;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers
+class RedisTrendingStoreTest {
+
+    private static final UUID FIRST = UUID.randomUUID();
+    private static final UUID SECOND = UUID.randomUUID();
+    private static final UUID THIRD = UUID.randomUUID();
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>("redis:7.2.4-alpine")
+            .withExposedPorts(6379);
+
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redisTemplate;
+
+    private RedisTrendingStore store;
+
+    @BeforeAll
+    static void connect() {
+        connectionFactory = new LettuceConnectionFactory(redis.getHost(), redis.getMappedPort(6379));
+        connectionFactory.afterPropertiesSet();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void disconnect() {
+        connectionFactory.destroy();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate.getConnectionFactory().getConnection().serverCommands().flushAll();
+        store = new RedisTrendingStore(redisTemplate);
+    }
+
+    @Test
+    void top_ShouldSumTheWindowAndRankHighestFirst_WithoutStoringTheUnion() {
+        store.push(Map.of(new BucketKey(FIRST, 9), 5L, new BucketKey(SECOND, 9), 4L), 3);
+        store.push(Map.of(new BucketKey(SECOND, 10), 3L, new BucketKey(THIRD, 10), 1L), 3);
+
+        assertThat(store.top(10, 3, 2)).containsExactly(
+                new TrendingEventDto(SECOND, 7L),
+                new TrendingEventDto(FIRST, 5L));
+        assertThat(redisTemplate.keys("*")).allMatch(key -> key.startsWith(RedisTrendingStore.BUCKET_PREFIX));
+    }
+
+    @Test
+    void top_ShouldIgnoreBucketsOutsideTheWindow() {
+        store.push(Map.of(new BucketKey(FIRST, 5), 50L, new BucketKey(SECOND, 10), 1L), 3);
+
+        assertThat(store.top(10, 3, 5)).containsExactly(new TrendingEventDto(SECOND, 1L));
+    }
+}
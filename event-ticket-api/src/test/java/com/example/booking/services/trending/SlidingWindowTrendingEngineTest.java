@@ -0,0 +1,105 @@
+package com.example.booking.services.trending;
+
+import com.example.booking.dto.TrendingEventDto;
+import com.example.booking.repositories.TicketRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SlidingWindowTrendingEngineTest {
+
+    private static final int EVENTS = 2_000;
+    private static final int WRITERS = 8;
+    private static final int WINDOW_MINUTES = 60;
+
+    @Mock
+    private TicketRepository ticketRepository;
+    @Mock
+    private ObjectProvider<RedisTrendingStore> redisStoreProvider;
+    @Mock
+    private RedisTrendingStore redisStore;
+
+    private List<UUID> eventIds;
+
+    @BeforeEach
+    void setUp() {
+        eventIds = IntStream.range(0, EVENTS).mapToObj(i -> UUID.randomUUID()).toList();
+    }
+
+    @Test
+    void record_ShouldKeepEveryEmission_WhenRefreshRunsConcurrently() throws Exception {
+        SlidingWindowTrendingEngine engine = new SlidingWindowTrendingEngine(ticketRepository, redisStoreProvider, EVENTS, WINDOW_MINUTES);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(WRITERS + 1)) {
+            Future<?> refresher = executor.submit(() -> {
+                start.await();
+                while (writing.get()) {
+                    engine.refresh();
+                }
+                return null;
+            });
+
+            List<Future<?>> writers = new ArrayList<>();
+            for (int w = 0; w < WRITERS; w++) {
+                writers.add(executor.submit(() -> {
+                    start.await();
+                    eventIds.forEach(eventId -> engine.record(eventId, 1));
+                    return null;
+                }));
+            }
+
+            start.countDown();
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+            writing.set(false);
+            refresher.get();
+        }
+
+        engine.refresh();
+
+        assertThat(engine.topEvents()).hasSize(EVENTS)
+                .allSatisfy(top -> assertThat(top.ticketsEmitted()).isEqualTo(WRITERS));
+    }
+
+    @Test
+    void refresh_ShouldServeLocalRankingAndKeepDeltas_WhenRedisFails() {
+        when(redisStoreProvider.getIfAvailable()).thenReturn(redisStore);
+        SlidingWindowTrendingEngine engine = new SlidingWindowTrendingEngine(ticketRepository, redisStoreProvider, 3, WINDOW_MINUTES);
+        UUID eventId = eventIds.getFirst();
+        doThrow(new IllegalStateException("redis down")).doNothing().when(redisStore).push(anyMap(), anyInt());
+        when(redisStore.top(anyLong(), anyInt(), anyInt())).thenReturn(List.of(new TrendingEventDto(eventId, 2L)));
+
+        engine.record(eventId, 2);
+        engine.refresh();
+
+        assertThat(engine.topEvents()).containsExactly(new TrendingEventDto(eventId, 2L));
+
+        engine.refresh();
+
+        // the first push failed, so the same delta is pushed again
+        verify(redisStore, times(2)).push(argThat(deltas -> deltas.size() == 1 && deltas.containsValue(2L)), eq(WINDOW_MINUTES));
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.booking.services.trending;
+
+import com.example.booking.dto.TrendingEventDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrendingWindowTest {
+
+    private static final int WINDOW_MINUTES = 60;
+    private static final long NOW = 29_000_000L;
+    private static final UUID EVENT_1 = UUID.randomUUID();
+    private static final UUID EVENT_2 = UUID.randomUUID();
+    private static final UUID EVENT_3 = UUID.randomUUID();
+    private static final UUID EVENT_4 = UUID.randomUUID();
+
+    @Test
+    void top_ShouldRankEventsByTicketsInsideWindow_WhenSeveralEventsAreTracked() {
+        TrendingWindow window = new TrendingWindow(WINDOW_MINUTES);
+        window.add(EVENT_1, NOW, 5);
+        window.add(EVENT_2, NOW - 10, 8);
+        window.add(EVENT_3, NOW - 59, 2);
+        window.add(EVENT_4, NOW - 1, 1);
+
+        List<TrendingEventDto> top = window.top(3, NOW);
+
+        assertThat(top).containsExactly(
+                new TrendingEventDto(EVENT_2, 8L),
+                new TrendingEventDto(EVENT_1, 5L),
+                new TrendingEventDto(EVENT_3, 2L));
+    }
+
+    @Test
+    void total_ShouldIgnoreBuckets_WhenTheyFellOutOfTheWindow() {
+        TrendingWindow window = new TrendingWindow(WINDOW_MINUTES);
+        window.add(EVENT_1, NOW - WINDOW_MINUTES, 100);
+        window.add(EVENT_1, NOW - 30, 3);
+
+        assertThat(window.total(EVENT_1, NOW)).isEqualTo(3);
+    }
+
+    @Test
+    void add_ShouldReuseSlot_WhenRingWrapsAround() {
+        TrendingWindow window = new TrendingWindow(WINDOW_MINUTES);
+        window.add(EVENT_1, NOW - WINDOW_MINUTES, 100);
+        window.add(EVENT_1, NOW, 4);
+        window.add(EVENT_1, NOW - WINDOW_MINUTES, 50);
+
+        assertThat(window.total(EVENT_1, NOW)).isEqualTo(4);
+    }
+
+    @Test
+    void top_ShouldForgetEvents_WhenTheirWindowIsEmpty() {
+        TrendingWindow window = new TrendingWindow(WINDOW_MINUTES);
+        window.add(EVENT_1, NOW - 2 * WINDOW_MINUTES, 10);
+        window.add(EVENT_2, NOW, 1);
+
+        assertThat(window.top(3, NOW)).containsExactly(new TrendingEventDto(EVENT_2, 1L));
+        assertThat(window.trackedEvents()).isEqualTo(1);
+    }
+
+    @Test
+    void add_ShouldNotLoseTickets_WhenManyThreadsRecordConcurrently() throws InterruptedException {
+        TrendingWindow window = new TrendingWindow(WINDOW_MINUTES);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        for (int i = 0; i < 10_000; i++) {
+            executor.submit(() -> window.add(EVENT_1, NOW, 1));
+        }
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+
+        assertThat(window.total(EVENT_1, NOW)).isEqualTo(10_000);
+    }
+}
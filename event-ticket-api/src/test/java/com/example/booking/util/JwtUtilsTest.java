@@ -0,0 +1,81 @@
+package com.example.booking.util;
+
+import com.example.booking.config.security.UserDetailsImpl;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtUtilsTest {
+
+    private static final String SECRET = Base64.getEncoder().encodeToString("0123456789abcdef0123456789abcdef".getBytes());
+    private static final String OTHER_SECRET = Base64.getEncoder().encodeToString("fedcba9876543210fedcba9876543210".getBytes());
+
+    private JwtUtils jwtUtils;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 60000);
+        jwtUtils.init();
+    }
+
+    @Test
+    void getUserDetailsFromClaims_ShouldRebuildPrincipal_WhenTokenCarriesUserClaims() {
+        UUID userId = UUID.randomUUID();
+        UserDetailsImpl user = new UserDetailsImpl(userId, "john", "john@example.com", "secret",
+                List.of(new SimpleGrantedAuthority("ROLE_USER"), new SimpleGrantedAuthority("ROLE_MANAGER")));
+
+        Claims claims = jwtUtils.parseClaims(jwtUtils.generateTokenFromUserDetails(user)).orElseThrow();
+        UserDetailsImpl principal = jwtUtils.getUserDetailsFromClaims(claims).orElseThrow();
+
+        assertThat(principal.getId()).isEqualTo(userId);
+        assertThat(principal.getUsername()).isEqualTo("john");
+        assertThat(principal.getEmail()).isEqualTo("john@example.com");
+        assertThat(principal.getPassword()).isNull();
+        assertThat(principal.getTokenId()).isEqualTo(claims.getId()).isNotNull();
+        assertThat(principal.getAuthorities()).extracting(GrantedAuthority::getAuthority)
+                .containsExactly("ROLE_USER", "ROLE_MANAGER");
+    }
+
+    @Test
+    void getUserDetailsFromClaims_ShouldReturnEmpty_WhenTokenOnlyHasSubject() {
+        Claims claims = jwtUtils.parseClaims(jwtUtils.generateTokenFromUsername("john")).orElseThrow();
+
+        assertThat(jwtUtils.getUserDetailsFromClaims(claims)).isEmpty();
+        assertThat(claims.getSubject()).isEqualTo("john");
+    }
+
+    @Test
+    void parseClaims_ShouldReturnEmpty_WhenSignedWithAnotherKey() {
+        String forged = Jwts.builder()
+                .setSubject("john")
+                .setExpiration(new Date(System.currentTimeMillis() + 60000))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(OTHER_SECRET)), SignatureAlgorithm.HS256)
+                .compact();
+
+        assertThat(jwtUtils.parseClaims(forged)).isEmpty();
+        assertThat(jwtUtils.validateJwtToken(forged)).isFalse();
+    }
+
+    @Test
+    void parseClaims_ShouldReturnEmpty_WhenTokenIsExpired() {
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", -1000);
+
+        assertThat(jwtUtils.parseClaims(jwtUtils.generateTokenFromUsername("john"))).isEmpty();
+    }
+}
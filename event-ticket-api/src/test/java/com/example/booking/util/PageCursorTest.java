@@ -0,0 +1,65 @@
+package com.example.booking.util;
+
+import com.example.booking.exception.InvalidCursorException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PageCursorTest {
+
+    private static final UUID ID = UUID.fromString("0df1a809-b6cf-49ee-9081-78adafefef27");
+
+    @Test
+    void decode_ShouldReturnTheEncodedPosition() {
+        LocalDateTime eventDate = LocalDateTime.of(2025, 6, 1, 20, 0);
+
+        PageCursor cursor = PageCursor.decode(PageCursor.of(eventDate, ID).encode());
+
+        assertThat(cursor.id()).isEqualTo(ID);
+        assertThat(cursor.sortKeyAsDateTime()).isEqualTo(eventDate);
+    }
+
+    @Test
+    void decode_ShouldReturnNull_WhenCursorIsEmpty() {
+        assertThat(PageCursor.decode(null)).isNull();
+        assertThat(PageCursor.decode(" ")).isNull();
+    }
+
+    @Test
+    void decode_ShouldThrowInvalidCursor_WhenCursorIsMalformed() {
+        assertThatThrownBy(() -> PageCursor.decode("not a cursor!"))
+                .isInstanceOf(InvalidCursorException.class)
+                .hasMessageContaining("not a cursor!");
+        assertThatThrownBy(() -> PageCursor.decode(encode("no-separator")))
+                .isInstanceOf(InvalidCursorException.class);
+        assertThatThrownBy(() -> PageCursor.decode(encode("100|not-a-uuid")))
+                .isInstanceOf(InvalidCursorException.class);
+    }
+
+    @Test
+    void sortKey_ShouldThrowInvalidCursor_WhenItDoesNotMatchTheListingSortColumn() {
+        PageCursor cursor = PageCursor.decode(encode("cheap|" + ID));
+
+        assertThatThrownBy(cursor::sortKeyAsDecimal).isInstanceOf(InvalidCursorException.class);
+        assertThatThrownBy(cursor::sortKeyAsDateTime).isInstanceOf(InvalidCursorException.class);
+    }
+
+    @Test
+    void sortKeyAsDecimal_ShouldKeepTheScaleOfThePrice() {
+        PageCursor cursor = PageCursor.decode(PageCursor.of(new BigDecimal("99.90"), ID).encode());
+
+        assertThat(cursor.sortKeyAsDecimal()).isEqualByComparingTo("99.90");
+        assertThat(cursor.sortKeyAsDecimal().scale()).isEqualTo(2);
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
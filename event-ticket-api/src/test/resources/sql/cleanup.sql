@@ -7,7 +7,9 @@ TRUNCATE TABLE
     tb_ticket_category,
     tb_orders,
     tb_users,
-    tb_events
+    tb_events,
+    tb_outbox_messages,
+    tb_processed_messages
 RESTART IDENTITY CASCADE;
 
 SET CONSTRAINTS ALL IMMEDIATE;
@@ -0,0 +1,41 @@
+package com.br.recomendation.recomendation.services;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DistanceBenchmark {
+
+    private static final int POINTS = 1024;
+
+    private final double[] latitudes = new double[POINTS];
+    private final double[] longitudes = new double[POINTS];
+
+    private RecommendationService recommendationService;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        recommendationService = new RecommendationService(null, null, 0, 0);
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < POINTS; i++) {
+            latitudes[i] = random.nextDouble(-33.0, 5.0);
+            longitudes[i] = random.nextDouble(-73.0, -35.0);
+        }
+    }
+
+    @Benchmark
+    public double calculateDistanceInKilometers() {
+        int i = next++ & (POINTS - 1);
+        int j = (i + 1) & (POINTS - 1);
+        return recommendationService.calculateDistanceInKilometers(latitudes[i], longitudes[i], latitudes[j], longitudes[j]);
+    }
+}
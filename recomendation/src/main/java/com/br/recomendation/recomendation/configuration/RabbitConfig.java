@@ -1,7 +1,11 @@
 package com.br.recomendation.recomendation.configuration;
 
 import org.springframework.amqp.core.*;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -15,11 +19,50 @@ public class RabbitConfig {
     public static final String DLQ_QUEUE = "booking-dlq";
     public static final String DLQ_EXCHANGE = "booking-dlx";
 
+    public static final String BATCH_LISTENER_FACTORY = "batchListenerContainerFactory";
+
     @Bean
     Jackson2JsonMessageConverter jackson2JsonMessageConverter() {
         return new Jackson2JsonMessageConverter();
     }
 
+    /**
+     * Delivers up to {@code batch-size} messages per listener call, waiting at most {@code receive-timeout-ms}
+     * for a batch to fill. Acks are manual so each message can be acked or dead-lettered on its own.
+     */
+    @Bean(BATCH_LISTENER_FACTORY)
+    SimpleRabbitListenerContainerFactory batchListenerContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory,
+            @Value("${recommendation.ingest.batch-size:100}") int batchSize,
+            @Value("${recommendation.ingest.receive-timeout-ms:500}") long receiveTimeoutMs) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
+        factory.setReceiveTimeout(receiveTimeoutMs);
+        factory.setPrefetchCount(Math.max(batchSize, 250));
+        factory.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+        factory.setDefaultRequeueRejected(false);
+        return factory;
+    }
+
+    @Bean
+    Queue deadLetterQueue() {
+        return QueueBuilder.durable(DLQ_QUEUE).build();
+    }
+
+    @Bean
+    FanoutExchange deadLetterExchange() {
+        return new FanoutExchange(DLQ_EXCHANGE);
+    }
+
+    @Bean
+    Binding deadLetterBinding() {
+        return BindingBuilder.bind(deadLetterQueue()).to(deadLetterExchange());
+    }
+
     @Bean
     Queue eventRequestQueue() {
         return QueueBuilder.durable(QUEUE_NAME)
@@ -39,4 +82,4 @@ public class RabbitConfig {
                 .to(eventRequestExchange())
                 .with(ROUTING_KEY);
     }
-}
\ No newline at end of file
+}
@@ -1,11 +1,28 @@
 package com.br.recomendation.recomendation.consumer;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.dao.DataAccessResourceFailureException;
 import org.springframework.stereotype.Component;
 
+import com.br.recomendation.recomendation.configuration.RabbitConfig;
 import com.br.recomendation.recomendation.services.RecommendationService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rabbitmq.client.Channel;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 
 @Component
 public class EventRequestConsumer {
@@ -14,23 +31,108 @@ public class EventRequestConsumer {
     private static final String EVENT_REQUEST_QUEUE = "event-request-queue";
 
     private final RecommendationService service;
+    private final ObjectMapper objectMapper;
+
+    private final Timer batchTimer;
+    private final DistributionSummary batchSize;
+    private final Counter stored;
+    private final Counter deadLettered;
+    private final Counter requeued;
 
-    public EventRequestConsumer(RecommendationService service) {
+    public EventRequestConsumer(RecommendationService service, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
         this.service = service;
+        this.objectMapper = objectMapper;
+        this.batchTimer = Timer.builder("recommendation.ingest.batch")
+                .description("Time to store one batch of event requests")
+                .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("recommendation.ingest.batch.size")
+                .description("Event requests per batch")
+                .register(meterRegistry);
+        this.stored = meterRegistry.counter("recommendation.ingest.messages", "outcome", "stored");
+        this.deadLettered = meterRegistry.counter("recommendation.ingest.messages", "outcome", "dead_lettered");
+        this.requeued = meterRegistry.counter("recommendation.ingest.messages", "outcome", "requeued");
     }
 
-    @RabbitListener(queues = { EVENT_REQUEST_QUEUE })
-    public void receiveMessage(EventRequestDto message) {
+    /**
+     * Stores a batch with one bulk upsert. If the upsert fails the batch is split in halves until the failing
+     * messages are isolated; only those are dead-lettered. Upserts are idempotent, so retrying the halves is safe.
+     * When Mongo is unreachable the whole batch is requeued instead.
+     */
+    @RabbitListener(queues = { EVENT_REQUEST_QUEUE }, containerFactory = RabbitConfig.BATCH_LISTENER_FACTORY)
+    public void receiveMessages(List<Message> messages, Channel channel) throws IOException {
+        if (messages.isEmpty()) {
+            return;
+        }
+
+        long startedAt = System.nanoTime();
+        long lastTag = messages.get(messages.size() - 1).getMessageProperties().getDeliveryTag();
+
+        List<Delivery> deliveries = new ArrayList<>(messages.size());
+        Set<Long> rejectedTags = new HashSet<>();
+        for (Message message : messages) {
+            long tag = message.getMessageProperties().getDeliveryTag();
+            try {
+                deliveries.add(new Delivery(tag, objectMapper.readValue(message.getBody(), EventRequestDto.class)));
+            } catch (IOException e) {
+                log.error("Unreadable message from queue [{}]. Payload: {}. Error: {}",
+                        EVENT_REQUEST_QUEUE, new String(message.getBody()), e.getMessage());
+                rejectedTags.add(tag);
+            }
+        }
+
         try {
-            log.info("Received message from queue [{}]. Payload: {}", EVENT_REQUEST_QUEUE, message);
+            saveOrSplit(deliveries, rejectedTags);
+        } catch (DataAccessResourceFailureException e) {
+            log.warn("Mongo unavailable, requeueing {} messages from queue [{}]: {}", messages.size(), EVENT_REQUEST_QUEUE, e.getMessage());
+            channel.basicNack(lastTag, true, true);
+            requeued.increment(messages.size());
+            return;
+        }
 
-            service.saveEventData(message);
+        if (rejectedTags.isEmpty()) {
+            channel.basicAck(lastTag, true);
+        } else {
+            for (Message message : messages) {
+                long tag = message.getMessageProperties().getDeliveryTag();
+                if (rejectedTags.contains(tag)) {
+                    channel.basicNack(tag, false, false);
+                } else {
+                    channel.basicAck(tag, false);
+                }
+            }
+        }
+
+        batchSize.record(messages.size());
+        stored.increment(messages.size() - rejectedTags.size());
+        deadLettered.increment(rejectedTags.size());
+        batchTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        log.info("Processed batch from queue [{}]. Stored: {}, dead-lettered: {}",
+                EVENT_REQUEST_QUEUE, messages.size() - rejectedTags.size(), rejectedTags.size());
+    }
+
+    private void saveOrSplit(List<Delivery> deliveries, Set<Long> rejectedTags) {
+        if (deliveries.isEmpty()) {
+            return;
+        }
 
-            log.info("Successfully processed event request for payload: {}", message);
+        try {
+            service.saveEventDataBatch(deliveries.stream().map(Delivery::request).toList());
+        } catch (DataAccessResourceFailureException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            if (deliveries.size() == 1) {
+                log.error("Failed to store event request, dead-lettering it. Payload: {}. Error: {}",
+                        deliveries.get(0).request(), e.getMessage(), e);
+                rejectedTags.add(deliveries.get(0).tag());
+                return;
+            }
 
-        } catch (Exception e) {
-            log.error("Failed to process message from queue [{}]. Payload: {}. Error: {}",
-                    EVENT_REQUEST_QUEUE, message, e.getMessage(), e);
+            int middle = deliveries.size() / 2;
+            saveOrSplit(deliveries.subList(0, middle), rejectedTags);
+            saveOrSplit(deliveries.subList(middle, deliveries.size()), rejectedTags);
         }
     }
-}
\ No newline at end of file
+
+    private record Delivery(long tag, EventRequestDto request) {
+    }
+}
@@ -1,7 +1,8 @@
 package com.br.recomendation.recomendation.consumer;
 
+import java.time.LocalDateTime;
 import java.util.UUID;
 
-public record EventRequestDto(UUID eventId, Double latitude, Double longitude) {
+public record EventRequestDto(UUID eventId, Double latitude, Double longitude, LocalDateTime eventDate) {
     
 }
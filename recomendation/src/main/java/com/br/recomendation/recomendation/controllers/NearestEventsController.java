@@ -27,7 +27,7 @@ public class NearestEventsController {
 
     @Operation(
             summary = "Find nearest events",
-            description = "Returns a list of event IDs that are within a specified radius (in kilometers) of a given event.",
+            description = "Returns a page of event IDs that are within a specified radius (in kilometers) of a given event, nearest first.",
             responses = {
                     @ApiResponse(responseCode = "200", description = "Successfully retrieved the list of nearest event IDs."),
                     @ApiResponse(responseCode = "404", description = "The specified source event ID was not found.")
@@ -47,9 +47,63 @@ public class NearestEventsController {
                     required = true,
                     example = "50.0"
             )
-            @RequestParam(name = "radius") Double radius
+            @RequestParam(name = "radius") Double radius,
+
+            @Parameter(description = "Page number, nearest events first.", example = "0")
+            @RequestParam(name = "page", defaultValue = "0") int page,
+
+            @Parameter(description = "Page size, capped by recommendation.nearest.max-results.", example = "50")
+            @RequestParam(name = "size", defaultValue = "50") int size
+    ) {
+        List<UUID> ids = service.getNearestEventIds(radius, eventId, page, size);
+        return ResponseEntity.ok(ids);
+    }
+
+    @Operation(
+            summary = "Find the k nearest events",
+            description = "Returns the IDs of the k events closest to a given event, nearest first, regardless of distance.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Successfully retrieved the nearest event IDs."),
+                    @ApiResponse(responseCode = "404", description = "The specified source event ID was not found.")
+            }
+    )
+    @GetMapping("/k-nearest-events")
+    public ResponseEntity<List<UUID>> getKNearestEvents(
+            @Parameter(
+                    description = "The ID of the source event.",
+                    required = true,
+                    example = "0df1a809-b6cf-49ee-9081-78adafefef27"
+            )
+            @RequestParam(name = "event_id") UUID eventId,
+
+            @Parameter(description = "Number of events to return, capped by recommendation.nearest.max-results.", example = "10")
+            @RequestParam(name = "k", defaultValue = "10") int k
+    ) {
+        List<UUID> ids = service.getKNearestEventIds(eventId, k);
+        return ResponseEntity.ok(ids);
+    }
+
+    @Operation(
+            summary = "Find recommended events",
+            description = "Returns the IDs of the k best upcoming events for a given event, ranked by distance and by how soon they start.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Successfully retrieved the ranked event IDs."),
+                    @ApiResponse(responseCode = "404", description = "The specified source event ID was not found.")
+            }
+    )
+    @GetMapping("/ranked-events")
+    public ResponseEntity<List<UUID>> getRankedEvents(
+            @Parameter(
+                    description = "The ID of the source event.",
+                    required = true,
+                    example = "0df1a809-b6cf-49ee-9081-78adafefef27"
+            )
+            @RequestParam(name = "event_id") UUID eventId,
+
+            @Parameter(description = "Number of events to return, capped by recommendation.nearest.max-results.", example = "10")
+            @RequestParam(name = "k", defaultValue = "10") int k
     ) {
-        List<UUID> ids = service.getNearestEventIds(radius, eventId);
+        List<UUID> ids = service.getRankedEventIds(eventId, k);
         return ResponseEntity.ok(ids);
     }
 }
\ No newline at end of file
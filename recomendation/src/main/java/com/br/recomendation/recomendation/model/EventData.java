@@ -1,8 +1,12 @@
 package com.br.recomendation.recomendation.model;
 
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.core.index.GeoSpatialIndexType;
+import org.springframework.data.mongodb.core.index.GeoSpatialIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Document(collection = "events")
@@ -13,10 +17,21 @@ public class EventData {
     private Double latitude;
     private Double longitude;
 
+    @GeoSpatialIndexed(type = GeoSpatialIndexType.GEO_2DSPHERE)
+    private GeoJsonPoint location;
+
+    private LocalDateTime eventDate;
+
     public EventData(UUID eventid, Double latitude, Double longitude) {
+        this(eventid, latitude, longitude, null);
+    }
+
+    public EventData(UUID eventid, Double latitude, Double longitude, LocalDateTime eventDate) {
         this.eventid = eventid;
         this.latitude = latitude;
         this.longitude = longitude;
+        this.eventDate = eventDate;
+        updateLocation();
     }
 
     public EventData() {
@@ -36,6 +51,7 @@ public class EventData {
 
     public void setLatitude(Double latitude) {
         this.latitude = latitude;
+        updateLocation();
     }
 
     public Double getLongitude() {
@@ -44,6 +60,30 @@ public class EventData {
 
     public void setLongitude(Double longitude) {
         this.longitude = longitude;
+        updateLocation();
+    }
+
+    public GeoJsonPoint getLocation() {
+        return location;
+    }
+
+    public void setLocation(GeoJsonPoint location) {
+        this.location = location;
+    }
+
+    public LocalDateTime getEventDate() {
+        return eventDate;
+    }
+
+    public void setEventDate(LocalDateTime eventDate) {
+        this.eventDate = eventDate;
+    }
+
+    /**
+     * GeoJSON points are (longitude, latitude); events without coordinates get no point and never match geo queries.
+     */
+    private void updateLocation() {
+        this.location = latitude != null && longitude != null ? new GeoJsonPoint(longitude, latitude) : null;
     }
     
 }
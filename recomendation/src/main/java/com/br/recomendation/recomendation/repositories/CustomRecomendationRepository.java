@@ -0,0 +1,13 @@
+package com.br.recomendation.recomendation.repositories;
+
+import java.util.Collection;
+
+import com.br.recomendation.recomendation.model.EventData;
+
+public interface CustomRecomendationRepository {
+
+    /**
+     * Inserts or replaces the events by id in a single unordered {@code bulkWrite}.
+     */
+    void upsertAll(Collection<EventData> events);
+}
@@ -0,0 +1,33 @@
+package com.br.recomendation.recomendation.repositories;
+
+import java.util.Collection;
+
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.br.recomendation.recomendation.model.EventData;
+
+public class CustomRecomendationRepositoryImpl implements CustomRecomendationRepository {
+
+    private final MongoTemplate mongoTemplate;
+
+    public CustomRecomendationRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public void upsertAll(Collection<EventData> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, EventData.class);
+        for (EventData event : events) {
+            bulk.replaceOne(Query.query(Criteria.where("_id").is(event.getEventid())), event, FindAndReplaceOptions.options().upsert());
+        }
+        bulk.execute();
+    }
+}
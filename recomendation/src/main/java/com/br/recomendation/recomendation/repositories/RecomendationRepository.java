@@ -1,11 +1,26 @@
 package com.br.recomendation.recomendation.repositories;
 
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 
 import com.br.recomendation.recomendation.model.EventData;
 
-public interface RecomendationRepository extends MongoRepository<EventData, UUID>{
-    
+public interface RecomendationRepository extends MongoRepository<EventData, UUID>, CustomRecomendationRepository {
+
+    /**
+     * Events within {@code maxDistanceMeters} of the point, nearest first, served by the 2dsphere index on {@code location}.
+     * Only the fields needed to rank them are loaded.
+     */
+    @Query(value = "{ 'location': { $nearSphere: { $geometry: { type: 'Point', coordinates: [?0, ?1] }, $maxDistance: ?2 } }, '_id': { $ne: ?3 } }",
+            fields = "{ '_id': 1, 'latitude': 1, 'longitude': 1, 'eventDate': 1 }")
+    List<EventData> findNearest(double longitude, double latitude, double maxDistanceMeters, UUID excludedId, Pageable pageable);
+
+    List<EventData> findByLocationIsNullAndLatitudeIsNotNullAndLongitudeIsNotNull();
+
+    Stream<EventData> streamAllBy();
 }
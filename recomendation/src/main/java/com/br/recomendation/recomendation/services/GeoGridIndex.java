@@ -0,0 +1,575 @@
+package com.br.recomendation.recomendation.services;
+
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.br.recomendation.recomendation.model.EventData;
+
+/**
+ * In-process spatial index that buckets events into fixed latitude/longitude cells, like a geohash grid.
+ * Coordinates, dates and ids live in primitive arrays (about 90 bytes per event, no per-event objects), and a query
+ * only visits the cells around the point, so radius and k-nearest lookups cost O(events nearby).
+ * Reads share a lock; the single consumer thread and the periodic rebuild take it exclusively. Changes made while a
+ * rebuild streams its snapshot are recorded and replayed onto the rebuilt grid before it is published.
+ */
+@Component
+public class GeoGridIndex {
+
+    /**
+     * Event time of events whose date is unknown.
+     */
+    public static final long NO_DATE = Long.MIN_VALUE;
+
+    private static final double SECONDS_PER_DAY = 86_400;
+
+    private final double cellDegrees;
+    private final int latCells;
+    private final int lonCells;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private Storage storage = new Storage();
+    // non-null while a rebuild runs, guarded by the write lock
+    private List<Consumer<Storage>> pendingChanges;
+
+    public GeoGridIndex(@Value("${recommendation.grid.cell-degrees:0.1}") double cellDegrees) {
+        this.cellDegrees = cellDegrees;
+        this.latCells = (int) Math.ceil(180 / cellDegrees) + 1;
+        this.lonCells = (int) Math.ceil(360 / cellDegrees);
+    }
+
+    public void put(UUID eventId, double latitude, double longitude) {
+        put(eventId, latitude, longitude, NO_DATE);
+    }
+
+    /**
+     * Indexes an event, {@code eventTime} being its start in epoch seconds or {@link #NO_DATE}.
+     */
+    public void put(UUID eventId, double latitude, double longitude, long eventTime) {
+        lock.writeLock().lock();
+        try {
+            storage.put(eventId, latitude, longitude, eventTime);
+            if (pendingChanges != null) {
+                pendingChanges.add(rebuilt -> rebuilt.put(eventId, latitude, longitude, eventTime));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(UUID eventId) {
+        lock.writeLock().lock();
+        try {
+            storage.remove(eventId);
+            if (pendingChanges != null) {
+                pendingChanges.add(rebuilt -> rebuilt.remove(eventId));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Builds a fresh index from the events and swaps it in, so readers never see a half-loaded grid. Recording of
+     * concurrent changes starts before {@code source} is opened, so a put or remove the snapshot misses is replayed.
+     */
+    public void replaceAll(Supplier<Stream<EventData>> source) {
+        rebuildLock.lock();
+        try {
+            rebuild(source);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void rebuild(Supplier<Stream<EventData>> source) {
+        lock.writeLock().lock();
+        try {
+            pendingChanges = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Storage rebuilt = new Storage();
+        try (Stream<EventData> events = source.get()) {
+            events.filter(event -> event.getLatitude() != null && event.getLongitude() != null)
+                    .forEach(event -> rebuilt.put(event.getEventid(), event.getLatitude(), event.getLongitude(), epochSecond(event)));
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingChanges = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            pendingChanges.forEach(change -> change.accept(rebuilt));
+            pendingChanges = null;
+            storage = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns {latitude, longitude} of an indexed event.
+     */
+    public Optional<double[]> find(UUID eventId) {
+        lock.readLock().lock();
+        try {
+            int slot = storage.slots.get(eventId.getMostSignificantBits(), eventId.getLeastSignificantBits());
+            return slot < 0 ? Optional.empty() : Optional.of(new double[]{storage.latitudes[slot], storage.longitudes[slot]});
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return storage.count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Events within {@code radiusKm} of the point, nearest first, skipping {@code excludedId}.
+     */
+    public List<UUID> findWithinRadius(double latitude, double longitude, double radiusKm, UUID excludedId, int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            Storage current = storage;
+            List<Neighbour> neighbours = new ArrayList<>();
+
+            for (IntBag cell : cellsCovering(current, latitude, longitude, radiusKm)) {
+                for (int i = 0; i < cell.size; i++) {
+                    int slot = cell.items[i];
+                    if (!current.isSlot(slot, excludedId)) {
+                        double distance = GeoDistance.kilometers(latitude, longitude, current.latitudes[slot], current.longitudes[slot]);
+                        if (distance <= radiusKm) {
+                            neighbours.add(new Neighbour(slot, distance));
+                        }
+                    }
+                }
+            }
+
+            return neighbours.stream()
+                    .sorted(Comparator.comparingDouble(Neighbour::score))
+                    .skip(offset)
+                    .limit(limit)
+                    .map(neighbour -> current.idAt(neighbour.slot()))
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The {@code k} events nearest to the point, nearest first.
+     */
+    public List<UUID> findNearest(double latitude, double longitude, int k, UUID excludedId) {
+        return findTop(latitude, longitude, k, excludedId, (current, slot, distanceKm) -> distanceKm);
+    }
+
+    /**
+     * The {@code k} best upcoming events for the point, ranked by distance plus {@code kmPerDay} for every day
+     * until the event starts, so a nearby event next week can outrank a closer one months away. Events that
+     * already started are skipped; events without a date are ranked by distance alone.
+     */
+    public List<UUID> findRanked(double latitude, double longitude, int k, UUID excludedId, long now, double kmPerDay) {
+        return findTop(latitude, longitude, k, excludedId, (current, slot, distanceKm) -> {
+            long eventTime = current.eventTimes[slot];
+            if (eventTime == NO_DATE) {
+                return distanceKm;
+            }
+            return eventTime < now ? Double.POSITIVE_INFINITY : distanceKm + kmPerDay * (eventTime - now) / SECONDS_PER_DAY;
+        });
+    }
+
+    /**
+     * Top {@code k} events by score, lowest first. Cells are visited in growing rings around the point and the
+     * search stops once no unvisited cell can hold anything scoring below the current k-th result, which holds
+     * as long as a score is never lower than the event's distance.
+     */
+    private List<UUID> findTop(double latitude, double longitude, int k, UUID excludedId, Scorer scorer) {
+        if (k <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Storage current = storage;
+            PriorityQueue<Neighbour> top = new PriorityQueue<>(Comparator.comparingDouble(Neighbour::score).reversed());
+
+            int originLat = latCell(latitude);
+            int originLon = lonCell(longitude);
+            int visited = 0;
+
+            for (int ring = 0; ; ring++) {
+                if (2 * ring + 1 > lonCells || visited > current.cells.size()) {
+                    // the rings would cover the whole grid anyway: a plain scan is cheaper
+                    top.clear();
+                    for (int slot = 0; slot < current.highWater; slot++) {
+                        if (current.isLive(slot)) {
+                            offer(current, top, k, slot, latitude, longitude, excludedId, scorer);
+                        }
+                    }
+                    break;
+                }
+
+                for (int dLat = -ring; dLat <= ring; dLat++) {
+                    int lat = originLat + dLat;
+                    if (lat < 0 || lat >= latCells) {
+                        continue;
+                    }
+                    int step = Math.abs(dLat) == ring ? 1 : 2 * ring;
+                    for (int dLon = -ring; dLon <= ring; dLon += Math.max(step, 1)) {
+                        IntBag cell = current.cells.get(key(lat, Math.floorMod(originLon + dLon, lonCells)));
+                        visited++;
+                        if (cell != null) {
+                            for (int i = 0; i < cell.size; i++) {
+                                offer(current, top, k, cell.items[i], latitude, longitude, excludedId, scorer);
+                            }
+                        }
+                    }
+                }
+
+                if (top.size() == k && minDistanceBeyondRing(latitude, ring) > top.peek().score()) {
+                    break;
+                }
+                if (originLat - ring <= 0 && originLat + ring >= latCells - 1 && 2 * ring + 1 >= lonCells) {
+                    break;
+                }
+            }
+
+            List<Neighbour> ordered = new ArrayList<>(top);
+            ordered.sort(Comparator.comparingDouble(Neighbour::score));
+            return ordered.stream().map(neighbour -> current.idAt(neighbour.slot())).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void offer(Storage storage, PriorityQueue<Neighbour> top, int k, int slot,
+                              double latitude, double longitude, UUID excludedId, Scorer scorer) {
+        if (storage.isSlot(slot, excludedId)) {
+            return;
+        }
+
+        double distance = GeoDistance.kilometers(latitude, longitude, storage.latitudes[slot], storage.longitudes[slot]);
+        double score = scorer.score(storage, slot, distance);
+        if (score == Double.POSITIVE_INFINITY) {
+            return;
+        }
+
+        if (top.size() < k) {
+            top.add(new Neighbour(slot, score));
+        } else if (score < top.peek().score()) {
+            top.poll();
+            top.add(new Neighbour(slot, score));
+        }
+    }
+
+    /**
+     * Lower bound for the distance from the point to any cell outside the first {@code ring} rings.
+     * Uses the narrowest longitude cell in the band and the 2/pi chord factor so it never overestimates.
+     */
+    private double minDistanceBeyondRing(double latitude, int ring) {
+        double maxAbsLatitude = Math.min(90, Math.abs(latitude) + (ring + 1) * cellDegrees);
+        double degrees = ring * cellDegrees;
+        return (2 / Math.PI) * GeoDistance.EARTH_RADIUS_KM * Math.toRadians(degrees) * Math.cos(Math.toRadians(maxAbsLatitude));
+    }
+
+    private List<IntBag> cellsCovering(Storage current, double latitude, double longitude, double radiusKm) {
+        double latDelta = Math.toDegrees(radiusKm / GeoDistance.EARTH_RADIUS_KM);
+        double maxAbsLatitude = Math.abs(latitude) + latDelta;
+
+        int minLatCell = latCell(Math.max(latitude - latDelta, -90));
+        int maxLatCell = latCell(Math.min(latitude + latDelta, 90));
+
+        // near a pole every longitude is in range; elsewhere the span may wrap around the antimeridian
+        int firstLonCell = 0;
+        int lonSpan = lonCells;
+        if (maxAbsLatitude < 90) {
+            double lonDelta = latDelta / Math.cos(Math.toRadians(maxAbsLatitude));
+            firstLonCell = (int) Math.floor((longitude - lonDelta + 180) / cellDegrees);
+            int lastLonCell = (int) Math.floor((longitude + lonDelta + 180) / cellDegrees);
+            lonSpan = Math.min(lonCells, lastLonCell - firstLonCell + 1);
+        }
+
+        long cellCount = (long) (maxLatCell - minLatCell + 1) * lonSpan;
+        if (cellCount > current.cells.size()) {
+            return List.copyOf(current.cells.values());
+        }
+
+        List<IntBag> covering = new ArrayList<>();
+        for (int lat = minLatCell; lat <= maxLatCell; lat++) {
+            for (int i = 0; i < lonSpan; i++) {
+                IntBag cell = current.cells.get(key(lat, Math.floorMod(firstLonCell + i, lonCells)));
+                if (cell != null) {
+                    covering.add(cell);
+                }
+            }
+        }
+        return covering;
+    }
+
+    private int latCell(double latitude) {
+        return (int) Math.floor((latitude + 90) / cellDegrees);
+    }
+
+    private int lonCell(double longitude) {
+        return Math.floorMod((int) Math.floor((longitude + 180) / cellDegrees), lonCells);
+    }
+
+    private static long key(int latCell, int lonCell) {
+        return ((long) latCell << 32) | (lonCell & 0xffffffffL);
+    }
+
+    private static long epochSecond(EventData event) {
+        return event.getEventDate() == null ? NO_DATE : event.getEventDate().toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private interface Scorer {
+        /**
+         * Score of the event in {@code slot}, never below {@code distanceKm}; positive infinity skips it.
+         */
+        double score(Storage storage, int slot, double distanceKm);
+    }
+
+    private record Neighbour(int slot, double score) {
+    }
+
+    /**
+     * Column storage: slot i holds one event. Freed slots are reused so the arrays only grow with the live count.
+     */
+    private final class Storage {
+
+        private double[] latitudes = new double[1024];
+        private double[] longitudes = new double[1024];
+        private long[] idHigh = new long[1024];
+        private long[] idLow = new long[1024];
+        private long[] cellKeys = new long[1024];
+        private long[] eventTimes = new long[1024];
+
+        private final IntBag freeSlots = new IntBag();
+        private final SlotTable slots = new SlotTable();
+        private final Map<Long, IntBag> cells = new HashMap<>();
+
+        private int highWater;
+        private int count;
+
+        void put(UUID eventId, double latitude, double longitude, long eventTime) {
+            long high = eventId.getMostSignificantBits();
+            long low = eventId.getLeastSignificantBits();
+            long cellKey = key(latCell(latitude), lonCell(longitude));
+
+            int slot = slots.get(high, low);
+            if (slot >= 0) {
+                if (cellKeys[slot] != cellKey) {
+                    cells.get(cellKeys[slot]).removeValue(slot);
+                    removeEmptyCell(cellKeys[slot]);
+                    cells.computeIfAbsent(cellKey, ignored -> new IntBag()).add(slot);
+                }
+            } else {
+                slot = freeSlots.size > 0 ? freeSlots.pop() : highWater++;
+                ensureCapacity(slot + 1);
+                idHigh[slot] = high;
+                idLow[slot] = low;
+                slots.put(high, low, slot);
+                cells.computeIfAbsent(cellKey, ignored -> new IntBag()).add(slot);
+                count++;
+            }
+
+            latitudes[slot] = latitude;
+            longitudes[slot] = longitude;
+            cellKeys[slot] = cellKey;
+            eventTimes[slot] = eventTime;
+        }
+
+        void remove(UUID eventId) {
+            int slot = slots.remove(eventId.getMostSignificantBits(), eventId.getLeastSignificantBits());
+            if (slot < 0) {
+                return;
+            }
+
+            cells.get(cellKeys[slot]).removeValue(slot);
+            removeEmptyCell(cellKeys[slot]);
+            idHigh[slot] = 0;
+            idLow[slot] = 0;
+            freeSlots.add(slot);
+            count--;
+        }
+
+        boolean isLive(int slot) {
+            return slots.get(idHigh[slot], idLow[slot]) == slot;
+        }
+
+        boolean isSlot(int slot, UUID eventId) {
+            return eventId != null
+                    && idHigh[slot] == eventId.getMostSignificantBits()
+                    && idLow[slot] == eventId.getLeastSignificantBits();
+        }
+
+        UUID idAt(int slot) {
+            return new UUID(idHigh[slot], idLow[slot]);
+        }
+
+        private void removeEmptyCell(long cellKey) {
+            if (cells.get(cellKey).size == 0) {
+                cells.remove(cellKey);
+            }
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity > latitudes.length) {
+                int grown = Math.max(capacity, latitudes.length * 2);
+                latitudes = Arrays.copyOf(latitudes, grown);
+                longitudes = Arrays.copyOf(longitudes, grown);
+                idHigh = Arrays.copyOf(idHigh, grown);
+                idLow = Arrays.copyOf(idLow, grown);
+                cellKeys = Arrays.copyOf(cellKeys, grown);
+                eventTimes = Arrays.copyOf(eventTimes, grown);
+            }
+        }
+    }
+
+    /**
+     * Growable int array used for cell members and the free-slot stack.
+     */
+    private static final class IntBag {
+
+        private int[] items = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size * 2);
+            }
+            items[size++] = value;
+        }
+
+        int pop() {
+            return items[--size];
+        }
+
+        void removeValue(int value) {
+            for (int i = 0; i < size; i++) {
+                if (items[i] == value) {
+                    items[i] = items[--size];
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Open-addressing map from a UUID (as two longs) to its slot, with linear probing and backward-shift deletion.
+     */
+    private static final class SlotTable {
+
+        private long[] keyHigh = new long[2048];
+        private long[] keyLow = new long[2048];
+        private int[] values = new int[2048];
+        private int size;
+
+        int get(long high, long low) {
+            int mask = values.length - 1;
+            for (int i = index(high, low, mask); values[i] != 0; i = (i + 1) & mask) {
+                if (keyHigh[i] == high && keyLow[i] == low) {
+                    return values[i] - 1;
+                }
+            }
+            return -1;
+        }
+
+        void put(long high, long low, int slot) {
+            if ((size + 1) * 2 > values.length) {
+                resize();
+            }
+
+            int mask = values.length - 1;
+            int i = index(high, low, mask);
+            while (values[i] != 0 && !(keyHigh[i] == high && keyLow[i] == low)) {
+                i = (i + 1) & mask;
+            }
+            if (values[i] == 0) {
+                size++;
+            }
+            keyHigh[i] = high;
+            keyLow[i] = low;
+            values[i] = slot + 1;
+        }
+
+        int remove(long high, long low) {
+            int mask = values.length - 1;
+            int i = index(high, low, mask);
+            while (values[i] != 0 && !(keyHigh[i] == high && keyLow[i] == low)) {
+                i = (i + 1) & mask;
+            }
+            if (values[i] == 0) {
+                return -1;
+            }
+
+            int removed = values[i] - 1;
+            size--;
+
+            // shift back the entries that probed past the freed bucket
+            int gap = i;
+            for (int j = (gap + 1) & mask; values[j] != 0; j = (j + 1) & mask) {
+                int home = index(keyHigh[j], keyLow[j], mask);
+                if (((j - home) & mask) >= ((j - gap) & mask)) {
+                    keyHigh[gap] = keyHigh[j];
+                    keyLow[gap] = keyLow[j];
+                    values[gap] = values[j];
+                    gap = j;
+                }
+            }
+            values[gap] = 0;
+
+            return removed;
+        }
+
+        private void resize() {
+            long[] oldHigh = keyHigh;
+            long[] oldLow = keyLow;
+            int[] oldValues = values;
+
+            keyHigh = new long[oldValues.length * 2];
+            keyLow = new long[oldValues.length * 2];
+            values = new int[oldValues.length * 2];
+            size = 0;
+
+            for (int i = 0; i < oldValues.length; i++) {
+                if (oldValues[i] != 0) {
+                    put(oldHigh[i], oldLow[i], oldValues[i] - 1);
+                }
+            }
+        }
+
+        private static int index(long high, long low, int mask) {
+            long hash = (high ^ low) * 0x9E3779B97F4A7C15L;
+            return (int) (hash ^ (hash >>> 32)) & mask;
+        }
+    }
+}
@@ -1,9 +1,24 @@
 package com.br.recomendation.recomendation.services;
 
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
 import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
@@ -14,51 +29,192 @@ import com.br.recomendation.recomendation.repositories.RecomendationRepository;
 
 @Service
 public class RecommendationService {
-    
+
+    private static final Logger log = LoggerFactory.getLogger(RecommendationService.class);
+
+    // half of the Earth's circumference: no distance limit for k-nearest queries on Mongo
+    private static final double ANY_DISTANCE_METERS = 20_037_508;
+
     private final RecomendationRepository repository;
+    private final GeoGridIndex gridIndex;
+    private final int maxResults;
+    private final double kmPerDay;
 
-    public RecommendationService(RecomendationRepository repository) {
+    private volatile boolean indexReady;
+
+    public RecommendationService(RecomendationRepository repository,
+                                 GeoGridIndex gridIndex,
+                                 @Value("${recommendation.nearest.max-results:200}") int maxResults,
+                                 @Value("${recommendation.ranking.km-per-day:5}") double kmPerDay) {
         this.repository = repository;
+        this.gridIndex = gridIndex;
+        this.maxResults = maxResults;
+        this.kmPerDay = kmPerDay;
     }
 
-    public List<UUID> getNearestEventIds(Double radius, UUID eventId) {
-        
-        EventData currentEvent = repository.findById(eventId).orElseThrow(() ->  new ResponseStatusException(HttpStatus.NOT_FOUND, "event not found!"));
-        
-        var events = repository.findAll();
-
-        return events.stream()
-            .filter(event -> event.getLatitude() != null && event.getLongitude() != null && !event.getEventid().equals(currentEvent.getEventid()))
-            .filter(event ->
-                calculateDistanceInKilometers(
-                    currentEvent.getLatitude(), currentEvent.getLongitude(),
-                    event.getLatitude(), event.getLongitude()
-                ) <= radius
-            )
-            .map(EventData::getEventid)
-            .toList();
-    }   
+    /**
+     * Event ids within {@code radius} km of the given event, nearest first. Answered from the in-process index;
+     * Mongo's 2dsphere index is only queried while the index is not loaded or does not know the event yet.
+     */
+    public List<UUID> getNearestEventIds(Double radius, UUID eventId, int page, int size) {
+        int limit = Math.max(1, Math.min(size, maxResults));
+        int offsetPage = Math.max(page, 0);
+
+        Optional<double[]> indexed = indexReady ? gridIndex.find(eventId) : Optional.empty();
+        if (indexed.isPresent()) {
+            double[] point = indexed.get();
+            return gridIndex.findWithinRadius(point[0], point[1], radius, eventId, offsetPage * limit, limit);
+        }
+
+        EventData currentEvent = findEvent(eventId);
+        if (currentEvent.getLocation() == null) {
+            return List.of();
+        }
+
+        return repository.findNearest(
+                currentEvent.getLongitude(),
+                currentEvent.getLatitude(),
+                radius * 1000,
+                eventId,
+                PageRequest.of(offsetPage, limit)
+        ).stream().map(EventData::getEventid).toList();
+    }
 
+    /**
+     * The {@code k} events closest to the given event, nearest first, regardless of distance.
+     */
+    public List<UUID> getKNearestEventIds(UUID eventId, int k) {
+        int limit = Math.max(1, Math.min(k, maxResults));
+
+        Optional<double[]> indexed = indexReady ? gridIndex.find(eventId) : Optional.empty();
+        if (indexed.isPresent()) {
+            double[] point = indexed.get();
+            return gridIndex.findNearest(point[0], point[1], limit, eventId);
+        }
+
+        EventData currentEvent = findEvent(eventId);
+        if (currentEvent.getLocation() == null) {
+            return List.of();
+        }
+
+        return repository.findNearest(
+                currentEvent.getLongitude(),
+                currentEvent.getLatitude(),
+                ANY_DISTANCE_METERS,
+                eventId,
+                PageRequest.of(0, limit)
+        ).stream().map(EventData::getEventid).toList();
+    }
+
+    /**
+     * The {@code k} best upcoming events for the given event, ranked by distance plus
+     * {@code recommendation.ranking.km-per-day} for every day until they start.
+     * Until the index is loaded, the ranking is computed over the nearest {@code max-results} events from Mongo.
+     */
+    public List<UUID> getRankedEventIds(UUID eventId, int k) {
+        int limit = Math.max(1, Math.min(k, maxResults));
+        long now = LocalDateTime.now().toEpochSecond(ZoneOffset.UTC);
+
+        Optional<double[]> indexed = indexReady ? gridIndex.find(eventId) : Optional.empty();
+        if (indexed.isPresent()) {
+            double[] point = indexed.get();
+            return gridIndex.findRanked(point[0], point[1], limit, eventId, now, kmPerDay);
+        }
+
+        EventData currentEvent = findEvent(eventId);
+        if (currentEvent.getLocation() == null) {
+            return List.of();
+        }
+
+        return repository.findNearest(
+                        currentEvent.getLongitude(),
+                        currentEvent.getLatitude(),
+                        ANY_DISTANCE_METERS,
+                        eventId,
+                        PageRequest.of(0, maxResults)
+                ).stream()
+                .filter(event -> event.getEventDate() == null || event.getEventDate().toEpochSecond(ZoneOffset.UTC) >= now)
+                .sorted(Comparator.comparingDouble(event -> score(currentEvent, event, now)))
+                .limit(limit)
+                .map(EventData::getEventid)
+                .toList();
+    }
 
     public void saveEventData(EventRequestDto dto) {
-        var eventData = new EventData(dto.eventId(), dto.latitude(), dto.longitude());
+        var eventData = new EventData(dto.eventId(), dto.latitude(), dto.longitude(), dto.eventDate());
         repository.save(eventData);
+        index(eventData);
     }
 
+    /**
+     * Stores a batch of events with one bulk upsert. When an event appears more than once, the last one wins.
+     */
+    public void saveEventDataBatch(List<EventRequestDto> dtos) {
+        Map<UUID, EventData> latest = new LinkedHashMap<>();
+        for (EventRequestDto dto : dtos) {
+            latest.put(dto.eventId(), new EventData(dto.eventId(), dto.latitude(), dto.longitude(), dto.eventDate()));
+        }
+
+        repository.upsertAll(latest.values());
+        latest.values().forEach(this::index);
+    }
 
-    public double calculateDistanceInKilometers(double lat1, double lon1, double lat2, double lon2) {
-        final int R = 6371;
+    private void index(EventData eventData) {
+        if (eventData.getLatitude() != null && eventData.getLongitude() != null) {
+            long eventTime = eventData.getEventDate() == null ? GeoGridIndex.NO_DATE : eventData.getEventDate().toEpochSecond(ZoneOffset.UTC);
+            gridIndex.put(eventData.getEventid(), eventData.getLatitude(), eventData.getLongitude(), eventTime);
+        } else {
+            gridIndex.remove(eventData.getEventid());
+        }
+    }
+
+    /**
+     * Backfills the GeoJSON location of events stored before it existed, then loads the index.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            List<EventData> legacy = repository.findByLocationIsNullAndLatitudeIsNotNullAndLongitudeIsNotNull();
+            if (!legacy.isEmpty()) {
+                legacy.forEach(event -> event.setLocation(new GeoJsonPoint(event.getLongitude(), event.getLatitude())));
+                repository.saveAll(legacy);
+                log.info("Backfilled GeoJSON location for {} events", legacy.size());
+            }
+        } catch (DataAccessException e) {
+            log.warn("Could not backfill event locations: {}", e.getMessage());
+        }
+
+        refreshIndex();
+    }
 
-        double dLat = Math.toRadians(lat2 - lat1);
-        double dLon = Math.toRadians(lon2 - lon1);
+    /**
+     * Rebuilds the index from Mongo, picking up events consumed by other instances of this service.
+     */
+    @Scheduled(initialDelayString = "${recommendation.index.refresh-ms:300000}", fixedDelayString = "${recommendation.index.refresh-ms:300000}")
+    public void refreshIndex() {
+        try {
+            gridIndex.replaceAll(repository::streamAllBy);
+            indexReady = true;
+            log.info("Spatial index loaded with {} events", gridIndex.size());
+        } catch (DataAccessException e) {
+            log.warn("Could not load spatial index: {}", e.getMessage());
+        }
+    }
 
-        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
-                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
-                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+    private double score(EventData source, EventData candidate, long now) {
+        double distance = GeoDistance.kilometers(source.getLatitude(), source.getLongitude(), candidate.getLatitude(), candidate.getLongitude());
+        if (candidate.getEventDate() == null) {
+            return distance;
+        }
+        return distance + kmPerDay * (candidate.getEventDate().toEpochSecond(ZoneOffset.UTC) - now) / 86_400.0;
+    }
 
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    private EventData findEvent(UUID eventId) {
+        return repository.findById(eventId).orElseThrow(() ->  new ResponseStatusException(HttpStatus.NOT_FOUND, "event not found!"));
+    }
 
-        return R * c;
+    public double calculateDistanceInKilometers(double lat1, double lon1, double lat2, double lon2) {
+        return GeoDistance.kilometers(lat1, lon1, lat2, lon2);
     }
 
 }
@@ -0,0 +1,113 @@
+package com.br.recomendation.recomendation.consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import com.br.recomendation.recomendation.services.RecommendationService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rabbitmq.client.Channel;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class EventRequestConsumerTest {
+
+    @Mock
+    private RecommendationService service;
+    @Mock
+    private Channel channel;
+
+    private SimpleMeterRegistry meterRegistry;
+    private EventRequestConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        consumer = new EventRequestConsumer(service, new ObjectMapper().findAndRegisterModules(), meterRegistry);
+    }
+
+    @Test
+    void receiveMessages_ShouldAckWholeBatchOnce_WhenAllEventsAreStored() throws Exception {
+        List<Message> messages = List.of(message(1, UUID.randomUUID()), message(2, UUID.randomUUID()), message(3, UUID.randomUUID()));
+
+        consumer.receiveMessages(messages, channel);
+
+        verify(service, times(1)).saveEventDataBatch(argThat(batch -> batch.size() == 3));
+        verify(channel).basicAck(3, true);
+        assertThat(meterRegistry.counter("recommendation.ingest.messages", "outcome", "stored").count()).isEqualTo(3);
+    }
+
+    @Test
+    void receiveMessages_ShouldDeadLetterOnlyFailingEvent_WhenBatchUpsertFails() throws Exception {
+        UUID poison = UUID.randomUUID();
+        doAnswer(invocation -> {
+            List<EventRequestDto> batch = invocation.getArgument(0);
+            if (batch.stream().anyMatch(dto -> dto.eventId().equals(poison))) {
+                throw new DataIntegrityViolationException("rejected");
+            }
+            return null;
+        }).when(service).saveEventDataBatch(anyList());
+
+        consumer.receiveMessages(List.of(message(1, UUID.randomUUID()), message(2, poison),
+                message(3, UUID.randomUUID()), message(4, UUID.randomUUID())), channel);
+
+        verify(channel).basicNack(2, false, false);
+        verify(channel).basicAck(1, false);
+        verify(channel).basicAck(3, false);
+        verify(channel).basicAck(4, false);
+        assertThat(meterRegistry.counter("recommendation.ingest.messages", "outcome", "dead_lettered").count()).isEqualTo(1);
+    }
+
+    @Test
+    void receiveMessages_ShouldDeadLetterUnreadableMessage_AndStoreTheRest() throws Exception {
+        Message unreadable = new Message("not json".getBytes(), properties(2));
+
+        consumer.receiveMessages(List.of(message(1, UUID.randomUUID()), unreadable), channel);
+
+        verify(service).saveEventDataBatch(argThat(batch -> batch.size() == 1));
+        verify(channel).basicNack(2, false, false);
+        verify(channel).basicAck(1, false);
+    }
+
+    @Test
+    void receiveMessages_ShouldRequeueBatch_WhenMongoIsUnavailable() throws Exception {
+        doThrow(new DataAccessResourceFailureException("down")).when(service).saveEventDataBatch(anyList());
+
+        consumer.receiveMessages(List.of(message(1, UUID.randomUUID()), message(2, UUID.randomUUID())), channel);
+
+        verify(channel).basicNack(2, true, true);
+        verify(channel, never()).basicAck(anyLong(), anyBoolean());
+    }
+
+    private static Message message(long deliveryTag, UUID eventId) {
+        String body = "{\"eventId\":\"" + eventId + "\",\"latitude\":-21.4256,\"longitude\":-45.947,\"eventDate\":\"2025-06-01T20:00:00\"}";
+        return new Message(body.getBytes(), properties(deliveryTag));
+    }
+
+    private static MessageProperties properties(long deliveryTag) {
+        MessageProperties properties = new MessageProperties();
+        properties.setDeliveryTag(deliveryTag);
+        return properties;
+    }
+}
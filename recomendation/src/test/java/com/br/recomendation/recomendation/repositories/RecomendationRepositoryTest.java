@@ -0,0 +1,91 @@
+package com.br.recomendation.recomendation.repositories;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.br.recomendation.recomendation.model.EventData;
+
+@DataMongoTest
+@Testcontainers
+@TestPropertySource(properties = {
+        "MONGODB_URI=mongodb://localhost/recommendation",
+        "MONGO_DATABASE=recommendation",
+        "spring.data.mongodb.auto-index-creation=true"
+})
+class RecomendationRepositoryTest {
+
+    @Container
+    @ServiceConnection
+    static MongoDBContainer mongo = new MongoDBContainer("mongo:7");
+
+    @Autowired
+    private RecomendationRepository repository;
+
+    private final UUID alfenas = UUID.randomUUID();
+    private final UUID varginha = UUID.randomUUID();
+    private final UUID saoPaulo = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll();
+        repository.saveAll(List.of(
+                new EventData(alfenas, -21.4256, -45.9470),
+                new EventData(varginha, -21.5514, -45.4303),
+                new EventData(saoPaulo, -23.5505, -46.6333),
+                new EventData(UUID.randomUUID(), null, null)
+        ));
+    }
+
+    @Test
+    void findNearest_ShouldReturnEventsWithinRadiusNearestFirst() {
+        List<UUID> result = repository.findNearest(-45.9470, -21.4256, 300_000, alfenas, PageRequest.of(0, 10))
+                .stream().map(EventData::getEventid).toList();
+
+        assertThat(result).containsExactly(varginha, saoPaulo);
+    }
+
+    @Test
+    void findNearest_ShouldPage() {
+        List<UUID> result = repository.findNearest(-45.9470, -21.4256, 300_000, alfenas, PageRequest.of(1, 1))
+                .stream().map(EventData::getEventid).toList();
+
+        assertThat(result).containsExactly(saoPaulo);
+    }
+
+    @Test
+    void findNearest_ShouldExcludeEventsOutsideRadius() {
+        List<UUID> result = repository.findNearest(-45.9470, -21.4256, 100_000, alfenas, PageRequest.of(0, 10))
+                .stream().map(EventData::getEventid).toList();
+
+        assertThat(result).containsExactly(varginha);
+    }
+
+    @Test
+    void upsertAll_ShouldInsertNewEventsAndReplaceExistingOnes() {
+        UUID pocosDeCaldas = UUID.randomUUID();
+        LocalDateTime eventDate = LocalDateTime.of(2025, 6, 1, 20, 0);
+
+        repository.upsertAll(List.of(
+                new EventData(varginha, -21.5514, -45.4303, eventDate),
+                new EventData(pocosDeCaldas, -21.7878, -46.5614)
+        ));
+
+        assertThat(repository.count()).isEqualTo(5);
+        assertThat(repository.findById(varginha)).hasValueSatisfying(event -> assertThat(event.getEventDate()).isEqualTo(eventDate));
+        assertThat(repository.findById(pocosDeCaldas)).hasValueSatisfying(event -> assertThat(event.getLocation()).isNotNull());
+    }
+}
@@ -0,0 +1,187 @@
+package com.br.recomendation.recomendation.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.br.recomendation.recomendation.model.EventData;
+
+class GeoGridIndexTest {
+
+    private static final UUID ALFENAS = UUID.randomUUID();
+    private static final UUID VARGINHA = UUID.randomUUID();
+    private static final UUID SAO_PAULO = UUID.randomUUID();
+
+    private GeoGridIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new GeoGridIndex(0.1);
+        index.put(ALFENAS, -21.4256, -45.9470);
+        index.put(VARGINHA, -21.5514, -45.4303);
+        index.put(SAO_PAULO, -23.5505, -46.6333);
+    }
+
+    @Test
+    void findWithinRadius_ShouldReturnNearestFirst_WhenEventsAreInRange() {
+        List<UUID> result = index.findWithinRadius(-21.4256, -45.9470, 300, ALFENAS, 0, 10);
+
+        assertThat(result).containsExactly(VARGINHA, SAO_PAULO);
+    }
+
+    @Test
+    void findWithinRadius_ShouldSkipEventsOutsideRadius() {
+        List<UUID> result = index.findWithinRadius(-21.4256, -45.9470, 100, ALFENAS, 0, 10);
+
+        assertThat(result).containsExactly(VARGINHA);
+    }
+
+    @Test
+    void findWithinRadius_ShouldApplyOffsetAndLimit() {
+        assertThat(index.findWithinRadius(-21.4256, -45.9470, 300, ALFENAS, 1, 1)).containsExactly(SAO_PAULO);
+        assertThat(index.findWithinRadius(-21.4256, -45.9470, 300, ALFENAS, 2, 1)).isEmpty();
+    }
+
+    @Test
+    void put_ShouldMoveEvent_WhenCoordinatesChange() {
+        index.put(VARGINHA, 40.7128, -74.0060);
+
+        assertThat(index.findWithinRadius(-21.4256, -45.9470, 100, ALFENAS, 0, 10)).isEmpty();
+        assertThat(index.find(VARGINHA)).hasValueSatisfying(point -> assertThat(point).containsExactly(40.7128, -74.0060));
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    void findWithinRadius_ShouldMatchAcrossTheAntimeridian() {
+        UUID fiji = UUID.randomUUID();
+        UUID samoa = UUID.randomUUID();
+        index.put(fiji, -17.7134, 179.9);
+        index.put(samoa, -17.7, -179.9);
+
+        assertThat(index.findWithinRadius(-17.7134, 179.9, 50, fiji, 0, 10)).containsExactly(samoa);
+    }
+
+    @Test
+    void findNearest_ShouldReturnClosestEvents_RegardlessOfDistance() {
+        assertThat(index.findNearest(-21.4256, -45.9470, 1, ALFENAS)).containsExactly(VARGINHA);
+        assertThat(index.findNearest(-21.4256, -45.9470, 5, ALFENAS)).containsExactly(VARGINHA, SAO_PAULO);
+    }
+
+    @Test
+    void findNearest_ShouldMatchBruteForce_WhenPointsAreRandom() {
+        Random random = new Random(42);
+        List<EventData> events = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            events.add(new EventData(UUID.randomUUID(), -34 + random.nextDouble() * 30, -74 + random.nextDouble() * 40));
+        }
+        index.replaceAll(events::stream);
+
+        for (int query = 0; query < 20; query++) {
+            EventData source = events.get(random.nextInt(events.size()));
+            List<UUID> expected = events.stream()
+                    .filter(event -> !event.getEventid().equals(source.getEventid()))
+                    .sorted(Comparator.comparingDouble((EventData event) -> GeoDistance.kilometers(
+                            source.getLatitude(), source.getLongitude(), event.getLatitude(), event.getLongitude())))
+                    .limit(15)
+                    .map(EventData::getEventid)
+                    .toList();
+
+            assertThat(index.findNearest(source.getLatitude(), source.getLongitude(), 15, source.getEventid()))
+                    .containsExactlyElementsOf(expected);
+        }
+    }
+
+    @Test
+    void remove_ShouldDropEventAndReuseItsSlot() {
+        index.remove(VARGINHA);
+        UUID pocosDeCaldas = UUID.randomUUID();
+        index.put(pocosDeCaldas, -21.7878, -46.5614);
+
+        assertThat(index.find(VARGINHA)).isEmpty();
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(index.findNearest(-21.4256, -45.9470, 3, ALFENAS)).containsExactly(pocosDeCaldas, SAO_PAULO);
+    }
+
+    @Test
+    void replaceAll_ShouldSkipEventsWithoutCoordinates() {
+        index.replaceAll(() -> Stream.of(new EventData(ALFENAS, -21.4256, -45.9470), new EventData(VARGINHA, null, null)));
+
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.find(SAO_PAULO)).isEmpty();
+    }
+
+    @Test
+    void replaceAll_ShouldKeepChanges_WhenTheyHappenWhileTheSnapshotIsStreamed() {
+        UUID pocosDeCaldas = UUID.randomUUID();
+
+        index.replaceAll(() -> Stream.of(new EventData(ALFENAS, -21.4256, -45.9470), new EventData(VARGINHA, -21.5514, -45.4303))
+                .peek(event -> {
+                    if (event.getEventid().equals(VARGINHA)) {
+                        // consumed after the snapshot was taken
+                        index.put(pocosDeCaldas, -21.7878, -46.5614);
+                        index.remove(ALFENAS);
+                    }
+                }));
+
+        assertThat(index.find(pocosDeCaldas)).isPresent();
+        assertThat(index.find(ALFENAS)).isEmpty();
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    void findRanked_ShouldPreferSoonerEvent_WhenDistancesAreClose() {
+        long now = LocalDateTime.of(2025, 6, 1, 12, 0).toEpochSecond(ZoneOffset.UTC);
+        index.put(VARGINHA, -21.5514, -45.4303, now + 90 * 86_400);
+        index.put(SAO_PAULO, -23.5505, -46.6333, now + 86_400);
+
+        assertThat(index.findRanked(-21.4256, -45.9470, 2, ALFENAS, now, 0)).containsExactly(VARGINHA, SAO_PAULO);
+        assertThat(index.findRanked(-21.4256, -45.9470, 2, ALFENAS, now, 5)).containsExactly(SAO_PAULO, VARGINHA);
+    }
+
+    @Test
+    void findRanked_ShouldSkipPastEvents_AndRankUndatedByDistance() {
+        long now = LocalDateTime.of(2025, 6, 1, 12, 0).toEpochSecond(ZoneOffset.UTC);
+        index.put(VARGINHA, -21.5514, -45.4303, now - 86_400);
+
+        assertThat(index.findRanked(-21.4256, -45.9470, 5, ALFENAS, now, 5)).containsExactly(SAO_PAULO);
+    }
+
+    @Test
+    void findRanked_ShouldMatchBruteForce_WhenPointsAndDatesAreRandom() {
+        Random random = new Random(7);
+        LocalDateTime start = LocalDateTime.of(2025, 6, 1, 12, 0);
+        long now = start.toEpochSecond(ZoneOffset.UTC);
+        List<EventData> events = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            events.add(new EventData(UUID.randomUUID(), -34 + random.nextDouble() * 30, -74 + random.nextDouble() * 40,
+                    start.plusHours(random.nextInt(24 * 200) - 24 * 20)));
+        }
+        index.replaceAll(events::stream);
+
+        for (int query = 0; query < 20; query++) {
+            EventData source = events.get(random.nextInt(events.size()));
+            List<UUID> expected = events.stream()
+                    .filter(event -> !event.getEventid().equals(source.getEventid()))
+                    .filter(event -> !event.getEventDate().isBefore(start))
+                    .sorted(Comparator.comparingDouble((EventData event) -> GeoDistance.kilometers(
+                            source.getLatitude(), source.getLongitude(), event.getLatitude(), event.getLongitude())
+                            + 5 * (event.getEventDate().toEpochSecond(ZoneOffset.UTC) - now) / 86_400.0))
+                    .limit(10)
+                    .map(EventData::getEventid)
+                    .toList();
+
+            assertThat(index.findRanked(source.getLatitude(), source.getLongitude(), 10, source.getEventid(), now, 5))
+                    .containsExactlyElementsOf(expected);
+        }
+    }
+}